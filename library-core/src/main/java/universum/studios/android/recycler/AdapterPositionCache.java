@@ -0,0 +1,297 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler;
+
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+
+import java.util.Arrays;
+
+/**
+ * Cache which stores a fixed count of integer values for each adapter position. The cache observes
+ * the attached adapter and keeps its entries in sync with data set changes of the adapter, that is
+ * entries of inserted, removed and moved items are shifted accordingly and entries of changed items
+ * are invalidated, so only items that are actually affected by a change need to be resolved again.
+ * <p>
+ * The cache is shared by decorations and helpers of the Recycler library which need to store
+ * values resolved for particular adapter positions.
+ *
+ * @author Martin Albedinsky
+ * @since 1.1
+ */
+public class AdapterPositionCache extends RecyclerView.AdapterDataObserver {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "AdapterPositionCache";
+
+	/**
+	 * Initial count of positions for which is the cache allocated.
+	 */
+	private static final int INITIAL_CAPACITY = 32;
+
+	/**
+	 * Value of the validity slot of an entry which has its values stored.
+	 */
+	private static final int ENTRY_VALID = 1;
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Count of int slots used by a single entry. The first slot is used to mark validity of the entry.
+	 */
+	private final int stride;
+
+	/**
+	 * Array with entries of this cache.
+	 */
+	private int[] entries;
+
+	/**
+	 * Adapter observed by this cache.
+	 */
+	private RecyclerView.Adapter adapter;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of AdapterPositionCache which stores the specified count of values
+	 * for each position.
+	 *
+	 * @param valuesCount Count of values stored for a single position.
+	 */
+	public AdapterPositionCache(final int valuesCount) {
+		this(valuesCount, INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Creates a new instance of AdapterPositionCache which stores the specified count of values
+	 * for each position and has initially allocated entries for the specified count of positions.
+	 *
+	 * @param valuesCount     Count of values stored for a single position.
+	 * @param initialCapacity Count of positions for which to allocate entries initially. May be
+	 *                        {@code 0} to allocate entries lazily on the first {@link #put(int, int, int)}.
+	 */
+	public AdapterPositionCache(final int valuesCount, final int initialCapacity) {
+		this.stride = valuesCount + 1;
+		this.entries = new int[initialCapacity * stride];
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Attaches this cache to the given <var>adapter</var> so it will observe its data set changes.
+	 * If the adapter differs from the current one, this cache is also cleared.
+	 *
+	 * @param adapter The adapter to be observed. May be {@code null} to stop observing of the current
+	 *                adapter.
+	 */
+	public void attachAdapter(@Nullable final RecyclerView.Adapter adapter) {
+		if (this.adapter != adapter) {
+			if (this.adapter != null) {
+				this.adapter.unregisterAdapterDataObserver(this);
+			}
+			this.adapter = adapter;
+			if (adapter != null) {
+				adapter.registerAdapterDataObserver(this);
+			}
+			clear();
+		}
+	}
+
+	/**
+	 * Returns the adapter to which is this cache currently attached.
+	 *
+	 * @return Attached adapter or {@code null} if there is no adapter attached.
+	 */
+	@Nullable public RecyclerView.Adapter getAdapter() {
+		return adapter;
+	}
+
+	/**
+	 * Checks whether this cache contains values for the specified <var>position</var>.
+	 *
+	 * @param position The desired adapter position.
+	 * @return {@code True} if there are values stored for the position, {@code false} otherwise.
+	 */
+	public boolean contains(final int position) {
+		final int index = position * stride;
+		return position >= 0 && index < entries.length && entries[index] == ENTRY_VALID;
+	}
+
+	/**
+	 * Returns a value stored for the specified <var>position</var>.
+	 *
+	 * @param position   The desired adapter position. Should be checked via {@link #contains(int)}.
+	 * @param valueIndex Index of the desired value of the entry.
+	 * @return The stored value.
+	 */
+	public int get(final int position, final int valueIndex) {
+		return entries[position * stride + 1 + valueIndex];
+	}
+
+	/**
+	 * Stores the given <var>value</var> for the specified <var>position</var>. The entry for the
+	 * position becomes valid.
+	 *
+	 * @param position   The desired adapter position.
+	 * @param valueIndex Index of the value within the entry.
+	 * @param value      The value to be stored.
+	 */
+	public void put(final int position, final int valueIndex, final int value) {
+		ensureCapacity(position + 1);
+		final int index = position * stride;
+		entries[index] = ENTRY_VALID;
+		entries[index + 1 + valueIndex] = value;
+	}
+
+	/**
+	 * Ensures that this cache has allocated entries for the specified count of positions.
+	 */
+	private void ensureCapacity(final int positionsCount) {
+		if (entries.length < positionsCount * stride) {
+			this.entries = Arrays.copyOf(entries, Math.max(positionsCount, entries.length / stride * 2) * stride);
+		}
+	}
+
+	/**
+	 * Invalidates all entries of this cache.
+	 */
+	public void clear() {
+		Arrays.fill(entries, 0);
+	}
+
+	/**
+	 * Invalidates entries within the specified range.
+	 *
+	 * @param positionStart The position of the first entry to be invalidated.
+	 * @param itemCount     Count of entries to be invalidated.
+	 */
+	public void invalidate(final int positionStart, final int itemCount) {
+		final int fromIndex = Math.min(positionStart * stride, entries.length);
+		final int toIndex = Math.min((positionStart + itemCount) * stride, entries.length);
+		Arrays.fill(entries, fromIndex, toIndex, 0);
+	}
+
+	/**
+	 */
+	@Override public void onChanged() {
+		clear();
+	}
+
+	/**
+	 */
+	@Override public void onItemRangeChanged(final int positionStart, final int itemCount) {
+		invalidate(positionStart, itemCount);
+	}
+
+	/**
+	 */
+	@Override public void onItemRangeChanged(final int positionStart, final int itemCount, @Nullable final Object payload) {
+		invalidate(positionStart, itemCount);
+	}
+
+	/**
+	 */
+	@Override public void onItemRangeInserted(final int positionStart, final int itemCount) {
+		final int fromIndex = positionStart * stride;
+		if (fromIndex >= entries.length) {
+			return;
+		}
+		final int shift = itemCount * stride;
+		// Entries shifted beyond the current capacity are simply dropped.
+		if (fromIndex + shift < entries.length) {
+			System.arraycopy(entries, fromIndex, entries, fromIndex + shift, entries.length - fromIndex - shift);
+		}
+		Arrays.fill(entries, fromIndex, Math.min(fromIndex + shift, entries.length), 0);
+	}
+
+	/**
+	 */
+	@Override public void onItemRangeRemoved(final int positionStart, final int itemCount) {
+		final int fromIndex = positionStart * stride;
+		if (fromIndex >= entries.length) {
+			return;
+		}
+		final int toIndex = Math.min((positionStart + itemCount) * stride, entries.length);
+		System.arraycopy(entries, toIndex, entries, fromIndex, entries.length - toIndex);
+		Arrays.fill(entries, entries.length - (toIndex - fromIndex), entries.length, 0);
+	}
+
+	/**
+	 */
+	@Override public void onItemRangeMoved(final int fromPosition, final int toPosition, final int itemCount) {
+		// Entries of all affected positions are beyond the current capacity, that is invalid, and
+		// remain invalid after the move.
+		if (fromPosition == toPosition || itemCount <= 0 || Math.min(fromPosition, toPosition) * stride >= entries.length) {
+			return;
+		}
+		ensureCapacity(Math.max(fromPosition, toPosition) + itemCount);
+		// Move of a range is a rotation of the entries between the range and its target position,
+		// which is performed in place so no temporary buffer needs to be allocated.
+		if (fromPosition < toPosition) {
+			rotate(fromPosition * stride, (toPosition + itemCount) * stride, itemCount * stride);
+		} else {
+			rotate(toPosition * stride, (fromPosition + itemCount) * stride, (fromPosition - toPosition) * stride);
+		}
+	}
+
+	/**
+	 * Rotates entries within the specified range to the left by the specified <var>distance</var>.
+	 */
+	private void rotate(final int fromIndex, final int toIndex, final int distance) {
+		reverse(fromIndex, fromIndex + distance);
+		reverse(fromIndex + distance, toIndex);
+		reverse(fromIndex, toIndex);
+	}
+
+	/**
+	 * Reverses order of entries within the specified range.
+	 */
+	private void reverse(final int fromIndex, final int toIndex) {
+		for (int i = fromIndex, j = toIndex - 1; i < j; i++, j--) {
+			final int entry = entries[i];
+			entries[i] = entries[j];
+			entries[j] = entry;
+		}
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+}
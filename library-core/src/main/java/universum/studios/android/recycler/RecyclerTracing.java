@@ -0,0 +1,106 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler;
+
+/**
+ * Static switch for tracing of hot paths of the {@code RecyclerView} helpers and decorations from
+ * the Recycler library. When enabled, the hot callbacks, like drawing of decorations or handling
+ * of drag and swipe gestures, are wrapped into {@code TraceCompat} sections, so they may be seen in
+ * systrace or perfetto captures of the application.
+ * <p>
+ * Tracing is disabled by default. While disabled, each traced callback performs only a single
+ * check via {@link #isEnabled()}.
+ *
+ * @author Martin Albedinsky
+ * @since 1.1
+ */
+public final class RecyclerTracing {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "RecyclerTracing";
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/**
+	 * Boolean flag indicating whether tracing is enabled or not.
+	 */
+	private static boolean enabled;
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 */
+	private RecyclerTracing() {
+		// Not allowed to be instantiated publicly.
+		throw new UnsupportedOperationException();
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Sets a boolean flag indicating whether the hot paths of helpers and decorations should be
+	 * traced or not.
+	 * <p>
+	 * This should be called on the main thread, preferably before any helper or decoration is used.
+	 * <p>
+	 * Default value: {@code false}
+	 *
+	 * @param enabled {@code True} to enable tracing, {@code false} to disable it.
+	 *
+	 * @see #isEnabled()
+	 */
+	public static void setEnabled(final boolean enabled) {
+		RecyclerTracing.enabled = enabled;
+	}
+
+	/**
+	 * Returns a boolean flag indicating whether the hot paths of helpers and decorations are traced.
+	 *
+	 * @return {@code True} if tracing is enabled, {@code false} otherwise.
+	 *
+	 * @see #setEnabled(boolean)
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+}
@@ -0,0 +1,167 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler;
+
+import android.support.v7.widget.RecyclerView;
+
+import org.junit.Test;
+
+import universum.studios.android.test.local.RobolectricTestCase;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author Martin Albedinsky
+ */
+public final class AdapterPositionCacheTest extends RobolectricTestCase {
+
+	@Test public void testPutGet() {
+		// Arrange:
+		final AdapterPositionCache cache = new AdapterPositionCache(2);
+		// Act:
+		cache.put(0, 0, 10);
+		cache.put(0, 1, 20);
+		cache.put(100, 1, 30);
+		// Assert:
+		assertThat(cache.contains(0), is(true));
+		assertThat(cache.get(0, 0), is(10));
+		assertThat(cache.get(0, 1), is(20));
+		assertThat(cache.contains(100), is(true));
+		assertThat(cache.get(100, 1), is(30));
+		assertThat(cache.contains(1), is(false));
+		assertThat(cache.contains(-1), is(false));
+		assertThat(cache.contains(1000), is(false));
+	}
+
+	@Test public void testClear() {
+		// Arrange:
+		final AdapterPositionCache cache = createFilledCache(4);
+		// Act:
+		cache.clear();
+		// Assert:
+		for (int i = 0; i < 4; i++) {
+			assertThat(cache.contains(i), is(false));
+		}
+	}
+
+	@Test public void testOnItemRangeChanged() {
+		// Arrange:
+		final AdapterPositionCache cache = createFilledCache(4);
+		// Act:
+		cache.onItemRangeChanged(1, 2);
+		// Assert:
+		assertPositions(cache, 0, -1, -1, 3);
+	}
+
+	@Test public void testOnItemRangeInserted() {
+		// Arrange:
+		final AdapterPositionCache cache = createFilledCache(4);
+		// Act:
+		cache.onItemRangeInserted(1, 2);
+		// Assert:
+		assertPositions(cache, 0, -1, -1, 1, 2, 3);
+	}
+
+	@Test public void testOnItemRangeRemoved() {
+		// Arrange:
+		final AdapterPositionCache cache = createFilledCache(4);
+		// Act:
+		cache.onItemRangeRemoved(1, 2);
+		// Assert:
+		assertPositions(cache, 0, 3, -1, -1);
+	}
+
+	@Test public void testOnItemRangeMoved() {
+		// Arrange:
+		final AdapterPositionCache cache = createFilledCache(4);
+		// Act + Assert:
+		cache.onItemRangeMoved(0, 2, 1);
+		assertPositions(cache, 1, 2, 0, 3);
+		cache.onItemRangeMoved(2, 0, 1);
+		assertPositions(cache, 0, 1, 2, 3);
+	}
+
+	@Test public void testOnItemRangeMovedMultipleItems() {
+		// Arrange:
+		final AdapterPositionCache cache = createFilledCache(6);
+		// Act + Assert:
+		cache.onItemRangeMoved(0, 3, 2);
+		assertPositions(cache, 2, 3, 4, 0, 1, 5);
+		cache.onItemRangeMoved(3, 0, 2);
+		assertPositions(cache, 0, 1, 2, 3, 4, 5);
+	}
+
+	@Test public void testOnItemRangeMovedBeyondCapacity() {
+		// Arrange:
+		final AdapterPositionCache cache = new AdapterPositionCache(1, 0);
+		// Act:
+		cache.onItemRangeMoved(0, 1, 1);
+		cache.onItemRangeMoved(10, 2, 1);
+		// Assert:
+		assertPositions(cache, -1, -1, -1);
+	}
+
+	@Test public void testOnChanged() {
+		// Arrange:
+		final AdapterPositionCache cache = createFilledCache(4);
+		// Act:
+		cache.onChanged();
+		// Assert:
+		assertPositions(cache, -1, -1, -1, -1);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test public void testAttachAdapter() {
+		// Arrange:
+		final RecyclerView.Adapter mockAdapter = mock(RecyclerView.Adapter.class);
+		final AdapterPositionCache cache = createFilledCache(4);
+		// Act:
+		cache.attachAdapter(mockAdapter);
+		// Assert:
+		assertThat(cache.getAdapter(), is(mockAdapter));
+		verify(mockAdapter).registerAdapterDataObserver(cache);
+		assertPositions(cache, -1, -1, -1, -1);
+		cache.attachAdapter(null);
+		verify(mockAdapter).unregisterAdapterDataObserver(cache);
+		assertThat(cache.getAdapter(), is(nullValue()));
+	}
+
+	private static AdapterPositionCache createFilledCache(final int count) {
+		final AdapterPositionCache cache = new AdapterPositionCache(1);
+		for (int i = 0; i < count; i++) {
+			cache.put(i, 0, i);
+		}
+		return cache;
+	}
+
+	private static void assertPositions(final AdapterPositionCache cache, final int... values) {
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] == -1) {
+				assertThat(cache.contains(i), is(false));
+			} else {
+				assertThat(cache.contains(i), is(true));
+				assertThat(cache.get(i, 0), is(values[i]));
+			}
+		}
+	}
+}
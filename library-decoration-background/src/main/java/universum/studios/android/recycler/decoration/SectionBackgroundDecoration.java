@@ -0,0 +1,457 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.decoration;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.support.annotation.ColorInt;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+/**
+ * A {@link RecyclerViewItemDecoration} implementation that may be used to draw a single <b>background</b>
+ * shape behind each contiguous run of items of the same section displayed in a vertically scrolling
+ * {@link RecyclerView}, so the item views do not need to draw their own backgrounds.
+ * <p>
+ * Visible item views are iterated only once per draw pass and bounds of items within the same run
+ * are merged into one rectangle which is drawn either as plain or rounded rectangle or as a path
+ * with only top or bottom corners rounded, so each run is painted exactly once. Sections are
+ * specified via {@link SectionIndex}. If there is no section index specified, all items are
+ * considered to be within a single section. Items that are skipped due to the <b>skip first</b>
+ * or <b>skip last</b> flag or items for which the {@link Precondition} is not satisfied are not
+ * drawn with background and they split the run in which they are contained.
+ * <p>
+ * Corners of a run are rounded only at edges where its section starts or ends, so a section that
+ * continues beyond the visible area keeps its corners at the edge of that area square.
+ *
+ * @author Martin Albedinsky
+ * @since 1.1
+ *
+ * @see RecyclerView#addItemDecoration(RecyclerView.ItemDecoration)
+ */
+public class SectionBackgroundDecoration extends RecyclerViewItemDecoration {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "SectionBackgroundDecoration";
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Paint used to draw backgrounds of the runs.
+	 */
+	private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+	/**
+	 * Radius of the rounded corners of a background.
+	 */
+	private float cornerRadius;
+
+	/**
+	 * Index of sections of which items to draw with a single background.
+	 *
+	 * @see #setSectionIndex(SectionIndex)
+	 */
+	private SectionIndex sectionIndex;
+
+	/**
+	 * Bounds of the current run of items of which background to draw. Reused across draw passes.
+	 */
+	private final RectF runBounds = new RectF();
+
+	/**
+	 * Path used to draw a background of a run with only some corners rounded. Reused across draw
+	 * passes.
+	 */
+	private final Path runPath = new Path();
+
+	/**
+	 * Radii of corners of the {@link #runPath}.
+	 */
+	private final float[] runRadii = new float[8];
+
+	/**
+	 * Whether there is a run of items of a single section collected in the current draw pass which
+	 * has not been drawn yet.
+	 */
+	private boolean running;
+
+	/**
+	 * Whether the top corners of the current run should be rounded.
+	 */
+	private boolean runRoundedTop;
+
+	/**
+	 * Section of the items in the current run.
+	 */
+	private int runSection;
+
+	/**
+	 * Adapter position of the last item in the current run.
+	 */
+	private int runLastPosition;
+
+	/**
+	 * Index of the last item view collected in the current draw pass.
+	 */
+	private int runChildIndex;
+
+	/**
+	 * Count of items in the adapter of the parent RecyclerView in the current draw pass.
+	 */
+	private int runItemCount;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Same as {@link #SectionBackgroundDecoration(int, float)} with {@link Color#TRANSPARENT} color
+	 * and {@code 0} corner radius.
+	 */
+	public SectionBackgroundDecoration() {
+		this(Color.TRANSPARENT, 0);
+	}
+
+	/**
+	 * Creates a new instance of SectionBackgroundDecoration with the specified background <var>color</var>
+	 * and <var>cornerRadius</var>.
+	 *
+	 * @param color        The color of backgrounds.
+	 * @param cornerRadius The radius of rounded corners of backgrounds.
+	 */
+	public SectionBackgroundDecoration(@ColorInt final int color, final float cornerRadius) {
+		super();
+		this.paint.setStyle(Paint.Style.FILL);
+		this.paint.setColor(color);
+		this.cornerRadius = cornerRadius;
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Sets a color of backgrounds drawn by this decoration.
+	 *
+	 * @param color The desired color.
+	 *
+	 * @see #getBackgroundColor()
+	 */
+	public void setBackgroundColor(@ColorInt final int color) {
+		if (paint.getColor() != color) {
+			this.paint.setColor(color);
+			this.scheduleInvalidation(false);
+		}
+	}
+
+	/**
+	 * Returns the color of backgrounds drawn by this decoration.
+	 *
+	 * @return Background color.
+	 *
+	 * @see #setBackgroundColor(int)
+	 */
+	@ColorInt public int getBackgroundColor() {
+		return paint.getColor();
+	}
+
+	/**
+	 * Sets a radius of rounded corners of backgrounds drawn by this decoration.
+	 * <p>
+	 * Default value: {@code 0}
+	 *
+	 * @param radius The desired radius in pixels.
+	 *
+	 * @see #getCornerRadius()
+	 */
+	public void setCornerRadius(final float radius) {
+		if (cornerRadius != radius) {
+			this.cornerRadius = radius;
+			this.scheduleInvalidation(false);
+		}
+	}
+
+	/**
+	 * Returns the radius of rounded corners of backgrounds drawn by this decoration.
+	 *
+	 * @return Corner radius in pixels.
+	 *
+	 * @see #setCornerRadius(float)
+	 */
+	public float getCornerRadius() {
+		return cornerRadius;
+	}
+
+	/**
+	 * Sets an index of sections of which items should be drawn with a single background.
+	 * <p>
+	 * The index is attached to the adapter of the parent RecyclerView, so its sections are kept in
+	 * sync with data set changes of the adapter.
+	 * <p>
+	 * Default value: {@code null}
+	 *
+	 * @param index The desired section index. May be {@code null} to consider all items as items of
+	 *              a single section.
+	 *
+	 * @see #getSectionIndex()
+	 */
+	public void setSectionIndex(@Nullable final SectionIndex index) {
+		if (sectionIndex != index) {
+			if (getAttachedParent() != null) {
+				if (sectionIndex != null) {
+					sectionIndex.release();
+				}
+				if (index != null) {
+					index.acquire();
+				}
+			}
+			this.sectionIndex = index;
+			this.scheduleInvalidation(false);
+		}
+	}
+
+	/**
+	 * Releases also the section index used by this decoration (if any) when this decoration is
+	 * unbound from its current parent.
+	 */
+	@Override void bindParent(@Nullable final RecyclerView parent) {
+		final RecyclerView currentParent = getAttachedParent();
+		if (sectionIndex != null && currentParent != parent) {
+			if (currentParent != null) {
+				sectionIndex.release();
+			}
+			if (parent != null) {
+				sectionIndex.acquire();
+			}
+		}
+		super.bindParent(parent);
+	}
+
+	/**
+	 * Returns the index of sections of which items are drawn with a single background.
+	 *
+	 * @return This decoration's section index or {@code null} if there is no index specified.
+	 *
+	 * @see #setSectionIndex(SectionIndex)
+	 */
+	@Nullable public SectionIndex getSectionIndex() {
+		return sectionIndex;
+	}
+
+	/**
+	 */
+	@Override protected boolean shouldDecorate(@NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
+		return super.shouldDecorate(parent, state) && Color.alpha(paint.getColor()) != 0;
+	}
+
+	/**
+	 */
+	@Override public void onDraw(@NonNull final Canvas canvas, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
+		if (!shouldDecorate(parent, state)) {
+			return;
+		}
+		final DecorationLayoutContext context = obtainLayoutContext(parent, state);
+		canvas.save();
+		if (context.getClipToPadding()) {
+			final Rect clipBounds = context.getClipBounds();
+			canvas.clipRect(clipBounds.left, clipBounds.top, clipBounds.right, clipBounds.bottom);
+		}
+		this.prepareRuns(parent, context);
+		final int childCount = parent.getChildCount();
+		for (int childIndex = 0; childIndex < childCount; childIndex++) {
+			this.drawItemRun(canvas, parent.getChildAt(childIndex), childIndex, parent, state);
+		}
+		this.finishRuns(canvas);
+		canvas.restore();
+	}
+
+	/**
+	 */
+	@Override protected boolean onPrepareItemsDraw(@NonNull final RecyclerView parent, @NonNull final RecyclerView.State state, @NonNull final DecorationLayoutContext context) {
+		if (shouldDecorate(parent, state)) {
+			this.prepareRuns(parent, context);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 */
+	@Override protected void onDrawItem(@NonNull final Canvas canvas, @NonNull final View child, final int childIndex, final int childCount, @NonNull final Rect decoratedBounds, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state, @NonNull final DecorationLayoutContext context) {
+		this.drawItemRun(canvas, child, childIndex, parent, state);
+	}
+
+	/**
+	 */
+	@Override protected void onFinishItemsDraw(@NonNull final Canvas canvas, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state, @NonNull final DecorationLayoutContext context) {
+		this.finishRuns(canvas);
+	}
+
+	/**
+	 * Prepares state of this decoration for a new draw pass over item views of the given
+	 * <var>parent</var> RecyclerView.
+	 *
+	 * @param parent  The RecyclerView into which is this decoration added.
+	 * @param context Layout context of the parent RecyclerView resolved for the current pass.
+	 */
+	private void prepareRuns(final RecyclerView parent, final DecorationLayoutContext context) {
+		if (sectionIndex != null) {
+			sectionIndex.attachAdapter(parent.getAdapter());
+		}
+		this.runItemCount = context.getItemCount();
+		this.running = false;
+		this.runRoundedTop = false;
+		this.runSection = SectionIndex.NO_SECTION;
+		this.runLastPosition = RecyclerView.NO_POSITION;
+		this.runChildIndex = -1;
+	}
+
+	/**
+	 * Adds the specified <var>child</var> view into the current run of items of a single section.
+	 * The current run is drawn before the child view if the child starts a new run or if it should
+	 * be skipped.
+	 *
+	 * @param canvas     The canvas on which to draw.
+	 * @param child      The item view to be added into the current run.
+	 * @param childIndex Index of the item view within its parent RecyclerView.
+	 * @param parent     The RecyclerView into which is this decoration added.
+	 * @param state      Current state of the parent RecyclerView.
+	 */
+	private void drawItemRun(final Canvas canvas, final View child, final int childIndex, final RecyclerView parent, final RecyclerView.State state) {
+		if (running && childIndex != runChildIndex + 1) {
+			// Item views between the previous and this one have been skipped by a composite decoration.
+			this.drawRun(canvas, runRoundedTop, true);
+			this.running = false;
+		}
+		this.runChildIndex = childIndex;
+		final int position = obtainCache(parent).resolveItem(child, state).getPosition();
+		if (position == RecyclerView.NO_POSITION || isItemSkipped(child, parent, state) || !precondition.check(child, parent, state)) {
+			if (running) {
+				this.drawRun(canvas, runRoundedTop, true);
+				this.running = false;
+			}
+			return;
+		}
+		final int section = sectionIndex == null ? 0 : sectionIndex.getSectionForPosition(position);
+		if (running && section != runSection) {
+			this.drawRun(canvas, runRoundedTop, true);
+			this.running = false;
+		}
+		final float translationX = child.getTranslationX();
+		final float translationY = child.getTranslationY();
+		final float left = child.getLeft() + translationX;
+		final float top = child.getTop() + translationY;
+		final float right = child.getRight() + translationX;
+		final float bottom = child.getBottom() + translationY;
+		if (running) {
+			this.runBounds.union(left, top, right, bottom);
+		} else {
+			this.runBounds.set(left, top, right, bottom);
+			// Section which continues above the first visible item keeps its top corners square.
+			this.runRoundedTop = childIndex > 0 || isSectionStart(position);
+			this.runSection = section;
+			this.running = true;
+		}
+		this.runLastPosition = position;
+	}
+
+	/**
+	 * Draws the last run of items collected in the current draw pass, if any.
+	 *
+	 * @param canvas The canvas on which to draw.
+	 */
+	private void finishRuns(final Canvas canvas) {
+		if (running) {
+			// Section which continues below the last visible item keeps its bottom corners square.
+			this.drawRun(canvas, runRoundedTop, runLastPosition == runItemCount - 1 || isSectionEnd(runLastPosition));
+			this.running = false;
+		}
+	}
+
+	/**
+	 * Checks whether a section starts at the specified adapter <var>position</var>.
+	 *
+	 * @param position The adapter position to check.
+	 * @return {@code True} if a section starts at the position, {@code false} otherwise.
+	 */
+	private boolean isSectionStart(final int position) {
+		return sectionIndex == null ? position == 0 : sectionIndex.isSectionStart(position);
+	}
+
+	/**
+	 * Checks whether a section ends at the specified adapter <var>position</var>.
+	 *
+	 * @param position The adapter position to check.
+	 * @return {@code True} if a section ends at the position, {@code false} otherwise.
+	 */
+	private boolean isSectionEnd(final int position) {
+		return sectionIndex != null && sectionIndex.isSectionEnd(position);
+	}
+
+	/**
+	 * Draws background for the current {@link #runBounds} on the given <var>canvas</var>.
+	 *
+	 * @param canvas        The canvas on which to draw.
+	 * @param roundedTop    {@code True} to round the top corners of the background, {@code false} otherwise.
+	 * @param roundedBottom {@code True} to round the bottom corners of the background, {@code false} otherwise.
+	 */
+	private void drawRun(final Canvas canvas, final boolean roundedTop, final boolean roundedBottom) {
+		if (cornerRadius <= 0 || (!roundedTop && !roundedBottom)) {
+			canvas.drawRect(runBounds, paint);
+		} else if (roundedTop && roundedBottom) {
+			canvas.drawRoundRect(runBounds, cornerRadius, cornerRadius, paint);
+		} else {
+			final float topRadius = roundedTop ? cornerRadius : 0;
+			final float bottomRadius = roundedBottom ? cornerRadius : 0;
+			for (int i = 0; i < 4; i++) {
+				this.runRadii[i] = topRadius;
+				this.runRadii[i + 4] = bottomRadius;
+			}
+			this.runPath.rewind();
+			this.runPath.addRoundRect(runBounds, runRadii, Path.Direction.CW);
+			canvas.drawPath(runPath, paint);
+		}
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+}
@@ -0,0 +1,274 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.decoration;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import universum.studios.android.test.local.RobolectricTestCase;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.internal.util.MockUtil.resetMock;
+
+/**
+ * @author Martin Albedinsky
+ */
+public final class SectionBackgroundDecorationTest extends RobolectricTestCase {
+
+	private static final int MOCK_ITEMS_COUNT = 10;
+	private static final int ITEM_HEIGHT = 30;
+
+	private final Canvas mockCanvas;
+	private final RecyclerView mockRecyclerView;
+	private final RecyclerView.State mockRecyclerViewState;
+	private View[] itemViews;
+
+	public SectionBackgroundDecorationTest() {
+		this.mockCanvas = mock(Canvas.class);
+		this.mockRecyclerView = mock(RecyclerView.class);
+		this.mockRecyclerViewState = mock(RecyclerView.State.class);
+	}
+
+	@Override public void beforeTest() throws Exception {
+		super.beforeTest();
+		resetMock(mockCanvas);
+		resetMock(mockRecyclerView);
+		resetMock(mockRecyclerViewState);
+		when(mockRecyclerView.getLayoutManager()).thenReturn(mock(RecyclerView.LayoutManager.class));
+		when(mockRecyclerViewState.getItemCount()).thenReturn(MOCK_ITEMS_COUNT);
+		// Visible items at positions [2, 6).
+		this.itemViews = new View[4];
+		when(mockRecyclerView.getChildCount()).thenReturn(itemViews.length);
+		for (int i = 0; i < itemViews.length; i++) {
+			final View itemView = new View(application);
+			itemView.layout(0, i * ITEM_HEIGHT, 100, (i + 1) * ITEM_HEIGHT);
+			this.itemViews[i] = itemView;
+			when(mockRecyclerView.getChildAt(i)).thenReturn(itemView);
+			when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(i + 2);
+		}
+	}
+
+	@Test public void testInstantiation() {
+		// Act:
+		final SectionBackgroundDecoration decoration = new SectionBackgroundDecoration();
+		// Assert:
+		assertThat(decoration.getBackgroundColor(), is(Color.TRANSPARENT));
+		assertThat(decoration.getCornerRadius(), is(0f));
+		assertThat(decoration.getSectionIndex(), is(nullValue()));
+	}
+
+	@Test public void testInstantiationWithColorAndCornerRadius() {
+		// Act:
+		final SectionBackgroundDecoration decoration = new SectionBackgroundDecoration(Color.RED, 8f);
+		// Assert:
+		assertThat(decoration.getBackgroundColor(), is(Color.RED));
+		assertThat(decoration.getCornerRadius(), is(8f));
+	}
+
+	@Test public void testBackgroundColor() {
+		// Arrange:
+		final SectionBackgroundDecoration decoration = new SectionBackgroundDecoration();
+		// Act + Assert:
+		decoration.setBackgroundColor(Color.BLUE);
+		assertThat(decoration.getBackgroundColor(), is(Color.BLUE));
+	}
+
+	@Test public void testCornerRadius() {
+		// Arrange:
+		final SectionBackgroundDecoration decoration = new SectionBackgroundDecoration();
+		// Act + Assert:
+		decoration.setCornerRadius(12f);
+		assertThat(decoration.getCornerRadius(), is(12f));
+	}
+
+	@Test public void testSectionIndex() {
+		// Arrange:
+		final SectionIndex index = new SectionIndex(new int[]{0, 4});
+		final SectionBackgroundDecoration decoration = new SectionBackgroundDecoration();
+		// Act:
+		decoration.setSectionIndex(index);
+		// Assert:
+		assertThat(decoration.getSectionIndex(), is(index));
+	}
+
+	@Test public void testSetSectionIndexReleasesPreviousIndex() {
+		// Arrange:
+		final RecyclerView.Adapter mockAdapter = mock(RecyclerView.Adapter.class);
+		final SectionIndex index = new SectionIndex(new int[]{0, 4});
+		final SectionBackgroundDecoration decoration = new SectionBackgroundDecoration();
+		decoration.attachToRecyclerView(mockRecyclerView);
+		decoration.setSectionIndex(index);
+		index.attachAdapter(mockAdapter);
+		// Act:
+		decoration.setSectionIndex(new SectionIndex());
+		// Assert:
+		assertThat(index.getAdapter(), is(nullValue()));
+		verify(mockAdapter).unregisterAdapterDataObserver(index);
+	}
+
+	@Test public void testDetachReleasesSectionIndex() {
+		// Arrange:
+		final RecyclerView.Adapter mockAdapter = mock(RecyclerView.Adapter.class);
+		final SectionIndex index = new SectionIndex(new int[]{0, 4});
+		final SectionBackgroundDecoration decoration = new SectionBackgroundDecoration();
+		decoration.setSectionIndex(index);
+		decoration.attachToRecyclerView(mockRecyclerView);
+		index.attachAdapter(mockAdapter);
+		// Act:
+		decoration.attachToRecyclerView(null);
+		// Assert:
+		assertThat(index.getAdapter(), is(nullValue()));
+	}
+
+	@Test public void testOnDrawWithTransparentColor() {
+		// Arrange:
+		final SectionBackgroundDecoration decoration = new SectionBackgroundDecoration();
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verifyZeroInteractions(mockCanvas);
+	}
+
+	@Test public void testOnDrawWithoutCornerRadius() {
+		// Arrange:
+		final SectionBackgroundDecoration decoration = new SectionBackgroundDecoration(Color.RED, 0);
+		decoration.setSectionIndex(new SectionIndex(new int[]{0, 4}));
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockCanvas, times(2)).drawRect(any(RectF.class), any(Paint.class));
+		verify(mockCanvas, never()).drawRoundRect(any(RectF.class), anyFloat(), anyFloat(), any(Paint.class));
+		verify(mockCanvas, never()).drawPath(any(Path.class), any(Paint.class));
+	}
+
+	@Test public void testOnDrawWholeSectionInSingleRun() {
+		// Arrange:
+		final SectionBackgroundDecoration decoration = new SectionBackgroundDecoration(Color.RED, 8f);
+		decoration.setSectionIndex(new SectionIndex(new int[]{0, 2, 6}));
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		final ArgumentCaptor<RectF> boundsCaptor = ArgumentCaptor.forClass(RectF.class);
+		verify(mockCanvas).drawRoundRect(boundsCaptor.capture(), eq(8f), eq(8f), any(Paint.class));
+		final RectF bounds = boundsCaptor.getValue();
+		assertThat(bounds.top, is(0f));
+		assertThat(bounds.bottom, is((float) itemViews.length * ITEM_HEIGHT));
+		verify(mockCanvas, never()).drawRect(any(RectF.class), any(Paint.class));
+		verify(mockCanvas, never()).drawPath(any(Path.class), any(Paint.class));
+	}
+
+	@Test public void testOnDrawSectionsContinuingBeyondVisibleArea() {
+		// Arrange:
+		final SectionBackgroundDecoration decoration = new SectionBackgroundDecoration(Color.RED, 8f);
+		decoration.setSectionIndex(new SectionIndex(new int[]{0, 4}));
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockCanvas, times(2)).drawPath(any(Path.class), any(Paint.class));
+		verify(mockCanvas, never()).drawRoundRect(any(RectF.class), anyFloat(), anyFloat(), any(Paint.class));
+		verify(mockCanvas, never()).drawRect(any(RectF.class), any(Paint.class));
+	}
+
+	@Test public void testOnDrawInComposite() {
+		// Arrange:
+		final SectionBackgroundDecoration decoration = new SectionBackgroundDecoration(Color.RED, 8f);
+		decoration.setSectionIndex(new SectionIndex(new int[]{0, 2, 6}));
+		final CompositeItemDecoration composite = new CompositeItemDecoration(decoration);
+		// Act:
+		composite.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		final ArgumentCaptor<RectF> boundsCaptor = ArgumentCaptor.forClass(RectF.class);
+		verify(mockCanvas).drawRoundRect(boundsCaptor.capture(), eq(8f), eq(8f), any(Paint.class));
+		final RectF bounds = boundsCaptor.getValue();
+		assertThat(bounds.top, is(0f));
+		assertThat(bounds.bottom, is((float) itemViews.length * ITEM_HEIGHT));
+		verify(mockCanvas, times(1)).save();
+	}
+
+	@Test public void testOnDrawInCompositeWithSkippedItem() {
+		// Arrange:
+		final SectionBackgroundDecoration decoration = new SectionBackgroundDecoration(Color.RED, 0);
+		final CompositeItemDecoration composite = new CompositeItemDecoration(decoration);
+		composite.setPrecondition(new RecyclerViewItemDecoration.Precondition() {
+
+			@Override public boolean check(View view, RecyclerView parent, RecyclerView.State state) {
+				return view != itemViews[1];
+			}
+		});
+		// Act:
+		composite.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockCanvas, times(2)).drawRect(any(RectF.class), any(Paint.class));
+	}
+
+	@Test public void testOnDrawWithoutSectionIndex() {
+		// Arrange:
+		final SectionBackgroundDecoration decoration = new SectionBackgroundDecoration(Color.RED, 8f);
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockCanvas).drawRect(any(RectF.class), any(Paint.class));
+		verify(mockCanvas, never()).drawRoundRect(any(RectF.class), anyFloat(), anyFloat(), any(Paint.class));
+		verify(mockCanvas, never()).drawPath(any(Path.class), any(Paint.class));
+	}
+
+	@Test public void testOnDrawWithUnsatisfiedPrecondition() {
+		// Arrange:
+		final SectionBackgroundDecoration decoration = new SectionBackgroundDecoration(Color.RED, 0);
+		decoration.setPrecondition(new RecyclerViewItemDecoration.Precondition() {
+
+			@Override public boolean check(View view, RecyclerView parent, RecyclerView.State state) {
+				return view != itemViews[1];
+			}
+		});
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockCanvas, times(2)).drawRect(any(RectF.class), any(Paint.class));
+	}
+
+	@Test public void testOnDrawWithoutItems() {
+		// Arrange:
+		final SectionBackgroundDecoration decoration = new SectionBackgroundDecoration(Color.RED, 0);
+		when(mockRecyclerViewState.getItemCount()).thenReturn(0);
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verifyZeroInteractions(mockCanvas);
+	}
+}
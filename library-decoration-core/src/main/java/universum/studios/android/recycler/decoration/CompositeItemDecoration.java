@@ -0,0 +1,481 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.decoration;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.support.annotation.AttrRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.StyleRes;
+import android.support.v7.widget.RecyclerView;
+import android.util.AttributeSet;
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@link RecyclerViewItemDecoration} implementation which groups multiple item decorations and
+ * applies them in a single pass over item views of the parent {@link RecyclerView} instead of each
+ * decoration iterating the item views on its own.
+ * <p>
+ * Offsets of the grouped decorations are summed for each item view. For the draw passes the composite
+ * decoration iterates item views only once, computes decorated bounds of each item view only once
+ * and dispatches them to
+ * {@link #onDrawItem(Canvas, View, int, int, Rect, RecyclerView, RecyclerView.State, DecorationLayoutContext)}
+ * or {@link #onDrawItemOver(Canvas, View, int, int, Rect, RecyclerView, RecyclerView.State, DecorationLayoutContext)}
+ * of each grouped decoration that requested drawing for the current pass via
+ * {@link #onPrepareItemsDraw(RecyclerView, RecyclerView.State, DecorationLayoutContext)} or
+ * {@link #onPrepareItemsDrawOver(RecyclerView, RecyclerView.State, DecorationLayoutContext)}.
+ * After all item views have been iterated, each of these decorations is notified via
+ * {@link #onFinishItemsDraw(Canvas, RecyclerView, RecyclerView.State, DecorationLayoutContext)} or
+ * {@link #onFinishItemsDrawOver(Canvas, RecyclerView, RecyclerView.State, DecorationLayoutContext)}
+ * so it may draw content collected from multiple item views.
+ * Layout context of the RecyclerView is resolved only once per pass and passed to all of them.
+ * Decorations which do not request drawing for the current pass are drawn via their
+ * {@link #onDraw(Canvas, RecyclerView, RecyclerView.State)} or
+ * {@link #onDrawOver(Canvas, RecyclerView, RecyclerView.State)} called once per pass, so decorations
+ * which draw their content only in these methods may be grouped as well.
+ * <p>
+ * The <b>skip first</b>, <b>skip last</b> flags and the precondition specified for the composite
+ * decoration are applied to all grouped decorations which draw per item view.
+ *
+ * <h3>Xml attributes</h3>
+ * See {@link RecyclerViewItemDecoration}
+ *
+ * <h3>Default style attribute</h3>
+ * {@code none}
+ *
+ * @author Martin Albedinsky
+ * @since 1.1
+ */
+public class CompositeItemDecoration extends RecyclerViewItemDecoration {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "CompositeItemDecoration";
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Ordered list of decorations grouped by this composite decoration.
+	 */
+	private final List<RecyclerViewItemDecoration> decorations = new ArrayList<>(4);
+
+	/**
+	 * Array holding decorations which requested drawing for the current draw pass.
+	 */
+	private RecyclerViewItemDecoration[] drawingDecorations = new RecyclerViewItemDecoration[0];
+
+	/**
+	 * Count of valid entries within {@link #drawingDecorations} array.
+	 */
+	private int drawingCount;
+
+	/**
+	 * Array holding decorations which did not request drawing for the current draw pass and are
+	 * drawn via their own draw methods instead.
+	 */
+	private RecyclerViewItemDecoration[] fallbackDecorations = new RecyclerViewItemDecoration[0];
+
+	/**
+	 * Count of valid entries within {@link #fallbackDecorations} array.
+	 */
+	private int fallbackCount;
+
+	/**
+	 * Rect used to obtain item offsets from each of the grouped decorations.
+	 */
+	private final Rect decorationOffsets = new Rect();
+
+	/**
+	 * Rect used to obtain decorated bounds of the currently iterated item view during draw passes.
+	 */
+	private final Rect bounds = new Rect();
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Same as {@link #CompositeItemDecoration(Context)} with {@code null} <var>context</var>.
+	 */
+	public CompositeItemDecoration() {
+		this((Context) null);
+	}
+
+	/**
+	 * Creates a new instance of CompositeItemDecoration which will group the specified <var>decorations</var>.
+	 *
+	 * @param decorations The desired decorations to be grouped in the specified order.
+	 *
+	 * @see #addDecoration(RecyclerViewItemDecoration)
+	 */
+	public CompositeItemDecoration(@NonNull final RecyclerViewItemDecoration... decorations) {
+		this((Context) null);
+		for (final RecyclerViewItemDecoration decoration : decorations) {
+			addDecoration(decoration);
+		}
+	}
+
+	/**
+	 * Same as {@link #CompositeItemDecoration(Context, AttributeSet)} with {@code null} <var>attrs</var>.
+	 */
+	public CompositeItemDecoration(@Nullable final Context context) {
+		this(context, null);
+	}
+
+	/**
+	 * Same as {@link #CompositeItemDecoration(Context, AttributeSet, int)} with {@code 0}
+	 * <var>defStyleAttr</var>.
+	 */
+	public CompositeItemDecoration(@Nullable final Context context, @Nullable final AttributeSet attrs) {
+		this(context, attrs, 0);
+	}
+
+	/**
+	 * Same as {@link #CompositeItemDecoration(Context, AttributeSet, int, int)} with {@code 0}
+	 * <var>defStyleRes</var>.
+	 */
+	public CompositeItemDecoration(@Nullable final Context context, @Nullable final AttributeSet attrs, @AttrRes final int defStyleAttr) {
+		this(context, attrs, defStyleAttr, 0);
+	}
+
+	/**
+	 * Creates a new instance of CompositeItemDecoration for the given <var>context</var>.
+	 *
+	 * @param context      Context in which will be the new decoration presented.
+	 * @param attrs        Set of Xml attributes used to configure the new instance of this decoration.
+	 * @param defStyleAttr An attribute which contains a reference to a default style resource for
+	 *                     this decoration within a theme of the given context.
+	 * @param defStyleRes  Resource id of the default style for the new decoration.
+	 */
+	public CompositeItemDecoration(@Nullable final Context context, @Nullable final AttributeSet attrs, @AttrRes final int defStyleAttr, @StyleRes final int defStyleRes) {
+		super(context, attrs, defStyleAttr, defStyleRes);
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Adds the specified <var>decoration</var> at the end of decorations grouped by this composite
+	 * decoration.
+	 * <p>
+	 * <b>Note</b> that the decoration should not be also added directly into the RecyclerView.
+	 *
+	 * @param decoration The desired decoration to be added.
+	 *
+	 * @see #removeDecoration(RecyclerViewItemDecoration)
+	 * @see #getDecorations()
+	 */
+	public void addDecoration(@NonNull final RecyclerViewItemDecoration decoration) {
+		if (decoration == this) {
+			throw new IllegalArgumentException("Cannot add composite decoration into itself!");
+		}
+		this.decorations.add(decoration);
+		decoration.bindParent(getAttachedParent());
+		this.scheduleInvalidation(true);
+	}
+
+	/**
+	 * Removes the specified <var>decoration</var> from decorations grouped by this composite decoration.
+	 *
+	 * @param decoration The desired decoration to be removed.
+	 * @return {@code True} if the decoration has been removed, {@code false} if it was not grouped
+	 * by this composite decoration.
+	 *
+	 * @see #addDecoration(RecyclerViewItemDecoration)
+	 */
+	public boolean removeDecoration(@NonNull final RecyclerViewItemDecoration decoration) {
+		if (decorations.remove(decoration)) {
+			decoration.bindParent(null);
+			this.scheduleInvalidation(true);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Removes all decorations grouped by this composite decoration.
+	 *
+	 * @see #addDecoration(RecyclerViewItemDecoration)
+	 */
+	public void clearDecorations() {
+		if (!decorations.isEmpty()) {
+			for (final RecyclerViewItemDecoration decoration : decorations) {
+				decoration.bindParent(null);
+			}
+			this.decorations.clear();
+			this.scheduleInvalidation(true);
+		}
+	}
+
+	/**
+	 * Binds also all grouped decorations, so changes of their properties invalidate the RecyclerView
+	 * to which is this composite decoration attached.
+	 */
+	@Override void bindParent(@Nullable final RecyclerView parent) {
+		super.bindParent(parent);
+		for (final RecyclerViewItemDecoration decoration : decorations) {
+			decoration.bindParent(parent);
+		}
+	}
+
+	/**
+	 */
+	@Override boolean hostsDecoration(@NonNull final RecyclerViewItemDecoration decoration) {
+		for (final RecyclerViewItemDecoration groupedDecoration : decorations) {
+			if (groupedDecoration == decoration || groupedDecoration.hostsDecoration(decoration)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the list of decorations grouped by this composite decoration.
+	 *
+	 * @return Unmodifiable list of grouped decorations in the order in which they are applied.
+	 *
+	 * @see #addDecoration(RecyclerViewItemDecoration)
+	 */
+	@NonNull public List<RecyclerViewItemDecoration> getDecorations() {
+		return Collections.unmodifiableList(decorations);
+	}
+
+	/**
+	 */
+	@Override public void getItemOffsets(@NonNull final Rect rect, @NonNull final View view, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
+		rect.setEmpty();
+		final int decorationsCount = decorations.size();
+		if (decorationsCount == 0 || isItemSkipped(view, parent, state) || !precondition.check(view, parent, state)) {
+			return;
+		}
+		for (int i = 0; i < decorationsCount; i++) {
+			decorationOffsets.setEmpty();
+			decorations.get(i).getItemOffsets(decorationOffsets, view, parent, state);
+			rect.left += decorationOffsets.left;
+			rect.top += decorationOffsets.top;
+			rect.right += decorationOffsets.right;
+			rect.bottom += decorationOffsets.bottom;
+		}
+	}
+
+	/**
+	 */
+	@Override public void onDraw(@NonNull final Canvas canvas, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
+		if (shouldDecorate(parent, state)) {
+			drawItems(canvas, parent, state, false);
+		}
+	}
+
+	/**
+	 */
+	@Override public void onDrawOver(@NonNull final Canvas canvas, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
+		if (shouldDecorate(parent, state)) {
+			drawItems(canvas, parent, state, true);
+		}
+	}
+
+	/**
+	 */
+	@Override protected boolean shouldDecorate(@NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
+		return !decorations.isEmpty() && super.shouldDecorate(parent, state);
+	}
+
+	/**
+	 */
+	@Override protected boolean onPrepareItemsDraw(@NonNull final RecyclerView parent, @NonNull final RecyclerView.State state, @NonNull final DecorationLayoutContext context) {
+		// Grouped decorations that draw on their own require this composite to be drawn on its own too.
+		return shouldDecorate(parent, state) && prepareDrawingDecorations(parent, state, context, false) > 0 && fallbackCount == 0;
+	}
+
+	/**
+	 */
+	@Override protected void onDrawItem(@NonNull final Canvas canvas, @NonNull final View child, final int childIndex, final int childCount, @NonNull final Rect decoratedBounds, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state, @NonNull final DecorationLayoutContext context) {
+		if (!isChildSkipped(child, childIndex, childCount, parent, state)) {
+			for (int i = 0; i < drawingCount; i++) {
+				drawingDecorations[i].onDrawItem(canvas, child, childIndex, childCount, decoratedBounds, parent, state, context);
+			}
+		}
+	}
+
+	/**
+	 */
+	@Override protected boolean onPrepareItemsDrawOver(@NonNull final RecyclerView parent, @NonNull final RecyclerView.State state, @NonNull final DecorationLayoutContext context) {
+		return shouldDecorate(parent, state) && prepareDrawingDecorations(parent, state, context, true) > 0 && fallbackCount == 0;
+	}
+
+	/**
+	 */
+	@Override protected void onDrawItemOver(@NonNull final Canvas canvas, @NonNull final View child, final int childIndex, final int childCount, @NonNull final Rect decoratedBounds, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state, @NonNull final DecorationLayoutContext context) {
+		if (!isChildSkipped(child, childIndex, childCount, parent, state)) {
+			for (int i = 0; i < drawingCount; i++) {
+				drawingDecorations[i].onDrawItemOver(canvas, child, childIndex, childCount, decoratedBounds, parent, state, context);
+			}
+		}
+	}
+
+	/**
+	 */
+	@Override protected void onFinishItemsDraw(@NonNull final Canvas canvas, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state, @NonNull final DecorationLayoutContext context) {
+		finishDrawingDecorations(canvas, parent, state, context, false);
+	}
+
+	/**
+	 */
+	@Override protected void onFinishItemsDrawOver(@NonNull final Canvas canvas, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state, @NonNull final DecorationLayoutContext context) {
+		finishDrawingDecorations(canvas, parent, state, context, true);
+	}
+
+	/**
+	 * Performs a single iteration over item views of the given <var>parent</var> RecyclerView and
+	 * dispatches each item view to all grouped decorations which requested drawing for the current
+	 * pass. Grouped decorations which did not request drawing are drawn via their own draw methods.
+	 *
+	 * @param canvas Canvas on which to draw.
+	 * @param parent RecyclerView into which is this decoration added.
+	 * @param state  Current state of the parent RecyclerView.
+	 * @param over   {@code True} if drawing over the item views, {@code false} otherwise.
+	 */
+	private void drawItems(final Canvas canvas, final RecyclerView parent, final RecyclerView.State state, final boolean over) {
+		final DecorationLayoutContext context = obtainLayoutContext(parent, state);
+		prepareDrawingDecorations(parent, state, context, over);
+		for (int i = 0; i < fallbackCount; i++) {
+			if (over) {
+				fallbackDecorations[i].onDrawOver(canvas, parent, state);
+			} else {
+				fallbackDecorations[i].onDraw(canvas, parent, state);
+			}
+		}
+		if (drawingCount == 0) {
+			return;
+		}
+		canvas.save();
+		if (context.getClipToPadding()) {
+			final Rect clipBounds = context.getClipBounds();
+			canvas.clipRect(clipBounds.left, clipBounds.top, clipBounds.right, clipBounds.bottom);
+		}
+		final int childCount = parent.getChildCount();
+		for (int childIndex = 0; childIndex < childCount; childIndex++) {
+			final View child = parent.getChildAt(childIndex);
+			if (isChildSkipped(child, childIndex, childCount, parent, state)) {
+				continue;
+			}
+			parent.getDecoratedBoundsWithMargins(child, bounds);
+			for (int i = 0; i < drawingCount; i++) {
+				if (over) {
+					drawingDecorations[i].onDrawItemOver(canvas, child, childIndex, childCount, bounds, parent, state, context);
+				} else {
+					drawingDecorations[i].onDrawItem(canvas, child, childIndex, childCount, bounds, parent, state, context);
+				}
+			}
+		}
+		finishDrawingDecorations(canvas, parent, state, context, over);
+		canvas.restore();
+	}
+
+	/**
+	 * Dispatches finish of the current draw pass to all grouped decorations which requested drawing
+	 * for that pass.
+	 *
+	 * @param canvas  Canvas on which to draw.
+	 * @param parent  RecyclerView into which is this decoration added.
+	 * @param state   Current state of the parent RecyclerView.
+	 * @param context Layout context of the parent RecyclerView resolved for the current pass.
+	 * @param over    {@code True} if drawing over the item views, {@code false} otherwise.
+	 */
+	private void finishDrawingDecorations(final Canvas canvas, final RecyclerView parent, final RecyclerView.State state, final DecorationLayoutContext context, final boolean over) {
+		for (int i = 0; i < drawingCount; i++) {
+			if (over) {
+				drawingDecorations[i].onFinishItemsDrawOver(canvas, parent, state, context);
+			} else {
+				drawingDecorations[i].onFinishItemsDraw(canvas, parent, state, context);
+			}
+		}
+	}
+
+	/**
+	 * Collects all grouped decorations which requested drawing for the current draw pass into
+	 * {@link #drawingDecorations} array and updates {@link #drawingCount}. Decorations which did not
+	 * request drawing are collected into {@link #fallbackDecorations} array and {@link #fallbackCount}
+	 * is updated.
+	 *
+	 * @param parent  RecyclerView into which is this decoration added.
+	 * @param state   Current state of the parent RecyclerView.
+	 * @param context Layout context of the parent RecyclerView resolved for the current pass.
+	 * @param over    {@code True} if preparing for drawing over the item views, {@code false} otherwise.
+	 * @return Count of decorations that will draw in the current pass.
+	 */
+	private int prepareDrawingDecorations(final RecyclerView parent, final RecyclerView.State state, final DecorationLayoutContext context, final boolean over) {
+		final int decorationsCount = decorations.size();
+		if (drawingDecorations.length < decorationsCount) {
+			this.drawingDecorations = new RecyclerViewItemDecoration[decorationsCount];
+			this.fallbackDecorations = new RecyclerViewItemDecoration[decorationsCount];
+		}
+		int count = 0;
+		int fallbacks = 0;
+		for (int i = 0; i < decorationsCount; i++) {
+			final RecyclerViewItemDecoration decoration = decorations.get(i);
+			if (over ? decoration.onPrepareItemsDrawOver(parent, state, context) : decoration.onPrepareItemsDraw(parent, state, context)) {
+				drawingDecorations[count++] = decoration;
+			} else {
+				fallbackDecorations[fallbacks++] = decoration;
+			}
+		}
+		Arrays.fill(drawingDecorations, count, drawingDecorations.length, null);
+		Arrays.fill(fallbackDecorations, fallbacks, fallbackDecorations.length, null);
+		this.fallbackCount = fallbacks;
+		return drawingCount = count;
+	}
+
+	/**
+	 * Checks whether the specified <var>child</var> should be skipped by this composite decoration
+	 * due to its <b>skip first</b>, <b>skip last</b> flags or its precondition.
+	 *
+	 * @return {@code True} if the child should not be decorated, {@code false} otherwise.
+	 */
+	private boolean isChildSkipped(final View child, final int childIndex, final int childCount, final RecyclerView parent, final RecyclerView.State state) {
+		return (skipFirst && childIndex == 0) || (skipLast && childIndex == childCount - 1) || !precondition.check(child, parent, state);
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+}
@@ -0,0 +1,325 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.decoration;
+
+import android.graphics.Rect;
+import android.support.annotation.IntDef;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.view.ViewCompat;
+import android.support.v7.widget.GridLayoutManager;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.StaggeredGridLayoutManager;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Context which holds layout data of a {@link RecyclerView} commonly needed by item decorations,
+ * like layout direction, clip bounds, orientation, count of items or count of spans.
+ * <p>
+ * The context is owned by {@link ItemDecorationCache} of the RecyclerView and its data are resolved
+ * only once per layout/draw pass, so they may be shared by all decorations added into the same
+ * RecyclerView and by all item views decorated in that pass. The context may be obtained via
+ * {@link RecyclerViewItemDecoration#obtainLayoutContext(RecyclerView, RecyclerView.State)} and is
+ * also passed to all item drawing hooks of {@link RecyclerViewItemDecoration}.
+ *
+ * @author Martin Albedinsky
+ * @since 1.1
+ */
+public final class DecorationLayoutContext {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "DecorationLayoutContext";
+
+	/**
+	 * Type flag indicating that there is no layout manager attached to the RecyclerView.
+	 */
+	public static final int LAYOUT_MANAGER_NONE = 0;
+
+	/**
+	 * Type flag indicating that the RecyclerView uses {@link LinearLayoutManager}.
+	 */
+	public static final int LAYOUT_MANAGER_LINEAR = 1;
+
+	/**
+	 * Type flag indicating that the RecyclerView uses {@link GridLayoutManager}.
+	 */
+	public static final int LAYOUT_MANAGER_GRID = 2;
+
+	/**
+	 * Type flag indicating that the RecyclerView uses {@link StaggeredGridLayoutManager}.
+	 */
+	public static final int LAYOUT_MANAGER_STAGGERED_GRID = 3;
+
+	/**
+	 * Type flag indicating that the RecyclerView uses a custom layout manager.
+	 */
+	public static final int LAYOUT_MANAGER_CUSTOM = 4;
+
+	/**
+	 * Defines an annotation for determining types of layout managers resolved by {@link DecorationLayoutContext}.
+	 *
+	 * @see #getLayoutManagerType()
+	 */
+	@IntDef({
+			LAYOUT_MANAGER_NONE,
+			LAYOUT_MANAGER_LINEAR,
+			LAYOUT_MANAGER_GRID,
+			LAYOUT_MANAGER_STAGGERED_GRID,
+			LAYOUT_MANAGER_CUSTOM
+	})
+	@Retention(RetentionPolicy.SOURCE)
+	public @interface LayoutManagerType {}
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Layout direction of the RecyclerView.
+	 */
+	private int layoutDirection;
+
+	/**
+	 * Boolean flag indicating whether the RecyclerView clips its children to its padding.
+	 */
+	private boolean clipToPadding;
+
+	/**
+	 * Bounds within which are the children of the RecyclerView drawn.
+	 */
+	private final Rect clipBounds = new Rect();
+
+	/**
+	 * Layout manager of the RecyclerView.
+	 */
+	private RecyclerView.LayoutManager layoutManager;
+
+	/**
+	 * Type of the {@link #layoutManager}.
+	 */
+	@LayoutManagerType private int layoutManagerType = LAYOUT_MANAGER_NONE;
+
+	/**
+	 * Orientation in which are the items laid out.
+	 */
+	private int orientation = LinearLayoutManager.VERTICAL;
+
+	/**
+	 * Count of spans in which are the items laid out.
+	 */
+	private int spanCount = 1;
+
+	/**
+	 * Count of items which may be decorated.
+	 */
+	private int itemCount;
+
+	/**
+	 * Boolean flag indicating whether data of this context have been resolved for pre-layout.
+	 */
+	boolean preLayout;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of DecorationLayoutContext with no resolved data.
+	 */
+	DecorationLayoutContext() {
+		// Data of the context are resolved by its owning cache.
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Resolves data of this context for the specified <var>parent</var>.
+	 *
+	 * @param parent          The RecyclerView of which layout data to resolve.
+	 * @param layoutDirection Already resolved layout direction of the parent.
+	 * @param itemCount       Already resolved count of items of the parent.
+	 * @param preLayout       {@code True} if the data are resolved for pre-layout, {@code false}
+	 *                        otherwise.
+	 */
+	void resolve(final RecyclerView parent, final int layoutDirection, final int itemCount, final boolean preLayout) {
+		this.layoutDirection = layoutDirection;
+		this.itemCount = itemCount;
+		this.preLayout = preLayout;
+		this.clipToPadding = parent.getClipToPadding();
+		if (clipToPadding) {
+			clipBounds.set(
+					parent.getPaddingLeft(),
+					parent.getPaddingTop(),
+					parent.getWidth() - parent.getPaddingRight(),
+					parent.getHeight() - parent.getPaddingBottom()
+			);
+		} else {
+			clipBounds.set(0, 0, parent.getWidth(), parent.getHeight());
+		}
+		this.layoutManager = parent.getLayoutManager();
+		if (layoutManager instanceof GridLayoutManager) {
+			final GridLayoutManager gridManager = (GridLayoutManager) layoutManager;
+			this.layoutManagerType = LAYOUT_MANAGER_GRID;
+			this.orientation = gridManager.getOrientation();
+			this.spanCount = gridManager.getSpanCount();
+		} else if (layoutManager instanceof LinearLayoutManager) {
+			this.layoutManagerType = LAYOUT_MANAGER_LINEAR;
+			this.orientation = ((LinearLayoutManager) layoutManager).getOrientation();
+			this.spanCount = 1;
+		} else if (layoutManager instanceof StaggeredGridLayoutManager) {
+			final StaggeredGridLayoutManager staggeredManager = (StaggeredGridLayoutManager) layoutManager;
+			this.layoutManagerType = LAYOUT_MANAGER_STAGGERED_GRID;
+			this.orientation = staggeredManager.getOrientation();
+			this.spanCount = staggeredManager.getSpanCount();
+		} else if (layoutManager == null) {
+			this.layoutManagerType = LAYOUT_MANAGER_NONE;
+			this.orientation = LinearLayoutManager.VERTICAL;
+			this.spanCount = 1;
+		} else {
+			this.layoutManagerType = LAYOUT_MANAGER_CUSTOM;
+			final boolean horizontal = layoutManager.canScrollHorizontally() && !layoutManager.canScrollVertically();
+			this.orientation = horizontal ? LinearLayoutManager.HORIZONTAL : LinearLayoutManager.VERTICAL;
+			this.spanCount = 1;
+		}
+	}
+
+	/**
+	 * Returns layout direction of the RecyclerView.
+	 *
+	 * @return Either {@link ViewCompat#LAYOUT_DIRECTION_LTR} or {@link ViewCompat#LAYOUT_DIRECTION_RTL}.
+	 *
+	 * @see #isLayoutRtl()
+	 */
+	public int getLayoutDirection() {
+		return layoutDirection;
+	}
+
+	/**
+	 * Checks whether the RecyclerView is laid out in <i>RTL</i> direction.
+	 *
+	 * @return {@code True} if layout direction is RTL, {@code false} otherwise.
+	 *
+	 * @see #getLayoutDirection()
+	 */
+	public boolean isLayoutRtl() {
+		return layoutDirection == ViewCompat.LAYOUT_DIRECTION_RTL;
+	}
+
+	/**
+	 * Returns a boolean flag indicating whether the RecyclerView clips its children to its padding.
+	 *
+	 * @return {@code True} if children are clipped to padding, {@code false} otherwise.
+	 *
+	 * @see #getClipBounds()
+	 */
+	public boolean getClipToPadding() {
+		return clipToPadding;
+	}
+
+	/**
+	 * Returns bounds within which are the children of the RecyclerView drawn. If the RecyclerView
+	 * clips its children to padding, these are its bounds without the padding, otherwise its whole
+	 * bounds.
+	 * <p>
+	 * The returned rect is shared and should not be modified.
+	 *
+	 * @return Clip bounds in the coordinates of the RecyclerView.
+	 *
+	 * @see #getClipToPadding()
+	 */
+	@NonNull public Rect getClipBounds() {
+		return clipBounds;
+	}
+
+	/**
+	 * Returns the layout manager of the RecyclerView.
+	 *
+	 * @return The layout manager or {@code null} if there is no layout manager attached.
+	 *
+	 * @see #getLayoutManagerType()
+	 */
+	@Nullable public RecyclerView.LayoutManager getLayoutManager() {
+		return layoutManager;
+	}
+
+	/**
+	 * Returns type of the layout manager of the RecyclerView.
+	 *
+	 * @return One of {@link #LAYOUT_MANAGER_NONE}, {@link #LAYOUT_MANAGER_LINEAR},
+	 * {@link #LAYOUT_MANAGER_GRID}, {@link #LAYOUT_MANAGER_STAGGERED_GRID} or {@link #LAYOUT_MANAGER_CUSTOM}.
+	 *
+	 * @see #getLayoutManager()
+	 */
+	@LayoutManagerType public int getLayoutManagerType() {
+		return layoutManagerType;
+	}
+
+	/**
+	 * Returns orientation in which are the items of the RecyclerView laid out. For custom layout
+	 * managers the orientation is resolved from directions in which they may scroll.
+	 *
+	 * @return Either {@link LinearLayoutManager#VERTICAL} or {@link LinearLayoutManager#HORIZONTAL}.
+	 */
+	public int getOrientation() {
+		return orientation;
+	}
+
+	/**
+	 * Returns count of spans in which are the items of the RecyclerView laid out.
+	 *
+	 * @return Span count of grid layout managers or {@code 1} for other layout managers.
+	 */
+	public int getSpanCount() {
+		return spanCount;
+	}
+
+	/**
+	 * Returns count of items which may be decorated.
+	 *
+	 * @return Items count for the current state of the RecyclerView.
+	 *
+	 * @see RecyclerView.State#getItemCount()
+	 */
+	public int getItemCount() {
+		return itemCount;
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+}
@@ -0,0 +1,419 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.decoration;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.support.annotation.AttrRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.StyleRes;
+import android.support.v4.content.ContextCompat;
+import android.util.AttributeSet;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Immutable specification of attribute values resolved for a set of styleable attributes of an item
+ * decoration. Such specification may be used instead of {@link TypedArray} when configuring
+ * decorations from styles.
+ * <p>
+ * Specifications obtained via {@link #obtain(Context, int[], int, int)} are resolved only once per
+ * combination of theme, styleable attributes, default style attribute and default style resource
+ * and are cached for subsequent requests, so decorations created from the same style do not parse
+ * their attributes again. Drawables are also shared among decorations created from the same
+ * specification via their {@link Drawable.ConstantState}, so each drawable is inflated only once.
+ * <p>
+ * <b>Note</b> that specifications resolved for a set of Xml attributes are not cached as such
+ * attributes are unique for each inflated decoration.
+ *
+ * @author Martin Albedinsky
+ * @since 1.1
+ */
+public final class DecorationSpec {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "DecorationSpec";
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/**
+	 * Cache with already resolved specifications mapped to themes for which have been resolved.
+	 */
+	private static final Map<Resources.Theme, Map<SpecKey, DecorationSpec>> CACHE = new WeakHashMap<>(4);
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Indexes of the styleable attributes which have a value specified.
+	 */
+	private final int[] indexes;
+
+	/**
+	 * Types of values of the attributes at corresponding positions in {@link #indexes}.
+	 */
+	private final int[] types;
+
+	/**
+	 * Data of values of the attributes at corresponding positions in {@link #indexes}. For dimension
+	 * values this contains already resolved size in pixels.
+	 */
+	private final int[] data;
+
+	/**
+	 * Resource ids of values of the attributes at corresponding positions in {@link #indexes}.
+	 */
+	private final int[] resourceIds;
+
+	/**
+	 * Constant states of drawables already loaded for attributes at corresponding positions in
+	 * {@link #indexes}.
+	 */
+	private final Drawable.ConstantState[] drawableStates;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of DecorationSpec from values of the given <var>attributes</var>.
+	 *
+	 * @param attributes The attributes from which to resolve values of the new specification.
+	 * @param metrics    Display metrics used to resolve dimension values.
+	 */
+	private DecorationSpec(final TypedArray attributes, final DisplayMetrics metrics) {
+		final int attributeCount = attributes.getIndexCount();
+		this.indexes = new int[attributeCount];
+		this.types = new int[attributeCount];
+		this.data = new int[attributeCount];
+		this.resourceIds = new int[attributeCount];
+		this.drawableStates = new Drawable.ConstantState[attributeCount];
+		final TypedValue value = new TypedValue();
+		for (int i = 0; i < attributeCount; i++) {
+			final int attrIndex = attributes.getIndex(i);
+			this.indexes[i] = attrIndex;
+			if (attributes.getValue(attrIndex, value)) {
+				this.types[i] = value.type;
+				this.data[i] = value.type == TypedValue.TYPE_DIMENSION ? TypedValue.complexToDimensionPixelSize(value.data, metrics) : value.data;
+				this.resourceIds[i] = value.resourceId;
+			} else {
+				this.types[i] = TypedValue.TYPE_NULL;
+			}
+		}
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Same as {@link #obtain(Context, AttributeSet, int[], int, int)} with {@code null} <var>attrs</var>.
+	 */
+	@NonNull public static DecorationSpec obtain(@NonNull final Context context, @NonNull final int[] styleable, @AttrRes final int defStyleAttr, @StyleRes final int defStyleRes) {
+		return obtain(context, null, styleable, defStyleAttr, defStyleRes);
+	}
+
+	/**
+	 * Obtains a specification of values for the specified <var>styleable</var> attributes resolved
+	 * within theme of the given <var>context</var>.
+	 * <p>
+	 * If the specified <var>attrs</var> are {@code null}, the specification is resolved only once
+	 * for the theme of the context and the specified default styles and the same instance is returned
+	 * for all subsequent requests.
+	 *
+	 * @param context      Context of which theme to use to resolve the attribute values.
+	 * @param attrs        Set of Xml attributes to resolve. May be {@code null}.
+	 * @param styleable    The desired styleable attributes.
+	 * @param defStyleAttr An attribute which contains a reference to a default style resource within
+	 *                     the theme of the given context.
+	 * @param defStyleRes  Resource id of the default style.
+	 * @return Specification with resolved attribute values.
+	 *
+	 * @see #clearCache()
+	 */
+	@NonNull public static DecorationSpec obtain(@NonNull final Context context, @Nullable final AttributeSet attrs, @NonNull final int[] styleable, @AttrRes final int defStyleAttr, @StyleRes final int defStyleRes) {
+		if (attrs != null) {
+			return resolve(context, attrs, styleable, defStyleAttr, defStyleRes);
+		}
+		final Resources.Theme theme = context.getTheme();
+		final SpecKey key = new SpecKey(styleable, defStyleAttr, defStyleRes);
+		synchronized (CACHE) {
+			Map<SpecKey, DecorationSpec> specs = CACHE.get(theme);
+			if (specs == null) {
+				CACHE.put(theme, specs = new HashMap<>(4));
+			}
+			DecorationSpec spec = specs.get(key);
+			if (spec == null) {
+				specs.put(key, spec = resolve(context, null, styleable, defStyleAttr, defStyleRes));
+			}
+			return spec;
+		}
+	}
+
+	/**
+	 * Resolves a new specification for the specified parameters.
+	 *
+	 * @see #obtain(Context, AttributeSet, int[], int, int)
+	 */
+	private static DecorationSpec resolve(final Context context, final AttributeSet attrs, final int[] styleable, final int defStyleAttr, final int defStyleRes) {
+		final TypedArray attributes = context.obtainStyledAttributes(attrs, styleable, defStyleAttr, defStyleRes);
+		final DecorationSpec spec = new DecorationSpec(attributes, context.getResources().getDisplayMetrics());
+		attributes.recycle();
+		return spec;
+	}
+
+	/**
+	 * Clears all cached specifications.
+	 * <p>
+	 * This should be called whenever attributes of an already used theme are changed, for example
+	 * via {@link Resources.Theme#applyStyle(int, boolean)}.
+	 */
+	public static void clearCache() {
+		synchronized (CACHE) {
+			CACHE.clear();
+		}
+	}
+
+	/**
+	 * Returns the count of attributes which have a value specified by this specification.
+	 *
+	 * @return Count of attributes with value.
+	 *
+	 * @see #getIndex(int)
+	 */
+	public int getIndexCount() {
+		return indexes.length;
+	}
+
+	/**
+	 * Returns index of the attribute at the specified <var>at</var> position. The returned index
+	 * may be used to access value of the attribute.
+	 *
+	 * @param at Position of the desired attribute from the range {@code [0, getIndexCount())}.
+	 * @return Index of the attribute within the styleable attributes for which has been this
+	 * specification resolved.
+	 *
+	 * @see #getIndexCount()
+	 */
+	public int getIndex(final int at) {
+		return indexes[at];
+	}
+
+	/**
+	 * Checks whether this specification has a value specified for attribute at the specified <var>index</var>.
+	 *
+	 * @param index Index of the desired attribute.
+	 * @return {@code True} if there is value specified, {@code false} otherwise.
+	 */
+	public boolean hasValue(final int index) {
+		final int position = positionOf(index);
+		return position != -1 && types[position] != TypedValue.TYPE_NULL;
+	}
+
+	/**
+	 * Returns the boolean value of attribute at the specified <var>index</var>.
+	 *
+	 * @param index        Index of the desired attribute.
+	 * @param defaultValue Value to return if the attribute does not have a boolean value specified.
+	 * @return The attribute's boolean value or <var>defaultValue</var>.
+	 */
+	public boolean getBoolean(final int index, final boolean defaultValue) {
+		final int position = positionOf(index);
+		return position != -1 && isIntegerType(types[position]) ? data[position] != 0 : defaultValue;
+	}
+
+	/**
+	 * Returns the integer value of attribute at the specified <var>index</var>.
+	 *
+	 * @param index        Index of the desired attribute.
+	 * @param defaultValue Value to return if the attribute does not have an integer value specified.
+	 * @return The attribute's integer value or <var>defaultValue</var>.
+	 */
+	public int getInt(final int index, final int defaultValue) {
+		final int position = positionOf(index);
+		return position != -1 && isIntegerType(types[position]) ? data[position] : defaultValue;
+	}
+
+	/**
+	 * Returns the dimension value of attribute at the specified <var>index</var> converted to pixels
+	 * in the same way as {@link TypedArray#getDimensionPixelSize(int, int)} does.
+	 *
+	 * @param index        Index of the desired attribute.
+	 * @param defaultValue Value to return if the attribute does not have a dimension value specified.
+	 * @return The attribute's dimension value in pixels or <var>defaultValue</var>.
+	 */
+	public int getDimensionPixelSize(final int index, final int defaultValue) {
+		final int position = positionOf(index);
+		return position != -1 && types[position] == TypedValue.TYPE_DIMENSION ? data[position] : defaultValue;
+	}
+
+	/**
+	 * Returns a new drawable for the value of attribute at the specified <var>index</var>.
+	 * <p>
+	 * The drawable is loaded only for the first time and all subsequently returned drawables are
+	 * created from its {@link Drawable.ConstantState} with theme of the given context applied.
+	 *
+	 * @param index   Index of the desired attribute.
+	 * @param context Context used to load the drawable. Should have the same theme as the one for
+	 *                which has been this specification resolved.
+	 * @return The attribute's drawable or {@code null} if the attribute does not have a drawable
+	 * value specified.
+	 */
+	@Nullable public Drawable getDrawable(final int index, @NonNull final Context context) {
+		final int position = positionOf(index);
+		if (position == -1) {
+			return null;
+		}
+		Drawable.ConstantState drawableState;
+		synchronized (drawableStates) {
+			drawableState = drawableStates[position];
+		}
+		if (drawableState == null) {
+			final Drawable drawable = loadDrawable(position, context);
+			if (drawable == null || (drawableState = drawable.getConstantState()) == null) {
+				return drawable;
+			}
+			synchronized (drawableStates) {
+				this.drawableStates[position] = drawableState;
+			}
+		}
+		// Themed attributes of the drawable, like its tint, need to be resolved against the theme
+		// of the context, the same way as when the drawable is loaded.
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+			return drawableState.newDrawable(context.getResources(), context.getTheme());
+		}
+		return drawableState.newDrawable(context.getResources());
+	}
+
+	/**
+	 * Loads a new drawable for the value at the specified <var>position</var>.
+	 *
+	 * @param position Position of the value for which to load the drawable.
+	 * @param context  Context used to load the drawable.
+	 * @return Loaded drawable or {@code null} if the value does not represent a drawable.
+	 */
+	private Drawable loadDrawable(final int position, final Context context) {
+		if (resourceIds[position] != 0) {
+			return ContextCompat.getDrawable(context, resourceIds[position]);
+		}
+		final int type = types[position];
+		return type >= TypedValue.TYPE_FIRST_COLOR_INT && type <= TypedValue.TYPE_LAST_COLOR_INT ? new ColorDrawable(data[position]) : null;
+	}
+
+	/**
+	 * Returns position of the specified attribute <var>index</var> within values of this specification.
+	 *
+	 * @param index Index of the desired attribute.
+	 * @return Position of the attribute's value or {@code -1} if there is no value for the attribute.
+	 */
+	private int positionOf(final int index) {
+		for (int i = 0; i < indexes.length; i++) {
+			if (indexes[i] == index) return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Checks whether the specified value <var>type</var> represents an integer value.
+	 *
+	 * @param type The type to check.
+	 * @return {@code True} if the type is one of integer types, {@code false} otherwise.
+	 */
+	private static boolean isIntegerType(final int type) {
+		return type >= TypedValue.TYPE_FIRST_INT && type <= TypedValue.TYPE_LAST_INT;
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+
+	/**
+	 * Key under which is a resolved specification cached for a particular theme.
+	 */
+	private static final class SpecKey {
+
+		/**
+		 * Styleable attributes for which has been the specification resolved.
+		 */
+		final int[] styleable;
+
+		/**
+		 * Default style attribute for which has been the specification resolved.
+		 */
+		final int defStyleAttr;
+
+		/**
+		 * Default style resource for which has been the specification resolved.
+		 */
+		final int defStyleRes;
+
+		/**
+		 * Creates a new instance of SpecKey with the specified parameters.
+		 *
+		 * @param styleable    The styleable attributes.
+		 * @param defStyleAttr The default style attribute.
+		 * @param defStyleRes  The default style resource.
+		 */
+		SpecKey(final int[] styleable, final int defStyleAttr, final int defStyleRes) {
+			this.styleable = styleable;
+			this.defStyleAttr = defStyleAttr;
+			this.defStyleRes = defStyleRes;
+		}
+
+		/**
+		 */
+		@Override public int hashCode() {
+			int hash = System.identityHashCode(styleable);
+			hash = 31 * hash + defStyleAttr;
+			hash = 31 * hash + defStyleRes;
+			return hash;
+		}
+
+		/**
+		 */
+		@Override public boolean equals(@Nullable final Object other) {
+			if (other == this) return true;
+			if (!(other instanceof SpecKey)) return false;
+			final SpecKey key = (SpecKey) other;
+			return styleable == key.styleable && defStyleAttr == key.defStyleAttr && defStyleRes == key.defStyleRes;
+		}
+	}
+}
@@ -0,0 +1,665 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.decoration;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import android.support.v4.view.ViewCompat;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import universum.studios.android.recycler.R;
+
+/**
+ * Cache shared by all {@link RecyclerViewItemDecoration RecyclerViewItemDecorations} added into
+ * a single {@link RecyclerView} which resolves data commonly needed by decorations, like adapter
+ * position of an item view, count of items or layout direction, only once per layout/draw pass.
+ * <p>
+ * The cache is attached to its RecyclerView as a tag and may be obtained via
+ * {@link RecyclerViewItemDecoration#obtainCache(RecyclerView)}. All cached data are invalidated
+ * at the start of each layout/draw pass in which the RecyclerView changes its structure or count
+ * of its items, whenever the RecyclerView finishes its layout or whenever data set of its adapter
+ * changes. Data cached for a particular item view are also invalidated whenever such view is
+ * attached to or detached from the RecyclerView.
+ * <p>
+ * The cache stops observing the adapter of its RecyclerView whenever the RecyclerView is detached
+ * from window and releases itself from the RecyclerView when the last decoration that uses it is
+ * removed from the RecyclerView.
+ *
+ * @author Martin Albedinsky
+ * @since 1.1
+ */
+public final class ItemDecorationCache {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "ItemDecorationCache";
+
+	/**
+	 * Generation value which is never valid for any cache.
+	 */
+	private static final int GENERATION_NONE = -1;
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * RecyclerView to which is this cache attached.
+	 */
+	private final RecyclerView parent;
+
+	/**
+	 * Observer registered on the adapter of the parent RecyclerView.
+	 */
+	private final RecyclerView.AdapterDataObserver dataObserver = new DataObserver();
+
+	/**
+	 * Listener registered on the parent RecyclerView.
+	 */
+	private final ParentListener parentListener = new ParentListener();
+
+	/**
+	 * List of decorations which are currently bound to the parent RecyclerView and use this cache.
+	 *
+	 * @see #bindDecoration(RecyclerViewItemDecoration)
+	 * @see #unbindDecoration(RecyclerViewItemDecoration)
+	 */
+	private final List<RecyclerViewItemDecoration> decorations = new ArrayList<>(2);
+
+	/**
+	 * Adapter of the parent RecyclerView which is currently observed by this cache.
+	 *
+	 * @see #attachAdapter(RecyclerView.Adapter)
+	 */
+	private RecyclerView.Adapter adapter;
+
+	/**
+	 * Current generation of this cache. Any cached data resolved in a different generation are
+	 * considered invalid.
+	 *
+	 * @see #invalidate()
+	 */
+	int generation;
+
+	/**
+	 * Boolean flag indicating whether the parent RecyclerView has been computing its layout when
+	 * this cache has been accessed the last time.
+	 *
+	 * @see #checkPass(RecyclerView.State)
+	 */
+	private boolean passComputingLayout;
+
+	/**
+	 * Boolean flag indicating whether the state of the parent RecyclerView has reported structure
+	 * change when this cache has been accessed the last time.
+	 *
+	 * @see #checkPass(RecyclerView.State)
+	 */
+	private boolean passStructureChanged;
+
+	/**
+	 * Count of items reported by the state of the parent RecyclerView when this cache has been
+	 * accessed the last time.
+	 *
+	 * @see #checkPass(RecyclerView.State)
+	 */
+	private int passItemCount = -1;
+
+	/**
+	 * Generation in which has been the {@link #layoutDirection} resolved.
+	 */
+	private int layoutDirectionGeneration = GENERATION_NONE;
+
+	/**
+	 * Layout direction of the parent RecyclerView resolved for the current generation.
+	 */
+	private int layoutDirection;
+
+	/**
+	 * Generation in which has been the {@link #itemCount} resolved.
+	 */
+	private int itemCountGeneration = GENERATION_NONE;
+
+	/**
+	 * Boolean flag indicating whether the {@link #itemCount} has been resolved for pre-layout state.
+	 */
+	private boolean itemCountPreLayout;
+
+	/**
+	 * Count of items resolved for the current generation.
+	 */
+	private int itemCount;
+
+	/**
+	 * Context with layout data of the parent RecyclerView.
+	 *
+	 * @see #resolveLayoutContext(RecyclerView.State)
+	 */
+	private final DecorationLayoutContext layoutContext = new DecorationLayoutContext();
+
+	/**
+	 * Generation in which has been the {@link #layoutContext} resolved.
+	 */
+	private int layoutContextGeneration = GENERATION_NONE;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of ItemDecorationCache for the specified <var>parent</var>.
+	 *
+	 * @param parent The RecyclerView for which to cache decoration data.
+	 */
+	@VisibleForTesting ItemDecorationCache(@NonNull final RecyclerView parent) {
+		this.parent = parent;
+		parent.addOnChildAttachStateChangeListener(parentListener);
+		parent.addOnLayoutChangeListener(parentListener);
+		parent.addOnAttachStateChangeListener(parentListener);
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Obtains the cache attached to the specified <var>parent</var>. If there is no cache attached
+	 * yet, a new one is created and attached.
+	 *
+	 * @param parent The RecyclerView for which to obtain the cache.
+	 * @return Cache shared by all decorations of the parent RecyclerView.
+	 */
+	@NonNull static ItemDecorationCache obtainFor(@NonNull final RecyclerView parent) {
+		final Object tag = parent.getTag(R.id.recycler_decoration_cache);
+		if (tag instanceof ItemDecorationCache) {
+			return (ItemDecorationCache) tag;
+		}
+		final ItemDecorationCache cache = new ItemDecorationCache(parent);
+		parent.setTag(R.id.recycler_decoration_cache, cache);
+		return cache;
+	}
+
+	/**
+	 * Binds the specified <var>decoration</var> to this cache so the cache stays attached to its
+	 * parent RecyclerView at least until the decoration is unbound.
+	 *
+	 * @param decoration The decoration that uses this cache.
+	 *
+	 * @see #unbindDecoration(RecyclerViewItemDecoration)
+	 */
+	void bindDecoration(@NonNull final RecyclerViewItemDecoration decoration) {
+		if (!decorations.contains(decoration)) {
+			decorations.add(decoration);
+		}
+	}
+
+	/**
+	 * Unbinds the specified <var>decoration</var> from this cache. If it is the last decoration
+	 * bound to this cache, the cache is released from its parent RecyclerView.
+	 *
+	 * @param decoration The decoration that no longer uses this cache.
+	 *
+	 * @see #bindDecoration(RecyclerViewItemDecoration)
+	 */
+	void unbindDecoration(@NonNull final RecyclerViewItemDecoration decoration) {
+		if (decorations.remove(decoration) && decorations.isEmpty()) {
+			this.release();
+		}
+	}
+
+	/**
+	 * Unbinds all decorations bound to this cache which are no longer added into the parent
+	 * RecyclerView, either directly or as a part of other decoration.
+	 */
+	private void unbindRemovedDecorations() {
+		final int decorationsCount = decorations.size();
+		for (int i = 0; i < decorationsCount; i++) {
+			if (!isDecorationAdded(decorations.get(i))) {
+				// Unbinding of one decoration may unbind also decorations hosted by it.
+				this.unbindDecorations(false);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Unbinds decorations bound to this cache.
+	 *
+	 * @param all {@code True} to unbind all decorations, {@code false} to unbind only those which
+	 *            are no longer added into the parent RecyclerView.
+	 */
+	private void unbindDecorations(final boolean all) {
+		final RecyclerViewItemDecoration[] boundDecorations = decorations.toArray(new RecyclerViewItemDecoration[decorations.size()]);
+		for (final RecyclerViewItemDecoration decoration : boundDecorations) {
+			if (decorations.contains(decoration) && (all || !isDecorationAdded(decoration))) {
+				decoration.unbindParent(parent);
+				// Ensure the decoration is unbound also if it is bound to other parent or has lost
+				// reference to this one.
+				this.unbindDecoration(decoration);
+			}
+		}
+	}
+
+	/**
+	 * Checks whether the specified <var>decoration</var> is added into the parent RecyclerView.
+	 *
+	 * @param decoration The decoration to be checked.
+	 * @return {@code True} if the decoration is added into the parent either directly or as a part
+	 * of other decoration, {@code false} otherwise.
+	 */
+	private boolean isDecorationAdded(final RecyclerViewItemDecoration decoration) {
+		final int decorationCount = parent.getItemDecorationCount();
+		for (int i = 0; i < decorationCount; i++) {
+			final RecyclerView.ItemDecoration addedDecoration = parent.getItemDecorationAt(i);
+			if (addedDecoration == decoration) {
+				return true;
+			}
+			if (addedDecoration instanceof RecyclerViewItemDecoration && ((RecyclerViewItemDecoration) addedDecoration).hostsDecoration(decoration)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Releases this cache from its parent RecyclerView. The cache stops observing the adapter of
+	 * the parent, removes all listeners registered on the parent and detaches itself from it.
+	 */
+	private void release() {
+		this.attachAdapter(null);
+		parent.removeOnChildAttachStateChangeListener(parentListener);
+		parent.removeOnLayoutChangeListener(parentListener);
+		parent.removeOnAttachStateChangeListener(parentListener);
+		if (parent.getTag(R.id.recycler_decoration_cache) == this) {
+			parent.setTag(R.id.recycler_decoration_cache, null);
+		}
+	}
+
+	/**
+	 * Starts observing of the given <var>adapter</var> (if not observed yet). If there is other
+	 * adapter observed at this time, such adapter is no longer observed.
+	 *
+	 * @param adapter The adapter to be observed. May be {@code null} to only stop observing of
+	 *                the current one.
+	 */
+	@VisibleForTesting void attachAdapter(@Nullable final RecyclerView.Adapter adapter) {
+		if (this.adapter == adapter) {
+			return;
+		}
+		if (this.adapter != null) {
+			this.adapter.unregisterAdapterDataObserver(dataObserver);
+		}
+		this.adapter = adapter;
+		if (adapter != null) {
+			adapter.registerAdapterDataObserver(dataObserver);
+		}
+		this.invalidate();
+	}
+
+	/**
+	 * Checks whether the parent RecyclerView has started a new layout/draw pass since this cache
+	 * has been accessed the last time and invalidates all data stored in this cache if so. A new
+	 * pass is recognized by a change of the <b>computing layout</b> flag of the parent, by a change
+	 * of the item count reported by the given <var>state</var> or by the state starting to report
+	 * structure change.
+	 * <p>
+	 * This also starts observing of the current adapter of the parent RecyclerView (if not observed
+	 * yet).
+	 *
+	 * @param state Current state of the parent RecyclerView.
+	 */
+	private void checkPass(final RecyclerView.State state) {
+		attachAdapter(parent.getAdapter());
+		final boolean computingLayout = parent.isComputingLayout();
+		final boolean structureChanged = state.didStructureChange();
+		final int stateItemCount = state.getItemCount();
+		if (computingLayout != passComputingLayout || (structureChanged && !passStructureChanged) || stateItemCount != passItemCount) {
+			this.invalidate();
+		}
+		this.passComputingLayout = computingLayout;
+		this.passStructureChanged = structureChanged;
+		this.passItemCount = stateItemCount;
+	}
+
+	/**
+	 * Invalidates all data stored in this cache.
+	 */
+	void invalidate() {
+		// Wrap around to zero so the generation never matches GENERATION_NONE.
+		this.generation = generation == Integer.MAX_VALUE ? 0 : generation + 1;
+	}
+
+	/**
+	 * Returns layout direction of the parent RecyclerView.
+	 *
+	 * @return Either {@link ViewCompat#LAYOUT_DIRECTION_LTR} or {@link ViewCompat#LAYOUT_DIRECTION_RTL}.
+	 *
+	 * @see #isLayoutRtl()
+	 */
+	public int getLayoutDirection() {
+		if (layoutDirectionGeneration != generation) {
+			this.layoutDirection = ViewCompat.getLayoutDirection(parent);
+			this.layoutDirectionGeneration = generation;
+		}
+		return layoutDirection;
+	}
+
+	/**
+	 * Checks whether the parent RecyclerView is laid out in <i>RTL</i> direction.
+	 *
+	 * @return {@code True} if layout direction is RTL, {@code false} otherwise.
+	 *
+	 * @see #getLayoutDirection()
+	 */
+	public boolean isLayoutRtl() {
+		return getLayoutDirection() == ViewCompat.LAYOUT_DIRECTION_RTL;
+	}
+
+	/**
+	 * Returns count of items for the given <var>state</var> of the parent RecyclerView.
+	 *
+	 * @param state Current state of the parent RecyclerView.
+	 * @return Count of items which may be decorated.
+	 *
+	 * @see RecyclerView.State#getItemCount()
+	 */
+	public int getItemCount(@NonNull final RecyclerView.State state) {
+		this.checkPass(state);
+		return resolveItemCount(state);
+	}
+
+	/**
+	 * Resolves count of items for the given <var>state</var> within the current pass checked via
+	 * {@link #checkPass(RecyclerView.State)}.
+	 *
+	 * @param state Current state of the parent RecyclerView.
+	 * @return Count of items which may be decorated.
+	 */
+	private int resolveItemCount(final RecyclerView.State state) {
+		final boolean preLayout = state.isPreLayout();
+		if (itemCountGeneration != generation || itemCountPreLayout != preLayout) {
+			this.itemCount = passItemCount;
+			this.itemCountPreLayout = preLayout;
+			this.itemCountGeneration = generation;
+		}
+		return itemCount;
+	}
+
+	/**
+	 * Resolves layout context of the parent RecyclerView for the given <var>state</var>.
+	 * <p>
+	 * Data of the context are resolved only once per layout/draw pass, subsequent calls in the same
+	 * pass return the same context without querying the parent RecyclerView again. The context is
+	 * resolved again at the start of each pass in which the cache is invalidated.
+	 *
+	 * @param state Current state of the parent RecyclerView.
+	 * @return Context with resolved layout data.
+	 */
+	@NonNull public DecorationLayoutContext resolveLayoutContext(@NonNull final RecyclerView.State state) {
+		this.checkPass(state);
+		if (layoutContextGeneration != generation || layoutContext.preLayout != state.isPreLayout()) {
+			final int layoutDirection = getLayoutDirection();
+			final int itemCount = resolveItemCount(state);
+			layoutContext.resolve(parent, layoutDirection, itemCount, itemCountPreLayout);
+			this.layoutContextGeneration = generation;
+		}
+		return layoutContext;
+	}
+
+	/**
+	 * Resolves decoration data for the specified item <var>view</var>.
+	 * <p>
+	 * Data are resolved only once per layout/draw pass, subsequent calls in the same pass return
+	 * the same item with already resolved data. The given <var>state</var> is not accessed if the
+	 * view does not have adapter position.
+	 *
+	 * @param view  The item view for which to resolve its data.
+	 * @param state Current state of the parent RecyclerView.
+	 * @return Item with resolved data for the view.
+	 */
+	@NonNull public Item resolveItem(@NonNull final View view, @NonNull final RecyclerView.State state) {
+		final Object tag = view.getTag(R.id.recycler_decoration_cache_item);
+		Item item = tag instanceof Item ? (Item) tag : null;
+		boolean passChecked = false;
+		if (item == null || item.cache != this) {
+			view.setTag(R.id.recycler_decoration_cache_item, item = new Item(this));
+		} else if (item.position != RecyclerView.NO_POSITION) {
+			this.checkPass(state);
+			passChecked = true;
+			if (item.generation == generation && item.preLayout == state.isPreLayout()) {
+				return item;
+			}
+		}
+		item.position = parent.getChildAdapterPosition(view);
+		if (item.position == RecyclerView.NO_POSITION) {
+			// Do not access the state if there is nothing else to be resolved. Such item is never
+			// reused from the cache, so its generation does not matter.
+			item.generation = GENERATION_NONE;
+			item.itemCount = 0;
+			item.preLayout = false;
+			return item;
+		}
+		if (!passChecked) {
+			this.checkPass(state);
+		}
+		item.generation = generation;
+		item.itemCount = resolveItemCount(state);
+		item.preLayout = itemCountPreLayout;
+		return item;
+	}
+
+	/**
+	 * Invalidates data cached for the specified item <var>view</var> (if any).
+	 *
+	 * @param view The view for which to invalidate its cached data.
+	 */
+	private void invalidateItem(final View view) {
+		final Object tag = view.getTag(R.id.recycler_decoration_cache_item);
+		if (tag instanceof Item) {
+			((Item) tag).generation = GENERATION_NONE;
+		}
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+
+	/**
+	 * Holder for decoration data resolved for a single item view.
+	 *
+	 * @author Martin Albedinsky
+	 * @since 1.1
+	 */
+	public static final class Item {
+
+		/**
+		 * Cache which owns this item.
+		 */
+		final ItemDecorationCache cache;
+
+		/**
+		 * Generation of the cache in which have been data of this item resolved.
+		 */
+		int generation = GENERATION_NONE;
+
+		/**
+		 * Boolean flag indicating whether data of this item have been resolved for pre-layout.
+		 */
+		boolean preLayout;
+
+		/**
+		 * Adapter position of the associated item view.
+		 */
+		int position = RecyclerView.NO_POSITION;
+
+		/**
+		 * Count of items at the time when data of this item have been resolved.
+		 */
+		int itemCount;
+
+		/**
+		 * Creates a new instance of Item owned by the specified <var>cache</var>.
+		 *
+		 * @param cache The cache that owns the new item.
+		 */
+		Item(final ItemDecorationCache cache) {
+			this.cache = cache;
+		}
+
+		/**
+		 * Returns the adapter position of the associated item view.
+		 *
+		 * @return Adapter position or {@link RecyclerView#NO_POSITION} if the position is not
+		 * available.
+		 */
+		public int getPosition() {
+			return position;
+		}
+
+		/**
+		 * Returns the count of items within data set of the parent RecyclerView.
+		 *
+		 * @return Items count or {@code 0} if position of the associated item view is not available.
+		 */
+		public int getItemCount() {
+			return itemCount;
+		}
+
+		/**
+		 * Checks whether the associated item view is presenting the first item from data set.
+		 *
+		 * @return {@code True} if the item view is the first one, {@code false} otherwise.
+		 */
+		public boolean isFirst() {
+			return position == 0;
+		}
+
+		/**
+		 * Checks whether the associated item view is presenting the last item from data set.
+		 *
+		 * @return {@code True} if the item view is the last one, {@code false} otherwise.
+		 */
+		public boolean isLast() {
+			return position != RecyclerView.NO_POSITION && position == itemCount - 1;
+		}
+	}
+
+	/**
+	 * An {@link RecyclerView.AdapterDataObserver} which invalidates the cache whenever data set of
+	 * the observed adapter changes.
+	 */
+	private final class DataObserver extends RecyclerView.AdapterDataObserver {
+
+		/**
+		 */
+		@Override public void onChanged() {
+			invalidate();
+		}
+
+		/**
+		 */
+		@Override public void onItemRangeChanged(final int positionStart, final int itemCount) {
+			invalidate();
+		}
+
+		/**
+		 */
+		@Override public void onItemRangeInserted(final int positionStart, final int itemCount) {
+			invalidate();
+		}
+
+		/**
+		 */
+		@Override public void onItemRangeRemoved(final int positionStart, final int itemCount) {
+			invalidate();
+		}
+
+		/**
+		 */
+		@Override public void onItemRangeMoved(final int fromPosition, final int toPosition, final int itemCount) {
+			invalidate();
+		}
+	}
+
+	/**
+	 * Listener which invalidates the cache whenever the parent RecyclerView has been laid out and
+	 * data cached for item views whenever those views are attached or detached. The listener also
+	 * unbinds decorations removed from the parent and releases the cache whenever the parent is
+	 * detached from window.
+	 */
+	private final class ParentListener implements
+			RecyclerView.OnChildAttachStateChangeListener,
+			View.OnLayoutChangeListener,
+			View.OnAttachStateChangeListener {
+
+		/**
+		 */
+		@Override public void onChildViewAttachedToWindow(@NonNull final View view) {
+			invalidateItem(view);
+		}
+
+		/**
+		 */
+		@Override public void onChildViewDetachedFromWindow(@NonNull final View view) {
+			invalidateItem(view);
+		}
+
+		/**
+		 */
+		@Override public void onLayoutChange(
+				final View view,
+				final int left, final int top, final int right, final int bottom,
+				final int oldLeft, final int oldTop, final int oldRight, final int oldBottom
+		) {
+			invalidate();
+			unbindRemovedDecorations();
+		}
+
+		/**
+		 */
+		@Override public void onViewAttachedToWindow(@NonNull final View view) {
+			// Adapter is attached again at the start of the next pass.
+		}
+
+		/**
+		 */
+		@Override public void onViewDetachedFromWindow(@NonNull final View view) {
+			unbindDecorations(true);
+			release();
+		}
+	}
+}
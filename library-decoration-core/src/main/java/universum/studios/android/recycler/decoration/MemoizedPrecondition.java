@@ -0,0 +1,159 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.decoration;
+
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import universum.studios.android.recycler.AdapterPositionCache;
+import universum.studios.android.recycler.decoration.RecyclerViewItemDecoration.Precondition;
+
+/**
+ * A {@link Precondition} implementation which wraps another precondition and memoizes its results
+ * by adapter positions of the checked item views, so the wrapped precondition is evaluated for each
+ * item only once, no matter how many times the item is being decorated.
+ * <p>
+ * Memoized results are kept in sync with data set changes of the adapter attached to the parent
+ * RecyclerView. Results for inserted, removed and moved items are shifted and results for changed
+ * items are invalidated, so the wrapped precondition is evaluated again only for the affected items.
+ * If the wrapped precondition depends also on data of neighbour items, results for such neighbours
+ * should be invalidated via {@link #invalidate(int, int)} when needed.
+ * <p>
+ * <b>Note</b> that the same instance of memoized precondition should not be used for multiple
+ * RecyclerViews with different adapters.
+ *
+ * @author Martin Albedinsky
+ * @since 1.1
+ */
+public final class MemoizedPrecondition implements Precondition {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "MemoizedPrecondition";
+
+	/**
+	 * Value stored for a position for which is the wrapped precondition satisfied.
+	 */
+	private static final int RESULT_SATISFIED = 1;
+
+	/**
+	 * Value stored for a position for which is the wrapped precondition not satisfied.
+	 */
+	private static final int RESULT_NOT_SATISFIED = 0;
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Precondition of which results are memoized.
+	 */
+	private final Precondition precondition;
+
+	/**
+	 * Cache with memoized results by adapter positions.
+	 */
+	private final AdapterPositionCache results = new AdapterPositionCache(1);
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of MemoizedPrecondition for the specified <var>precondition</var>.
+	 *
+	 * @param precondition The precondition of which results should be memoized.
+	 */
+	public MemoizedPrecondition(@NonNull final Precondition precondition) {
+		this.precondition = precondition;
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Returns the precondition wrapped by this memoized precondition.
+	 *
+	 * @return The wrapped precondition.
+	 */
+	@NonNull public Precondition getPrecondition() {
+		return precondition;
+	}
+
+	/**
+	 */
+	@Override public boolean check(@NonNull final View view, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
+		final RecyclerView.Adapter adapter = parent.getAdapter();
+		if (adapter == null || state.isPreLayout()) {
+			return precondition.check(view, parent, state);
+		}
+		results.attachAdapter(adapter);
+		final int position = ItemDecorationCache.obtainFor(parent).resolveItem(view, state).getPosition();
+		if (position == RecyclerView.NO_POSITION) {
+			return precondition.check(view, parent, state);
+		}
+		if (results.contains(position)) {
+			return results.get(position, 0) == RESULT_SATISFIED;
+		}
+		final boolean satisfied = precondition.check(view, parent, state);
+		results.put(position, 0, satisfied ? RESULT_SATISFIED : RESULT_NOT_SATISFIED);
+		return satisfied;
+	}
+
+	/**
+	 * Invalidates memoized results for the specified range of adapter positions, so the wrapped
+	 * precondition will be evaluated again for the items from that range.
+	 *
+	 * @param positionStart Adapter position of the first item of which result to invalidate.
+	 * @param itemCount     Count of items of which results to invalidate.
+	 *
+	 * @see #invalidate()
+	 */
+	public void invalidate(final int positionStart, final int itemCount) {
+		results.invalidate(positionStart, itemCount);
+	}
+
+	/**
+	 * Invalidates all memoized results.
+	 *
+	 * @see #invalidate(int, int)
+	 */
+	public void invalidate() {
+		results.clear();
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+}
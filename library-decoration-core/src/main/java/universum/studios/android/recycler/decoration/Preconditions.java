@@ -0,0 +1,327 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.decoration;
+
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import universum.studios.android.recycler.decoration.RecyclerViewItemDecoration.Precondition;
+
+/**
+ * Utility class which provides combinators for {@link Precondition Preconditions} of
+ * {@link RecyclerViewItemDecoration RecyclerViewItemDecorations}.
+ * <p>
+ * Parts of combined preconditions that are constant are folded when the combined precondition is
+ * created, that is {@link Precondition#EMPTY} and {@link #NONE} preconditions are eliminated and
+ * all {@link ViewTypePrecondition ViewTypePreconditions} are merged into a single one which is
+ * checked first.
+ *
+ * @author Martin Albedinsky
+ * @since 1.1
+ */
+public final class Preconditions {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "Preconditions";
+
+	/**
+	 * Precondition which is never satisfied, that is, no item view will be decorated when using
+	 * this precondition. This is an opposite of {@link Precondition#EMPTY}.
+	 */
+	@NonNull public static final Precondition NONE = new Precondition() {
+
+		/**
+		 */
+		@Override public boolean check(@NonNull final View view, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
+			return false;
+		}
+	};
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 */
+	private Preconditions() {
+		// Not allowed to be instantiated publicly.
+		throw new UnsupportedOperationException();
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Creates a precondition which is satisfied only if all of the specified <var>preconditions</var>
+	 * are satisfied.
+	 *
+	 * @param preconditions The desired preconditions to be combined.
+	 * @return Combined precondition. May be one of the specified preconditions or a constant
+	 * precondition if the combination could be folded.
+	 *
+	 * @see #or(Precondition...)
+	 * @see #not(Precondition)
+	 */
+	@NonNull public static Precondition and(@NonNull final Precondition... preconditions) {
+		final List<Precondition> parts = new ArrayList<>(preconditions.length);
+		ViewTypePrecondition viewTypePrecondition = null;
+		for (final Precondition precondition : flatten(preconditions, true)) {
+			if (precondition == Precondition.EMPTY) {
+				continue;
+			}
+			if (precondition == NONE) {
+				return NONE;
+			}
+			if (precondition instanceof ViewTypePrecondition) {
+				final ViewTypePrecondition viewType = (ViewTypePrecondition) precondition;
+				viewTypePrecondition = viewTypePrecondition == null ? viewType : viewTypePrecondition.and(viewType);
+			} else {
+				parts.add(precondition);
+			}
+		}
+		if (viewTypePrecondition != null) {
+			if (viewTypePrecondition.isNeverSatisfied()) {
+				return NONE;
+			}
+			if (!viewTypePrecondition.isAlwaysSatisfied()) {
+				parts.add(0, viewTypePrecondition);
+			}
+		}
+		switch (parts.size()) {
+			case 0:
+				return Precondition.EMPTY;
+			case 1:
+				return parts.get(0);
+			default:
+				return new AndPrecondition(parts.toArray(new Precondition[parts.size()]));
+		}
+	}
+
+	/**
+	 * Creates a precondition which is satisfied if any of the specified <var>preconditions</var>
+	 * is satisfied.
+	 *
+	 * @param preconditions The desired preconditions to be combined.
+	 * @return Combined precondition. May be one of the specified preconditions or a constant
+	 * precondition if the combination could be folded.
+	 *
+	 * @see #and(Precondition...)
+	 * @see #not(Precondition)
+	 */
+	@NonNull public static Precondition or(@NonNull final Precondition... preconditions) {
+		final List<Precondition> parts = new ArrayList<>(preconditions.length);
+		ViewTypePrecondition viewTypePrecondition = null;
+		for (final Precondition precondition : flatten(preconditions, false)) {
+			if (precondition == NONE) {
+				continue;
+			}
+			if (precondition == Precondition.EMPTY) {
+				return Precondition.EMPTY;
+			}
+			if (precondition instanceof ViewTypePrecondition) {
+				final ViewTypePrecondition viewType = (ViewTypePrecondition) precondition;
+				viewTypePrecondition = viewTypePrecondition == null ? viewType : viewTypePrecondition.or(viewType);
+			} else {
+				parts.add(precondition);
+			}
+		}
+		if (viewTypePrecondition != null) {
+			if (viewTypePrecondition.isAlwaysSatisfied()) {
+				return Precondition.EMPTY;
+			}
+			if (!viewTypePrecondition.isNeverSatisfied()) {
+				parts.add(0, viewTypePrecondition);
+			}
+		}
+		switch (parts.size()) {
+			case 0:
+				return NONE;
+			case 1:
+				return parts.get(0);
+			default:
+				return new OrPrecondition(parts.toArray(new Precondition[parts.size()]));
+		}
+	}
+
+	/**
+	 * Creates a precondition which is satisfied only if the specified <var>precondition</var> is not.
+	 *
+	 * @param precondition The desired precondition to be negated.
+	 * @return Negated precondition.
+	 *
+	 * @see #and(Precondition...)
+	 * @see #or(Precondition...)
+	 */
+	@NonNull public static Precondition not(@NonNull final Precondition precondition) {
+		if (precondition == Precondition.EMPTY) {
+			return NONE;
+		}
+		if (precondition == NONE) {
+			return Precondition.EMPTY;
+		}
+		if (precondition instanceof ViewTypePrecondition) {
+			return ((ViewTypePrecondition) precondition).negate();
+		}
+		if (precondition instanceof NotPrecondition) {
+			return ((NotPrecondition) precondition).precondition;
+		}
+		return new NotPrecondition(precondition);
+	}
+
+	/**
+	 * Flattens the given preconditions by replacing nested preconditions of the same combination
+	 * type by their parts.
+	 *
+	 * @param preconditions The preconditions to be flattened.
+	 * @param and           {@code True} to flatten nested {@link AndPrecondition AndPreconditions},
+	 *                      {@code false} to flatten nested {@link OrPrecondition OrPreconditions}.
+	 * @return List with flattened preconditions.
+	 */
+	private static List<Precondition> flatten(final Precondition[] preconditions, final boolean and) {
+		final List<Precondition> flattened = new ArrayList<>(preconditions.length);
+		for (final Precondition precondition : preconditions) {
+			if (and && precondition instanceof AndPrecondition) {
+				Collections.addAll(flattened, ((AndPrecondition) precondition).preconditions);
+			} else if (!and && precondition instanceof OrPrecondition) {
+				Collections.addAll(flattened, ((OrPrecondition) precondition).preconditions);
+			} else {
+				flattened.add(precondition);
+			}
+		}
+		return flattened;
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+
+	/**
+	 * A {@link Precondition} implementation which is satisfied only if all of its preconditions
+	 * are satisfied.
+	 */
+	private static final class AndPrecondition implements Precondition {
+
+		/**
+		 * Combined preconditions.
+		 */
+		final Precondition[] preconditions;
+
+		/**
+		 * Creates a new instance of AndPrecondition with the given preconditions.
+		 *
+		 * @param preconditions The preconditions to be combined.
+		 */
+		AndPrecondition(final Precondition[] preconditions) {
+			this.preconditions = preconditions;
+		}
+
+		/**
+		 */
+		@Override public boolean check(@NonNull final View view, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
+			for (final Precondition precondition : preconditions) {
+				if (!precondition.check(view, parent, state)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * A {@link Precondition} implementation which is satisfied if any of its preconditions is
+	 * satisfied.
+	 */
+	private static final class OrPrecondition implements Precondition {
+
+		/**
+		 * Combined preconditions.
+		 */
+		final Precondition[] preconditions;
+
+		/**
+		 * Creates a new instance of OrPrecondition with the given preconditions.
+		 *
+		 * @param preconditions The preconditions to be combined.
+		 */
+		OrPrecondition(final Precondition[] preconditions) {
+			this.preconditions = preconditions;
+		}
+
+		/**
+		 */
+		@Override public boolean check(@NonNull final View view, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
+			for (final Precondition precondition : preconditions) {
+				if (precondition.check(view, parent, state)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * A {@link Precondition} implementation which negates result of its precondition.
+	 */
+	private static final class NotPrecondition implements Precondition {
+
+		/**
+		 * Negated precondition.
+		 */
+		final Precondition precondition;
+
+		/**
+		 * Creates a new instance of NotPrecondition for the given precondition.
+		 *
+		 * @param precondition The precondition to be negated.
+		 */
+		NotPrecondition(final Precondition precondition) {
+			this.precondition = precondition;
+		}
+
+		/**
+		 */
+		@Override public boolean check(@NonNull final View view, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
+			return !precondition.check(view, parent, state);
+		}
+	}
+}
@@ -19,21 +19,29 @@
 package universum.studios.android.recycler.decoration;
 
 import android.content.Context;
-import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Rect;
 import android.support.annotation.AttrRes;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.StyleRes;
+import android.support.v4.view.ViewCompat;
 import android.support.v7.widget.RecyclerView;
 import android.util.AttributeSet;
 import android.view.View;
 
+import java.lang.ref.WeakReference;
+
 import universum.studios.android.recycler.R;
 
 /**
  * A {@link RecyclerView.ItemDecoration} implementation that is used as base class by all item
  * decorations from the Recycler library and is also encouraged to be used as base class by custom
  * decoration implementations.
+ * <p>
+ * A decoration attached to a RecyclerView via {@link #attachToRecyclerView(RecyclerView)} invalidates
+ * the RecyclerView automatically whenever any of its properties changes. All changes made during
+ * a single frame are coalesced into at most one invalidation performed on the next animation frame.
  *
  * <h3>Xml attributes</h3>
  * {@link R.styleable#Recycler_ItemDecoration ItemDecoration Attributes}
@@ -57,6 +65,17 @@ public abstract class RecyclerViewItemDecoration extends RecyclerView.ItemDecora
 	 */
 	// private static final String TAG = "RecyclerViewItemDecoration";
 
+	/**
+	 * Flag indicating that a redraw of the attached RecyclerView has been scheduled.
+	 */
+	private static final int PENDING_REDRAW = 0x01;
+
+	/**
+	 * Flag indicating that invalidation of item decorations of the attached RecyclerView has been
+	 * scheduled.
+	 */
+	private static final int PENDING_RELAYOUT = 0x02;
+
 	/*
 	 * Interface ===================================================================================
 	 */
@@ -124,6 +143,25 @@ public abstract class RecyclerViewItemDecoration extends RecyclerView.ItemDecora
 	 */
 	@NonNull Precondition precondition = Precondition.EMPTY;
 
+	/**
+	 * Weak reference to the RecyclerView to which is this decoration attached.
+	 *
+	 * @see #attachToRecyclerView(RecyclerView)
+	 */
+	private WeakReference<RecyclerView> parentReference;
+
+	/**
+	 * Flags of invalidations scheduled for the attached RecyclerView.
+	 *
+	 * @see #scheduleInvalidation(boolean)
+	 */
+	private int pendingInvalidations;
+
+	/**
+	 * Runnable which performs the scheduled invalidations.
+	 */
+	private Runnable invalidationRunnable;
+
 	/*
 	 * Constructors ================================================================================
 	 */
@@ -170,17 +208,16 @@ public abstract class RecyclerViewItemDecoration extends RecyclerView.ItemDecora
 	public RecyclerViewItemDecoration(@Nullable final Context context, @Nullable final AttributeSet attrs, @AttrRes final int defStyleAttr, @StyleRes final int defStyleRes) {
 		super();
 		if (context != null) {
-			final TypedArray attributes = context.obtainStyledAttributes(attrs, R.styleable.Recycler_ItemDecoration, defStyleAttr, defStyleRes);
-			final int attributeCount = attributes.getIndexCount();
+			final DecorationSpec spec = DecorationSpec.obtain(context, attrs, R.styleable.Recycler_ItemDecoration, defStyleAttr, defStyleRes);
+			final int attributeCount = spec.getIndexCount();
 			for (int i = 0; i < attributeCount; i++) {
-				final int attrIndex = attributes.getIndex(i);
+				final int attrIndex = spec.getIndex(i);
 				if (attrIndex == R.styleable.Recycler_ItemDecoration_recyclerItemDecorationSkipFirst) {
-					this.skipFirst = attributes.getBoolean(attrIndex, false);
+					this.skipFirst = spec.getBoolean(attrIndex, false);
 				} else if (attrIndex == R.styleable.Recycler_ItemDecoration_recyclerItemDecorationSkipLast) {
-					this.skipLast = attributes.getBoolean(attrIndex, false);
+					this.skipLast = spec.getBoolean(attrIndex, false);
 				}
 			}
-			attributes.recycle();
 		}
 	}
 
@@ -188,6 +225,192 @@ public abstract class RecyclerViewItemDecoration extends RecyclerView.ItemDecora
 	 * Methods =====================================================================================
 	 */
 
+	/**
+	 * Attaches this decoration to the specified <var>recyclerView</var>. The decoration is added into
+	 * the RecyclerView and is also removed from the RecyclerView to which it has been attached before
+	 * (if any).
+	 * <p>
+	 * While attached, any change of properties of this decoration automatically invalidates the
+	 * RecyclerView. Changes that affect offsets of items schedule invalidation of item decorations
+	 * which results in a new layout pass, while changes that affect only graphics of this decoration
+	 * schedule only a redraw. Multiple changes made during the same frame are performed as a single
+	 * invalidation on the next animation frame.
+	 * <p>
+	 * Decorations added via {@link RecyclerView#addItemDecoration(RecyclerView.ItemDecoration)} are
+	 * bound to their RecyclerView lazily during the first layout or draw pass in which they are
+	 * used. Any decoration is unbound from its RecyclerView when the RecyclerView is detached from
+	 * window or when the decoration is removed from it.
+	 * <p>
+	 * If the same decoration is added into multiple RecyclerViews, only the RecyclerView to which
+	 * it has been bound first is invalidated whenever its properties change. The decoration still
+	 * shares data cached for each of the other RecyclerViews with their own decorations.
+	 * <p>
+	 * The RecyclerView is referenced only weakly by this decoration.
+	 *
+	 * @param recyclerView The RecyclerView to which to attach this decoration. May be {@code null}
+	 *                     to only detach it from the current one.
+	 */
+	public void attachToRecyclerView(@Nullable final RecyclerView recyclerView) {
+		final RecyclerView parent = getAttachedParent();
+		if (parent == recyclerView) {
+			return;
+		}
+		if (parent != null) {
+			parent.removeItemDecoration(this);
+		}
+		this.bindParent(recyclerView);
+		if (recyclerView != null) {
+			recyclerView.addItemDecoration(this);
+		}
+	}
+
+	/**
+	 * Binds this decoration to the specified <var>parent</var> so it may be invalidated whenever
+	 * properties of this decoration change. Any invalidations scheduled for the previously bound
+	 * parent are cancelled.
+	 * <p>
+	 * This decoration is also bound to the {@link ItemDecorationCache} of the parent, so the cache
+	 * is released from the parent when the last decoration that uses it is unbound.
+	 *
+	 * @param parent The RecyclerView to which to bind this decoration. May be {@code null}.
+	 */
+	void bindParent(@Nullable final RecyclerView parent) {
+		final RecyclerView currentParent = getAttachedParent();
+		if (currentParent != null) {
+			if (invalidationRunnable != null) {
+				currentParent.removeCallbacks(invalidationRunnable);
+			}
+			final Object cache = currentParent.getTag(R.id.recycler_decoration_cache);
+			if (cache instanceof ItemDecorationCache) {
+				((ItemDecorationCache) cache).unbindDecoration(this);
+			}
+		}
+		this.pendingInvalidations = 0;
+		this.parentReference = parent == null ? null : new WeakReference<>(parent);
+		if (parent != null) {
+			ItemDecorationCache.obtainFor(parent).bindDecoration(this);
+		}
+	}
+
+	/**
+	 * Unbinds this decoration from the specified <var>parent</var>. If the parent is the one to
+	 * which is this decoration currently bound, this decoration is unbound via {@link #bindParent(RecyclerView)}
+	 * with {@code null} parent, otherwise the binding to the current parent is kept untouched.
+	 *
+	 * @param parent The RecyclerView from which to unbind this decoration.
+	 */
+	void unbindParent(@NonNull final RecyclerView parent) {
+		if (getAttachedParent() == parent) {
+			this.bindParent(null);
+		}
+	}
+
+	/**
+	 * Binds this decoration to the specified <var>parent</var> if it is not bound to it yet. This
+	 * is called whenever this decoration is used in a layout or draw pass of the parent, so also
+	 * decorations added via {@link RecyclerView#addItemDecoration(RecyclerView.ItemDecoration)}
+	 * are bound.
+	 * <p>
+	 * If this decoration is already bound to other parent, which happens when it is added into
+	 * multiple RecyclerViews, it is only bound to the cache of the specified parent, so the binding
+	 * to the other parent and its cache stay untouched.
+	 *
+	 * @param parent The RecyclerView into which is this decoration added.
+	 * @return Cache of the parent to which is this decoration bound.
+	 */
+	private ItemDecorationCache ensureParentBound(final RecyclerView parent) {
+		final RecyclerView boundParent = getAttachedParent();
+		if (boundParent == parent) {
+			return ItemDecorationCache.obtainFor(parent);
+		}
+		if (boundParent == null) {
+			this.bindParent(parent);
+			return ItemDecorationCache.obtainFor(parent);
+		}
+		final ItemDecorationCache cache = ItemDecorationCache.obtainFor(parent);
+		cache.bindDecoration(this);
+		return cache;
+	}
+
+	/**
+	 * Checks whether this decoration hosts the specified <var>decoration</var>, that is, whether
+	 * the given decoration is applied as a part of this decoration.
+	 * <p>
+	 * Default implementation returns {@code false}.
+	 *
+	 * @param decoration The decoration to be checked.
+	 * @return {@code True} if the decoration is hosted by this decoration, {@code false} otherwise.
+	 */
+	boolean hostsDecoration(@NonNull final RecyclerViewItemDecoration decoration) {
+		return false;
+	}
+
+	/**
+	 * Returns the RecyclerView to which is this decoration attached.
+	 *
+	 * @return The attached RecyclerView or {@code null} if this decoration is not attached or the
+	 * RecyclerView is no longer referenced.
+	 */
+	@Nullable final RecyclerView getAttachedParent() {
+		return parentReference == null ? null : parentReference.get();
+	}
+
+	/**
+	 * Schedules invalidation of the RecyclerView to which is this decoration attached (if any) due
+	 * to a change in properties of this decoration.
+	 * <p>
+	 * The invalidation is performed on the next animation frame, so multiple requests made during
+	 * the same frame result in at most one invalidation of item decorations or one redraw.
+	 *
+	 * @param affectsLayout {@code True} if the change affects offsets of items and item decorations
+	 *                      need to be invalidated, {@code false} if the change affects only graphics
+	 *                      of this decoration and only redraw is needed.
+	 */
+	protected final void scheduleInvalidation(final boolean affectsLayout) {
+		final RecyclerView parent = getAttachedParent();
+		if (parent == null) {
+			return;
+		}
+		final boolean scheduled = pendingInvalidations != 0;
+		this.pendingInvalidations |= affectsLayout ? PENDING_RELAYOUT : PENDING_REDRAW;
+		if (!scheduled) {
+			if (invalidationRunnable == null) {
+				this.invalidationRunnable = new Runnable() {
+
+					/**
+					 */
+					@Override public void run() {
+						performInvalidation();
+					}
+				};
+			}
+			ViewCompat.postOnAnimation(parent, invalidationRunnable);
+		}
+	}
+
+	/**
+	 * Performs invalidations scheduled via {@link #scheduleInvalidation(boolean)}.
+	 */
+	final void performInvalidation() {
+		final RecyclerView parent = getAttachedParent();
+		if (parent == null || pendingInvalidations == 0) {
+			this.pendingInvalidations = 0;
+			return;
+		}
+		if ((pendingInvalidations & PENDING_RELAYOUT) != 0) {
+			if (parent.isComputingLayout()) {
+				// Item decorations cannot be invalidated during layout, try again on the next frame.
+				ViewCompat.postOnAnimation(parent, invalidationRunnable);
+				return;
+			}
+			this.pendingInvalidations = 0;
+			parent.invalidateItemDecorations();
+		} else {
+			this.pendingInvalidations = 0;
+			parent.invalidate();
+		}
+	}
+
 	/**
 	 * Sets a boolean flag indicating whether this decoration should be skipped for the first item
 	 * from data set of the associated {@link RecyclerView}.
@@ -202,7 +425,10 @@ public abstract class RecyclerViewItemDecoration extends RecyclerView.ItemDecora
 	 * @see #setPrecondition(Precondition)
 	 */
 	public void setSkipFirst(final boolean skip) {
-		this.skipFirst = skip;
+		if (skipFirst != skip) {
+			this.skipFirst = skip;
+			this.scheduleInvalidation(true);
+		}
 	}
 
 	/**
@@ -231,7 +457,10 @@ public abstract class RecyclerViewItemDecoration extends RecyclerView.ItemDecora
 	 * @see #setPrecondition(Precondition)
 	 */
 	public void setSkipLast(final boolean skip) {
-		this.skipLast = skip;
+		if (skipLast != skip) {
+			this.skipLast = skip;
+			this.scheduleInvalidation(true);
+		}
 	}
 
 	/**
@@ -260,7 +489,10 @@ public abstract class RecyclerViewItemDecoration extends RecyclerView.ItemDecora
 	 * @see #setSkipLast(boolean)
 	 */
 	public final void setPrecondition(@NonNull final Precondition precondition) {
-		this.precondition = precondition;
+		if (this.precondition != precondition) {
+			this.precondition = precondition;
+			this.scheduleInvalidation(true);
+		}
 	}
 
 	/**
@@ -275,6 +507,64 @@ public abstract class RecyclerViewItemDecoration extends RecyclerView.ItemDecora
 		return precondition;
 	}
 
+	/**
+	 * Obtains the cache shared by all {@link RecyclerViewItemDecoration RecyclerViewItemDecorations}
+	 * added into the specified <var>parent</var> RecyclerView.
+	 * <p>
+	 * Decorations should prefer data resolved by the cache over querying the parent RecyclerView
+	 * or its state for each item view in each pass.
+	 * <p>
+	 * This decoration is also bound to the parent RecyclerView if it is not bound to it yet.
+	 *
+	 * @param parent The RecyclerView into which is this decoration added.
+	 * @return The shared decoration cache.
+	 *
+	 * @see #isItemSkipped(View, RecyclerView, RecyclerView.State)
+	 */
+	@NonNull protected final ItemDecorationCache obtainCache(@NonNull final RecyclerView parent) {
+		return ensureParentBound(parent);
+	}
+
+	/**
+	 * Obtains the layout context of the specified <var>parent</var> RecyclerView which is shared by
+	 * all {@link RecyclerViewItemDecoration RecyclerViewItemDecorations} added into it.
+	 * <p>
+	 * Decorations should prefer data resolved by the context, like layout direction or clip bounds,
+	 * over querying the parent RecyclerView in each pass.
+	 *
+	 * @param parent The RecyclerView into which is this decoration added.
+	 * @param state  Current state of the parent RecyclerView.
+	 * @return The shared layout context resolved for the current pass.
+	 *
+	 * @see #obtainCache(RecyclerView)
+	 */
+	@NonNull protected final DecorationLayoutContext obtainLayoutContext(@NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
+		return obtainCache(parent).resolveLayoutContext(state);
+	}
+
+	/**
+	 * Checks whether the specified item <var>view</var> should be skipped by this decoration due to
+	 * the <b>skip first</b> or <b>skip last</b> flag specified for this decoration.
+	 * <p>
+	 * If any of these flags is specified and the adapter position of the item view is not available,
+	 * the view is also considered as skipped.
+	 *
+	 * @param view   The item view to be checked.
+	 * @param parent The RecyclerView into which is this decoration added.
+	 * @param state  Current state of the parent RecyclerView.
+	 * @return {@code True} if the item view should not be decorated, {@code false} otherwise.
+	 *
+	 * @see #setSkipFirst(boolean)
+	 * @see #setSkipLast(boolean)
+	 */
+	protected final boolean isItemSkipped(@NonNull final View view, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
+		if (skipFirst || skipLast) {
+			final ItemDecorationCache.Item item = obtainCache(parent).resolveItem(view, state);
+			return item.getPosition() == RecyclerView.NO_POSITION || (skipFirst && item.isFirst()) || (skipLast && item.isLast());
+		}
+		return false;
+	}
+
 	/**
 	 * Checks whether any subsequent decoration algorithm should be applied by this decoration for
 	 * the given <var>parent</var> RecyclerView and its current <var>state</var>.
@@ -282,16 +572,113 @@ public abstract class RecyclerViewItemDecoration extends RecyclerView.ItemDecora
 	 * This implementation checks whether the given RecyclerView has its {@link RecyclerView.LayoutManager}
 	 * specified by {@code RecyclerView.getLayoutManager() != null} and if there are any items to be
 	 * decorated by {@code RecyclerView.State.getItemCount() > 0}. If both conditions are met, this
-	 * method returns {@code true}, if not, {@code false} is returned.
+	 * method returns {@code true}, if not, {@code false} is returned. This decoration is also bound
+	 * to the given RecyclerView if it is not bound to it yet.
 	 *
 	 * @param parent The RecyclerView into which is this decoration added.
 	 * @param state  Current state of the parent RecyclerView.
 	 * @return {@code True} if decorating should be performed, {@code false} otherwise.
 	 */
 	protected boolean shouldDecorate(@NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
+		this.ensureParentBound(parent);
 		return parent.getLayoutManager() != null && state.getItemCount() > 0;
 	}
 
+	/**
+	 * Called by {@link CompositeItemDecoration} before it starts to iterate item views of the given
+	 * <var>parent</var> RecyclerView in its {@link #onDraw(Canvas, RecyclerView, RecyclerView.State)}
+	 * pass. This decoration should prepare here any data that stay the same for all item views
+	 * during the current pass.
+	 * <p>
+	 * Default implementation returns {@code false} so {@link #onDrawItem(Canvas, View, int, int, Rect, RecyclerView, RecyclerView.State, DecorationLayoutContext)}
+	 * will not be called for this decoration.
+	 *
+	 * @param parent  The RecyclerView into which is the composite decoration added.
+	 * @param state   Current state of the parent RecyclerView.
+	 * @param context Layout context of the parent RecyclerView resolved for the current pass.
+	 * @return {@code True} if this decoration wants to draw items in the current pass, {@code false}
+	 * otherwise.
+	 *
+	 * @see #onDrawItem(Canvas, View, int, int, Rect, RecyclerView, RecyclerView.State, DecorationLayoutContext)
+	 */
+	protected boolean onPrepareItemsDraw(@NonNull final RecyclerView parent, @NonNull final RecyclerView.State state, @NonNull final DecorationLayoutContext context) {
+		return false;
+	}
+
+	/**
+	 * Called by {@link CompositeItemDecoration} from its single iteration over item views of the
+	 * given <var>parent</var> RecyclerView in order to draw this decoration for the specified
+	 * <var>child</var> view.
+	 * <p>
+	 * The canvas is already clipped to the padding of the parent RecyclerView if it clips to padding.
+	 *
+	 * @param canvas          Canvas on which to draw.
+	 * @param child           The item view to be decorated.
+	 * @param childIndex      Index of the item view within its parent RecyclerView.
+	 * @param childCount      Count of item views attached to the parent RecyclerView.
+	 * @param decoratedBounds Bounds of the item view including its decorations and margins. Should
+	 *                        not be modified.
+	 * @param parent          The RecyclerView into which is the composite decoration added.
+	 * @param state           Current state of the parent RecyclerView.
+	 * @param context         Layout context of the parent RecyclerView resolved for the current pass.
+	 *
+	 * @see #onPrepareItemsDraw(RecyclerView, RecyclerView.State, DecorationLayoutContext)
+	 */
+	protected void onDrawItem(@NonNull final Canvas canvas, @NonNull final View child, final int childIndex, final int childCount, @NonNull final Rect decoratedBounds, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state, @NonNull final DecorationLayoutContext context) {
+		// Inheritance hierarchies may draw decoration for the item view here.
+	}
+
+	/**
+	 * Same as {@link #onPrepareItemsDraw(RecyclerView, RecyclerView.State, DecorationLayoutContext)}
+	 * but called for {@link #onDrawOver(Canvas, RecyclerView, RecyclerView.State)} pass.
+	 *
+	 * @see #onDrawItemOver(Canvas, View, int, int, Rect, RecyclerView, RecyclerView.State, DecorationLayoutContext)
+	 */
+	protected boolean onPrepareItemsDrawOver(@NonNull final RecyclerView parent, @NonNull final RecyclerView.State state, @NonNull final DecorationLayoutContext context) {
+		return false;
+	}
+
+	/**
+	 * Same as {@link #onDrawItem(Canvas, View, int, int, Rect, RecyclerView, RecyclerView.State, DecorationLayoutContext)}
+	 * but called for {@link #onDrawOver(Canvas, RecyclerView, RecyclerView.State)} pass.
+	 *
+	 * @see #onPrepareItemsDrawOver(RecyclerView, RecyclerView.State, DecorationLayoutContext)
+	 */
+	protected void onDrawItemOver(@NonNull final Canvas canvas, @NonNull final View child, final int childIndex, final int childCount, @NonNull final Rect decoratedBounds, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state, @NonNull final DecorationLayoutContext context) {
+		// Inheritance hierarchies may draw decoration over the item view here.
+	}
+
+	/**
+	 * Called by {@link CompositeItemDecoration} after it has iterated all item views of the given
+	 * <var>parent</var> RecyclerView in its {@link #onDraw(Canvas, RecyclerView, RecyclerView.State)}
+	 * pass. Called only if this decoration requested drawing for the current pass via
+	 * {@link #onPrepareItemsDraw(RecyclerView, RecyclerView.State, DecorationLayoutContext)}.
+	 * This decoration may draw here content which it has collected from the item views, like content
+	 * spanning multiple item views.
+	 * <p>
+	 * The canvas is still clipped to the padding of the parent RecyclerView if it clips to padding.
+	 *
+	 * @param canvas  Canvas on which to draw.
+	 * @param parent  The RecyclerView into which is the composite decoration added.
+	 * @param state   Current state of the parent RecyclerView.
+	 * @param context Layout context of the parent RecyclerView resolved for the current pass.
+	 *
+	 * @see #onDrawItem(Canvas, View, int, int, Rect, RecyclerView, RecyclerView.State, DecorationLayoutContext)
+	 */
+	protected void onFinishItemsDraw(@NonNull final Canvas canvas, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state, @NonNull final DecorationLayoutContext context) {
+		// Inheritance hierarchies may finish drawing of decoration for the item views here.
+	}
+
+	/**
+	 * Same as {@link #onFinishItemsDraw(Canvas, RecyclerView, RecyclerView.State, DecorationLayoutContext)}
+	 * but called for {@link #onDrawOver(Canvas, RecyclerView, RecyclerView.State)} pass.
+	 *
+	 * @see #onDrawItemOver(Canvas, View, int, int, Rect, RecyclerView, RecyclerView.State, DecorationLayoutContext)
+	 */
+	protected void onFinishItemsDrawOver(@NonNull final Canvas canvas, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state, @NonNull final DecorationLayoutContext context) {
+		// Inheritance hierarchies may finish drawing of decoration over the item views here.
+	}
+
 	/*
 	 * Inner classes ===============================================================================
 	 */
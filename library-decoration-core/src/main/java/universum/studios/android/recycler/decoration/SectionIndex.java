@@ -0,0 +1,301 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.decoration;
+
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+
+import java.util.Arrays;
+
+/**
+ * Index of sections within a data set of a RecyclerView adapter described by a sorted array of
+ * adapter positions at which each of the sections starts. Section of a particular adapter position,
+ * as well as whether an item is the first or the last one in its section, is resolved via binary
+ * search over the start positions, so decorations do not need to inspect model of the adapter.
+ * <p>
+ * When attached to an adapter via {@link #attachAdapter(RecyclerView.Adapter)}, the index observes
+ * its data set changes and keeps the start positions in sync with inserted, removed and moved items.
+ * Items inserted at a start position of a section become part of that section. Sections of which
+ * all items are removed are removed from the index as well. A general data set change notified via
+ * {@link RecyclerView.Adapter#notifyDataSetChanged()} cannot be interpreted, so the start positions
+ * should be specified again via {@link #setSectionStarts(int[])} in such case.
+ * <p>
+ * Decorations which use the index attach it to the adapter of their parent RecyclerView. The index
+ * stops observing the adapter when the last of such decorations no longer uses it.
+ *
+ * @author Martin Albedinsky
+ * @since 1.1
+ */
+public final class SectionIndex extends RecyclerView.AdapterDataObserver {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "SectionIndex";
+
+	/**
+	 * Constant used to identify no section.
+	 */
+	public static final int NO_SECTION = -1;
+
+	/**
+	 * Empty array of start positions.
+	 */
+	private static final int[] EMPTY_STARTS = new int[0];
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Array with adapter positions at which start sections of this index sorted in ascending order.
+	 */
+	private int[] starts = EMPTY_STARTS;
+
+	/**
+	 * Count of sections stored in {@link #starts} array.
+	 */
+	private int count;
+
+	/**
+	 * Adapter observed by this index.
+	 */
+	private RecyclerView.Adapter adapter;
+
+	/**
+	 * Count of decorations which use this index while bound to their parent RecyclerView.
+	 *
+	 * @see #acquire()
+	 * @see #release()
+	 */
+	private int usages;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Same as {@link #SectionIndex(int[])} with {@code null} <var>sectionStarts</var>.
+	 */
+	public SectionIndex() {
+		this(null);
+	}
+
+	/**
+	 * Creates a new instance of SectionIndex with the specified <var>sectionStarts</var>.
+	 *
+	 * @param sectionStarts The desired start positions sorted in ascending order. May be {@code null}.
+	 *
+	 * @see #setSectionStarts(int[])
+	 */
+	public SectionIndex(@Nullable final int[] sectionStarts) {
+		super();
+		setSectionStarts(sectionStarts);
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Attaches this index to the given <var>adapter</var> so it will observe its data set changes.
+	 * Start positions of this index are preserved.
+	 *
+	 * @param adapter The adapter to be observed. May be {@code null} to stop observing of the current
+	 *                adapter.
+	 */
+	public void attachAdapter(@Nullable final RecyclerView.Adapter adapter) {
+		if (this.adapter != adapter) {
+			if (this.adapter != null) {
+				this.adapter.unregisterAdapterDataObserver(this);
+			}
+			this.adapter = adapter;
+			if (adapter != null) {
+				adapter.registerAdapterDataObserver(this);
+			}
+		}
+	}
+
+	/**
+	 * Registers a usage of this index by a decoration bound to its parent RecyclerView.
+	 *
+	 * @see #release()
+	 */
+	void acquire() {
+		this.usages++;
+	}
+
+	/**
+	 * Unregisters a usage of this index registered via {@link #acquire()}. When there are no more
+	 * usages, this index is detached from its adapter.
+	 */
+	void release() {
+		if (usages > 0 && --usages == 0) {
+			this.attachAdapter(null);
+		}
+	}
+
+	/**
+	 * Returns the adapter to which is this index currently attached.
+	 *
+	 * @return Attached adapter or {@code null} if there is no adapter attached.
+	 */
+	@Nullable public RecyclerView.Adapter getAdapter() {
+		return adapter;
+	}
+
+	/**
+	 * Specifies adapter positions at which start sections of this index.
+	 * <p>
+	 * Decorations using this index are not notified about this change, so item decorations of the
+	 * RecyclerView should be invalidated afterwards via {@link RecyclerView#invalidateItemDecorations()}.
+	 *
+	 * @param sectionStarts The desired start positions sorted in ascending order. May be {@code null}
+	 *                      to clear this index.
+	 */
+	public void setSectionStarts(@Nullable final int[] sectionStarts) {
+		this.count = sectionStarts == null ? 0 : sectionStarts.length;
+		if (count > starts.length) {
+			this.starts = new int[count];
+		}
+		if (count > 0) {
+			System.arraycopy(sectionStarts, 0, starts, 0, count);
+		}
+	}
+
+	/**
+	 * Returns the count of sections stored in this index.
+	 *
+	 * @return Sections count.
+	 */
+	public int getSectionCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the adapter position at which starts the specified <var>section</var>.
+	 *
+	 * @param section Index of the desired section from the range {@code [0, getSectionCount())}.
+	 * @return Start position of the section.
+	 */
+	public int getSectionStart(final int section) {
+		return starts[section];
+	}
+
+	/**
+	 * Resolves index of the section to which belongs the specified adapter <var>position</var>.
+	 *
+	 * @param position The adapter position for which to resolve its section.
+	 * @return Index of the section or {@link #NO_SECTION} if the position precedes the first section.
+	 */
+	public int getSectionForPosition(final int position) {
+		if (count == 0 || position < starts[0]) {
+			return NO_SECTION;
+		}
+		final int index = Arrays.binarySearch(starts, 0, count, position);
+		return index >= 0 ? index : -index - 2;
+	}
+
+	/**
+	 * Checks whether a section starts at the specified adapter <var>position</var>, that is whether
+	 * an item at the position is the first one in its section.
+	 *
+	 * @param position The adapter position to check.
+	 * @return {@code True} if there is section starting at the position, {@code false} otherwise.
+	 *
+	 * @see #isSectionEnd(int)
+	 */
+	public boolean isSectionStart(final int position) {
+		return count > 0 && Arrays.binarySearch(starts, 0, count, position) >= 0;
+	}
+
+	/**
+	 * Checks whether a section ends at the specified adapter <var>position</var>, that is whether
+	 * another section starts right after an item at the position.
+	 * <p>
+	 * <b>Note</b> that the last section of the data set is not considered to end at any position.
+	 *
+	 * @param position The adapter position to check.
+	 * @return {@code True} if there is section ending at the position, {@code false} otherwise.
+	 *
+	 * @see #isSectionStart(int)
+	 */
+	public boolean isSectionEnd(final int position) {
+		return position >= 0 && isSectionStart(position + 1);
+	}
+
+	/**
+	 */
+	@Override public void onItemRangeInserted(final int positionStart, final int itemCount) {
+		for (int i = count - 1; i >= 0 && starts[i] > positionStart; i--) {
+			this.starts[i] += itemCount;
+		}
+	}
+
+	/**
+	 */
+	@Override public void onItemRangeRemoved(final int positionStart, final int itemCount) {
+		final int positionEnd = positionStart + itemCount;
+		final int remainingCount = adapter == null ? Integer.MAX_VALUE : adapter.getItemCount();
+		int newCount = 0;
+		for (int i = 0; i < count; i++) {
+			int start = starts[i];
+			if (start >= positionEnd) {
+				start -= itemCount;
+			} else if (start > positionStart) {
+				// Section lost its first items, so it now starts right after the removed range.
+				start = positionStart;
+			}
+			if (start >= remainingCount) {
+				break;
+			}
+			// Section of which all items have been removed collapses into the following one.
+			if (newCount == 0 || starts[newCount - 1] != start) {
+				this.starts[newCount++] = start;
+			}
+		}
+		this.count = newCount;
+	}
+
+	/**
+	 */
+	@Override public void onItemRangeMoved(final int fromPosition, final int toPosition, final int itemCount) {
+		if (fromPosition == toPosition || itemCount <= 0) {
+			return;
+		}
+		onItemRangeRemoved(fromPosition, itemCount);
+		onItemRangeInserted(toPosition, itemCount);
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+}
@@ -0,0 +1,297 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.decoration;
+
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import java.util.Arrays;
+
+/**
+ * A {@link RecyclerViewItemDecoration.Precondition} implementation which is satisfied only for item
+ * views of a specific set of view types.
+ * <p>
+ * The set of view types is precomputed into a bit set when the precondition is created, so checking
+ * of an item view requires only a single {@link RecyclerView.ViewHolder#getItemViewType()} lookup
+ * and a single bit test. View types which are negative or too large to fit into the bit set are
+ * resolved via binary search.
+ * <p>
+ * View type preconditions may be combined via {@link Preconditions#and(RecyclerViewItemDecoration.Precondition...)},
+ * {@link Preconditions#or(RecyclerViewItemDecoration.Precondition...)} and {@link Preconditions#not(RecyclerViewItemDecoration.Precondition)}
+ * which fold multiple view type preconditions into a single one.
+ *
+ * @author Martin Albedinsky
+ * @since 1.1
+ */
+public final class ViewTypePrecondition implements RecyclerViewItemDecoration.Precondition {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "ViewTypePrecondition";
+
+	/**
+	 * Maximum view type which may be stored within the bit set.
+	 */
+	private static final int MAX_BIT_SET_VIEW_TYPE = 1023;
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Sorted array of distinct view types specified for this precondition.
+	 */
+	final int[] viewTypes;
+
+	/**
+	 * Boolean flag indicating whether this precondition is satisfied for view types that are <b>not</b>
+	 * contained within {@link #viewTypes}.
+	 */
+	final boolean inverted;
+
+	/**
+	 * Bit set of view types from range {@code [0, MAX_BIT_SET_VIEW_TYPE]}.
+	 */
+	private final long[] bitSet;
+
+	/**
+	 * Sorted array of view types that do not fit into {@link #bitSet}.
+	 */
+	private final int[] outOfBitSetViewTypes;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of ViewTypePrecondition which will be satisfied for item views of the
+	 * specified <var>viewTypes</var>.
+	 *
+	 * @param viewTypes The desired view types for which should be item views decorated.
+	 */
+	public ViewTypePrecondition(@NonNull final int... viewTypes) {
+		this(distinctSorted(viewTypes), false);
+	}
+
+	/**
+	 * Creates a new instance of ViewTypePrecondition with the given set of view types.
+	 *
+	 * @param viewTypes Sorted array of distinct view types.
+	 * @param inverted  {@code True} if the precondition should be satisfied for view types not contained
+	 *                  within the given array, {@code false} otherwise.
+	 */
+	private ViewTypePrecondition(final int[] viewTypes, final boolean inverted) {
+		this.viewTypes = viewTypes;
+		this.inverted = inverted;
+		int maxBitSetViewType = -1;
+		int outOfBitSetCount = 0;
+		for (final int viewType : viewTypes) {
+			if (viewType >= 0 && viewType <= MAX_BIT_SET_VIEW_TYPE) {
+				maxBitSetViewType = viewType;
+			} else {
+				outOfBitSetCount++;
+			}
+		}
+		this.bitSet = new long[(maxBitSetViewType >> 6) + 1];
+		this.outOfBitSetViewTypes = new int[outOfBitSetCount];
+		int outOfBitSetIndex = 0;
+		for (final int viewType : viewTypes) {
+			if (viewType >= 0 && viewType <= MAX_BIT_SET_VIEW_TYPE) {
+				bitSet[viewType >> 6] |= 1L << viewType;
+			} else {
+				outOfBitSetViewTypes[outOfBitSetIndex++] = viewType;
+			}
+		}
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Returns a new array with distinct values of the given one sorted in ascending order.
+	 */
+	private static int[] distinctSorted(final int[] values) {
+		final int[] sorted = Arrays.copyOf(values, values.length);
+		Arrays.sort(sorted);
+		int count = 0;
+		for (int i = 0; i < sorted.length; i++) {
+			if (i == 0 || sorted[i] != sorted[i - 1]) {
+				sorted[count++] = sorted[i];
+			}
+		}
+		return count == sorted.length ? sorted : Arrays.copyOf(sorted, count);
+	}
+
+	/**
+	 */
+	@Override public boolean check(@NonNull final View view, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
+		final RecyclerView.ViewHolder holder = parent.getChildViewHolder(view);
+		return holder != null && matchesViewType(holder.getItemViewType());
+	}
+
+	/**
+	 * Checks whether this precondition is satisfied for the specified <var>viewType</var>.
+	 *
+	 * @param viewType The view type to be checked.
+	 * @return {@code True} if item views of the view type should be decorated, {@code false} otherwise.
+	 */
+	public boolean matchesViewType(final int viewType) {
+		final boolean contained;
+		if (viewType >= 0 && viewType <= MAX_BIT_SET_VIEW_TYPE) {
+			final int wordIndex = viewType >> 6;
+			contained = wordIndex < bitSet.length && (bitSet[wordIndex] & (1L << viewType)) != 0;
+		} else {
+			contained = outOfBitSetViewTypes.length > 0 && Arrays.binarySearch(outOfBitSetViewTypes, viewType) >= 0;
+		}
+		return contained != inverted;
+	}
+
+	/**
+	 * Checks whether this precondition is satisfied for all view types.
+	 *
+	 * @return {@code True} if this precondition is always satisfied, {@code false} otherwise.
+	 */
+	boolean isAlwaysSatisfied() {
+		return inverted && viewTypes.length == 0;
+	}
+
+	/**
+	 * Checks whether this precondition is satisfied for none of view types.
+	 *
+	 * @return {@code True} if this precondition is never satisfied, {@code false} otherwise.
+	 */
+	boolean isNeverSatisfied() {
+		return !inverted && viewTypes.length == 0;
+	}
+
+	/**
+	 * Creates a precondition which is satisfied for view types for which this precondition is not.
+	 *
+	 * @return Negated precondition.
+	 */
+	@NonNull ViewTypePrecondition negate() {
+		return new ViewTypePrecondition(viewTypes, !inverted);
+	}
+
+	/**
+	 * Creates a precondition which is satisfied for view types for which both this and the
+	 * <var>other</var> precondition are satisfied.
+	 *
+	 * @param other The other precondition to be combined with this one.
+	 * @return Combined precondition.
+	 */
+	@NonNull ViewTypePrecondition and(@NonNull final ViewTypePrecondition other) {
+		if (inverted && other.inverted) {
+			return new ViewTypePrecondition(union(viewTypes, other.viewTypes), true);
+		}
+		if (inverted) {
+			return new ViewTypePrecondition(difference(other.viewTypes, viewTypes), false);
+		}
+		if (other.inverted) {
+			return new ViewTypePrecondition(difference(viewTypes, other.viewTypes), false);
+		}
+		return new ViewTypePrecondition(intersection(viewTypes, other.viewTypes), false);
+	}
+
+	/**
+	 * Creates a precondition which is satisfied for view types for which either this or the
+	 * <var>other</var> precondition is satisfied.
+	 *
+	 * @param other The other precondition to be combined with this one.
+	 * @return Combined precondition.
+	 */
+	@NonNull ViewTypePrecondition or(@NonNull final ViewTypePrecondition other) {
+		return negate().and(other.negate()).negate();
+	}
+
+	/**
+	 * Returns a sorted union of the given sorted arrays.
+	 */
+	private static int[] union(final int[] first, final int[] second) {
+		final int[] result = new int[first.length + second.length];
+		int i = 0, j = 0, count = 0;
+		while (i < first.length || j < second.length) {
+			if (j == second.length || (i < first.length && first[i] < second[j])) {
+				result[count++] = first[i++];
+			} else if (i == first.length || second[j] < first[i]) {
+				result[count++] = second[j++];
+			} else {
+				result[count++] = first[i++];
+				j++;
+			}
+		}
+		return Arrays.copyOf(result, count);
+	}
+
+	/**
+	 * Returns a sorted intersection of the given sorted arrays.
+	 */
+	private static int[] intersection(final int[] first, final int[] second) {
+		final int[] result = new int[Math.min(first.length, second.length)];
+		int i = 0, j = 0, count = 0;
+		while (i < first.length && j < second.length) {
+			if (first[i] < second[j]) {
+				i++;
+			} else if (second[j] < first[i]) {
+				j++;
+			} else {
+				result[count++] = first[i++];
+				j++;
+			}
+		}
+		return Arrays.copyOf(result, count);
+	}
+
+	/**
+	 * Returns sorted values of the <var>first</var> array which are not contained within the
+	 * <var>second</var> one.
+	 */
+	private static int[] difference(final int[] first, final int[] second) {
+		final int[] result = new int[first.length];
+		int j = 0, count = 0;
+		for (final int value : first) {
+			while (j < second.length && second[j] < value) {
+				j++;
+			}
+			if (j == second.length || second[j] != value) {
+				result[count++] = value;
+			}
+		}
+		return Arrays.copyOf(result, count);
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+}
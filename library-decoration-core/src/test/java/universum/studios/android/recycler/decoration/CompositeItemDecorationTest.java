@@ -0,0 +1,321 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.decoration;
+
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import org.junit.Test;
+
+import universum.studios.android.test.local.RobolectricTestCase;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Martin Albedinsky
+ */
+public final class CompositeItemDecorationTest extends RobolectricTestCase {
+
+	private static final int MOCK_ITEMS_COUNT = 10;
+
+	private Canvas mockCanvas;
+	private RecyclerView mockRecyclerView;
+	private RecyclerView.State mockRecyclerViewState;
+	private View itemView;
+
+	@Override public void beforeTest() throws Exception {
+		super.beforeTest();
+		this.itemView = new View(application);
+		this.mockCanvas = mock(Canvas.class);
+		this.mockRecyclerView = mock(RecyclerView.class);
+		when(mockRecyclerView.getLayoutManager()).thenReturn(new LinearLayoutManager(application));
+		when(mockRecyclerView.getChildCount()).thenReturn(MOCK_ITEMS_COUNT);
+		when(mockRecyclerView.getChildAt(anyInt())).thenReturn(itemView);
+		this.mockRecyclerViewState = mock(RecyclerView.State.class);
+		when(mockRecyclerViewState.getItemCount()).thenReturn(MOCK_ITEMS_COUNT);
+	}
+
+	@Override public void afterTest() throws Exception {
+		super.afterTest();
+		this.itemView = null;
+	}
+
+	@Test public void testInstantiationWithDecorations() {
+		// Arrange:
+		final RecyclerViewItemDecoration first = new TestDecoration(false);
+		final RecyclerViewItemDecoration second = new TestDecoration(false);
+		// Act:
+		final CompositeItemDecoration decoration = new CompositeItemDecoration(first, second);
+		// Assert:
+		assertThat(decoration.getDecorations().size(), is(2));
+		assertThat(decoration.getDecorations().get(0), is(first));
+		assertThat(decoration.getDecorations().get(1), is(second));
+	}
+
+	@Test public void testAddRemoveDecoration() {
+		// Arrange:
+		final CompositeItemDecoration decoration = new CompositeItemDecoration();
+		final RecyclerViewItemDecoration member = new TestDecoration(false);
+		// Act + Assert:
+		decoration.addDecoration(member);
+		assertThat(decoration.getDecorations().size(), is(1));
+		assertThat(decoration.removeDecoration(member), is(true));
+		assertThat(decoration.removeDecoration(member), is(false));
+		assertThat(decoration.getDecorations().isEmpty(), is(true));
+		decoration.addDecoration(member);
+		decoration.clearDecorations();
+		assertThat(decoration.getDecorations().isEmpty(), is(true));
+	}
+
+	@Test public void testAttachToRecyclerViewBindsDecorations() {
+		// Arrange:
+		final RecyclerViewItemDecoration first = new TestDecoration(false);
+		final CompositeItemDecoration decoration = new CompositeItemDecoration(first);
+		// Act:
+		decoration.attachToRecyclerView(mockRecyclerView);
+		final RecyclerViewItemDecoration second = new TestDecoration(false);
+		decoration.addDecoration(second);
+		// Assert:
+		assertThat(first.getAttachedParent(), is(sameInstance(mockRecyclerView)));
+		assertThat(second.getAttachedParent(), is(sameInstance(mockRecyclerView)));
+		decoration.removeDecoration(first);
+		assertThat(first.getAttachedParent(), is(nullValue()));
+		decoration.attachToRecyclerView(null);
+		assertThat(second.getAttachedParent(), is(nullValue()));
+	}
+
+	@Test public void testDecorationChangeInvalidatesAttachedRecyclerView() {
+		// Arrange:
+		final RecyclerViewItemDecoration member = new TestDecoration(false);
+		final CompositeItemDecoration decoration = new CompositeItemDecoration(member);
+		decoration.attachToRecyclerView(mockRecyclerView);
+		// Act:
+		member.setSkipFirst(true);
+		// Assert:
+		verify(mockRecyclerView).postOnAnimation(any(Runnable.class));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testAddItself() {
+		// Arrange:
+		final CompositeItemDecoration decoration = new CompositeItemDecoration();
+		// Act:
+		decoration.addDecoration(decoration);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testGetDecorationsIsUnmodifiable() {
+		// Act:
+		new CompositeItemDecoration().getDecorations().add(new TestDecoration(false));
+	}
+
+	@Test public void testGetItemOffsets() {
+		// Arrange:
+		final TestDecoration first = new TestDecoration(false);
+		first.offsets.set(1, 2, 3, 4);
+		final TestDecoration second = new TestDecoration(false);
+		second.offsets.set(10, 20, 30, 40);
+		final CompositeItemDecoration decoration = new CompositeItemDecoration(first, second);
+		final Rect rect = new Rect();
+		// Act:
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(rect, is(new Rect(11, 22, 33, 44)));
+	}
+
+	@Test public void testGetItemOffsetsWithUnsatisfiedPrecondition() {
+		// Arrange:
+		final TestDecoration member = new TestDecoration(false);
+		member.offsets.set(1, 2, 3, 4);
+		final CompositeItemDecoration decoration = new CompositeItemDecoration(member);
+		final RecyclerViewItemDecoration.Precondition mockPrecondition = mock(RecyclerViewItemDecoration.Precondition.class);
+		when(mockPrecondition.check(itemView, mockRecyclerView, mockRecyclerViewState)).thenReturn(false);
+		decoration.setPrecondition(mockPrecondition);
+		final Rect rect = new Rect(1, 1, 1, 1);
+		// Act:
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(rect.isEmpty(), is(true));
+		assertThat(member.offsetsRequests, is(0));
+	}
+
+	@Test public void testOnDraw() {
+		// Arrange:
+		final TestDecoration drawing = new TestDecoration(true);
+		final TestDecoration notDrawing = new TestDecoration(false);
+		final CompositeItemDecoration decoration = new CompositeItemDecoration(drawing, notDrawing);
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockCanvas).save();
+		verify(mockCanvas).restore();
+		verify(mockRecyclerView).getChildCount();
+		verify(mockRecyclerView, times(MOCK_ITEMS_COUNT)).getDecoratedBoundsWithMargins(any(View.class), any(Rect.class));
+		assertThat(drawing.drawnItems, is(MOCK_ITEMS_COUNT));
+		assertThat(drawing.drawnOverItems, is(0));
+		assertThat(drawing.finishes, is(1));
+		assertThat(drawing.finishesOver, is(0));
+		assertThat(notDrawing.drawnItems, is(0));
+		assertThat(notDrawing.finishes, is(0));
+	}
+
+	@Test public void testOnDrawOver() {
+		// Arrange:
+		final TestDecoration member = new TestDecoration(true);
+		final CompositeItemDecoration decoration = new CompositeItemDecoration(member);
+		decoration.setSkipFirst(true);
+		// Act:
+		decoration.onDrawOver(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(member.drawnItems, is(0));
+		assertThat(member.drawnOverItems, is(MOCK_ITEMS_COUNT - 1));
+		assertThat(member.finishes, is(0));
+		assertThat(member.finishesOver, is(1));
+	}
+
+	@Test public void testOnDrawClipped() {
+		// Arrange:
+		final CompositeItemDecoration decoration = new CompositeItemDecoration(new TestDecoration(true));
+		when(mockRecyclerView.getClipToPadding()).thenReturn(true);
+		when(mockRecyclerView.getWidth()).thenReturn(1080);
+		when(mockRecyclerView.getHeight()).thenReturn(1920);
+		when(mockRecyclerView.getPaddingLeft()).thenReturn(16);
+		when(mockRecyclerView.getPaddingRight()).thenReturn(16);
+		when(mockRecyclerView.getPaddingTop()).thenReturn(8);
+		when(mockRecyclerView.getPaddingBottom()).thenReturn(8);
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockCanvas).clipRect(16, 8, 1080 - 16, 1920 - 8);
+	}
+
+	@Test public void testOnDrawWithoutDrawingDecorations() {
+		// Arrange:
+		final CompositeItemDecoration decoration = new CompositeItemDecoration(new TestDecoration(false));
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verifyZeroInteractions(mockCanvas);
+	}
+
+	@Test public void testNestedComposite() {
+		// Arrange:
+		final TestDecoration member = new TestDecoration(true);
+		final CompositeItemDecoration decoration = new CompositeItemDecoration(new CompositeItemDecoration(member));
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockCanvas, times(1)).save();
+		assertThat(member.drawnItems, is(MOCK_ITEMS_COUNT));
+		assertThat(member.finishes, is(1));
+	}
+
+	@Test public void testOnDrawWithSelfDrawingDecoration() {
+		// Arrange:
+		final TestDecoration member = new TestDecoration(true);
+		final SelfDrawingDecoration selfDrawingMember = new SelfDrawingDecoration();
+		final CompositeItemDecoration decoration = new CompositeItemDecoration(member, selfDrawingMember);
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		decoration.onDrawOver(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(member.drawnItems, is(MOCK_ITEMS_COUNT));
+		assertThat(selfDrawingMember.draws, is(1));
+		assertThat(selfDrawingMember.drawsOver, is(1));
+	}
+
+	@Test public void testNestedCompositeWithSelfDrawingDecoration() {
+		// Arrange:
+		final TestDecoration member = new TestDecoration(true);
+		final SelfDrawingDecoration selfDrawingMember = new SelfDrawingDecoration();
+		final CompositeItemDecoration decoration = new CompositeItemDecoration(new CompositeItemDecoration(member, selfDrawingMember));
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(member.drawnItems, is(MOCK_ITEMS_COUNT));
+		assertThat(selfDrawingMember.draws, is(1));
+	}
+
+	private static final class SelfDrawingDecoration extends RecyclerViewItemDecoration {
+
+		int draws, drawsOver;
+
+		@Override public void onDraw(final Canvas canvas, final RecyclerView parent, final RecyclerView.State state) {
+			this.draws++;
+		}
+
+		@Override public void onDrawOver(final Canvas canvas, final RecyclerView parent, final RecyclerView.State state) {
+			this.drawsOver++;
+		}
+	}
+
+	private static final class TestDecoration extends RecyclerViewItemDecoration {
+
+		final boolean drawing;
+		final Rect offsets = new Rect();
+		int offsetsRequests, drawnItems, drawnOverItems, finishes, finishesOver;
+
+		TestDecoration(final boolean drawing) {
+			super();
+			this.drawing = drawing;
+		}
+
+		@Override public void getItemOffsets(final Rect rect, final View view, final RecyclerView parent, final RecyclerView.State state) {
+			this.offsetsRequests++;
+			rect.set(offsets);
+		}
+
+		@Override protected boolean onPrepareItemsDraw(final RecyclerView parent, final RecyclerView.State state, final DecorationLayoutContext context) {
+			return drawing;
+		}
+
+		@Override protected void onDrawItem(final Canvas canvas, final View child, final int childIndex, final int childCount, final Rect decoratedBounds, final RecyclerView parent, final RecyclerView.State state, final DecorationLayoutContext context) {
+			this.drawnItems++;
+		}
+
+		@Override protected void onFinishItemsDraw(final Canvas canvas, final RecyclerView parent, final RecyclerView.State state, final DecorationLayoutContext context) {
+			this.finishes++;
+		}
+
+		@Override protected boolean onPrepareItemsDrawOver(final RecyclerView parent, final RecyclerView.State state, final DecorationLayoutContext context) {
+			return drawing;
+		}
+
+		@Override protected void onDrawItemOver(final Canvas canvas, final View child, final int childIndex, final int childCount, final Rect decoratedBounds, final RecyclerView parent, final RecyclerView.State state, final DecorationLayoutContext context) {
+			this.drawnOverItems++;
+		}
+
+		@Override protected void onFinishItemsDrawOver(final Canvas canvas, final RecyclerView parent, final RecyclerView.State state, final DecorationLayoutContext context) {
+			this.finishesOver++;
+		}
+	}
+}
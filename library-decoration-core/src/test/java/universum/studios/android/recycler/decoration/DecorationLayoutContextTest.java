@@ -0,0 +1,175 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.decoration;
+
+import android.graphics.Rect;
+import android.support.v4.view.ViewCompat;
+import android.support.v7.widget.GridLayoutManager;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.StaggeredGridLayoutManager;
+
+import org.junit.Test;
+
+import universum.studios.android.test.local.RobolectricTestCase;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Martin Albedinsky
+ */
+public final class DecorationLayoutContextTest extends RobolectricTestCase {
+
+	@Test public void testResolve() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final LinearLayoutManager layoutManager = new LinearLayoutManager(application, LinearLayoutManager.HORIZONTAL, false);
+		when(mockRecyclerView.getLayoutManager()).thenReturn(layoutManager);
+		when(mockRecyclerView.getWidth()).thenReturn(1080);
+		when(mockRecyclerView.getHeight()).thenReturn(1920);
+		final DecorationLayoutContext context = new DecorationLayoutContext();
+		// Act:
+		context.resolve(mockRecyclerView, ViewCompat.LAYOUT_DIRECTION_RTL, 10, false);
+		// Assert:
+		assertThat(context.getLayoutDirection(), is(ViewCompat.LAYOUT_DIRECTION_RTL));
+		assertThat(context.isLayoutRtl(), is(true));
+		assertThat(context.getItemCount(), is(10));
+		assertThat(context.getClipToPadding(), is(false));
+		assertThat(context.getClipBounds(), is(new Rect(0, 0, 1080, 1920)));
+		assertThat(context.getLayoutManager(), is(sameInstance((RecyclerView.LayoutManager) layoutManager)));
+		assertThat(context.getLayoutManagerType(), is(DecorationLayoutContext.LAYOUT_MANAGER_LINEAR));
+		assertThat(context.getOrientation(), is(LinearLayoutManager.HORIZONTAL));
+		assertThat(context.getSpanCount(), is(1));
+	}
+
+	@Test public void testResolveWithClipToPadding() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		when(mockRecyclerView.getWidth()).thenReturn(1080);
+		when(mockRecyclerView.getHeight()).thenReturn(1920);
+		when(mockRecyclerView.getClipToPadding()).thenReturn(true);
+		when(mockRecyclerView.getPaddingLeft()).thenReturn(16);
+		when(mockRecyclerView.getPaddingTop()).thenReturn(8);
+		when(mockRecyclerView.getPaddingRight()).thenReturn(24);
+		when(mockRecyclerView.getPaddingBottom()).thenReturn(4);
+		final DecorationLayoutContext context = new DecorationLayoutContext();
+		// Act:
+		context.resolve(mockRecyclerView, ViewCompat.LAYOUT_DIRECTION_LTR, 0, false);
+		// Assert:
+		assertThat(context.isLayoutRtl(), is(false));
+		assertThat(context.getClipToPadding(), is(true));
+		assertThat(context.getClipBounds(), is(new Rect(16, 8, 1080 - 24, 1920 - 4)));
+		assertThat(context.getLayoutManager(), is(nullValue()));
+		assertThat(context.getLayoutManagerType(), is(DecorationLayoutContext.LAYOUT_MANAGER_NONE));
+		assertThat(context.getOrientation(), is(LinearLayoutManager.VERTICAL));
+	}
+
+	@Test public void testResolveForGridLayoutManager() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		when(mockRecyclerView.getLayoutManager()).thenReturn(new GridLayoutManager(application, 3, GridLayoutManager.HORIZONTAL, false));
+		final DecorationLayoutContext context = new DecorationLayoutContext();
+		// Act:
+		context.resolve(mockRecyclerView, ViewCompat.LAYOUT_DIRECTION_LTR, 0, false);
+		// Assert:
+		assertThat(context.getLayoutManagerType(), is(DecorationLayoutContext.LAYOUT_MANAGER_GRID));
+		assertThat(context.getOrientation(), is(GridLayoutManager.HORIZONTAL));
+		assertThat(context.getSpanCount(), is(3));
+	}
+
+	@Test public void testResolveForStaggeredGridLayoutManager() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		when(mockRecyclerView.getLayoutManager()).thenReturn(new StaggeredGridLayoutManager(4, StaggeredGridLayoutManager.VERTICAL));
+		final DecorationLayoutContext context = new DecorationLayoutContext();
+		// Act:
+		context.resolve(mockRecyclerView, ViewCompat.LAYOUT_DIRECTION_LTR, 0, false);
+		// Assert:
+		assertThat(context.getLayoutManagerType(), is(DecorationLayoutContext.LAYOUT_MANAGER_STAGGERED_GRID));
+		assertThat(context.getOrientation(), is(StaggeredGridLayoutManager.VERTICAL));
+		assertThat(context.getSpanCount(), is(4));
+	}
+
+	@Test public void testResolveForCustomLayoutManager() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final RecyclerView.LayoutManager mockLayoutManager = mock(RecyclerView.LayoutManager.class);
+		when(mockLayoutManager.canScrollHorizontally()).thenReturn(true);
+		when(mockRecyclerView.getLayoutManager()).thenReturn(mockLayoutManager);
+		final DecorationLayoutContext context = new DecorationLayoutContext();
+		// Act:
+		context.resolve(mockRecyclerView, ViewCompat.LAYOUT_DIRECTION_LTR, 0, false);
+		// Assert:
+		assertThat(context.getLayoutManagerType(), is(DecorationLayoutContext.LAYOUT_MANAGER_CUSTOM));
+		assertThat(context.getOrientation(), is(LinearLayoutManager.HORIZONTAL));
+		assertThat(context.getSpanCount(), is(1));
+	}
+
+	@Test public void testResolveByCache() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final RecyclerView.State mockState = mock(RecyclerView.State.class);
+		when(mockState.getItemCount()).thenReturn(10);
+		final ItemDecorationCache cache = new ItemDecorationCache(mockRecyclerView);
+		// Act:
+		final DecorationLayoutContext context = cache.resolveLayoutContext(mockState);
+		// Assert:
+		assertThat(context.getItemCount(), is(10));
+		assertThat(cache.resolveLayoutContext(mockState), is(sameInstance(context)));
+		verify(mockRecyclerView, times(1)).getClipToPadding();
+		verify(mockRecyclerView, times(1)).getLayoutManager();
+	}
+
+	@Test public void testResolveByCacheAfterInvalidation() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final RecyclerView.State mockState = mock(RecyclerView.State.class);
+		final ItemDecorationCache cache = new ItemDecorationCache(mockRecyclerView);
+		cache.resolveLayoutContext(mockState);
+		when(mockRecyclerView.getLayoutDirection()).thenReturn(ViewCompat.LAYOUT_DIRECTION_RTL);
+		// Act:
+		cache.invalidate();
+		final DecorationLayoutContext context = cache.resolveLayoutContext(mockState);
+		// Assert:
+		assertThat(context.isLayoutRtl(), is(true));
+		verify(mockRecyclerView, times(2)).getClipToPadding();
+	}
+
+	@Test public void testResolveByCacheForPreLayout() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final RecyclerView.State mockState = mock(RecyclerView.State.class);
+		when(mockState.getItemCount()).thenReturn(10);
+		final ItemDecorationCache cache = new ItemDecorationCache(mockRecyclerView);
+		cache.resolveLayoutContext(mockState);
+		when(mockState.isPreLayout()).thenReturn(true);
+		when(mockState.getItemCount()).thenReturn(8);
+		// Act:
+		final DecorationLayoutContext context = cache.resolveLayoutContext(mockState);
+		// Assert:
+		assertThat(context.getItemCount(), is(8));
+	}
+}
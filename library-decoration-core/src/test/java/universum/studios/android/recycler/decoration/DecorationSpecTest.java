@@ -0,0 +1,78 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.decoration;
+
+import org.junit.Test;
+
+import universum.studios.android.recycler.R;
+import universum.studios.android.test.local.RobolectricTestCase;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+/**
+ * @author Martin Albedinsky
+ */
+public final class DecorationSpecTest extends RobolectricTestCase {
+
+	@Override public void afterTest() throws Exception {
+		super.afterTest();
+		DecorationSpec.clearCache();
+	}
+
+	@Test public void testObtainForSameStyleReturnsCachedSpec() {
+		// Act:
+		final DecorationSpec spec = DecorationSpec.obtain(application, R.styleable.Recycler_ItemDecoration, 0, 0);
+		// Assert:
+		assertThat(DecorationSpec.obtain(application, R.styleable.Recycler_ItemDecoration, 0, 0), is(sameInstance(spec)));
+		assertThat(DecorationSpec.obtain(application, null, R.styleable.Recycler_ItemDecoration, 0, 0), is(sameInstance(spec)));
+	}
+
+	@Test public void testObtainForDifferentStyleReturnsDifferentSpec() {
+		// Act:
+		final DecorationSpec spec = DecorationSpec.obtain(application, R.styleable.Recycler_ItemDecoration, 0, 0);
+		// Assert:
+		assertThat(DecorationSpec.obtain(application, R.styleable.Recycler_ItemDecoration, android.R.attr.listDivider, 0), is(not(sameInstance(spec))));
+		assertThat(DecorationSpec.obtain(application, R.styleable.Recycler_ItemDecoration, 0, android.R.style.Widget), is(not(sameInstance(spec))));
+	}
+
+	@Test public void testClearCache() {
+		// Arrange:
+		final DecorationSpec spec = DecorationSpec.obtain(application, R.styleable.Recycler_ItemDecoration, 0, 0);
+		// Act:
+		DecorationSpec.clearCache();
+		// Assert:
+		assertThat(DecorationSpec.obtain(application, R.styleable.Recycler_ItemDecoration, 0, 0), is(not(sameInstance(spec))));
+	}
+
+	@Test public void testValuesWithoutAttributes() {
+		// Arrange:
+		final DecorationSpec spec = DecorationSpec.obtain(application, R.styleable.Recycler_ItemDecoration, 0, 0);
+		// Act + Assert:
+		assertThat(spec.getIndexCount(), is(0));
+		assertThat(spec.hasValue(R.styleable.Recycler_ItemDecoration_recyclerItemDecorationSkipFirst), is(false));
+		assertThat(spec.getBoolean(R.styleable.Recycler_ItemDecoration_recyclerItemDecorationSkipFirst, true), is(true));
+		assertThat(spec.getInt(R.styleable.Recycler_ItemDecoration_recyclerItemDecorationSkipFirst, 12), is(12));
+		assertThat(spec.getDimensionPixelSize(R.styleable.Recycler_ItemDecoration_recyclerItemDecorationSkipFirst, 24), is(24));
+		assertThat(spec.getDrawable(R.styleable.Recycler_ItemDecoration_recyclerItemDecorationSkipFirst, application), is(nullValue()));
+	}
+}
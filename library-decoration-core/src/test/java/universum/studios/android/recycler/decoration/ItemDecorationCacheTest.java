@@ -0,0 +1,307 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.decoration;
+
+import android.support.v4.view.ViewCompat;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import universum.studios.android.test.local.RobolectricTestCase;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Martin Albedinsky
+ */
+public final class ItemDecorationCacheTest extends RobolectricTestCase {
+
+	@Test public void testObtainFor() {
+		// Arrange:
+		final RecyclerView recyclerView = new RecyclerView(application);
+		// Act:
+		final ItemDecorationCache cache = ItemDecorationCache.obtainFor(recyclerView);
+		// Assert:
+		assertThat(ItemDecorationCache.obtainFor(recyclerView), is(sameInstance(cache)));
+		assertThat(ItemDecorationCache.obtainFor(new RecyclerView(application)), is(not(sameInstance(cache))));
+	}
+
+	@Test public void testLayoutDirection() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		when(mockRecyclerView.getLayoutDirection()).thenReturn(ViewCompat.LAYOUT_DIRECTION_RTL);
+		final ItemDecorationCache cache = new ItemDecorationCache(mockRecyclerView);
+		// Act + Assert:
+		assertThat(cache.getLayoutDirection(), is(ViewCompat.LAYOUT_DIRECTION_RTL));
+		assertThat(cache.isLayoutRtl(), is(true));
+		verify(mockRecyclerView, times(1)).getLayoutDirection();
+		cache.invalidate();
+		assertThat(cache.isLayoutRtl(), is(true));
+		verify(mockRecyclerView, times(2)).getLayoutDirection();
+	}
+
+	@Test public void testItemCount() {
+		// Arrange:
+		final RecyclerView.State mockState = mock(RecyclerView.State.class);
+		when(mockState.getItemCount()).thenReturn(10);
+		final ItemDecorationCache cache = new ItemDecorationCache(mock(RecyclerView.class));
+		// Act + Assert:
+		assertThat(cache.getItemCount(mockState), is(10));
+		final int generation = cache.generation;
+		assertThat(cache.getItemCount(mockState), is(10));
+		assertThat(cache.generation, is(generation));
+		when(mockState.isPreLayout()).thenReturn(true);
+		when(mockState.getItemCount()).thenReturn(8);
+		assertThat(cache.getItemCount(mockState), is(8));
+	}
+
+	@Test public void testInvalidationOnItemCountChange() {
+		// Arrange:
+		final RecyclerView.State mockState = mock(RecyclerView.State.class);
+		when(mockState.getItemCount()).thenReturn(10);
+		final ItemDecorationCache cache = new ItemDecorationCache(mock(RecyclerView.class));
+		cache.getItemCount(mockState);
+		final int generation = cache.generation;
+		// Act:
+		when(mockState.getItemCount()).thenReturn(12);
+		// Assert:
+		assertThat(cache.getItemCount(mockState), is(12));
+		assertThat(cache.generation, is(not(generation)));
+	}
+
+	@Test public void testInvalidationOnStructureChange() {
+		// Arrange:
+		final RecyclerView.State mockState = mock(RecyclerView.State.class);
+		when(mockState.getItemCount()).thenReturn(10);
+		final ItemDecorationCache cache = new ItemDecorationCache(mock(RecyclerView.class));
+		cache.getItemCount(mockState);
+		final int generation = cache.generation;
+		// Act:
+		when(mockState.didStructureChange()).thenReturn(true);
+		cache.getItemCount(mockState);
+		// Assert:
+		final int structureGeneration = cache.generation;
+		assertThat(structureGeneration, is(not(generation)));
+		cache.getItemCount(mockState);
+		assertThat(cache.generation, is(structureGeneration));
+	}
+
+	@Test public void testInvalidationOnLayoutPassStart() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final RecyclerView.State mockState = mock(RecyclerView.State.class);
+		final ItemDecorationCache cache = new ItemDecorationCache(mockRecyclerView);
+		cache.getItemCount(mockState);
+		final int generation = cache.generation;
+		// Act:
+		when(mockRecyclerView.isComputingLayout()).thenReturn(true);
+		cache.getItemCount(mockState);
+		// Assert:
+		assertThat(cache.generation, is(not(generation)));
+	}
+
+	@Test public void testResolveItem() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final RecyclerView.State mockState = mock(RecyclerView.State.class);
+		when(mockState.getItemCount()).thenReturn(10);
+		final View view = new View(application);
+		when(mockRecyclerView.getChildAdapterPosition(view)).thenReturn(9);
+		final ItemDecorationCache cache = new ItemDecorationCache(mockRecyclerView);
+		// Act:
+		final ItemDecorationCache.Item item = cache.resolveItem(view, mockState);
+		// Assert:
+		assertThat(item.getPosition(), is(9));
+		assertThat(item.getItemCount(), is(10));
+		assertThat(item.isFirst(), is(false));
+		assertThat(item.isLast(), is(true));
+		assertThat(cache.resolveItem(view, mockState), is(sameInstance(item)));
+		verify(mockRecyclerView, times(1)).getChildAdapterPosition(view);
+	}
+
+	@Test public void testResolveItemAfterInvalidation() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final RecyclerView.State mockState = mock(RecyclerView.State.class);
+		when(mockState.getItemCount()).thenReturn(10);
+		final View view = new View(application);
+		when(mockRecyclerView.getChildAdapterPosition(view)).thenReturn(0);
+		final ItemDecorationCache cache = new ItemDecorationCache(mockRecyclerView);
+		cache.resolveItem(view, mockState);
+		when(mockRecyclerView.getChildAdapterPosition(view)).thenReturn(4);
+		// Act:
+		cache.invalidate();
+		final ItemDecorationCache.Item item = cache.resolveItem(view, mockState);
+		// Assert:
+		assertThat(item.getPosition(), is(4));
+		assertThat(item.isFirst(), is(false));
+		assertThat(item.isLast(), is(false));
+		verify(mockRecyclerView, times(2)).getChildAdapterPosition(view);
+	}
+
+	@Test public void testResolveItemWithoutPosition() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final RecyclerView.State mockState = mock(RecyclerView.State.class);
+		final View view = new View(application);
+		when(mockRecyclerView.getChildAdapterPosition(view)).thenReturn(RecyclerView.NO_POSITION);
+		final ItemDecorationCache cache = new ItemDecorationCache(mockRecyclerView);
+		// Act:
+		final ItemDecorationCache.Item item = cache.resolveItem(view, mockState);
+		// Assert:
+		assertThat(item.getPosition(), is(RecyclerView.NO_POSITION));
+		assertThat(item.isFirst(), is(false));
+		assertThat(item.isLast(), is(false));
+		assertThat(item.getItemCount(), is(0));
+		verifyZeroInteractions(mockState);
+	}
+
+	@Test public void testInvalidationOnAdapterDataChange() {
+		// Arrange:
+		final TestAdapter adapter = new TestAdapter();
+		final ItemDecorationCache cache = new ItemDecorationCache(mock(RecyclerView.class));
+		cache.attachAdapter(adapter);
+		final int generation = cache.generation;
+		// Act:
+		adapter.notifyItemRangeInserted(0, 2);
+		// Assert:
+		assertThat(cache.generation, is(not(generation)));
+	}
+
+	@Test public void testAttachAdapter() {
+		// Arrange:
+		final TestAdapter adapter = new TestAdapter();
+		final ItemDecorationCache cache = new ItemDecorationCache(mock(RecyclerView.class));
+		// Act:
+		cache.attachAdapter(adapter);
+		cache.attachAdapter(null);
+		final int generation = cache.generation;
+		adapter.notifyDataSetChanged();
+		// Assert:
+		assertThat(cache.generation, is(generation));
+	}
+
+	@Test public void testAttachAdapterOfParent() {
+		// Arrange:
+		final TestAdapter adapter = new TestAdapter();
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		when(mockRecyclerView.getAdapter()).thenReturn(adapter);
+		final ItemDecorationCache cache = new ItemDecorationCache(mockRecyclerView);
+		cache.getItemCount(mock(RecyclerView.State.class));
+		final int generation = cache.generation;
+		// Act:
+		adapter.notifyDataSetChanged();
+		// Assert:
+		assertThat(cache.generation, is(not(generation)));
+	}
+
+	@Test public void testResolveLayoutContextAttachesAdapterOfParent() {
+		// Arrange:
+		final TestAdapter adapter = new TestAdapter();
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		when(mockRecyclerView.getAdapter()).thenReturn(adapter);
+		final ItemDecorationCache cache = new ItemDecorationCache(mockRecyclerView);
+		cache.resolveLayoutContext(mock(RecyclerView.State.class));
+		final int generation = cache.generation;
+		// Act:
+		adapter.notifyDataSetChanged();
+		// Assert:
+		assertThat(cache.generation, is(not(generation)));
+	}
+
+	@Test public void testResolveLayoutContextAtPassStart() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		when(mockRecyclerView.getWidth()).thenReturn(1080);
+		final RecyclerView.State mockState = mock(RecyclerView.State.class);
+		when(mockState.getItemCount()).thenReturn(10);
+		final ItemDecorationCache cache = new ItemDecorationCache(mockRecyclerView);
+		final DecorationLayoutContext context = cache.resolveLayoutContext(mockState);
+		assertThat(context.getClipBounds().right, is(1080));
+		// Act:
+		when(mockRecyclerView.getWidth()).thenReturn(720);
+		when(mockState.didStructureChange()).thenReturn(true);
+		// Assert:
+		assertThat(cache.resolveLayoutContext(mockState).getClipBounds().right, is(720));
+		assertThat(context.getItemCount(), is(10));
+	}
+
+	@Test public void testDetachParentFromWindow() {
+		// Arrange:
+		final TestAdapter adapter = new TestAdapter();
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final ItemDecorationCache cache = new ItemDecorationCache(mockRecyclerView);
+		cache.attachAdapter(adapter);
+		final ArgumentCaptor<View.OnAttachStateChangeListener> listenerCaptor = ArgumentCaptor.forClass(View.OnAttachStateChangeListener.class);
+		verify(mockRecyclerView).addOnAttachStateChangeListener(listenerCaptor.capture());
+		// Act:
+		listenerCaptor.getValue().onViewDetachedFromWindow(mockRecyclerView);
+		// Assert:
+		final int generation = cache.generation;
+		adapter.notifyDataSetChanged();
+		assertThat(cache.generation, is(generation));
+		verify(mockRecyclerView).removeOnAttachStateChangeListener(listenerCaptor.getValue());
+	}
+
+	@Test public void testUnbindLastDecoration() {
+		// Arrange:
+		final TestAdapter adapter = new TestAdapter();
+		final RecyclerView recyclerView = new RecyclerView(application);
+		final RecyclerViewItemDecoration firstDecoration = new TestDecoration();
+		final RecyclerViewItemDecoration secondDecoration = new TestDecoration();
+		firstDecoration.attachToRecyclerView(recyclerView);
+		secondDecoration.attachToRecyclerView(recyclerView);
+		final ItemDecorationCache cache = ItemDecorationCache.obtainFor(recyclerView);
+		cache.attachAdapter(adapter);
+		// Act + Assert:
+		firstDecoration.attachToRecyclerView(null);
+		assertThat(ItemDecorationCache.obtainFor(recyclerView), is(sameInstance(cache)));
+		secondDecoration.attachToRecyclerView(null);
+		final int generation = cache.generation;
+		adapter.notifyDataSetChanged();
+		assertThat(cache.generation, is(generation));
+		assertThat(ItemDecorationCache.obtainFor(recyclerView), is(not(sameInstance(cache))));
+	}
+
+	private static final class TestDecoration extends RecyclerViewItemDecoration {}
+
+	private static final class TestAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+		@Override public RecyclerView.ViewHolder onCreateViewHolder(final ViewGroup parent, final int viewType) {
+			return new RecyclerView.ViewHolder(new View(parent.getContext())) {};
+		}
+
+		@Override public void onBindViewHolder(final RecyclerView.ViewHolder holder, final int position) {}
+
+		@Override public int getItemCount() {
+			return 10;
+		}
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.decoration;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Test;
+
+import universum.studios.android.recycler.decoration.RecyclerViewItemDecoration.Precondition;
+import universum.studios.android.test.local.RobolectricTestCase;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Martin Albedinsky
+ */
+public final class MemoizedPreconditionTest extends RobolectricTestCase {
+
+	private View itemView;
+	private RecyclerView mockRecyclerView;
+	private RecyclerView.State mockRecyclerViewState;
+	private TestAdapter adapter;
+
+	@Override public void beforeTest() throws Exception {
+		super.beforeTest();
+		this.itemView = new View(application);
+		this.adapter = new TestAdapter();
+		this.mockRecyclerView = mock(RecyclerView.class);
+		when(mockRecyclerView.getAdapter()).thenReturn(adapter);
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(2);
+		this.mockRecyclerViewState = mock(RecyclerView.State.class);
+		when(mockRecyclerViewState.getItemCount()).thenReturn(adapter.getItemCount());
+	}
+
+	@Override public void afterTest() throws Exception {
+		super.afterTest();
+		this.itemView = null;
+	}
+
+	@Test public void testCheckIsMemoized() {
+		// Arrange:
+		final Precondition mockPrecondition = mock(Precondition.class);
+		when(mockPrecondition.check(itemView, mockRecyclerView, mockRecyclerViewState)).thenReturn(true);
+		final MemoizedPrecondition precondition = new MemoizedPrecondition(mockPrecondition);
+		// Act + Assert:
+		assertThat(precondition.check(itemView, mockRecyclerView, mockRecyclerViewState), is(true));
+		assertThat(precondition.check(itemView, mockRecyclerView, mockRecyclerViewState), is(true));
+		verify(mockPrecondition, times(1)).check(itemView, mockRecyclerView, mockRecyclerViewState);
+		assertThat(precondition.getPrecondition(), is(mockPrecondition));
+	}
+
+	@Test public void testCheckAfterItemChanged() {
+		// Arrange:
+		final Precondition mockPrecondition = mock(Precondition.class);
+		final MemoizedPrecondition precondition = new MemoizedPrecondition(mockPrecondition);
+		precondition.check(itemView, mockRecyclerView, mockRecyclerViewState);
+		// Act:
+		adapter.notifyItemChanged(2);
+		precondition.check(itemView, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockPrecondition, times(2)).check(itemView, mockRecyclerView, mockRecyclerViewState);
+	}
+
+	@Test public void testCheckAfterUnrelatedItemChanged() {
+		// Arrange:
+		final Precondition mockPrecondition = mock(Precondition.class);
+		final MemoizedPrecondition precondition = new MemoizedPrecondition(mockPrecondition);
+		precondition.check(itemView, mockRecyclerView, mockRecyclerViewState);
+		// Act:
+		adapter.notifyItemChanged(5);
+		precondition.check(itemView, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockPrecondition, times(1)).check(itemView, mockRecyclerView, mockRecyclerViewState);
+	}
+
+	@Test public void testCheckAfterItemInserted() {
+		// Arrange:
+		final Precondition mockPrecondition = mock(Precondition.class);
+		when(mockPrecondition.check(itemView, mockRecyclerView, mockRecyclerViewState)).thenReturn(true);
+		final MemoizedPrecondition precondition = new MemoizedPrecondition(mockPrecondition);
+		precondition.check(itemView, mockRecyclerView, mockRecyclerViewState);
+		// Act:
+		adapter.notifyItemInserted(0);
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(3);
+		// Assert:
+		assertThat(precondition.check(itemView, mockRecyclerView, mockRecyclerViewState), is(true));
+		verify(mockPrecondition, times(1)).check(itemView, mockRecyclerView, mockRecyclerViewState);
+	}
+
+	@Test public void testCheckWithoutPosition() {
+		// Arrange:
+		final Precondition mockPrecondition = mock(Precondition.class);
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(RecyclerView.NO_POSITION);
+		final MemoizedPrecondition precondition = new MemoizedPrecondition(mockPrecondition);
+		// Act:
+		precondition.check(itemView, mockRecyclerView, mockRecyclerViewState);
+		precondition.check(itemView, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockPrecondition, times(2)).check(itemView, mockRecyclerView, mockRecyclerViewState);
+	}
+
+	@Test public void testInvalidate() {
+		// Arrange:
+		final Precondition mockPrecondition = mock(Precondition.class);
+		final MemoizedPrecondition precondition = new MemoizedPrecondition(mockPrecondition);
+		precondition.check(itemView, mockRecyclerView, mockRecyclerViewState);
+		// Act + Assert:
+		precondition.invalidate(2, 1);
+		precondition.check(itemView, mockRecyclerView, mockRecyclerViewState);
+		verify(mockPrecondition, times(2)).check(itemView, mockRecyclerView, mockRecyclerViewState);
+		precondition.invalidate();
+		precondition.check(itemView, mockRecyclerView, mockRecyclerViewState);
+		verify(mockPrecondition, times(3)).check(itemView, mockRecyclerView, mockRecyclerViewState);
+	}
+
+	private static final class TestAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+		@Override public RecyclerView.ViewHolder onCreateViewHolder(final ViewGroup parent, final int viewType) {
+			return new RecyclerView.ViewHolder(new View(parent.getContext())) {};
+		}
+
+		@Override public void onBindViewHolder(final RecyclerView.ViewHolder holder, final int position) {}
+
+		@Override public int getItemCount() {
+			return 10;
+		}
+	}
+}
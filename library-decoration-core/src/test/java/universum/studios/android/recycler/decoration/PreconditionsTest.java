@@ -0,0 +1,142 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.decoration;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import org.junit.Test;
+
+import universum.studios.android.recycler.decoration.RecyclerViewItemDecoration.Precondition;
+import universum.studios.android.test.local.RobolectricTestCase;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Martin Albedinsky
+ */
+public final class PreconditionsTest extends RobolectricTestCase {
+
+	private View itemView;
+	private RecyclerView mockRecyclerView;
+	private RecyclerView.State mockRecyclerViewState;
+
+	@Override public void beforeTest() throws Exception {
+		super.beforeTest();
+		this.itemView = new View(application);
+		this.mockRecyclerView = mock(RecyclerView.class);
+		when(mockRecyclerView.getChildViewHolder(itemView)).thenReturn(new RecyclerView.ViewHolder(itemView) {});
+		this.mockRecyclerViewState = mock(RecyclerView.State.class);
+	}
+
+	@Override public void afterTest() throws Exception {
+		super.afterTest();
+		this.itemView = null;
+	}
+
+	@Test public void testNone() {
+		// Act + Assert:
+		assertThat(Preconditions.NONE.check(itemView, mockRecyclerView, mockRecyclerViewState), is(false));
+	}
+
+	@Test public void testAndFoldsConstants() {
+		// Arrange:
+		final Precondition mockPrecondition = mock(Precondition.class);
+		// Act + Assert:
+		assertThat(Preconditions.and(), is(Precondition.EMPTY));
+		assertThat(Preconditions.and(Precondition.EMPTY, mockPrecondition), is(mockPrecondition));
+		assertThat(Preconditions.and(mockPrecondition, Preconditions.NONE), is(Preconditions.NONE));
+		verifyZeroInteractions(mockPrecondition);
+	}
+
+	@Test public void testAndMergesViewTypePreconditions() {
+		// Arrange:
+		final ViewTypePrecondition first = new ViewTypePrecondition(0, 1);
+		final ViewTypePrecondition second = new ViewTypePrecondition(0, 2);
+		// Act:
+		final Precondition combined = Preconditions.and(first, second);
+		// Assert:
+		assertThat(combined, is(instanceOf(ViewTypePrecondition.class)));
+		assertThat(((ViewTypePrecondition) combined).matchesViewType(0), is(true));
+		assertThat(((ViewTypePrecondition) combined).matchesViewType(1), is(false));
+		assertThat(Preconditions.and(new ViewTypePrecondition(1), new ViewTypePrecondition(2)), is(Preconditions.NONE));
+	}
+
+	@Test public void testAndChecksViewTypeFirst() {
+		// Arrange:
+		final Precondition mockPrecondition = mock(Precondition.class);
+		final Precondition combined = Preconditions.and(mockPrecondition, new ViewTypePrecondition(1));
+		// Act + Assert:
+		assertThat(combined.check(itemView, mockRecyclerView, mockRecyclerViewState), is(false));
+		verifyZeroInteractions(mockPrecondition);
+	}
+
+	@Test public void testAndCheck() {
+		// Arrange:
+		final Precondition mockPrecondition = mock(Precondition.class);
+		when(mockPrecondition.check(itemView, mockRecyclerView, mockRecyclerViewState)).thenReturn(true);
+		final Precondition combined = Preconditions.and(mockPrecondition, new ViewTypePrecondition(0));
+		// Act + Assert:
+		assertThat(combined.check(itemView, mockRecyclerView, mockRecyclerViewState), is(true));
+		verify(mockPrecondition).check(itemView, mockRecyclerView, mockRecyclerViewState);
+	}
+
+	@Test public void testOrFoldsConstants() {
+		// Arrange:
+		final Precondition mockPrecondition = mock(Precondition.class);
+		// Act + Assert:
+		assertThat(Preconditions.or(), is(Preconditions.NONE));
+		assertThat(Preconditions.or(Preconditions.NONE, mockPrecondition), is(mockPrecondition));
+		assertThat(Preconditions.or(mockPrecondition, Precondition.EMPTY), is(Precondition.EMPTY));
+		final ViewTypePrecondition viewType = new ViewTypePrecondition(1);
+		assertThat(Preconditions.or(viewType, viewType.negate()), is(Precondition.EMPTY));
+	}
+
+	@Test public void testOrCheck() {
+		// Arrange:
+		final Precondition mockPrecondition = mock(Precondition.class);
+		final Precondition combined = Preconditions.or(mockPrecondition, new ViewTypePrecondition(0));
+		// Act + Assert:
+		assertThat(combined.check(itemView, mockRecyclerView, mockRecyclerViewState), is(true));
+		verifyZeroInteractions(mockPrecondition);
+	}
+
+	@Test public void testNot() {
+		// Arrange:
+		final Precondition mockPrecondition = mock(Precondition.class);
+		when(mockPrecondition.check(itemView, mockRecyclerView, mockRecyclerViewState)).thenReturn(true);
+		// Act:
+		final Precondition negated = Preconditions.not(mockPrecondition);
+		// Assert:
+		assertThat(negated, is(not(sameInstance(mockPrecondition))));
+		assertThat(negated.check(itemView, mockRecyclerView, mockRecyclerViewState), is(false));
+		assertThat(Preconditions.not(negated), is(sameInstance(mockPrecondition)));
+		assertThat(Preconditions.not(Precondition.EMPTY), is(Preconditions.NONE));
+		assertThat(Preconditions.not(Preconditions.NONE), is(Precondition.EMPTY));
+		assertThat(Preconditions.not(new ViewTypePrecondition(0)), is(instanceOf(ViewTypePrecondition.class)));
+	}
+}
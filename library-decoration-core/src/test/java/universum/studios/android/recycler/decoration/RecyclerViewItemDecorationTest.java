@@ -27,12 +27,17 @@ import android.util.AttributeSet;
 import android.view.View;
 
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 import universum.studios.android.test.local.RobolectricTestCase;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
 import static org.hamcrest.core.IsNull.notNullValue;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -170,6 +175,207 @@ public final class RecyclerViewItemDecorationTest extends RobolectricTestCase {
 		verify(mockRecyclerViewState, times(0)).getItemCount();
 	}
 
+	@Test public void testAttachToRecyclerView() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final RecyclerViewItemDecoration decoration = new TestDecoration();
+		// Act:
+		decoration.attachToRecyclerView(mockRecyclerView);
+		decoration.attachToRecyclerView(mockRecyclerView);
+		// Assert:
+		assertThat(decoration.getAttachedParent(), is(sameInstance(mockRecyclerView)));
+		verify(mockRecyclerView, times(1)).addItemDecoration(decoration);
+	}
+
+	@Test public void testAttachToOtherRecyclerView() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final RecyclerView mockOtherRecyclerView = mock(RecyclerView.class);
+		final RecyclerViewItemDecoration decoration = new TestDecoration();
+		decoration.attachToRecyclerView(mockRecyclerView);
+		// Act:
+		decoration.attachToRecyclerView(mockOtherRecyclerView);
+		// Assert:
+		assertThat(decoration.getAttachedParent(), is(sameInstance(mockOtherRecyclerView)));
+		verify(mockRecyclerView).removeItemDecoration(decoration);
+		verify(mockOtherRecyclerView).addItemDecoration(decoration);
+	}
+
+	@Test public void testDetachFromRecyclerView() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final RecyclerViewItemDecoration decoration = new TestDecoration();
+		decoration.attachToRecyclerView(mockRecyclerView);
+		// Act:
+		decoration.attachToRecyclerView(null);
+		// Assert:
+		assertThat(decoration.getAttachedParent(), is(nullValue()));
+		verify(mockRecyclerView).removeItemDecoration(decoration);
+	}
+
+	@Test public void testBindToParentLazily() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final RecyclerView.State mockRecyclerViewState = mock(RecyclerView.State.class);
+		final RecyclerViewItemDecoration decoration = new TestDecoration();
+		// Act:
+		decoration.shouldDecorate(mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(decoration.getAttachedParent(), is(sameInstance(mockRecyclerView)));
+		decoration.scheduleInvalidation(false);
+		verify(mockRecyclerView).postOnAnimation(any(Runnable.class));
+	}
+
+	@Test public void testUnbindFromParentDetachedFromWindow() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final RecyclerViewItemDecoration decoration = new TestDecoration();
+		decoration.obtainCache(mockRecyclerView);
+		final ArgumentCaptor<View.OnAttachStateChangeListener> listenerCaptor = ArgumentCaptor.forClass(View.OnAttachStateChangeListener.class);
+		verify(mockRecyclerView).addOnAttachStateChangeListener(listenerCaptor.capture());
+		// Act:
+		listenerCaptor.getValue().onViewDetachedFromWindow(mockRecyclerView);
+		// Assert:
+		assertThat(decoration.getAttachedParent(), is(nullValue()));
+	}
+
+	@Test public void testUnbindFromParentAfterRemoval() {
+		// Arrange:
+		final RecyclerView recyclerView = new RecyclerView(application);
+		final RecyclerViewItemDecoration decoration = new TestDecoration();
+		recyclerView.addItemDecoration(decoration);
+		decoration.obtainCache(recyclerView);
+		// Act:
+		recyclerView.removeItemDecoration(decoration);
+		recyclerView.layout(0, 0, 100, 100);
+		// Assert:
+		assertThat(decoration.getAttachedParent(), is(nullValue()));
+	}
+
+	@Test public void testBindToMultipleParents() {
+		// Arrange:
+		final RecyclerView firstRecyclerView = new RecyclerView(application);
+		final RecyclerView secondRecyclerView = new RecyclerView(application);
+		final RecyclerViewItemDecoration decoration = new TestDecoration();
+		firstRecyclerView.addItemDecoration(decoration);
+		secondRecyclerView.addItemDecoration(decoration);
+		final ItemDecorationCache firstCache = decoration.obtainCache(firstRecyclerView);
+		// Act:
+		final ItemDecorationCache secondCache = decoration.obtainCache(secondRecyclerView);
+		// Assert:
+		assertThat(decoration.getAttachedParent(), is(sameInstance(firstRecyclerView)));
+		assertThat(decoration.obtainCache(firstRecyclerView), is(sameInstance(firstCache)));
+		assertThat(decoration.obtainCache(secondRecyclerView), is(sameInstance(secondCache)));
+		assertThat(ItemDecorationCache.obtainFor(firstRecyclerView), is(sameInstance(firstCache)));
+		assertThat(ItemDecorationCache.obtainFor(secondRecyclerView), is(sameInstance(secondCache)));
+	}
+
+	@Test public void testUnbindFromOtherParentAfterRemoval() {
+		// Arrange:
+		final RecyclerView firstRecyclerView = new RecyclerView(application);
+		final RecyclerView secondRecyclerView = new RecyclerView(application);
+		final RecyclerViewItemDecoration decoration = new TestDecoration();
+		firstRecyclerView.addItemDecoration(decoration);
+		secondRecyclerView.addItemDecoration(decoration);
+		final ItemDecorationCache firstCache = decoration.obtainCache(firstRecyclerView);
+		final ItemDecorationCache secondCache = decoration.obtainCache(secondRecyclerView);
+		// Act:
+		secondRecyclerView.removeItemDecoration(decoration);
+		secondRecyclerView.layout(0, 0, 100, 100);
+		// Assert:
+		assertThat(decoration.getAttachedParent(), is(sameInstance(firstRecyclerView)));
+		assertThat(ItemDecorationCache.obtainFor(firstRecyclerView), is(sameInstance(firstCache)));
+		assertThat(ItemDecorationCache.obtainFor(secondRecyclerView), is(not(sameInstance(secondCache))));
+	}
+
+	@Test public void testScheduleInvalidationWithoutAttachedRecyclerView() {
+		// Arrange:
+		final RecyclerViewItemDecoration decoration = new TestDecoration();
+		// Act:
+		decoration.setSkipFirst(true);
+		decoration.scheduleInvalidation(true);
+		// Assert:
+		assertThat(decoration.skipsFirst(), is(true));
+	}
+
+	@Test public void testScheduleInvalidationCoalescesChanges() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final RecyclerViewItemDecoration decoration = new TestDecoration();
+		decoration.attachToRecyclerView(mockRecyclerView);
+		// Act:
+		decoration.setSkipFirst(true);
+		decoration.setSkipLast(true);
+		decoration.setPrecondition(mock(RecyclerViewItemDecoration.Precondition.class));
+		decoration.scheduleInvalidation(false);
+		// Assert:
+		final ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+		verify(mockRecyclerView, times(1)).postOnAnimation(runnableCaptor.capture());
+		runnableCaptor.getValue().run();
+		verify(mockRecyclerView, times(1)).invalidateItemDecorations();
+		verify(mockRecyclerView, times(0)).invalidate();
+	}
+
+	@Test public void testScheduleInvalidationForRedraw() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final RecyclerViewItemDecoration decoration = new TestDecoration();
+		decoration.attachToRecyclerView(mockRecyclerView);
+		// Act:
+		decoration.scheduleInvalidation(false);
+		decoration.scheduleInvalidation(false);
+		// Assert:
+		final ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+		verify(mockRecyclerView, times(1)).postOnAnimation(runnableCaptor.capture());
+		runnableCaptor.getValue().run();
+		verify(mockRecyclerView, times(1)).invalidate();
+		verify(mockRecyclerView, times(0)).invalidateItemDecorations();
+	}
+
+	@Test public void testScheduleInvalidationAfterPerformedInvalidation() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final RecyclerViewItemDecoration decoration = new TestDecoration();
+		decoration.attachToRecyclerView(mockRecyclerView);
+		decoration.scheduleInvalidation(true);
+		decoration.performInvalidation();
+		// Act:
+		decoration.scheduleInvalidation(true);
+		// Assert:
+		verify(mockRecyclerView, times(2)).postOnAnimation(any(Runnable.class));
+	}
+
+	@Test public void testScheduleInvalidationDuringLayout() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		when(mockRecyclerView.isComputingLayout()).thenReturn(true);
+		final RecyclerViewItemDecoration decoration = new TestDecoration();
+		decoration.attachToRecyclerView(mockRecyclerView);
+		decoration.scheduleInvalidation(true);
+		// Act:
+		decoration.performInvalidation();
+		// Assert:
+		verify(mockRecyclerView, times(2)).postOnAnimation(any(Runnable.class));
+		verify(mockRecyclerView, times(0)).invalidateItemDecorations();
+		when(mockRecyclerView.isComputingLayout()).thenReturn(false);
+		decoration.performInvalidation();
+		verify(mockRecyclerView, times(1)).invalidateItemDecorations();
+	}
+
+	@Test public void testScheduleInvalidationAfterDetach() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final RecyclerViewItemDecoration decoration = new TestDecoration();
+		decoration.attachToRecyclerView(mockRecyclerView);
+		decoration.scheduleInvalidation(true);
+		decoration.attachToRecyclerView(null);
+		// Act:
+		decoration.performInvalidation();
+		// Assert:
+		verify(mockRecyclerView).removeCallbacks(any(Runnable.class));
+		verify(mockRecyclerView, times(0)).invalidateItemDecorations();
+	}
+
 	private static final class TestDecoration extends RecyclerViewItemDecoration {
 
 		TestDecoration() {
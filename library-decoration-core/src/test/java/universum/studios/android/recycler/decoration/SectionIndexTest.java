@@ -0,0 +1,237 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.decoration;
+
+import android.support.v7.widget.RecyclerView;
+
+import org.junit.Test;
+
+import universum.studios.android.test.local.RobolectricTestCase;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Martin Albedinsky
+ */
+public final class SectionIndexTest extends RobolectricTestCase {
+
+	@Test public void testInstantiation() {
+		// Act:
+		final SectionIndex index = new SectionIndex();
+		// Assert:
+		assertThat(index.getAdapter(), is(nullValue()));
+		assertThat(index.getSectionCount(), is(0));
+		assertThat(index.getSectionForPosition(0), is(SectionIndex.NO_SECTION));
+		assertThat(index.isSectionStart(0), is(false));
+	}
+
+	@Test public void testSetSectionStarts() {
+		// Arrange:
+		final SectionIndex index = new SectionIndex();
+		// Act:
+		index.setSectionStarts(new int[]{2, 5, 9});
+		// Assert:
+		assertThat(index.getSectionCount(), is(3));
+		assertThat(index.getSectionStart(0), is(2));
+		assertThat(index.getSectionStart(1), is(5));
+		assertThat(index.getSectionStart(2), is(9));
+	}
+
+	@Test public void testSetSectionStartsNull() {
+		// Arrange:
+		final SectionIndex index = new SectionIndex();
+		index.setSectionStarts(new int[]{0, 5});
+		// Act:
+		index.setSectionStarts(null);
+		// Assert:
+		assertThat(index.getSectionCount(), is(0));
+		assertThat(index.getSectionForPosition(5), is(SectionIndex.NO_SECTION));
+	}
+
+	@Test public void testGetSectionForPosition() {
+		// Arrange:
+		final SectionIndex index = new SectionIndex();
+		index.setSectionStarts(new int[]{2, 5, 9});
+		// Act + Assert:
+		assertThat(index.getSectionForPosition(0), is(SectionIndex.NO_SECTION));
+		assertThat(index.getSectionForPosition(1), is(SectionIndex.NO_SECTION));
+		assertThat(index.getSectionForPosition(2), is(0));
+		assertThat(index.getSectionForPosition(4), is(0));
+		assertThat(index.getSectionForPosition(5), is(1));
+		assertThat(index.getSectionForPosition(8), is(1));
+		assertThat(index.getSectionForPosition(9), is(2));
+		assertThat(index.getSectionForPosition(100), is(2));
+	}
+
+	@Test public void testIsSectionStart() {
+		// Arrange:
+		final SectionIndex index = new SectionIndex();
+		index.setSectionStarts(new int[]{0, 5, 9});
+		// Act + Assert:
+		assertThat(index.isSectionStart(0), is(true));
+		assertThat(index.isSectionStart(1), is(false));
+		assertThat(index.isSectionStart(5), is(true));
+		assertThat(index.isSectionStart(9), is(true));
+		assertThat(index.isSectionStart(10), is(false));
+	}
+
+	@Test public void testInstantiationWithSectionStarts() {
+		// Act:
+		final SectionIndex index = new SectionIndex(new int[]{0, 3});
+		// Assert:
+		assertThat(index.getSectionCount(), is(2));
+		assertThat(index.getSectionStart(1), is(3));
+	}
+
+	@Test public void testIsSectionEnd() {
+		// Arrange:
+		final SectionIndex index = new SectionIndex(new int[]{0, 5, 9});
+		// Act + Assert:
+		assertThat(index.isSectionEnd(-1), is(false));
+		assertThat(index.isSectionEnd(0), is(false));
+		assertThat(index.isSectionEnd(4), is(true));
+		assertThat(index.isSectionEnd(8), is(true));
+		assertThat(index.isSectionEnd(9), is(false));
+		assertThat(index.isSectionEnd(10), is(false));
+	}
+
+	@Test public void testAttachAdapter() {
+		// Arrange:
+		final RecyclerView.Adapter mockAdapter = mock(RecyclerView.Adapter.class);
+		final SectionIndex index = new SectionIndex(new int[]{0, 5});
+		// Act:
+		index.attachAdapter(mockAdapter);
+		// Assert:
+		assertThat(index.getAdapter(), is(mockAdapter));
+		assertThat(index.getSectionCount(), is(2));
+		verify(mockAdapter).registerAdapterDataObserver(index);
+	}
+
+	@Test public void testAttachAdapterReplacesPreviousAdapter() {
+		// Arrange:
+		final RecyclerView.Adapter mockAdapter = mock(RecyclerView.Adapter.class);
+		final SectionIndex index = new SectionIndex();
+		index.attachAdapter(mockAdapter);
+		// Act:
+		index.attachAdapter(null);
+		// Assert:
+		assertThat(index.getAdapter(), is(nullValue()));
+		verify(mockAdapter).unregisterAdapterDataObserver(index);
+	}
+
+	@Test public void testReleaseLastUsage() {
+		// Arrange:
+		final RecyclerView.Adapter mockAdapter = mock(RecyclerView.Adapter.class);
+		final SectionIndex index = new SectionIndex();
+		index.acquire();
+		index.acquire();
+		index.attachAdapter(mockAdapter);
+		// Act + Assert:
+		index.release();
+		assertThat(index.getAdapter(), is(mockAdapter));
+		index.release();
+		assertThat(index.getAdapter(), is(nullValue()));
+		verify(mockAdapter).unregisterAdapterDataObserver(index);
+	}
+
+	@Test public void testOnItemRangeInserted() {
+		// Arrange:
+		final SectionIndex index = new SectionIndex(new int[]{0, 5, 9});
+		// Act:
+		index.onItemRangeInserted(5, 2);
+		// Assert:
+		assertThat(index.getSectionCount(), is(3));
+		assertThat(index.getSectionStart(0), is(0));
+		assertThat(index.getSectionStart(1), is(5));
+		assertThat(index.getSectionStart(2), is(11));
+	}
+
+	@Test public void testOnItemRangeInsertedWithinSection() {
+		// Arrange:
+		final SectionIndex index = new SectionIndex(new int[]{0, 5, 9});
+		// Act:
+		index.onItemRangeInserted(6, 3);
+		// Assert:
+		assertThat(index.getSectionStart(1), is(5));
+		assertThat(index.getSectionStart(2), is(12));
+	}
+
+	@Test public void testOnItemRangeRemovedWithinSection() {
+		// Arrange:
+		final SectionIndex index = new SectionIndex(new int[]{0, 5, 9});
+		// Act:
+		index.onItemRangeRemoved(1, 2);
+		// Assert:
+		assertThat(index.getSectionCount(), is(3));
+		assertThat(index.getSectionStart(1), is(3));
+		assertThat(index.getSectionStart(2), is(7));
+	}
+
+	@Test public void testOnItemRangeRemovedAcrossSectionStart() {
+		// Arrange:
+		final SectionIndex index = new SectionIndex(new int[]{0, 5, 9});
+		// Act:
+		index.onItemRangeRemoved(4, 2);
+		// Assert:
+		assertThat(index.getSectionCount(), is(3));
+		assertThat(index.getSectionStart(1), is(4));
+		assertThat(index.getSectionStart(2), is(7));
+	}
+
+	@Test public void testOnItemRangeRemovedWholeSection() {
+		// Arrange:
+		final SectionIndex index = new SectionIndex(new int[]{0, 5, 9});
+		// Act:
+		index.onItemRangeRemoved(5, 4);
+		// Assert:
+		assertThat(index.getSectionCount(), is(2));
+		assertThat(index.getSectionStart(0), is(0));
+		assertThat(index.getSectionStart(1), is(5));
+	}
+
+	@Test public void testOnItemRangeRemovedLastSection() {
+		// Arrange:
+		final RecyclerView.Adapter mockAdapter = mock(RecyclerView.Adapter.class);
+		when(mockAdapter.getItemCount()).thenReturn(9);
+		final SectionIndex index = new SectionIndex(new int[]{0, 5, 9});
+		index.attachAdapter(mockAdapter);
+		// Act:
+		index.onItemRangeRemoved(9, 3);
+		// Assert:
+		assertThat(index.getSectionCount(), is(2));
+		assertThat(index.getSectionForPosition(8), is(1));
+	}
+
+	@Test public void testOnItemRangeMoved() {
+		// Arrange:
+		final SectionIndex index = new SectionIndex(new int[]{0, 5, 9});
+		// Act:
+		index.onItemRangeMoved(1, 7, 1);
+		// Assert:
+		assertThat(index.getSectionCount(), is(3));
+		assertThat(index.getSectionStart(1), is(4));
+		assertThat(index.getSectionStart(2), is(9));
+		assertThat(index.getSectionForPosition(7), is(1));
+	}
+}
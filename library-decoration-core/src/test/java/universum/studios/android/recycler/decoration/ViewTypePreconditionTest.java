@@ -0,0 +1,117 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.decoration;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import org.junit.Test;
+
+import universum.studios.android.test.local.RobolectricTestCase;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Martin Albedinsky
+ */
+public final class ViewTypePreconditionTest extends RobolectricTestCase {
+
+	@Test public void testMatchesViewType() {
+		// Arrange:
+		final ViewTypePrecondition precondition = new ViewTypePrecondition(3, 1, 3, 70, -5, 5000);
+		// Act + Assert:
+		assertThat(precondition.matchesViewType(1), is(true));
+		assertThat(precondition.matchesViewType(3), is(true));
+		assertThat(precondition.matchesViewType(70), is(true));
+		assertThat(precondition.matchesViewType(-5), is(true));
+		assertThat(precondition.matchesViewType(5000), is(true));
+		assertThat(precondition.matchesViewType(0), is(false));
+		assertThat(precondition.matchesViewType(71), is(false));
+		assertThat(precondition.matchesViewType(128), is(false));
+		assertThat(precondition.matchesViewType(-4), is(false));
+		assertThat(precondition.matchesViewType(5001), is(false));
+	}
+
+	@Test public void testMatchesViewTypeWithoutViewTypes() {
+		// Arrange:
+		final ViewTypePrecondition precondition = new ViewTypePrecondition();
+		// Act + Assert:
+		assertThat(precondition.matchesViewType(0), is(false));
+		assertThat(precondition.isNeverSatisfied(), is(true));
+		assertThat(precondition.negate().isAlwaysSatisfied(), is(true));
+	}
+
+	@Test public void testCheck() {
+		// Arrange:
+		final View itemView = new View(application);
+		final RecyclerView.ViewHolder holder = new RecyclerView.ViewHolder(itemView) {};
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		when(mockRecyclerView.getChildViewHolder(itemView)).thenReturn(holder);
+		final RecyclerView.State mockState = mock(RecyclerView.State.class);
+		// Act + Assert:
+		assertThat(new ViewTypePrecondition(0).check(itemView, mockRecyclerView, mockState), is(true));
+		assertThat(new ViewTypePrecondition(1).check(itemView, mockRecyclerView, mockState), is(false));
+		verifyZeroInteractions(mockState);
+	}
+
+	@Test public void testNegate() {
+		// Arrange:
+		final ViewTypePrecondition precondition = new ViewTypePrecondition(1, 2);
+		// Act:
+		final ViewTypePrecondition negated = precondition.negate();
+		// Assert:
+		assertThat(negated.matchesViewType(1), is(false));
+		assertThat(negated.matchesViewType(2), is(false));
+		assertThat(negated.matchesViewType(3), is(true));
+		assertThat(negated.negate().matchesViewType(1), is(true));
+	}
+
+	@Test public void testAnd() {
+		// Arrange:
+		final ViewTypePrecondition first = new ViewTypePrecondition(1, 2, 3);
+		final ViewTypePrecondition second = new ViewTypePrecondition(2, 3, 4);
+		// Act:
+		final ViewTypePrecondition combined = first.and(second);
+		final ViewTypePrecondition combinedWithNegated = first.and(second.negate());
+		// Assert:
+		assertThat(combined.matchesViewType(1), is(false));
+		assertThat(combined.matchesViewType(2), is(true));
+		assertThat(combined.matchesViewType(4), is(false));
+		assertThat(combinedWithNegated.matchesViewType(1), is(true));
+		assertThat(combinedWithNegated.matchesViewType(2), is(false));
+		assertThat(combinedWithNegated.matchesViewType(5), is(false));
+	}
+
+	@Test public void testOr() {
+		// Arrange:
+		final ViewTypePrecondition first = new ViewTypePrecondition(1);
+		final ViewTypePrecondition second = new ViewTypePrecondition(2);
+		// Act:
+		final ViewTypePrecondition combined = first.or(second);
+		// Assert:
+		assertThat(combined.matchesViewType(1), is(true));
+		assertThat(combined.matchesViewType(2), is(true));
+		assertThat(combined.matchesViewType(3), is(false));
+		assertThat(first.or(first.negate()).isAlwaysSatisfied(), is(true));
+	}
+}
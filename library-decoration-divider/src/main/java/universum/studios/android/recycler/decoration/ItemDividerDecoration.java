@@ -19,32 +19,55 @@
 package universum.studios.android.recycler.decoration;
 
 import android.content.Context;
-import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
 import android.graphics.Rect;
 import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
 import android.support.annotation.AttrRes;
+import android.support.annotation.IdRes;
 import android.support.annotation.IntDef;
 import android.support.annotation.IntRange;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.StyleRes;
+import android.support.v4.graphics.drawable.DrawableCompat;
+import android.support.v4.os.TraceCompat;
 import android.support.v4.view.ViewCompat;
+import android.support.v7.widget.GridLayoutManager;
+import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
 import android.util.AttributeSet;
+import android.util.SparseArray;
 import android.view.View;
+import android.view.ViewParent;
 import android.widget.LinearLayout;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.Arrays;
 
 import universum.studios.android.recycler.R;
+import universum.studios.android.recycler.RecyclerTracing;
 
 /**
  * A {@link RecyclerViewItemDecoration} implementation that may be used to draw a <b>divider</b>
  * (drawable or color), vertically or horizontally, between items displayed in a {@link RecyclerView}
- * widget.
+ * widget. In {@link #GRID} orientation the dividers are drawn between cells of a grid created by
+ * {@link GridLayoutManager}.
+ * <p>
+ * If a {@link SectionIndex} is specified via {@link #setSectionIndex(SectionIndex)}, dividers are
+ * drawn only between sections of items.
+ * <p>
+ * Items of different view types may be divided by different dividers specified via
+ * {@link #setViewTypeDivider(int, ViewTypeDivider)}. Divider for each item is resolved within the
+ * same iteration in which are the dividers drawn, so a single decoration may be used instead of
+ * multiple decorations with preconditions for each view type.
+ * <p>
+ * In {@link #VERTICAL} orientation the divider may be aligned with content of items via
+ * {@link #setDividerAlignmentViewId(int)}.
  *
  * <h3>Xml attributes</h3>
  * {@link R.styleable#Recycler_ItemDecoration_Divider ItemDividerDecoration Attributes}
@@ -68,6 +91,16 @@ public class ItemDividerDecoration extends RecyclerViewItemDecoration {
 	 */
 	// private static final String TAG = "ItemDividerDecoration";
 
+	/**
+	 * Name of the trace section wrapping {@link #getItemOffsets(Rect, View, RecyclerView, RecyclerView.State)}.
+	 */
+	private static final String TRACE_GET_ITEM_OFFSETS = "ItemDividerDecoration.getItemOffsets";
+
+	/**
+	 * Name of the trace section wrapping {@link #onDraw(Canvas, RecyclerView, RecyclerView.State)}.
+	 */
+	private static final String TRACE_DRAW = "ItemDividerDecoration.onDraw";
+
 	/**
 	 * Horizontal orientation flag copied from {@link LinearLayout#HORIZONTAL} for convenience.
 	 */
@@ -78,16 +111,42 @@ public class ItemDividerDecoration extends RecyclerViewItemDecoration {
 	 */
 	public static final int VERTICAL = LinearLayout.VERTICAL;
 
+	/**
+	 * Grid orientation flag which may be used to draw dividers between cells of a grid created by
+	 * {@link GridLayoutManager}.
+	 * <p>
+	 * In this orientation, each cell draws dividers only at its trailing edges which are shared with
+	 * other cells, that is between the cell and the next cell within the same line (if there is
+	 * any) and between the cell and the next line (if there is any), so each shared edge is drawn
+	 * exactly once. Thickness of dividers between cells of the same line is distributed across
+	 * all spans of the grid, so all cells of the same span size have the same size.
+	 * Divider offsets and cached divider tile are ignored in this orientation. The <b>skip last</b>
+	 * flag is also ignored as the trailing edges of the last line are resolved by the grid, while
+	 * the <b>skip first</b> flag is applied for the first item from data set.
+	 */
+	public static final int GRID = 2;
+
 	/**
 	 * Defines an annotation for determining allowed orientations for {@link ItemDividerDecoration}.
 	 *
 	 * @see #ItemDividerDecoration(int, Drawable)
 	 * @see #setOrientation(int)
 	 */
-	@IntDef({HORIZONTAL, VERTICAL})
+	@IntDef({HORIZONTAL, VERTICAL, GRID})
 	@Retention(RetentionPolicy.SOURCE)
 	public @interface Orientation {}
 
+	/**
+	 * Flag indicating that a divider should be drawn between a grid cell and the next cell within
+	 * the same line.
+	 */
+	private static final int GRID_EDGE_SPAN = 0x01;
+
+	/**
+	 * Flag indicating that a divider should be drawn between a grid cell and the next line.
+	 */
+	private static final int GRID_EDGE_LINE = 0x02;
+
 	/*
 	 * Interface ===================================================================================
 	 */
@@ -139,6 +198,40 @@ public class ItemDividerDecoration extends RecyclerViewItemDecoration {
 	 */
 	private int dividerOffsetEnd;
 
+	/**
+	 * Index of sections between which to draw dividers. If specified, dividers are drawn only
+	 * between sections and not between items within the same section.
+	 *
+	 * @see #setSectionIndex(SectionIndex)
+	 */
+	private SectionIndex sectionIndex;
+
+	/**
+	 * Table with dividers specified for particular view types of items.
+	 *
+	 * @see #setViewTypeDivider(int, ViewTypeDivider)
+	 */
+	private final SparseArray<ViewTypeDivider> viewTypeDividers = new SparseArray<>();
+
+	/**
+	 * Id of a view within items with which horizontal edges should be the divider aligned.
+	 *
+	 * @see #setDividerAlignmentViewId(int)
+	 */
+	private int dividerAlignmentViewId = View.NO_ID;
+
+	/**
+	 * Left and right insets of the alignment view within item views measured for particular view
+	 * types.
+	 */
+	private final SparseArray<int[]> dividerAlignmentInsets = new SparseArray<>();
+
+	/**
+	 * Boolean flag indicating whether the {@link #dividerAlignmentInsets} have been measured for
+	 * RTL layout direction.
+	 */
+	private boolean dividerAlignmentRtl;
+
 	/**
 	 * Bounds instance used when obtaining decorated bounds for a concrete item view when drawing
 	 * a divider for it.
@@ -148,6 +241,124 @@ public class ItemDividerDecoration extends RecyclerViewItemDecoration {
 	 */
 	private final Rect bounds = new Rect();
 
+	/**
+	 * Start and end coordinates of the divider along the axis perpendicular to the current draw
+	 * orientation. These are resolved once per draw pass.
+	 */
+	private int drawExtentStart, drawExtentEnd;
+
+	/**
+	 * Bounds of the canvas clip resolved once per draw pass. Used to cull dividers which cannot be
+	 * visible.
+	 */
+	private final Rect clipBounds = new Rect();
+
+	/**
+	 * Boolean flag indicating whether {@link #clipBounds} have been resolved for the current draw
+	 * pass and dividers outside of them may be culled.
+	 */
+	private boolean cullingEnabled;
+
+	/**
+	 * Boolean flag indicating whether solid color dividers should be drawn in batches.
+	 *
+	 * @see #setDividerBatchingEnabled(boolean)
+	 */
+	private boolean dividerBatchingEnabled;
+
+	/**
+	 * Boolean flag indicating whether dividers are drawn in batch mode during the current draw pass.
+	 */
+	private boolean batching;
+
+	/**
+	 * Paint used to draw solid color dividers in batch mode.
+	 */
+	private Paint batchPaint;
+
+	/**
+	 * Array with points of lines collected for the current draw pass in batch mode, 4 values per
+	 * divider.
+	 */
+	private float[] batchLines;
+
+	/**
+	 * Count of valid values within {@link #batchLines} array.
+	 */
+	private int batchLinesCount;
+
+	/**
+	 * Boolean flag indicating whether the divider should be rendered into a cached tile.
+	 *
+	 * @see #setDividerTileCacheEnabled(boolean)
+	 */
+	private boolean dividerTileCacheEnabled;
+
+	/**
+	 * Boolean flag indicating whether dividers are drawn using the cached tile during the current
+	 * draw pass.
+	 */
+	private boolean tiling;
+
+	/**
+	 * Bitmap into which is the divider rendered when the tile cache is enabled.
+	 */
+	private Bitmap dividerTile;
+
+	/**
+	 * State of the divider drawable for which has been the {@link #dividerTile} rendered.
+	 */
+	private int[] dividerTileState;
+
+	/**
+	 * Boolean flag indicating whether the {@link #dividerTile} has been rendered for RTL layout
+	 * direction.
+	 */
+	private boolean dividerTileRtl;
+
+	/**
+	 * Boolean flag indicating whether the {@link #dividerTile} needs to be rendered again.
+	 */
+	private boolean dividerTileDirty = true;
+
+	/**
+	 * Boolean flag indicating whether the grid dividers are drawn for RTL layout direction during
+	 * the current draw pass.
+	 */
+	private boolean gridRtl;
+
+	/**
+	 * Boolean flag indicating whether lines of the grid for which have been the last edges resolved
+	 * are laid out horizontally, that is spans are stacked vertically.
+	 *
+	 * @see #resolveGridEdges(View, RecyclerView, RecyclerView.State)
+	 */
+	private boolean gridHorizontal;
+
+	/**
+	 * Offset at the leading edge in span direction of the grid cell for which have been the last
+	 * edges resolved.
+	 *
+	 * @see #resolveGridEdges(View, RecyclerView, RecyclerView.State)
+	 */
+	private int gridSpanStartOffset;
+
+	/**
+	 * Offset at the trailing edge in span direction of the grid cell for which have been the last
+	 * edges resolved.
+	 *
+	 * @see #resolveGridEdges(View, RecyclerView, RecyclerView.State)
+	 */
+	private int gridSpanEndOffset;
+
+	/**
+	 * Boolean flag indicating whether span index cache of the span size lookup used by the grid
+	 * should be enabled by this decoration.
+	 *
+	 * @see #setSpanIndexCacheEnabled(boolean)
+	 */
+	private boolean spanIndexCacheEnabled;
+
 	/*
 	 * Constructors ================================================================================
 	 */
@@ -214,27 +425,26 @@ public class ItemDividerDecoration extends RecyclerViewItemDecoration {
 		super(context, attrs, defStyleAttr, defStyleRes);
 		setSkipLast(true);
 		if (context != null) {
-			final TypedArray attributes = context.obtainStyledAttributes(attrs, R.styleable.Recycler_ItemDecoration_Divider, defStyleAttr, defStyleRes);
-			final int attributeCount = attributes.getIndexCount();
+			final DecorationSpec spec = DecorationSpec.obtain(context, attrs, R.styleable.Recycler_ItemDecoration_Divider, defStyleAttr, defStyleRes);
+			final int attributeCount = spec.getIndexCount();
 			for (int i = 0; i < attributeCount; i++) {
-				final int attrIndex = attributes.getIndex(i);
+				final int attrIndex = spec.getIndex(i);
 				if (attrIndex == R.styleable.Recycler_ItemDecoration_Divider_recyclerDividerOrientation) {
-					setOrientation(attributes.getInt(attrIndex, orientation));
+					setOrientation(spec.getInt(attrIndex, orientation));
 				} else if (attrIndex == R.styleable.Recycler_ItemDecoration_Divider_recyclerDivider) {
-					setDivider(attributes.getDrawable(attrIndex));
+					setDivider(spec.getDrawable(attrIndex, context));
 				} else if (attrIndex == R.styleable.Recycler_ItemDecoration_Divider_recyclerDividerThickness) {
-					setDividerThickness(attributes.getDimensionPixelSize(attrIndex, 0));
+					setDividerThickness(spec.getDimensionPixelSize(attrIndex, 0));
 				}  else if (attrIndex == R.styleable.Recycler_ItemDecoration_Divider_recyclerDividerOffsetStart) {
-					setDividerOffset(attributes.getDimensionPixelSize(attrIndex, 0), dividerOffsetEnd);
+					setDividerOffset(spec.getDimensionPixelSize(attrIndex, 0), dividerOffsetEnd);
 				}  else if (attrIndex == R.styleable.Recycler_ItemDecoration_Divider_recyclerDividerOffsetEnd) {
-					setDividerOffset(dividerOffsetStart, attributes.getDimensionPixelSize(attrIndex, 0));
+					setDividerOffset(dividerOffsetStart, spec.getDimensionPixelSize(attrIndex, 0));
 				} else if (attrIndex == R.styleable.Recycler_ItemDecoration_Divider_recyclerDividerSkipFirst) {
-					setSkipFirst(attributes.getBoolean(attrIndex, skipsFirst()));
+					setSkipFirst(spec.getBoolean(attrIndex, skipsFirst()));
 				} else if (attrIndex == R.styleable.Recycler_ItemDecoration_Divider_recyclerDividerSkipLast) {
-					setSkipLast(attributes.getBoolean(attrIndex, skipsLast()));
+					setSkipLast(spec.getBoolean(attrIndex, skipsLast()));
 				}
 			}
-			attributes.recycle();
 		}
 	}
 
@@ -253,8 +463,13 @@ public class ItemDividerDecoration extends RecyclerViewItemDecoration {
 	 * @see #getOrientation()
 	 */
 	public void setOrientation(@Orientation final int orientation) {
+		final int previousOrientation = this.orientation;
+		final int previousThickness = dividerThickness;
 		this.orientation = orientation;
 		this.resolveDividerDrawThickness();
+		if (previousOrientation != orientation || previousThickness != dividerThickness) {
+			this.scheduleInvalidation(true);
+		}
 	}
 
 	/**
@@ -281,8 +496,12 @@ public class ItemDividerDecoration extends RecyclerViewItemDecoration {
 	 * @see #getDivider()
 	 */
 	public void setDivider(@Nullable final Drawable divider) {
+		final int previousThickness = dividerThickness;
 		this.divider = divider;
+		this.dividerTileDirty = true;
 		this.resolveDividerDrawThickness();
+		// Divider of the same thickness does not change offsets of items so redraw is enough.
+		this.scheduleInvalidation(previousThickness != dividerThickness);
 	}
 
 	/**
@@ -307,7 +526,10 @@ public class ItemDividerDecoration extends RecyclerViewItemDecoration {
 	 * @see #getDividerThickness()
 	 */
 	public void setDividerThickness(@IntRange(from = 0) final int thickness) {
-		this.dividerThickness = thickness;
+		if (dividerThickness != thickness) {
+			this.dividerThickness = thickness;
+			this.scheduleInvalidation(true);
+		}
 	}
 
 	/**
@@ -356,8 +578,11 @@ public class ItemDividerDecoration extends RecyclerViewItemDecoration {
 	 * @see #getDividerOffsetEnd()
 	 */
 	public void setDividerOffset(@IntRange(from = 0) final int start, @IntRange(from = 0) final int end) {
-		this.dividerOffsetStart = start;
-		this.dividerOffsetEnd = end;
+		if (dividerOffsetStart != start || dividerOffsetEnd != end) {
+			this.dividerOffsetStart = start;
+			this.dividerOffsetEnd = end;
+			this.scheduleInvalidation(false);
+		}
 	}
 
 	/**
@@ -388,27 +613,430 @@ public class ItemDividerDecoration extends RecyclerViewItemDecoration {
 		return dividerOffsetEnd;
 	}
 
+	/**
+	 * Sets a boolean flag indicating whether dividers should be drawn in batches if the divider
+	 * drawable is a {@link ColorDrawable}.
+	 * <p>
+	 * In batch mode, this decoration does not call {@link Drawable#setBounds(int, int, int, int)}
+	 * and {@link Drawable#draw(Canvas)} for each item view, but collects lines of all dividers for
+	 * the current draw pass and draws them all at once using a single {@link Paint} with color of
+	 * the divider drawable. <b>Note</b> that any color filter set to the divider drawable is ignored
+	 * in batch mode.
+	 * <p>
+	 * Default value: {@code false}
+	 *
+	 * @param enabled {@code True} to enable batch mode, {@code false} to disable it.
+	 *
+	 * @see #isDividerBatchingEnabled()
+	 */
+	public void setDividerBatchingEnabled(final boolean enabled) {
+		if (dividerBatchingEnabled != enabled) {
+			this.dividerBatchingEnabled = enabled;
+			this.scheduleInvalidation(false);
+		}
+	}
+
+	/**
+	 * Returns a boolean flag indicating whether batch mode for solid color dividers is enabled.
+	 *
+	 * @return {@code True} if batch mode is enabled, {@code false} otherwise.
+	 *
+	 * @see #setDividerBatchingEnabled(boolean)
+	 */
+	public boolean isDividerBatchingEnabled() {
+		return dividerBatchingEnabled;
+	}
+
+	/**
+	 * Sets a boolean flag indicating whether the divider drawable should be rendered only once into
+	 * a cached bitmap tile which is then drawn for each item view.
+	 * <p>
+	 * This is useful for complex divider drawables like gradients or insets, which would be otherwise
+	 * rendered for each item view in each draw pass. The tile is rendered again only when its size
+	 * (extent of the divider or its thickness), state of the divider drawable or layout direction
+	 * of the parent RecyclerView changes. If the divider drawable changes in any other way, like
+	 * its level or alpha, {@link #invalidateDividerTileCache()} should be called.
+	 * <p>
+	 * <b>Note</b> that for {@link ColorDrawable} dividers the batch mode takes precedence if enabled.
+	 * <p>
+	 * Default value: {@code false}
+	 *
+	 * @param enabled {@code True} to enable the tile cache, {@code false} to disable it.
+	 *
+	 * @see #isDividerTileCacheEnabled()
+	 * @see #setDividerBatchingEnabled(boolean)
+	 */
+	public void setDividerTileCacheEnabled(final boolean enabled) {
+		if (dividerTileCacheEnabled != enabled) {
+			this.dividerTileCacheEnabled = enabled;
+			if (!enabled) {
+				// The tile may be still referenced by display list of the last frame, so it must
+				// not be recycled here.
+				this.dividerTile = null;
+			}
+			this.dividerTileDirty = true;
+			this.scheduleInvalidation(false);
+		}
+	}
+
+	/**
+	 * Returns a boolean flag indicating whether the divider is rendered into a cached tile.
+	 *
+	 * @return {@code True} if the tile cache is enabled, {@code false} otherwise.
+	 *
+	 * @see #setDividerTileCacheEnabled(boolean)
+	 */
+	public boolean isDividerTileCacheEnabled() {
+		return dividerTileCacheEnabled;
+	}
+
+	/**
+	 * Invalidates the cached divider tile so it will be rendered again for the next draw pass.
+	 *
+	 * @see #setDividerTileCacheEnabled(boolean)
+	 */
+	public void invalidateDividerTileCache() {
+		this.dividerTileDirty = true;
+		this.scheduleInvalidation(false);
+	}
+
+	/**
+	 * Sets a boolean flag indicating whether this decoration should enable span index cache of
+	 * the {@link GridLayoutManager.SpanSizeLookup} used by the grid in {@link #GRID} orientation.
+	 * <p>
+	 * Resolving of span index for an item requires iteration over all preceding items unless the
+	 * span size lookup caches span indexes. When enabled, this decoration enables the cache via
+	 * {@link GridLayoutManager.SpanSizeLookup#setSpanIndexCacheEnabled(boolean)} when the lookup
+	 * is first used. <b>Note</b> that the span size lookup is then responsible for invalidation of
+	 * its cache whenever span sizes change. When disabled, the lookup is left untouched.
+	 * <p>
+	 * Default value: {@code false}
+	 *
+	 * @param enabled {@code True} to enable span index cache of the lookup, {@code false} otherwise.
+	 *
+	 * @see #isSpanIndexCacheEnabled()
+	 */
+	public void setSpanIndexCacheEnabled(final boolean enabled) {
+		this.spanIndexCacheEnabled = enabled;
+	}
+
+	/**
+	 * Returns a boolean flag indicating whether this decoration enables span index cache of the
+	 * span size lookup used by the grid.
+	 *
+	 * @return {@code True} if the span index cache is enabled by this decoration, {@code false}
+	 * otherwise.
+	 *
+	 * @see #setSpanIndexCacheEnabled(boolean)
+	 */
+	public boolean isSpanIndexCacheEnabled() {
+		return spanIndexCacheEnabled;
+	}
+
+	/**
+	 * Sets an index of sections between which should be dividers drawn. If specified, a divider is
+	 * drawn only for the last item of each section (except the last section), so items within the
+	 * same section are not divided.
+	 * <p>
+	 * The index is attached to the adapter of the parent RecyclerView, so its sections are kept in
+	 * sync with data set changes of the adapter.
+	 * <p>
+	 * <b>Note</b> that the section index is ignored in {@link #GRID} orientation.
+	 * <p>
+	 * Default value: {@code null}
+	 *
+	 * @param index The desired section index. May be {@code null} to draw dividers between all items.
+	 *
+	 * @see #getSectionIndex()
+	 */
+	public void setSectionIndex(@Nullable final SectionIndex index) {
+		if (sectionIndex != index) {
+			if (getAttachedParent() != null) {
+				if (sectionIndex != null) {
+					sectionIndex.release();
+				}
+				if (index != null) {
+					index.acquire();
+				}
+			}
+			this.sectionIndex = index;
+			this.scheduleInvalidation(true);
+		}
+	}
+
+	/**
+	 * Releases also the section index used by this decoration (if any) when this decoration is
+	 * unbound from its current parent.
+	 */
+	@Override void bindParent(@Nullable final RecyclerView parent) {
+		final RecyclerView currentParent = getAttachedParent();
+		if (sectionIndex != null && currentParent != parent) {
+			if (currentParent != null) {
+				sectionIndex.release();
+			}
+			if (parent != null) {
+				sectionIndex.acquire();
+			}
+		}
+		super.bindParent(parent);
+	}
+
+	/**
+	 * Returns the index of sections between which are dividers drawn.
+	 *
+	 * @return This decoration's section index or {@code null} if dividers are drawn between all items.
+	 *
+	 * @see #setSectionIndex(SectionIndex)
+	 */
+	@Nullable public SectionIndex getSectionIndex() {
+		return sectionIndex;
+	}
+
+	/**
+	 * Specifies a divider to be drawn after items of the specified <var>viewType</var> instead of
+	 * the divider specified via {@link #setDivider(Drawable)}. Divider with {@code 0} thickness may
+	 * be specified to not draw any divider after items of the view type.
+	 * <p>
+	 * View type of each item is resolved via {@link RecyclerView.ViewHolder#getItemViewType()} of the
+	 * view holder bound to the item view, so it matches the type the item was bound with.
+	 * <p>
+	 * <b>Note</b> that view type dividers are ignored in {@link #GRID} orientation.
+	 *
+	 * @param viewType The view type for which to specify the divider.
+	 * @param divider  The desired divider. May be {@code null} to remove the divider specified for
+	 *                 the view type before, so the default divider will be drawn for its items.
+	 *
+	 * @see #getViewTypeDivider(int)
+	 */
+	public void setViewTypeDivider(final int viewType, @Nullable final ViewTypeDivider divider) {
+		final ViewTypeDivider previousDivider = viewTypeDividers.get(viewType);
+		if (previousDivider == divider) {
+			return;
+		}
+		if (divider == null) {
+			this.viewTypeDividers.remove(viewType);
+		} else {
+			this.viewTypeDividers.put(viewType, divider);
+		}
+		final int previousThickness = previousDivider == null ? dividerThickness : previousDivider.thickness;
+		final int thickness = divider == null ? dividerThickness : divider.thickness;
+		this.scheduleInvalidation(previousThickness != thickness);
+	}
+
+	/**
+	 * Returns the divider specified for the specified <var>viewType</var>.
+	 *
+	 * @param viewType The view type for which to return its divider.
+	 * @return Divider for the view type or {@code null} if the default divider is drawn for items
+	 * of the view type.
+	 *
+	 * @see #setViewTypeDivider(int, ViewTypeDivider)
+	 */
+	@Nullable public ViewTypeDivider getViewTypeDivider(final int viewType) {
+		return viewTypeDividers.get(viewType);
+	}
+
+	/**
+	 * Sets an id of a view within items with which horizontal edges should be the divider aligned,
+	 * so the divider starts and ends at the same positions as content of the item above it.
+	 * <p>
+	 * Insets of the alignment view within an item are measured when an item of a particular view
+	 * type is drawn for the first time and are cached for that view type, so items of different view
+	 * types may have different paddings. If layout of items changes so the cached insets are no
+	 * longer valid, {@link #invalidateDividerAlignment()} should be called.
+	 * <p>
+	 * The aligned divider is still drawn within the extent specified via {@link #setDividerOffset(int, int)}.
+	 * <p>
+	 * <b>Note</b> that the alignment is used only for the default divider in {@link #VERTICAL}
+	 * orientation and that the divider tile cache is not used for aligned dividers.
+	 * <p>
+	 * Default value: {@link View#NO_ID}
+	 *
+	 * @param viewId Id of the desired alignment view. May be {@link View#NO_ID} to not align the divider.
+	 *
+	 * @see #getDividerAlignmentViewId()
+	 */
+	public void setDividerAlignmentViewId(@IdRes final int viewId) {
+		if (dividerAlignmentViewId != viewId) {
+			this.dividerAlignmentViewId = viewId;
+			this.dividerAlignmentInsets.clear();
+			this.scheduleInvalidation(false);
+		}
+	}
+
+	/**
+	 * Returns the id of a view within items with which is the divider aligned.
+	 *
+	 * @return Id of the alignment view or {@link View#NO_ID} if the divider is not aligned.
+	 *
+	 * @see #setDividerAlignmentViewId(int)
+	 */
+	@IdRes public int getDividerAlignmentViewId() {
+		return dividerAlignmentViewId;
+	}
+
+	/**
+	 * Invalidates insets of the alignment view measured for all view types, so they will be measured
+	 * again during the next draw pass.
+	 *
+	 * @see #setDividerAlignmentViewId(int)
+	 */
+	public void invalidateDividerAlignment() {
+		this.dividerAlignmentInsets.clear();
+		this.scheduleInvalidation(false);
+	}
+
+	/**
+	 * Checks whether the default divider should be aligned with content of items during the current
+	 * draw pass.
+	 *
+	 * @return {@code True} if alignment view id is specified and this decoration draws in vertical
+	 * orientation, {@code false} otherwise.
+	 */
+	private boolean isDividerAligned() {
+		return dividerAlignmentViewId != View.NO_ID && orientation == VERTICAL;
+	}
+
+	/**
+	 * Prepares the alignment insets cache for the current draw pass, so insets measured for other
+	 * layout direction are not used.
+	 *
+	 * @param rtl {@code True} if the parent RecyclerView is laid out in RTL direction, {@code false}
+	 *            otherwise.
+	 */
+	private void prepareAlignment(final boolean rtl) {
+		if (dividerAlignmentRtl != rtl) {
+			this.dividerAlignmentInsets.clear();
+			this.dividerAlignmentRtl = rtl;
+		}
+	}
+
+	/**
+	 * Resolves left and right insets of the alignment view within the specified item <var>view</var>.
+	 * Insets are measured only if they have not been measured for the view type yet.
+	 *
+	 * @param view     The item view for which to resolve the insets.
+	 * @param viewType View type of the item.
+	 * @return Array with left and right inset or {@code null} if the insets cannot be resolved.
+	 */
+	private int[] resolveAlignmentInsets(final View view, final int viewType) {
+		int[] insets = viewType == RecyclerView.INVALID_TYPE ? null : dividerAlignmentInsets.get(viewType);
+		if (insets != null || view.getWidth() == 0) {
+			return insets;
+		}
+		final View alignmentView = view.findViewById(dividerAlignmentViewId);
+		if (alignmentView == null) {
+			return null;
+		}
+		int left = 0;
+		View current = alignmentView;
+		while (current != view) {
+			left += current.getLeft();
+			final ViewParent parent = current.getParent();
+			if (!(parent instanceof View)) {
+				return null;
+			}
+			current = (View) parent;
+		}
+		insets = new int[]{left, view.getWidth() - left - alignmentView.getWidth()};
+		if (viewType != RecyclerView.INVALID_TYPE) {
+			this.dividerAlignmentInsets.put(viewType, insets);
+		}
+		return insets;
+	}
+
+	/**
+	 * Resolves view type of the specified item <var>view</var> if there is any view type dependent
+	 * feature used by this decoration.
+	 *
+	 * @param view   The item view for which to resolve its view type.
+	 * @param parent RecyclerView into which is this decoration added.
+	 * @return View type of the item or {@link RecyclerView#INVALID_TYPE} if the view type is not
+	 * needed or cannot be resolved.
+	 */
+	private int resolveItemViewType(final View view, final RecyclerView parent) {
+		if (orientation == GRID || (viewTypeDividers.size() == 0 && !isDividerAligned())) {
+			return RecyclerView.INVALID_TYPE;
+		}
+		final RecyclerView.ViewHolder holder = parent.getChildViewHolder(view);
+		return holder == null ? RecyclerView.INVALID_TYPE : holder.getItemViewType();
+	}
+
+	/**
+	 * Resolves a divider specified for the specified <var>viewType</var>.
+	 *
+	 * @param viewType View type of the item for which to resolve its divider.
+	 * @return View type divider for the item or {@code null} if the default divider should be drawn
+	 * for the item.
+	 */
+	private ViewTypeDivider resolveViewTypeDivider(final int viewType) {
+		return viewType == RecyclerView.INVALID_TYPE || viewTypeDividers.size() == 0 ? null : viewTypeDividers.get(viewType);
+	}
+
 	/**
 	 */
 	@Override public void getItemOffsets(@NonNull final Rect rect, @NonNull final View view, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
-		if (dividerThickness > 0) {
-			if (skipFirst || skipLast) {
-				final int position = parent.getChildAdapterPosition(view);
-				if (position == RecyclerView.NO_POSITION) {
+		final boolean tracing = RecyclerTracing.isEnabled();
+		if (tracing) TraceCompat.beginSection(TRACE_GET_ITEM_OFFSETS);
+		try {
+			final ViewTypeDivider typeDivider = resolveViewTypeDivider(resolveItemViewType(view, parent));
+			if (typeDivider == null ? dividerThickness > 0 : typeDivider.thickness > 0) {
+				if (orientation == GRID ? isGridItemSkipped(view, parent, state) : isItemSkipped(view, parent, state)) {
 					rect.setEmpty();
 					return;
 				}
-				if ((skipFirst && position == 0) || (skipLast && position == state.getItemCount() - 1)) {
+				if (precondition.check(view, parent, state)) {
+					if (orientation == GRID) {
+						this.updateGridItemOffsets(rect, resolveGridEdges(view, parent, state), obtainLayoutContext(parent, state).isLayoutRtl());
+					} else if (!endsSection(view, parent, state)) {
+						rect.setEmpty();
+					} else if (typeDivider == null) {
+						this.updateItemOffsets(rect, obtainLayoutContext(parent, state).isLayoutRtl());
+					} else {
+						this.updateViewTypeItemOffsets(rect, typeDivider);
+					}
+				} else {
 					rect.setEmpty();
-					return;
 				}
-			}
-			if (precondition.check(view, parent, state)) {
-				this.updateItemOffsets(rect, ViewCompat.getLayoutDirection(parent) == ViewCompat.LAYOUT_DIRECTION_RTL);
-			} else {
+			} else if (typeDivider != null) {
 				rect.setEmpty();
 			}
+		} finally {
+			if (tracing) TraceCompat.endSection();
+		}
+	}
+
+	/**
+	 * Updates the given <var>rect</var> with thickness of the specified view type <var>divider</var>
+	 * according to the orientation specified for this decoration.
+	 *
+	 * @param rect    The item offsets rect to be updated.
+	 * @param divider The view type divider of the item.
+	 */
+	private void updateViewTypeItemOffsets(final Rect rect, final ViewTypeDivider divider) {
+		if (orientation == HORIZONTAL) {
+			rect.set(0, 0, divider.thickness, 0);
+		} else {
+			rect.set(0, 0, 0, divider.thickness);
+		}
+	}
+
+	/**
+	 * Checks whether the specified item <var>view</var> is the last one within its section according
+	 * to the current section index.
+	 *
+	 * @param view   The item view to be checked.
+	 * @param parent RecyclerView into which is this decoration added.
+	 * @param state  Current state of the parent RecyclerView.
+	 * @return {@code True} if there is no section index specified or the item ends its section,
+	 * {@code false} otherwise.
+	 */
+	private boolean endsSection(final View view, final RecyclerView parent, final RecyclerView.State state) {
+		if (sectionIndex == null) {
+			return true;
 		}
+		sectionIndex.attachAdapter(parent.getAdapter());
+		return sectionIndex.isSectionEnd(obtainCache(parent).resolveItem(view, state).getPosition());
 	}
 
 	/**
@@ -431,26 +1059,69 @@ public class ItemDividerDecoration extends RecyclerViewItemDecoration {
 		}
 	}
 
+	/**
+	 * Called to update the given <var>rect</var> with the current divider thickness specified for
+	 * this decoration for an item within a grid according to the specified grid <var>edges</var>
+	 * and span offsets of the item resolved along with the edges.
+	 *
+	 * @param rect         The desired item offsets rect to be updated.
+	 * @param edges        Trailing edges of the item's grid cell at which should be divider drawn.
+	 * @param rtlDirection {@code True} if offsets should be updated for <i>RTL</i> layout direction,
+	 *                     {@code false} for <i>LTR</i> layout direction.
+	 */
+	private void updateGridItemOffsets(final Rect rect, final int edges, final boolean rtlDirection) {
+		final int line = (edges & GRID_EDGE_LINE) == 0 ? 0 : dividerThickness;
+		if (gridHorizontal) {
+			rect.set(rtlDirection ? line : 0, gridSpanStartOffset, rtlDirection ? 0 : line, gridSpanEndOffset);
+		} else {
+			rect.set(
+					rtlDirection ? gridSpanEndOffset : gridSpanStartOffset,
+					0,
+					rtlDirection ? gridSpanStartOffset : gridSpanEndOffset,
+					line
+			);
+		}
+	}
+
 	/**
 	 */
 	@Override public void onDraw(@NonNull final Canvas canvas, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
-		if (shouldDecorate(parent, state)) {
-			switch (orientation) {
-				case HORIZONTAL:
-					onDrawHorizontally(canvas, parent, state);
-					break;
-				case VERTICAL:
-				default:
-					onDrawVertically(canvas, parent, state);
-					break;
+		final boolean tracing = RecyclerTracing.isEnabled();
+		if (tracing) TraceCompat.beginSection(TRACE_DRAW);
+		try {
+			if (shouldDecorate(parent, state)) {
+				switch (orientation) {
+					case HORIZONTAL:
+						onDrawHorizontally(canvas, parent, state);
+						break;
+					case GRID:
+						onDrawGrid(canvas, parent, state);
+						break;
+					case VERTICAL:
+					default:
+						onDrawVertically(canvas, parent, state);
+						break;
+				}
 			}
+		} finally {
+			if (tracing) TraceCompat.endSection();
 		}
 	}
 
 	/**
 	 */
 	@Override protected boolean shouldDecorate(@NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
-		return super.shouldDecorate(parent, state) && divider != null && dividerThickness > 0;
+		return super.shouldDecorate(parent, state) && (hasDefaultDivider() || (orientation != GRID && viewTypeDividers.size() > 0));
+	}
+
+	/**
+	 * Checks whether there is the default divider to be drawn by this decoration.
+	 *
+	 * @return {@code True} if the default divider is specified and has a non-zero thickness,
+	 * {@code false} otherwise.
+	 */
+	private boolean hasDefaultDivider() {
+		return divider != null && dividerThickness > 0;
 	}
 
 	/**
@@ -462,38 +1133,50 @@ public class ItemDividerDecoration extends RecyclerViewItemDecoration {
 	 * @param state  Current state of the parent RecyclerView.
 	 */
 	protected void onDrawHorizontally(@NonNull final Canvas canvas, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
+		final DecorationLayoutContext context = obtainLayoutContext(parent, state);
 		canvas.save();
-		int top;
-		int bottom;
-		if (parent.getClipToPadding()) {
-			top = parent.getPaddingTop();
-			bottom = parent.getHeight() - parent.getPaddingBottom();
-			canvas.clipRect(
-					parent.getPaddingLeft(),
-					top,
-					parent.getWidth() - parent.getPaddingRight(),
-					bottom
-			);
-		} else {
-			top = 0;
-			bottom = parent.getHeight();
+		if (context.getClipToPadding()) {
+			clipToPadding(canvas, context);
+		}
+		this.resolveHorizontalDrawExtent(context);
+		// Empty clip means that nothing drawn could be visible.
+		if (!canvas.getClipBounds(clipBounds) || drawExtentEnd <= clipBounds.top || drawExtentStart >= clipBounds.bottom) {
+			canvas.restore();
+			return;
 		}
-		top += dividerOffsetStart;
-		bottom -= dividerOffsetEnd;
+		this.cullingEnabled = true;
 		final int childCount = parent.getChildCount();
+		this.prepareBatching(childCount);
+		this.prepareTile(context.isLayoutRtl());
 		for (int childIndex = 0; childIndex < childCount; childIndex++) {
 			if ((skipFirst && childIndex == 0) || (skipLast && childIndex == childCount - 1)) {
 				continue;
 			}
 			final View child = parent.getChildAt(childIndex);
-			if (precondition.check(child, parent, state)) {
+			final ViewTypeDivider typeDivider = resolveViewTypeDivider(resolveItemViewType(child, parent));
+			final int thickness = typeDivider == null ? (hasDefaultDivider() ? dividerThickness : 0) : typeDivider.thickness;
+			if (thickness == 0) {
+				continue;
+			}
+			final int translationX = Math.round(child.getTranslationX());
+			// Decorated right edge is never before the right edge of the child, so the divider
+			// cannot be visible if it would start after the clip even for the child's own edge.
+			if (cullingEnabled && child.getRight() + translationX - thickness >= clipBounds.right) {
+				continue;
+			}
+			if (precondition.check(child, parent, state) && endsSection(child, parent, state)) {
 				parent.getDecoratedBoundsWithMargins(child, bounds);
-				final int right = bounds.right + Math.round(child.getTranslationX());
-				final int left = right - dividerThickness;
-				divider.setBounds(left, top, right, bottom);
-				divider.draw(canvas);
+				final int right = bounds.right + translationX;
+				if (!cullingEnabled || (right > clipBounds.left && right - thickness < clipBounds.right)) {
+					if (typeDivider == null) {
+						this.drawHorizontalDivider(canvas, right);
+					} else {
+						this.drawHorizontalViewTypeDivider(canvas, typeDivider, right, context);
+					}
+				}
 			}
 		}
+		this.flushBatch(canvas);
 		canvas.restore();
 	}
 
@@ -506,43 +1189,653 @@ public class ItemDividerDecoration extends RecyclerViewItemDecoration {
 	 * @param state  Current state of the parent RecyclerView.
 	 */
 	protected void onDrawVertically(@NonNull final Canvas canvas, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
+		final DecorationLayoutContext context = obtainLayoutContext(parent, state);
 		canvas.save();
-		int left;
-		int right;
-		if (parent.getClipToPadding()) {
-			left = parent.getPaddingLeft();
-			right = parent.getWidth() - parent.getPaddingRight();
-			canvas.clipRect(
-					left,
-					parent.getPaddingTop(),
-					right,
-					parent.getHeight() - parent.getPaddingBottom()
-			);
-		} else {
-			left = 0;
-			right = parent.getWidth();
+		if (context.getClipToPadding()) {
+			clipToPadding(canvas, context);
+		}
+		this.resolveVerticalDrawExtent(context);
+		// Empty clip means that nothing drawn could be visible.
+		if (!canvas.getClipBounds(clipBounds) || drawExtentEnd <= clipBounds.left || drawExtentStart >= clipBounds.right) {
+			canvas.restore();
+			return;
 		}
-		final boolean hasRtlDirection = ViewCompat.getLayoutDirection(parent) == ViewCompat.LAYOUT_DIRECTION_RTL;
-		left += hasRtlDirection ? dividerOffsetEnd : dividerOffsetStart;
-		right -= hasRtlDirection ? dividerOffsetStart : dividerOffsetEnd;
+		this.cullingEnabled = true;
 		final int childCount = parent.getChildCount();
+		this.prepareBatching(childCount);
+		this.prepareTile(context.isLayoutRtl());
+		this.prepareAlignment(context.isLayoutRtl());
 		for (int childIndex = 0; childIndex < childCount; childIndex++) {
 			if ((skipFirst && childIndex == 0) || (skipLast && childIndex == childCount - 1)) {
 				continue;
 			}
 			final View child = parent.getChildAt(childIndex);
-			if (precondition.check(child, parent, state)) {
+			final int viewType = resolveItemViewType(child, parent);
+			final ViewTypeDivider typeDivider = resolveViewTypeDivider(viewType);
+			final int thickness = typeDivider == null ? (hasDefaultDivider() ? dividerThickness : 0) : typeDivider.thickness;
+			if (thickness == 0) {
+				continue;
+			}
+			final int translationY = Math.round(child.getTranslationY());
+			// Decorated bottom edge is never above the bottom edge of the child, so the divider
+			// cannot be visible if it would start below the clip even for the child's own edge.
+			if (cullingEnabled && child.getBottom() + translationY - thickness >= clipBounds.bottom) {
+				continue;
+			}
+			if (precondition.check(child, parent, state) && endsSection(child, parent, state)) {
+				parent.getDecoratedBoundsWithMargins(child, bounds);
+				final int bottom = bounds.bottom + translationY;
+				if (!cullingEnabled || (bottom > clipBounds.top && bottom - thickness < clipBounds.bottom)) {
+					if (typeDivider != null) {
+						this.drawVerticalViewTypeDivider(canvas, typeDivider, bottom, context);
+					} else if (isDividerAligned()) {
+						this.drawAlignedVerticalDivider(canvas, child, viewType, bottom);
+					} else {
+						this.drawVerticalDivider(canvas, bottom);
+					}
+				}
+			}
+		}
+		this.flushBatch(canvas);
+		canvas.restore();
+	}
+
+	/**
+	 * Called from {@link #onDraw(Canvas, RecyclerView, RecyclerView.State)} in order to draw
+	 * this decoration in grid orientation.
+	 * <p>
+	 * All dividers of a single grid cell are drawn in the same iteration, so the item views are
+	 * iterated only once.
+	 *
+	 * @param canvas Canvas on which to draw.
+	 * @param parent RecyclerView into which is this decoration added.
+	 * @param state  Current state of the parent RecyclerView.
+	 *
+	 * @see #GRID
+	 */
+	protected void onDrawGrid(@NonNull final Canvas canvas, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
+		final DecorationLayoutContext context = obtainLayoutContext(parent, state);
+		canvas.save();
+		if (context.getClipToPadding()) {
+			clipToPadding(canvas, context);
+		}
+		// Empty clip means that nothing drawn could be visible.
+		if (!canvas.getClipBounds(clipBounds)) {
+			canvas.restore();
+			return;
+		}
+		this.cullingEnabled = true;
+		this.gridRtl = context.isLayoutRtl();
+		final int childCount = parent.getChildCount();
+		// Each cell may draw up to two dividers.
+		this.prepareBatching(childCount * 2);
+		this.tiling = false;
+		for (int childIndex = 0; childIndex < childCount; childIndex++) {
+			final View child = parent.getChildAt(childIndex);
+			if (!isGridItemSkipped(child, parent, state) && precondition.check(child, parent, state)) {
 				parent.getDecoratedBoundsWithMargins(child, bounds);
-				final int bottom = bounds.bottom + Math.round(child.getTranslationY());
-				final int top = bottom - dividerThickness;
-				divider.setBounds(left, top, right, bottom);
-				divider.draw(canvas);
+				this.drawGridDividers(canvas, child, bounds, parent, state);
 			}
 		}
+		this.flushBatch(canvas);
 		canvas.restore();
 	}
 
+	/**
+	 */
+	@Override protected boolean onPrepareItemsDraw(@NonNull final RecyclerView parent, @NonNull final RecyclerView.State state, @NonNull final DecorationLayoutContext context) {
+		if (shouldDecorate(parent, state)) {
+			switch (orientation) {
+				case HORIZONTAL:
+					resolveHorizontalDrawExtent(context);
+					break;
+				case GRID:
+					this.gridRtl = context.isLayoutRtl();
+					break;
+				case VERTICAL:
+				default:
+					resolveVerticalDrawExtent(context);
+					break;
+			}
+			// Items are drawn one by one, so there is no batch to be collected nor clip to be checked.
+			this.cullingEnabled = false;
+			this.prepareBatching(0);
+			if (orientation == GRID) {
+				this.tiling = false;
+			} else {
+				this.prepareTile(context.isLayoutRtl());
+				this.prepareAlignment(context.isLayoutRtl());
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 */
+	@Override protected void onDrawItem(@NonNull final Canvas canvas, @NonNull final View child, final int childIndex, final int childCount, @NonNull final Rect decoratedBounds, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state, @NonNull final DecorationLayoutContext context) {
+		if (orientation == GRID) {
+			if (isGridItemSkipped(child, parent, state) || !precondition.check(child, parent, state)) {
+				return;
+			}
+		} else if ((skipFirst && childIndex == 0) || (skipLast && childIndex == childCount - 1) || !precondition.check(child, parent, state) || !endsSection(child, parent, state)) {
+			return;
+		}
+		final int viewType = resolveItemViewType(child, parent);
+		final ViewTypeDivider typeDivider = resolveViewTypeDivider(viewType);
+		if (typeDivider == null ? !hasDefaultDivider() : typeDivider.thickness == 0) {
+			return;
+		}
+		switch (orientation) {
+			case HORIZONTAL:
+				final int right = decoratedBounds.right + Math.round(child.getTranslationX());
+				if (typeDivider == null) {
+					drawHorizontalDivider(canvas, right);
+				} else {
+					drawHorizontalViewTypeDivider(canvas, typeDivider, right, context);
+				}
+				break;
+			case GRID:
+				drawGridDividers(canvas, child, decoratedBounds, parent, state);
+				break;
+			case VERTICAL:
+			default:
+				final int bottom = decoratedBounds.bottom + Math.round(child.getTranslationY());
+				if (typeDivider != null) {
+					drawVerticalViewTypeDivider(canvas, typeDivider, bottom, context);
+				} else if (isDividerAligned()) {
+					drawAlignedVerticalDivider(canvas, child, viewType, bottom);
+				} else {
+					drawVerticalDivider(canvas, bottom);
+				}
+				break;
+		}
+	}
+
+	/**
+	 * Clips the given <var>canvas</var> to the padding of the parent RecyclerView.
+	 *
+	 * @param canvas  The canvas to be clipped.
+	 * @param context Layout context of the parent RecyclerView.
+	 */
+	private static void clipToPadding(final Canvas canvas, final DecorationLayoutContext context) {
+		final Rect clipBounds = context.getClipBounds();
+		canvas.clipRect(clipBounds.left, clipBounds.top, clipBounds.right, clipBounds.bottom);
+	}
+
+	/**
+	 * Resolves vertical extent of dividers drawn in {@link #HORIZONTAL} orientation for the current
+	 * draw pass.
+	 *
+	 * @param context Layout context of the parent RecyclerView.
+	 */
+	private void resolveHorizontalDrawExtent(final DecorationLayoutContext context) {
+		final Rect extentBounds = context.getClipBounds();
+		this.drawExtentStart = extentBounds.top + dividerOffsetStart;
+		this.drawExtentEnd = extentBounds.bottom - dividerOffsetEnd;
+	}
+
+	/**
+	 * Resolves horizontal extent of dividers drawn in {@link #VERTICAL} orientation for the current
+	 * draw pass with respect to layout direction of the parent RecyclerView.
+	 *
+	 * @param context Layout context of the parent RecyclerView.
+	 */
+	private void resolveVerticalDrawExtent(final DecorationLayoutContext context) {
+		final Rect extentBounds = context.getClipBounds();
+		final boolean hasRtlDirection = context.isLayoutRtl();
+		this.drawExtentStart = extentBounds.left + (hasRtlDirection ? dividerOffsetEnd : dividerOffsetStart);
+		this.drawExtentEnd = extentBounds.right - (hasRtlDirection ? dividerOffsetStart : dividerOffsetEnd);
+	}
+
+	/**
+	 * Draws divider which ends at the specified <var>right</var> coordinate within the resolved
+	 * horizontal draw extent.
+	 *
+	 * @param canvas Canvas on which to draw.
+	 * @param right  Right edge of the decorated item view including its translation.
+	 */
+	private void drawHorizontalDivider(final Canvas canvas, final int right) {
+		final int left = right - dividerThickness;
+		if (batching) {
+			final float centerX = right - dividerThickness / 2f;
+			batchLine(canvas, centerX, drawExtentStart, centerX, drawExtentEnd, left, drawExtentStart, right, drawExtentEnd);
+		} else if (tiling) {
+			canvas.drawBitmap(dividerTile, left, drawExtentStart, null);
+		} else {
+			divider.setBounds(left, drawExtentStart, right, drawExtentEnd);
+			divider.draw(canvas);
+		}
+	}
+
+	/**
+	 * Draws divider which ends at the specified <var>bottom</var> coordinate within the resolved
+	 * vertical draw extent.
+	 *
+	 * @param canvas Canvas on which to draw.
+	 * @param bottom Bottom edge of the decorated item view including its translation.
+	 */
+	private void drawVerticalDivider(final Canvas canvas, final int bottom) {
+		this.drawVerticalDivider(canvas, drawExtentStart, drawExtentEnd, bottom);
+	}
+
+	/**
+	 * Draws divider which ends at the specified <var>bottom</var> coordinate within the specified
+	 * horizontal extent.
+	 *
+	 * @param canvas Canvas on which to draw.
+	 * @param left   Left edge of the divider.
+	 * @param right  Right edge of the divider.
+	 * @param bottom Bottom edge of the decorated item view including its translation.
+	 */
+	private void drawVerticalDivider(final Canvas canvas, final int left, final int right, final int bottom) {
+		final int top = bottom - dividerThickness;
+		if (batching) {
+			final float centerY = bottom - dividerThickness / 2f;
+			batchLine(canvas, left, centerY, right, centerY, left, top, right, bottom);
+		} else if (tiling) {
+			canvas.drawBitmap(dividerTile, left, top, null);
+		} else {
+			divider.setBounds(left, top, right, bottom);
+			divider.draw(canvas);
+		}
+	}
+
+	/**
+	 * Draws divider which ends at the specified <var>bottom</var> coordinate and which is aligned
+	 * with the alignment view of the specified <var>child</var> within the resolved horizontal draw
+	 * extent.
+	 *
+	 * @param canvas   Canvas on which to draw.
+	 * @param child    The item view for which to draw the divider.
+	 * @param viewType View type of the item.
+	 * @param bottom   Bottom edge of the decorated item view including its translation.
+	 */
+	private void drawAlignedVerticalDivider(final Canvas canvas, final View child, final int viewType, final int bottom) {
+		final int[] insets = resolveAlignmentInsets(child, viewType);
+		if (insets == null) {
+			this.drawVerticalDivider(canvas, bottom);
+			return;
+		}
+		final int left = Math.max(drawExtentStart, child.getLeft() + insets[0]);
+		final int right = Math.min(drawExtentEnd, child.getRight() - insets[1]);
+		if (right > left) {
+			this.drawVerticalDivider(canvas, left, right, bottom);
+		}
+	}
+
+	/**
+	 * Draws the specified view type <var>divider</var> which ends at the specified <var>right</var>
+	 * coordinate within the clip bounds of the parent RecyclerView offset by the divider's offsets.
+	 *
+	 * @param canvas  Canvas on which to draw.
+	 * @param divider The view type divider to be drawn.
+	 * @param right   Right edge of the decorated item view including its translation.
+	 * @param context Layout context of the parent RecyclerView.
+	 */
+	private static void drawHorizontalViewTypeDivider(final Canvas canvas, final ViewTypeDivider divider, final int right, final DecorationLayoutContext context) {
+		final Rect extentBounds = context.getClipBounds();
+		divider.drawable.setBounds(
+				right - divider.thickness,
+				extentBounds.top + divider.offsetStart,
+				right,
+				extentBounds.bottom - divider.offsetEnd
+		);
+		divider.drawable.draw(canvas);
+	}
+
+	/**
+	 * Draws the specified view type <var>divider</var> which ends at the specified <var>bottom</var>
+	 * coordinate within the clip bounds of the parent RecyclerView offset by the divider's offsets
+	 * with respect to layout direction of the parent RecyclerView.
+	 *
+	 * @param canvas  Canvas on which to draw.
+	 * @param divider The view type divider to be drawn.
+	 * @param bottom  Bottom edge of the decorated item view including its translation.
+	 * @param context Layout context of the parent RecyclerView.
+	 */
+	private static void drawVerticalViewTypeDivider(final Canvas canvas, final ViewTypeDivider divider, final int bottom, final DecorationLayoutContext context) {
+		final Rect extentBounds = context.getClipBounds();
+		final boolean hasRtlDirection = context.isLayoutRtl();
+		divider.drawable.setBounds(
+				extentBounds.left + (hasRtlDirection ? divider.offsetEnd : divider.offsetStart),
+				bottom - divider.thickness,
+				extentBounds.right - (hasRtlDirection ? divider.offsetStart : divider.offsetEnd),
+				bottom
+		);
+		divider.drawable.draw(canvas);
+	}
+
+	/**
+	 * Checks whether the specified item <var>view</var> should be skipped in {@link #GRID} orientation.
+	 * Only the <b>skip first</b> flag is applied in this orientation as trailing edges of cells in
+	 * the last line are resolved by {@link #resolveGridEdges(View, RecyclerView, RecyclerView.State)}.
+	 *
+	 * @param view   The item view to be checked.
+	 * @param parent RecyclerView into which is this decoration added.
+	 * @param state  Current state of the parent RecyclerView.
+	 * @return {@code True} if the item view should not be decorated, {@code false} otherwise.
+	 */
+	private boolean isGridItemSkipped(final View view, final RecyclerView parent, final RecyclerView.State state) {
+		return skipFirst && obtainCache(parent).resolveItem(view, state).isFirst();
+	}
+
+	/**
+	 * Resolves trailing edges of a grid cell of the specified item <var>view</var> at which should
+	 * be dividers drawn. Offsets of the cell in span direction are resolved along with the edges
+	 * into {@link #gridSpanStartOffset} and {@link #gridSpanEndOffset}.
+	 * <p>
+	 * Span index lookups are cached by the span size lookup of the grid layout manager if its cache
+	 * is enabled (see {@link #setSpanIndexCacheEnabled(boolean)}) and the last line of the grid is
+	 * detected by checking whether all subsequent items fit into the rest of
+	 * the item's line, which requires at most {@code spanCount} span size lookups.
+	 *
+	 * @param view   The item view for which to resolve the edges.
+	 * @param parent RecyclerView into which is this decoration added.
+	 * @param state  Current state of the parent RecyclerView.
+	 * @return Combination of {@link #GRID_EDGE_SPAN} and {@link #GRID_EDGE_LINE} flags or {@code 0}
+	 * if no divider should be drawn for the item.
+	 */
+	private int resolveGridEdges(final View view, final RecyclerView parent, final RecyclerView.State state) {
+		this.gridSpanStartOffset = 0;
+		this.gridSpanEndOffset = 0;
+		final ItemDecorationCache.Item item = obtainCache(parent).resolveItem(view, state);
+		final int position = item.getPosition();
+		final RecyclerView.LayoutManager layoutManager = parent.getLayoutManager();
+		if (!(layoutManager instanceof GridLayoutManager)) {
+			// Treat any other layout manager as a grid with single span.
+			this.gridHorizontal = layoutManager instanceof LinearLayoutManager && ((LinearLayoutManager) layoutManager).getOrientation() == LinearLayoutManager.HORIZONTAL;
+			return position == RecyclerView.NO_POSITION || item.isLast() ? 0 : GRID_EDGE_LINE;
+		}
+		final GridLayoutManager gridManager = (GridLayoutManager) layoutManager;
+		this.gridHorizontal = gridManager.getOrientation() == GridLayoutManager.HORIZONTAL;
+		if (position == RecyclerView.NO_POSITION) {
+			return 0;
+		}
+		final GridLayoutManager.SpanSizeLookup spanSizeLookup = gridManager.getSpanSizeLookup();
+		if (spanIndexCacheEnabled && !spanSizeLookup.isSpanIndexCacheEnabled()) {
+			spanSizeLookup.setSpanIndexCacheEnabled(true);
+		}
+		final int spanCount = gridManager.getSpanCount();
+		final int spanIndex = spanSizeLookup.getSpanIndex(position, spanCount);
+		final int spanEnd = Math.min(spanIndex + spanSizeLookup.getSpanSize(position), spanCount);
+		// Offsets are rounded cumulatively, so the trailing offset of a cell and the leading offset
+		// of the next cell within the same line always sum exactly to the divider thickness.
+		this.gridSpanStartOffset = Math.round(spanIndex * dividerThickness / (float) spanCount);
+		this.gridSpanEndOffset = dividerThickness - Math.round(spanEnd * dividerThickness / (float) spanCount);
+		int remainingSpans = spanCount - spanEnd;
+		boolean hasSpanEdge = false;
+		final int itemCount = item.getItemCount();
+		for (int nextPosition = position + 1; nextPosition < itemCount && remainingSpans >= 0; nextPosition++) {
+			remainingSpans -= spanSizeLookup.getSpanSize(nextPosition);
+			if (nextPosition == position + 1) {
+				// Divider at the span edge has a cell next to it only if the next item fits into
+				// the rest of the item's line.
+				hasSpanEdge = remainingSpans >= 0;
+			}
+		}
+		final boolean hasLineEdge = remainingSpans < 0;
+		return (hasSpanEdge ? GRID_EDGE_SPAN : 0) | (hasLineEdge ? GRID_EDGE_LINE : 0);
+	}
+
+	/**
+	 * Draws dividers at the trailing edges of a grid cell of the specified <var>child</var>.
+	 * The line divider spans the whole cell while the span divider, which is shared with the next
+	 * cell within the same line, ends at the line divider, so intersections of dividers are not
+	 * drawn twice.
+	 *
+	 * @param canvas          Canvas on which to draw.
+	 * @param child           The item view for which to draw the dividers.
+	 * @param decoratedBounds Decorated bounds of the item view.
+	 * @param parent          RecyclerView into which is this decoration added.
+	 * @param state           Current state of the parent RecyclerView.
+	 */
+	private void drawGridDividers(final Canvas canvas, final View child, final Rect decoratedBounds, final RecyclerView parent, final RecyclerView.State state) {
+		final int translationX = Math.round(child.getTranslationX());
+		final int translationY = Math.round(child.getTranslationY());
+		final int left = decoratedBounds.left + translationX;
+		final int top = decoratedBounds.top + translationY;
+		final int right = decoratedBounds.right + translationX;
+		final int bottom = decoratedBounds.bottom + translationY;
+		// Span divider may reach into the next cell by at most the divider thickness.
+		if (cullingEnabled && (right + dividerThickness <= clipBounds.left || left - dividerThickness >= clipBounds.right || bottom + dividerThickness <= clipBounds.top || top >= clipBounds.bottom)) {
+			return;
+		}
+		final int edges = resolveGridEdges(child, parent, state);
+		final boolean hasLineEdge = (edges & GRID_EDGE_LINE) != 0;
+		final boolean hasSpanEdge = (edges & GRID_EDGE_SPAN) != 0;
+		if (gridHorizontal) {
+			final int lineStart = gridRtl ? left + dividerThickness : left;
+			final int lineEnd = gridRtl ? right : right - dividerThickness;
+			if (hasLineEdge) {
+				if (gridRtl) {
+					drawGridDivider(canvas, left, top, left + dividerThickness, bottom);
+				} else {
+					drawGridDivider(canvas, lineEnd, top, right, bottom);
+				}
+			}
+			if (hasSpanEdge) {
+				final int spanTop = bottom - gridSpanEndOffset;
+				drawGridDivider(canvas, hasLineEdge ? lineStart : left, spanTop, hasLineEdge ? lineEnd : right, spanTop + dividerThickness);
+			}
+			return;
+		}
+		if (hasLineEdge) {
+			drawGridDivider(canvas, left, bottom - dividerThickness, right, bottom);
+		}
+		if (hasSpanEdge) {
+			final int spanBottom = hasLineEdge ? bottom - dividerThickness : bottom;
+			if (gridRtl) {
+				final int spanRight = left + gridSpanEndOffset;
+				drawGridDivider(canvas, spanRight - dividerThickness, top, spanRight, spanBottom);
+			} else {
+				final int spanLeft = right - gridSpanEndOffset;
+				drawGridDivider(canvas, spanLeft, top, spanLeft + dividerThickness, spanBottom);
+			}
+		}
+	}
+
+	/**
+	 * Draws a single grid divider with the specified bounds.
+	 */
+	private void drawGridDivider(final Canvas canvas, final int left, final int top, final int right, final int bottom) {
+		if (right <= left || bottom <= top) {
+			return;
+		}
+		if (batching) {
+			if (bottom - top == dividerThickness) {
+				final float centerY = bottom - dividerThickness / 2f;
+				batchLine(canvas, left, centerY, right, centerY, left, top, right, bottom);
+			} else {
+				final float centerX = right - dividerThickness / 2f;
+				batchLine(canvas, centerX, top, centerX, bottom, left, top, right, bottom);
+			}
+		} else {
+			divider.setBounds(left, top, right, bottom);
+			divider.draw(canvas);
+		}
+	}
+
+	/**
+	 * Prepares batch mode for the current draw pass if it is enabled and the divider is a solid
+	 * color drawable.
+	 *
+	 * @param batchCapacity Count of dividers that may be collected into batch during the current
+	 *                      draw pass. May be {@code 0} if dividers will be drawn one by one.
+	 */
+	private void prepareBatching(final int batchCapacity) {
+		this.batching = dividerBatchingEnabled && divider instanceof ColorDrawable && dividerThickness > 0;
+		this.batchLinesCount = 0;
+		if (batching) {
+			if (batchPaint == null) {
+				this.batchPaint = new Paint();
+				this.batchPaint.setStrokeCap(Paint.Cap.BUTT);
+			}
+			batchPaint.setColor(((ColorDrawable) divider).getColor());
+			batchPaint.setStrokeWidth(dividerThickness);
+			if (batchLines == null || batchLines.length < batchCapacity * 4) {
+				this.batchLines = new float[batchCapacity * 4];
+			}
+		}
+	}
+
+	/**
+	 * Prepares the cached divider tile for the current draw pass if the tile cache is enabled and
+	 * dividers are not drawn in batch mode. The tile is rendered again only if its size, state of
+	 * the divider drawable or layout direction of the parent RecyclerView has changed.
+	 * <p>
+	 * The draw extent for the current orientation need to be already resolved.
+	 *
+	 * @param rtl {@code True} if the parent RecyclerView is laid out in RTL direction, {@code false}
+	 *            otherwise.
+	 */
+	private void prepareTile(final boolean rtl) {
+		final boolean horizontal = orientation == HORIZONTAL;
+		final int tileWidth = horizontal ? dividerThickness : drawExtentEnd - drawExtentStart;
+		final int tileHeight = horizontal ? drawExtentEnd - drawExtentStart : dividerThickness;
+		// Aligned dividers may have different width for each item, so they cannot be drawn from a single tile.
+		this.tiling = dividerTileCacheEnabled && !batching && divider != null && tileWidth > 0 && tileHeight > 0 && !isDividerAligned();
+		if (!tiling) {
+			return;
+		}
+		final int[] state = divider.getState();
+		final boolean sizeChanged = dividerTile == null || dividerTile.getWidth() != tileWidth || dividerTile.getHeight() != tileHeight;
+		if (!sizeChanged && !dividerTileDirty && dividerTileRtl == rtl && Arrays.equals(dividerTileState, state)) {
+			return;
+		}
+		if (sizeChanged) {
+			this.dividerTile = Bitmap.createBitmap(tileWidth, tileHeight, Bitmap.Config.ARGB_8888);
+		} else {
+			this.dividerTile.eraseColor(Color.TRANSPARENT);
+		}
+		DrawableCompat.setLayoutDirection(divider, rtl ? ViewCompat.LAYOUT_DIRECTION_RTL : ViewCompat.LAYOUT_DIRECTION_LTR);
+		divider.setBounds(0, 0, tileWidth, tileHeight);
+		divider.draw(new Canvas(dividerTile));
+		this.dividerTileState = state == null ? null : state.clone();
+		this.dividerTileRtl = rtl;
+		this.dividerTileDirty = false;
+	}
+
+	/**
+	 * Adds a line with the specified points into the current batch or, if the batch has no space
+	 * left, draws a rect with the specified bounds directly.
+	 */
+	private void batchLine(final Canvas canvas, final float startX, final float startY, final float stopX, final float stopY, final int left, final int top, final int right, final int bottom) {
+		if (batchLinesCount + 4 <= batchLines.length) {
+			batchLines[batchLinesCount++] = startX;
+			batchLines[batchLinesCount++] = startY;
+			batchLines[batchLinesCount++] = stopX;
+			batchLines[batchLinesCount++] = stopY;
+		} else {
+			canvas.drawRect(left, top, right, bottom, batchPaint);
+		}
+	}
+
+	/**
+	 * Draws all lines collected in the current batch via a single {@link Canvas#drawLines(float[], int, int, Paint)}
+	 * call.
+	 *
+	 * @param canvas Canvas on which to draw.
+	 */
+	private void flushBatch(final Canvas canvas) {
+		if (batchLinesCount > 0) {
+			canvas.drawLines(batchLines, 0, batchLinesCount, batchPaint);
+			this.batchLinesCount = 0;
+		}
+	}
+
 	/*
 	 * Inner classes ===============================================================================
 	 */
+
+	/**
+	 * Specification of a divider which may be drawn after items of a particular view type.
+	 *
+	 * @author Martin Albedinsky
+	 * @since 1.1
+	 *
+	 * @see #setViewTypeDivider(int, ViewTypeDivider)
+	 */
+	public static final class ViewTypeDivider {
+
+		/**
+		 * Drawable of the divider.
+		 */
+		final Drawable drawable;
+
+		/**
+		 * Thickness in which is the divider drawn.
+		 */
+		final int thickness;
+
+		/**
+		 * Amount by which is the divider offset at the start.
+		 */
+		final int offsetStart;
+
+		/**
+		 * Amount by which is the divider offset at the end.
+		 */
+		final int offsetEnd;
+
+		/**
+		 * Same as {@link #ViewTypeDivider(Drawable, int, int, int)} with {@code 0} offsets.
+		 */
+		public ViewTypeDivider(@NonNull final Drawable drawable, @IntRange(from = 0) final int thickness) {
+			this(drawable, thickness, 0, 0);
+		}
+
+		/**
+		 * Creates a new instance of ViewTypeDivider with the specified <var>drawable</var>,
+		 * <var>thickness</var> and offsets.
+		 *
+		 * @param drawable    The drawable of the divider.
+		 * @param thickness   The thickness in which should be the divider drawn. May be {@code 0}
+		 *                    to not draw any divider.
+		 * @param offsetStart The amount in pixels by which to offset the divider at the start.
+		 * @param offsetEnd   The amount in pixels by which to offset the divider at the end.
+		 */
+		public ViewTypeDivider(@NonNull final Drawable drawable, @IntRange(from = 0) final int thickness, @IntRange(from = 0) final int offsetStart, @IntRange(from = 0) final int offsetEnd) {
+			this.drawable = drawable;
+			this.thickness = Math.max(0, thickness);
+			this.offsetStart = offsetStart;
+			this.offsetEnd = offsetEnd;
+		}
+
+		/**
+		 * Returns the drawable of this divider.
+		 *
+		 * @return Divider drawable.
+		 */
+		@NonNull public Drawable getDrawable() {
+			return drawable;
+		}
+
+		/**
+		 * Returns the thickness in which is this divider drawn.
+		 *
+		 * @return Divider thickness.
+		 */
+		@IntRange(from = 0) public int getThickness() {
+			return thickness;
+		}
+
+		/**
+		 * Returns the amount by which is this divider offset at the start.
+		 *
+		 * @return Offset in pixels.
+		 */
+		public int getOffsetStart() {
+			return offsetStart;
+		}
+
+		/**
+		 * Returns the amount by which is this divider offset at the end.
+		 *
+		 * @return Offset in pixels.
+		 */
+		public int getOffsetEnd() {
+			return offsetEnd;
+		}
+	}
 }
\ No newline at end of file
@@ -19,23 +19,36 @@
 package universum.studios.android.recycler.decoration;
 
 import android.annotation.SuppressLint;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
 import android.graphics.Rect;
+import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
 import android.support.v4.view.ViewCompat;
+import android.support.v7.widget.GridLayoutManager;
 import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
 import android.view.View;
+import android.widget.FrameLayout;
 import android.widget.TextView;
 
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import universum.studios.android.test.local.RobolectricTestCase;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNull.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -66,6 +79,7 @@ public final class ItemDividerDecorationTest extends RobolectricTestCase {
 		super.beforeTest();
 		this.itemView = new TextView(application);
 		resetMock(mockCanvas);
+		mockClipBounds(-10000, -10000, 10000, 10000);
 		resetMock(mockRecyclerView);
 		when(mockRecyclerView.getWidth()).thenReturn(1080);
 		when(mockRecyclerView.getHeight()).thenReturn(1920);
@@ -739,4 +753,870 @@ public final class ItemDividerDecorationTest extends RobolectricTestCase {
 		);
 		verify(mockCanvas).restore();
 	}
-}
\ No newline at end of file
+
+	@Test public void testOnPrepareItemsDraw() {
+		// Arrange:
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setDivider(mock(Drawable.class));
+		decoration.setDividerThickness(4);
+		// Act + Assert:
+		assertThat(decoration.onPrepareItemsDraw(mockRecyclerView, mockRecyclerViewState, resolveLayoutContext()), is(true));
+		assertThat(decoration.onPrepareItemsDrawOver(mockRecyclerView, mockRecyclerViewState, resolveLayoutContext()), is(false));
+	}
+
+	@Test public void testOnPrepareItemsDrawWithoutDivider() {
+		// Arrange:
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		// Act + Assert:
+		assertThat(decoration.onPrepareItemsDraw(mockRecyclerView, mockRecyclerViewState, resolveLayoutContext()), is(false));
+	}
+
+	@Test public void testOnDrawItemForVerticalOrientation() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setOrientation(ItemDividerDecoration.VERTICAL);
+		decoration.setDivider(mockDivider);
+		decoration.setDividerThickness(4);
+		decoration.setDividerOffset(10, 5);
+		decoration.onPrepareItemsDraw(mockRecyclerView, mockRecyclerViewState, resolveLayoutContext());
+		// Act:
+		decoration.onDrawItem(mockCanvas, itemView, 1, MOCK_ITEMS_COUNT, new Rect(0, 0, 1080, 100), mockRecyclerView, mockRecyclerViewState, resolveLayoutContext());
+		// Assert:
+		verify(mockDivider).setBounds(10, 96, mockRecyclerView.getWidth() - 5, 100);
+		verify(mockDivider).draw(mockCanvas);
+		verifyZeroInteractions(mockCanvas);
+	}
+
+	@Test public void testOnDrawItemForHorizontalOrientation() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setOrientation(ItemDividerDecoration.HORIZONTAL);
+		decoration.setDivider(mockDivider);
+		decoration.setDividerThickness(4);
+		decoration.onPrepareItemsDraw(mockRecyclerView, mockRecyclerViewState, resolveLayoutContext());
+		// Act:
+		decoration.onDrawItem(mockCanvas, itemView, 1, MOCK_ITEMS_COUNT, new Rect(0, 0, 200, 1920), mockRecyclerView, mockRecyclerViewState, resolveLayoutContext());
+		// Assert:
+		verify(mockDivider).setBounds(196, 0, 200, mockRecyclerView.getHeight());
+		verify(mockDivider).draw(mockCanvas);
+	}
+
+	@Test public void testOnDrawItemSkipFirstAndLast() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setSkipFirst(true);
+		decoration.setSkipLast(true);
+		decoration.setDivider(mockDivider);
+		decoration.setDividerThickness(4);
+		decoration.onPrepareItemsDraw(mockRecyclerView, mockRecyclerViewState, resolveLayoutContext());
+		// Act:
+		decoration.onDrawItem(mockCanvas, itemView, 0, MOCK_ITEMS_COUNT, new Rect(), mockRecyclerView, mockRecyclerViewState, resolveLayoutContext());
+		decoration.onDrawItem(mockCanvas, itemView, MOCK_ITEMS_COUNT - 1, MOCK_ITEMS_COUNT, new Rect(), mockRecyclerView, mockRecyclerViewState, resolveLayoutContext());
+		// Assert:
+		verify(mockDivider, times(0)).draw(mockCanvas);
+	}
+
+	@Test public void testOnDrawItemWithUnsatisfiedPrecondition() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		final ItemDividerDecoration.Precondition mockPrecondition = mock(ItemDividerDecoration.Precondition.class);
+		when(mockPrecondition.check(itemView, mockRecyclerView, mockRecyclerViewState)).thenReturn(false);
+		decoration.setPrecondition(mockPrecondition);
+		decoration.setDivider(mockDivider);
+		decoration.setDividerThickness(4);
+		decoration.onPrepareItemsDraw(mockRecyclerView, mockRecyclerViewState, resolveLayoutContext());
+		// Act:
+		decoration.onDrawItem(mockCanvas, itemView, 1, MOCK_ITEMS_COUNT, new Rect(), mockRecyclerView, mockRecyclerViewState, resolveLayoutContext());
+		// Assert:
+		verify(mockPrecondition).check(itemView, mockRecyclerView, mockRecyclerViewState);
+		verify(mockDivider, times(0)).draw(mockCanvas);
+	}
+
+	@Test public void testOnDrawVerticallyWithinClip() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setDivider(mockDivider);
+		decoration.setDividerThickness(4);
+		mockClipBounds(0, -10, 1080, 10);
+		// Act:
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockDivider, times(MOCK_ITEMS_COUNT)).draw(mockCanvas);
+	}
+
+	@Test public void testOnDrawVerticallyCullsDividersBelowClip() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		final ItemDividerDecoration.Precondition mockPrecondition = mock(ItemDividerDecoration.Precondition.class);
+		decoration.setPrecondition(mockPrecondition);
+		decoration.setDivider(mockDivider);
+		decoration.setDividerThickness(4);
+		mockClipBounds(0, -50, 1080, -10);
+		// Act:
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verifyZeroInteractions(mockPrecondition, mockDivider);
+		verify(mockRecyclerView, times(0)).getDecoratedBoundsWithMargins(any(View.class), any(Rect.class));
+		verify(mockCanvas).restore();
+	}
+
+	@Test public void testOnDrawVerticallyCullsDividersAboveClip() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setDivider(mockDivider);
+		decoration.setDividerThickness(4);
+		mockClipBounds(0, 100, 1080, 200);
+		// Act:
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verifyZeroInteractions(mockDivider);
+		verify(mockCanvas).restore();
+	}
+
+	@Test public void testOnDrawVerticallyWithExtentOutsideOfClip() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setDivider(mockDivider);
+		decoration.setDividerThickness(4);
+		mockClipBounds(2000, 0, 3000, 1920);
+		// Act:
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockRecyclerView, times(0)).getChildCount();
+		verifyZeroInteractions(mockDivider);
+		verify(mockCanvas).restore();
+	}
+
+	@Test public void testOnDrawHorizontallyCullsDividersAfterClip() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setDivider(mockDivider);
+		decoration.setDividerThickness(4);
+		mockClipBounds(-50, 0, -10, 1920);
+		// Act:
+		decoration.onDrawHorizontally(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verifyZeroInteractions(mockDivider);
+		verify(mockRecyclerView, times(0)).getDecoratedBoundsWithMargins(any(View.class), any(Rect.class));
+	}
+
+	@Test public void testOnDrawHorizontallyWithinClip() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setDivider(mockDivider);
+		decoration.setDividerThickness(4);
+		mockClipBounds(-10, 0, 10, 1920);
+		// Act:
+		decoration.onDrawHorizontally(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockDivider, times(MOCK_ITEMS_COUNT)).draw(mockCanvas);
+	}
+
+	@Test public void testOnDrawVerticallyWithEmptyClip() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setDivider(mockDivider);
+		decoration.setDividerThickness(4);
+		when(mockCanvas.getClipBounds(any(Rect.class))).thenReturn(false);
+		// Act:
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockRecyclerView, times(0)).getChildCount();
+		verifyZeroInteractions(mockDivider);
+		verify(mockCanvas).restore();
+	}
+
+	@Test public void testOnDrawGridWithEmptyClip() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration(ItemDividerDecoration.GRID, mockDivider);
+		decoration.setDividerThickness(4);
+		when(mockCanvas.getClipBounds(any(Rect.class))).thenReturn(false);
+		// Act:
+		decoration.onDrawGrid(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockRecyclerView, times(0)).getChildCount();
+		verifyZeroInteractions(mockDivider);
+		verify(mockCanvas).restore();
+	}
+
+	private void mockClipBounds(final int left, final int top, final int right, final int bottom) {
+		when(mockCanvas.getClipBounds(any(Rect.class))).thenAnswer(new Answer<Boolean>() {
+
+			@Override public Boolean answer(final InvocationOnMock invocation) throws Throwable {
+				invocation.<Rect>getArgument(0).set(left, top, right, bottom);
+				return true;
+			}
+		});
+	}
+
+	@Test public void testDividerBatchingEnabled() {
+		// Arrange:
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		// Act + Assert:
+		assertThat(decoration.isDividerBatchingEnabled(), is(false));
+		decoration.setDividerBatchingEnabled(true);
+		assertThat(decoration.isDividerBatchingEnabled(), is(true));
+	}
+
+	@Test public void testOnDrawVerticallyInBatchMode() {
+		// Arrange:
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setDivider(new ColorDrawable(Color.RED));
+		decoration.setDividerThickness(4);
+		decoration.setDividerBatchingEnabled(true);
+		// Act:
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		final ArgumentCaptor<float[]> linesCaptor = ArgumentCaptor.forClass(float[].class);
+		final ArgumentCaptor<Paint> paintCaptor = ArgumentCaptor.forClass(Paint.class);
+		verify(mockCanvas).drawLines(linesCaptor.capture(), eq(0), eq(MOCK_ITEMS_COUNT * 4), paintCaptor.capture());
+		final float[] lines = linesCaptor.getValue();
+		assertThat(lines[0], is(0f));
+		assertThat(lines[1], is(-2f));
+		assertThat(lines[2], is((float) mockRecyclerView.getWidth()));
+		assertThat(lines[3], is(-2f));
+		assertThat(paintCaptor.getValue().getColor(), is(Color.RED));
+		assertThat(paintCaptor.getValue().getStrokeWidth(), is(4f));
+		verify(mockCanvas, times(0)).drawRect(anyFloat(), anyFloat(), anyFloat(), anyFloat(), any(Paint.class));
+	}
+
+	@Test public void testOnDrawHorizontallyInBatchMode() {
+		// Arrange:
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setSkipLast(true);
+		decoration.setDivider(new ColorDrawable(Color.RED));
+		decoration.setDividerThickness(4);
+		decoration.setDividerBatchingEnabled(true);
+		// Act:
+		decoration.onDrawHorizontally(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockCanvas).drawLines(any(float[].class), eq(0), eq((MOCK_ITEMS_COUNT - 1) * 4), any(Paint.class));
+	}
+
+	@Test public void testOnDrawVerticallyInBatchModeWithNotColorDivider() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setDivider(mockDivider);
+		decoration.setDividerThickness(4);
+		decoration.setDividerBatchingEnabled(true);
+		// Act:
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockDivider, times(MOCK_ITEMS_COUNT)).draw(mockCanvas);
+		verify(mockCanvas, times(0)).drawLines(any(float[].class), anyInt(), anyInt(), any(Paint.class));
+	}
+
+	@Test public void testOnDrawItemInBatchMode() {
+		// Arrange:
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setDivider(new ColorDrawable(Color.RED));
+		decoration.setDividerThickness(4);
+		decoration.setDividerBatchingEnabled(true);
+		decoration.onPrepareItemsDraw(mockRecyclerView, mockRecyclerViewState, resolveLayoutContext());
+		// Act:
+		decoration.onDrawItem(mockCanvas, itemView, 1, MOCK_ITEMS_COUNT, new Rect(0, 0, 1080, 100), mockRecyclerView, mockRecyclerViewState, resolveLayoutContext());
+		// Assert:
+		verify(mockCanvas).drawRect(eq(0f), eq(96f), eq(1080f), eq(100f), any(Paint.class));
+	}
+
+	@Test public void testDividerTileCacheEnabled() {
+		// Arrange:
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		// Act + Assert:
+		assertThat(decoration.isDividerTileCacheEnabled(), is(false));
+		decoration.setDividerTileCacheEnabled(true);
+		assertThat(decoration.isDividerTileCacheEnabled(), is(true));
+	}
+
+	@Test public void testOnDrawVerticallyWithTileCache() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setDivider(mockDivider);
+		decoration.setDividerThickness(4);
+		decoration.setDividerTileCacheEnabled(true);
+		// Act:
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockDivider, times(1)).setBounds(0, 0, mockRecyclerView.getWidth(), 4);
+		verify(mockDivider, times(1)).draw(any(Canvas.class));
+		verify(mockDivider, times(0)).draw(mockCanvas);
+		verify(mockCanvas, times(MOCK_ITEMS_COUNT * 2)).drawBitmap(any(Bitmap.class), eq(0f), eq(-4f), isNull(Paint.class));
+	}
+
+	@Test public void testOnDrawHorizontallyWithTileCache() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setOrientation(ItemDividerDecoration.HORIZONTAL);
+		decoration.setDivider(mockDivider);
+		decoration.setDividerThickness(4);
+		decoration.setDividerTileCacheEnabled(true);
+		// Act:
+		decoration.onDrawHorizontally(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockDivider, times(1)).setBounds(0, 0, 4, mockRecyclerView.getHeight());
+		verify(mockCanvas, times(MOCK_ITEMS_COUNT)).drawBitmap(any(Bitmap.class), eq(-4f), eq(0f), isNull(Paint.class));
+	}
+
+	@Test public void testOnDrawVerticallyWithTileCacheAfterDividerStateChange() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		when(mockDivider.getState()).thenReturn(new int[0]);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setDivider(mockDivider);
+		decoration.setDividerThickness(4);
+		decoration.setDividerTileCacheEnabled(true);
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Act:
+		when(mockDivider.getState()).thenReturn(new int[]{android.R.attr.state_pressed});
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockDivider, times(2)).draw(any(Canvas.class));
+	}
+
+	@Test public void testOnDrawVerticallyWithTileCacheAfterExtentChange() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setDivider(mockDivider);
+		decoration.setDividerThickness(4);
+		decoration.setDividerTileCacheEnabled(true);
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Act:
+		decoration.setDividerOffset(10, 10);
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockDivider).setBounds(0, 0, mockRecyclerView.getWidth() - 20, 4);
+		verify(mockDivider, times(2)).draw(any(Canvas.class));
+	}
+
+	@Test public void testTileCacheDoesNotRecycleDrawnTile() {
+		// Arrange:
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setDivider(mock(Drawable.class));
+		decoration.setDividerThickness(4);
+		decoration.setDividerTileCacheEnabled(true);
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Act:
+		decoration.setDividerOffset(10, 10);
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		decoration.setDividerTileCacheEnabled(false);
+		// Assert:
+		final ArgumentCaptor<Bitmap> tileCaptor = ArgumentCaptor.forClass(Bitmap.class);
+		verify(mockCanvas, times(MOCK_ITEMS_COUNT * 2)).drawBitmap(tileCaptor.capture(), anyFloat(), anyFloat(), isNull(Paint.class));
+		// Tiles may be still referenced by display lists of the previously drawn frames.
+		for (final Bitmap tile : tileCaptor.getAllValues()) {
+			assertThat(tile.isRecycled(), is(false));
+		}
+	}
+
+	@Test public void testInvalidateDividerTileCache() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setDivider(mockDivider);
+		decoration.setDividerThickness(4);
+		decoration.setDividerTileCacheEnabled(true);
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Act:
+		decoration.invalidateDividerTileCache();
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockDivider, times(2)).draw(any(Canvas.class));
+	}
+
+	@Test public void testGetItemOffsetsForGridOrientation() {
+		// Arrange:
+		final ItemDividerDecoration decoration = createGridDecoration(mock(Drawable.class), 4);
+		final Rect rect = new Rect();
+		// Act + Assert:
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		assertThat(rect, is(new Rect(1, 0, 1, 4)));
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(3);
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		assertThat(rect, is(new Rect(0, 0, 3, 4)));
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(8);
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		assertThat(rect, is(new Rect(3, 0, 0, 4)));
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(9);
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		assertThat(rect, is(new Rect(0, 0, 3, 0)));
+		assertThat(((GridLayoutManager) mockRecyclerView.getLayoutManager()).getSpanSizeLookup().isSpanIndexCacheEnabled(), is(false));
+	}
+
+	@Test public void testSpanIndexCacheEnabled() {
+		// Arrange:
+		final ItemDividerDecoration decoration = createGridDecoration(mock(Drawable.class), 4);
+		// Act:
+		decoration.setSpanIndexCacheEnabled(true);
+		decoration.getItemOffsets(new Rect(), itemView, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(decoration.isSpanIndexCacheEnabled(), is(true));
+		assertThat(((GridLayoutManager) mockRecyclerView.getLayoutManager()).getSpanSizeLookup().isSpanIndexCacheEnabled(), is(true));
+	}
+
+	@Test public void testGetItemOffsetsForGridOrientationAndRTLLayoutDirection() {
+		// Arrange:
+		when(mockRecyclerView.getLayoutDirection()).thenReturn(ViewCompat.LAYOUT_DIRECTION_RTL);
+		final ItemDividerDecoration decoration = createGridDecoration(mock(Drawable.class), 4);
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(3);
+		final Rect rect = new Rect();
+		// Act:
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(rect, is(new Rect(3, 0, 0, 4)));
+	}
+
+	@Test public void testGetItemOffsetsForGridOrientationAndLinearLayoutManager() {
+		// Arrange:
+		when(mockRecyclerView.getLayoutManager()).thenReturn(new LinearLayoutManager(application));
+		final ItemDividerDecoration decoration = createGridDecoration(mock(Drawable.class), 4);
+		final Rect rect = new Rect();
+		// Act + Assert:
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		assertThat(rect, is(new Rect(0, 0, 0, 4)));
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(MOCK_ITEMS_COUNT - 1);
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		assertThat(rect, is(new Rect(0, 0, 0, 0)));
+	}
+
+	@Test public void testOnDrawForGridOrientation() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = createGridDecoration(mockDivider, 4);
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockCanvas).save();
+		verify(mockCanvas).restore();
+		verify(mockRecyclerView, times(MOCK_ITEMS_COUNT)).getDecoratedBoundsWithMargins(eq(itemView), any(Rect.class));
+		verify(mockDivider, times(MOCK_ITEMS_COUNT * 2)).draw(mockCanvas);
+	}
+
+	@Test public void testOnDrawItemForGridOrientation() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = createGridDecoration(mockDivider, 4);
+		decoration.onPrepareItemsDraw(mockRecyclerView, mockRecyclerViewState, resolveLayoutContext());
+		// Act:
+		decoration.onDrawItem(mockCanvas, itemView, 4, MOCK_ITEMS_COUNT, new Rect(0, 0, 360, 100), mockRecyclerView, mockRecyclerViewState, resolveLayoutContext());
+		// Assert:
+		verify(mockDivider).setBounds(0, 96, 360, 100);
+		verify(mockDivider).setBounds(359, 0, 363, 96);
+		verify(mockDivider, times(2)).draw(mockCanvas);
+		verifyZeroInteractions(mockCanvas);
+	}
+
+	@Test public void testOnDrawItemForGridOrientationAndRTLLayoutDirection() {
+		// Arrange:
+		when(mockRecyclerView.getLayoutDirection()).thenReturn(ViewCompat.LAYOUT_DIRECTION_RTL);
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = createGridDecoration(mockDivider, 4);
+		decoration.onPrepareItemsDraw(mockRecyclerView, mockRecyclerViewState, resolveLayoutContext());
+		// Act:
+		decoration.onDrawItem(mockCanvas, itemView, 4, MOCK_ITEMS_COUNT, new Rect(0, 0, 360, 100), mockRecyclerView, mockRecyclerViewState, resolveLayoutContext());
+		// Assert:
+		verify(mockDivider).setBounds(0, 96, 360, 100);
+		verify(mockDivider).setBounds(-3, 0, 1, 96);
+	}
+
+	@Test public void testOnDrawItemForGridOrientationInLastLine() {
+		// Arrange:
+		when(mockRecyclerViewState.getItemCount()).thenReturn(MOCK_ITEMS_COUNT - 1);
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = createGridDecoration(mockDivider, 4);
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(MOCK_ITEMS_COUNT - 3);
+		decoration.onPrepareItemsDraw(mockRecyclerView, mockRecyclerViewState, resolveLayoutContext());
+		// Act:
+		decoration.onDrawItem(mockCanvas, itemView, 4, MOCK_ITEMS_COUNT, new Rect(0, 0, 360, 100), mockRecyclerView, mockRecyclerViewState, resolveLayoutContext());
+		// Assert:
+		verify(mockDivider).setBounds(359, 0, 363, 100);
+		verify(mockDivider).draw(mockCanvas);
+	}
+
+	@Test public void testOnDrawItemForGridOrientationAtEndOfPartialLine() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = createGridDecoration(mockDivider, 4);
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(MOCK_ITEMS_COUNT - 1);
+		decoration.onPrepareItemsDraw(mockRecyclerView, mockRecyclerViewState, resolveLayoutContext());
+		// Act:
+		decoration.onDrawItem(mockCanvas, itemView, 4, MOCK_ITEMS_COUNT, new Rect(0, 0, 360, 100), mockRecyclerView, mockRecyclerViewState, resolveLayoutContext());
+		// Assert:
+		verifyZeroInteractions(mockDivider);
+	}
+
+	@Test public void testGetItemOffsetsForHorizontalGridOrientation() {
+		// Arrange:
+		final ItemDividerDecoration decoration = createGridDecoration(mock(Drawable.class), 4);
+		when(mockRecyclerView.getLayoutManager()).thenReturn(new GridLayoutManager(application, 3, GridLayoutManager.HORIZONTAL, false));
+		final Rect rect = new Rect();
+		// Act:
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(rect, is(new Rect(0, 1, 4, 1)));
+	}
+
+	@Test public void testOnDrawItemForHorizontalGridOrientation() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = createGridDecoration(mockDivider, 4);
+		when(mockRecyclerView.getLayoutManager()).thenReturn(new GridLayoutManager(application, 3, GridLayoutManager.HORIZONTAL, false));
+		decoration.onPrepareItemsDraw(mockRecyclerView, mockRecyclerViewState, resolveLayoutContext());
+		// Act:
+		decoration.onDrawItem(mockCanvas, itemView, 4, MOCK_ITEMS_COUNT, new Rect(0, 0, 100, 360), mockRecyclerView, mockRecyclerViewState, resolveLayoutContext());
+		// Assert:
+		verify(mockDivider).setBounds(96, 0, 100, 360);
+		verify(mockDivider).setBounds(0, 359, 96, 363);
+		verify(mockDivider, times(2)).draw(mockCanvas);
+	}
+
+	@Test public void testOnDrawForGridOrientationIgnoresSkipLast() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = createGridDecoration(mockDivider, 4);
+		decoration.setSkipLast(true);
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		// The last attached child is decorated as any other child.
+		verify(mockRecyclerView, times(MOCK_ITEMS_COUNT)).getDecoratedBoundsWithMargins(eq(itemView), any(Rect.class));
+		verify(mockDivider, times(MOCK_ITEMS_COUNT * 2)).draw(mockCanvas);
+	}
+
+	@Test public void testOnDrawForGridOrientationSkipFirst() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = createGridDecoration(mockDivider, 4);
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(0);
+		decoration.setSkipFirst(true);
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockRecyclerView, times(0)).getDecoratedBoundsWithMargins(eq(itemView), any(Rect.class));
+		verifyZeroInteractions(mockDivider);
+	}
+
+	@Test public void testOnDrawForGridOrientationInBatchMode() {
+		// Arrange:
+		final ItemDividerDecoration decoration = createGridDecoration(new ColorDrawable(Color.RED), 4);
+		decoration.setDividerBatchingEnabled(true);
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockCanvas).drawLines(any(float[].class), eq(0), eq(MOCK_ITEMS_COUNT * 2 * 4), any(Paint.class));
+		verify(mockCanvas, times(0)).drawRect(anyFloat(), anyFloat(), anyFloat(), anyFloat(), any(Paint.class));
+	}
+
+	private ItemDividerDecoration createGridDecoration(final Drawable divider, final int thickness) {
+		when(mockRecyclerView.getLayoutManager()).thenReturn(new GridLayoutManager(application, 3));
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(4);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setOrientation(ItemDividerDecoration.GRID);
+		decoration.setDivider(divider);
+		decoration.setDividerThickness(thickness);
+		return decoration;
+	}
+
+	private DecorationLayoutContext resolveLayoutContext() {
+		return ItemDecorationCache.obtainFor(mockRecyclerView).resolveLayoutContext(mockRecyclerViewState);
+	}
+
+	@Test public void testSetDividerOfSameThicknessSchedulesRedraw() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		when(mockDivider.getIntrinsicHeight()).thenReturn(4);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setDivider(mockDivider);
+		decoration.attachToRecyclerView(mockRecyclerView);
+		final Drawable mockOtherDivider = mock(Drawable.class);
+		when(mockOtherDivider.getIntrinsicHeight()).thenReturn(4);
+		// Act:
+		decoration.setDivider(mockOtherDivider);
+		decoration.setDividerOffset(10, 10);
+		// Assert:
+		final ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+		verify(mockRecyclerView, times(1)).postOnAnimation(runnableCaptor.capture());
+		runnableCaptor.getValue().run();
+		verify(mockRecyclerView).invalidate();
+		verify(mockRecyclerView, times(0)).invalidateItemDecorations();
+	}
+
+	@Test public void testSetDividerThicknessSchedulesRelayout() {
+		// Arrange:
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.attachToRecyclerView(mockRecyclerView);
+		// Act:
+		decoration.setDividerThickness(4);
+		decoration.setOrientation(ItemDividerDecoration.VERTICAL);
+		decoration.setDividerThickness(8);
+		// Assert:
+		final ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+		verify(mockRecyclerView, times(1)).postOnAnimation(runnableCaptor.capture());
+		runnableCaptor.getValue().run();
+		verify(mockRecyclerView).invalidateItemDecorations();
+	}
+
+	@Test public void testSetSamePropertiesDoesNotScheduleInvalidation() {
+		// Arrange:
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setDividerThickness(4);
+		decoration.setDividerOffset(10, 5);
+		decoration.attachToRecyclerView(mockRecyclerView);
+		// Act:
+		decoration.setDividerThickness(4);
+		decoration.setDividerOffset(10, 5);
+		decoration.setOrientation(ItemDividerDecoration.VERTICAL);
+		// Assert:
+		verify(mockRecyclerView, times(0)).postOnAnimation(any(Runnable.class));
+	}
+
+	@Test public void testSectionIndex() {
+		// Arrange:
+		final SectionIndex index = new SectionIndex(new int[]{0, 4});
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		// Act:
+		decoration.setSectionIndex(index);
+		// Assert:
+		assertThat(decoration.getSectionIndex(), is(index));
+	}
+
+	@Test public void testGetItemOffsetsWithSectionIndex() {
+		// Arrange:
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setSkipLast(false);
+		decoration.setDividerThickness(4);
+		decoration.setSectionIndex(new SectionIndex(new int[]{0, 4}));
+		final Rect rect = new Rect();
+		// Act + Assert:
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(3);
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		assertThat(rect, is(new Rect(0, 0, 0, 4)));
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(2);
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		assertThat(rect.isEmpty(), is(true));
+		// Dividers are not drawn after the last section.
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(MOCK_ITEMS_COUNT - 1);
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		assertThat(rect.isEmpty(), is(true));
+	}
+
+	@Test public void testOnDrawVerticallyWithSectionIndex() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setSkipLast(false);
+		decoration.setDivider(mockDivider);
+		decoration.setDividerThickness(4);
+		decoration.setSectionIndex(new SectionIndex(new int[]{0, 4}));
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(2);
+		// Act:
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockDivider, times(0)).draw(mockCanvas);
+	}
+
+	@Test public void testOnDrawVerticallyWithSectionIndexAtSectionEnd() {
+		// Arrange:
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setSkipLast(false);
+		decoration.setDivider(mockDivider);
+		decoration.setDividerThickness(4);
+		decoration.setSectionIndex(new SectionIndex(new int[]{0, 4}));
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(3);
+		// Act:
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockDivider, times(MOCK_ITEMS_COUNT)).draw(mockCanvas);
+	}
+
+	@Test public void testViewTypeDivider() {
+		// Arrange:
+		final ItemDividerDecoration.ViewTypeDivider typeDivider = new ItemDividerDecoration.ViewTypeDivider(new ColorDrawable(Color.RED), 8, 10, 5);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		// Act + Assert:
+		decoration.setViewTypeDivider(1, typeDivider);
+		assertThat(decoration.getViewTypeDivider(1), is(typeDivider));
+		assertThat(decoration.getViewTypeDivider(2), is(nullValue()));
+		assertThat(typeDivider.getThickness(), is(8));
+		assertThat(typeDivider.getOffsetStart(), is(10));
+		assertThat(typeDivider.getOffsetEnd(), is(5));
+		decoration.setViewTypeDivider(1, null);
+		assertThat(decoration.getViewTypeDivider(1), is(nullValue()));
+	}
+
+	@Test public void testGetItemOffsetsWithViewTypeDivider() {
+		// Arrange:
+		final RecyclerView.ViewHolder mockHolder = mock(RecyclerView.ViewHolder.class);
+		when(mockHolder.getItemViewType()).thenReturn(1);
+		when(mockRecyclerView.getChildViewHolder(any(View.class))).thenReturn(mockHolder);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setSkipLast(false);
+		decoration.setDividerThickness(4);
+		decoration.setViewTypeDivider(1, new ItemDividerDecoration.ViewTypeDivider(new ColorDrawable(Color.RED), 8));
+		final Rect rect = new Rect();
+		// Act:
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(rect, is(new Rect(0, 0, 0, 8)));
+	}
+
+	@Test public void testGetItemOffsetsWithEmptyViewTypeDivider() {
+		// Arrange:
+		final RecyclerView.ViewHolder mockHolder = mock(RecyclerView.ViewHolder.class);
+		when(mockHolder.getItemViewType()).thenReturn(1);
+		when(mockRecyclerView.getChildViewHolder(any(View.class))).thenReturn(mockHolder);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setSkipLast(false);
+		decoration.setDividerThickness(4);
+		decoration.setViewTypeDivider(1, new ItemDividerDecoration.ViewTypeDivider(new ColorDrawable(Color.RED), 0));
+		final Rect rect = new Rect(0, 0, 0, 4);
+		// Act:
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(rect.isEmpty(), is(true));
+	}
+
+	@Test public void testOnDrawVerticallyWithViewTypeDivider() {
+		// Arrange:
+		final RecyclerView.ViewHolder mockHolder = mock(RecyclerView.ViewHolder.class);
+		when(mockHolder.getItemViewType()).thenReturn(1);
+		when(mockRecyclerView.getChildViewHolder(any(View.class))).thenReturn(mockHolder);
+		final Drawable mockDivider = mock(Drawable.class);
+		final Drawable mockTypeDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setSkipLast(false);
+		decoration.setDivider(mockDivider);
+		decoration.setDividerThickness(4);
+		decoration.setViewTypeDivider(1, new ItemDividerDecoration.ViewTypeDivider(mockTypeDivider, 8, 10, 5));
+		// Act:
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockTypeDivider, times(MOCK_ITEMS_COUNT)).setBounds(10, -8, mockRecyclerView.getWidth() - 5, 0);
+		verify(mockTypeDivider, times(MOCK_ITEMS_COUNT)).draw(mockCanvas);
+		verify(mockDivider, times(0)).draw(mockCanvas);
+		// View types are resolved only once per item.
+		verify(mockHolder, times(MOCK_ITEMS_COUNT)).getItemViewType();
+	}
+
+	@Test public void testOnDrawWithViewTypeDividerOnly() {
+		// Arrange:
+		final RecyclerView.ViewHolder mockHolder = mock(RecyclerView.ViewHolder.class);
+		when(mockHolder.getItemViewType()).thenReturn(1);
+		when(mockRecyclerView.getChildViewHolder(any(View.class))).thenReturn(mockHolder);
+		final Drawable mockTypeDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setSkipLast(false);
+		decoration.setViewTypeDivider(1, new ItemDividerDecoration.ViewTypeDivider(mockTypeDivider, 8));
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockTypeDivider, times(MOCK_ITEMS_COUNT)).draw(mockCanvas);
+	}
+
+	@Test public void testOnDrawHorizontallyWithViewTypeDivider() {
+		// Arrange:
+		final RecyclerView.ViewHolder mockHolder = mock(RecyclerView.ViewHolder.class);
+		when(mockHolder.getItemViewType()).thenReturn(1);
+		when(mockRecyclerView.getChildViewHolder(any(View.class))).thenReturn(mockHolder);
+		final Drawable mockTypeDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration(ItemDividerDecoration.HORIZONTAL, mock(Drawable.class));
+		decoration.setSkipLast(false);
+		decoration.setViewTypeDivider(1, new ItemDividerDecoration.ViewTypeDivider(mockTypeDivider, 8, 10, 5));
+		// Act:
+		decoration.onDrawHorizontally(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockTypeDivider, times(MOCK_ITEMS_COUNT)).setBounds(-8, 10, 0, mockRecyclerView.getHeight() - 5);
+		verify(mockTypeDivider, times(MOCK_ITEMS_COUNT)).draw(mockCanvas);
+	}
+
+	@Test public void testDividerAlignmentViewId() {
+		// Arrange:
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		// Act + Assert:
+		assertThat(decoration.getDividerAlignmentViewId(), is(View.NO_ID));
+		decoration.setDividerAlignmentViewId(android.R.id.text1);
+		assertThat(decoration.getDividerAlignmentViewId(), is(android.R.id.text1));
+	}
+
+	@Test public void testOnDrawVerticallyWithDividerAlignment() {
+		// Arrange:
+		final View alignmentView = createItemViewWithAlignmentView();
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setSkipLast(false);
+		decoration.setDivider(mockDivider);
+		decoration.setDividerThickness(4);
+		decoration.setDividerAlignmentViewId(android.R.id.text1);
+		// Act:
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockDivider, times(MOCK_ITEMS_COUNT)).setBounds(72, -4, 1064, 0);
+		verify(mockDivider, times(MOCK_ITEMS_COUNT)).draw(mockCanvas);
+		assertThat(alignmentView.getLeft(), is(72));
+	}
+
+	@Test public void testOnDrawVerticallyWithDividerAlignmentMeasuredOncePerViewType() {
+		// Arrange:
+		final View alignmentView = createItemViewWithAlignmentView();
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setSkipLast(false);
+		decoration.setDivider(mockDivider);
+		decoration.setDividerThickness(4);
+		decoration.setDividerAlignmentViewId(android.R.id.text1);
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		alignmentView.layout(16, 0, 1064, 100);
+		// Act + Assert:
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		verify(mockDivider, times(MOCK_ITEMS_COUNT * 2)).setBounds(72, -4, 1064, 0);
+		decoration.invalidateDividerAlignment();
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		verify(mockDivider, times(MOCK_ITEMS_COUNT)).setBounds(16, -4, 1064, 0);
+	}
+
+	@Test public void testOnDrawVerticallyWithDividerAlignmentWithoutAlignmentView() {
+		// Arrange:
+		createItemViewWithAlignmentView();
+		final Drawable mockDivider = mock(Drawable.class);
+		final ItemDividerDecoration decoration = new ItemDividerDecoration();
+		decoration.setSkipLast(false);
+		decoration.setDivider(mockDivider);
+		decoration.setDividerThickness(4);
+		decoration.setDividerAlignmentViewId(android.R.id.text2);
+		// Act:
+		decoration.onDrawVertically(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockDivider, times(MOCK_ITEMS_COUNT)).setBounds(0, -4, mockRecyclerView.getWidth(), 0);
+	}
+
+	private View createItemViewWithAlignmentView() {
+		final RecyclerView.ViewHolder mockHolder = mock(RecyclerView.ViewHolder.class);
+		when(mockHolder.getItemViewType()).thenReturn(1);
+		when(mockRecyclerView.getChildViewHolder(any(View.class))).thenReturn(mockHolder);
+		final FrameLayout itemView = new FrameLayout(application);
+		final TextView alignmentView = new TextView(application);
+		alignmentView.setId(android.R.id.text1);
+		itemView.addView(alignmentView);
+		itemView.layout(0, 0, 1080, 100);
+		alignmentView.layout(72, 0, 1064, 100);
+		when(mockRecyclerView.getChildAt(anyInt())).thenReturn(itemView);
+		return alignmentView;
+	}
+}
@@ -0,0 +1,577 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.decoration;
+
+import android.graphics.Canvas;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewGroup;
+
+/**
+ * A {@link RecyclerViewItemDecoration} implementation that may be used to draw a <b>sticky header</b>
+ * of the current section of items displayed in a vertically scrolling {@link RecyclerView}.
+ * <p>
+ * Sections are specified via {@link #setSectionStarts(int[])} as sorted adapter positions at which
+ * each of the sections starts, so the section of a particular item is resolved via binary search.
+ * A {@link SectionIndex} shared with other decorations may be also specified via {@link #setSectionIndex(SectionIndex)}.
+ * Header views are created and bound via {@link HeaderAdapter} and are kept bound and measured in
+ * a small cache keyed by {@link HeaderAdapter#getHeaderId(int) header ids}, so a header is bound and
+ * measured again only when its section has been invalidated via {@link #invalidateHeader(int)} or
+ * {@link #invalidateHeaders()} or when width of the parent RecyclerView changes.
+ * <p>
+ * The header is drawn over the items in {@link #onDrawOver(Canvas, RecyclerView, RecyclerView.State)}
+ * at the top of the parent RecyclerView and it is pushed up by the first item of the next section
+ * whenever such item reaches bottom of the header. This decoration does not add any offsets for
+ * items, so if headers should also be presented within the list, the adapter should present them
+ * as the first items of their sections.
+ * <p>
+ * As this decoration draws only a single header per pass and stops at the first item of the next
+ * section, it does not take part in the single item views pass of {@link CompositeItemDecoration}
+ * and when grouped it is drawn via its own {@link #onDrawOver(Canvas, RecyclerView, RecyclerView.State)}.
+ * <p>
+ * <b>Note</b> that this decoration supports only vertical layouts which are not reversed.
+ *
+ * @author Martin Albedinsky
+ * @since 1.1
+ *
+ * @see RecyclerView#addItemDecoration(RecyclerView.ItemDecoration)
+ */
+public class StickyHeaderDecoration extends RecyclerViewItemDecoration {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "StickyHeaderDecoration";
+
+	/**
+	 * Default count of header views kept in the cache.
+	 */
+	public static final int DEFAULT_HEADER_CACHE_SIZE = 4;
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/**
+	 * Adapter which is used by {@link StickyHeaderDecoration} to create and bind header views for
+	 * sections of items.
+	 *
+	 * @author Martin Albedinsky
+	 * @since 1.1
+	 *
+	 * @see #setHeaderAdapter(HeaderAdapter)
+	 */
+	public interface HeaderAdapter {
+
+		/**
+		 * Returns a stable id of the header for the specified <var>section</var>. The id is used
+		 * as key under which is the bound header view cached.
+		 *
+		 * @param section Index of the section for which to return id of its header.
+		 * @return Id of the section's header.
+		 */
+		long getHeaderId(int section);
+
+		/**
+		 * Called to create a new header view for the specified <var>section</var>.
+		 *
+		 * @param parent  The RecyclerView for which to create the header view.
+		 * @param section Index of the section for which to create the header view.
+		 * @return New header view.
+		 */
+		@NonNull View onCreateHeaderView(@NonNull RecyclerView parent, int section);
+
+		/**
+		 * Called to bind the specified <var>headerView</var> with data of the specified <var>section</var>.
+		 *
+		 * @param headerView The header view to be bound.
+		 * @param section    Index of the section of which data to bind.
+		 */
+		void onBindHeaderView(@NonNull View headerView, int section);
+	}
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Adapter used to create and bind header views.
+	 */
+	private HeaderAdapter headerAdapter;
+
+	/**
+	 * Index of sections for which to draw headers.
+	 */
+	private SectionIndex sectionIndex = new SectionIndex();
+
+	/**
+	 * Cache with bound and measured header views.
+	 */
+	private final HeaderCache headerCache = new HeaderCache(DEFAULT_HEADER_CACHE_SIZE);
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Same as {@link #StickyHeaderDecoration(HeaderAdapter)} with {@code null} <var>headerAdapter</var>.
+	 */
+	public StickyHeaderDecoration() {
+		this(null);
+	}
+
+	/**
+	 * Creates a new instance of StickyHeaderDecoration with the specified <var>headerAdapter</var>.
+	 *
+	 * @param headerAdapter The adapter used to create and bind header views. May be {@code null}.
+	 */
+	public StickyHeaderDecoration(@Nullable final HeaderAdapter headerAdapter) {
+		super();
+		this.headerAdapter = headerAdapter;
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Sets an adapter that should be used to create and bind header views for sections.
+	 * <p>
+	 * All currently cached header views are discarded.
+	 *
+	 * @param adapter The desired adapter. May be {@code null} to draw no headers.
+	 *
+	 * @see #getHeaderAdapter()
+	 */
+	public void setHeaderAdapter(@Nullable final HeaderAdapter adapter) {
+		if (headerAdapter != adapter) {
+			this.headerAdapter = adapter;
+			this.headerCache.clear();
+			this.scheduleInvalidation(false);
+		}
+	}
+
+	/**
+	 * Returns the adapter used to create and bind header views.
+	 *
+	 * @return This decoration's header adapter or {@code null} if there is no adapter specified.
+	 *
+	 * @see #setHeaderAdapter(HeaderAdapter)
+	 */
+	@Nullable public HeaderAdapter getHeaderAdapter() {
+		return headerAdapter;
+	}
+
+	/**
+	 * Sets an index of sections for which should this decoration draw headers. The index is attached
+	 * to the adapter of the parent RecyclerView, so its sections are kept in sync with data set
+	 * changes of the adapter.
+	 *
+	 * @param index The desired section index.
+	 *
+	 * @see #getSectionIndex()
+	 * @see #setSectionStarts(int[])
+	 */
+	public void setSectionIndex(@NonNull final SectionIndex index) {
+		if (sectionIndex != index) {
+			if (getAttachedParent() != null) {
+				sectionIndex.release();
+				index.acquire();
+			}
+			this.sectionIndex = index;
+			this.scheduleInvalidation(false);
+		}
+	}
+
+	/**
+	 * Releases also the section index used by this decoration when this decoration is
+	 * unbound from its current parent.
+	 */
+	@Override void bindParent(@Nullable final RecyclerView parent) {
+		final RecyclerView currentParent = getAttachedParent();
+		if (currentParent != parent) {
+			if (currentParent != null) {
+				sectionIndex.release();
+			}
+			if (parent != null) {
+				sectionIndex.acquire();
+			}
+		}
+		super.bindParent(parent);
+	}
+
+	/**
+	 * Returns the index of sections for which this decoration draws headers.
+	 *
+	 * @return This decoration's section index.
+	 *
+	 * @see #setSectionIndex(SectionIndex)
+	 */
+	@NonNull public SectionIndex getSectionIndex() {
+		return sectionIndex;
+	}
+
+	/**
+	 * Specifies adapter positions at which start sections of items.
+	 * <p>
+	 * This is the same as specifying the start positions directly for the current {@link SectionIndex}.
+	 * <p>
+	 * Cached header views are kept, so if ids of headers provided by the header adapter change due
+	 * to this change, the headers should be also invalidated via {@link #invalidateHeaders()}.
+	 *
+	 * @param sectionStarts The desired start positions sorted in ascending order. May be {@code null}
+	 *                      to clear the current sections.
+	 *
+	 * @see #getSectionCount()
+	 * @see #getSectionForPosition(int)
+	 */
+	public void setSectionStarts(@Nullable final int[] sectionStarts) {
+		this.sectionIndex.setSectionStarts(sectionStarts);
+		this.scheduleInvalidation(false);
+	}
+
+	/**
+	 * Returns the count of sections specified for this decoration.
+	 *
+	 * @return Sections count.
+	 *
+	 * @see #setSectionStarts(int[])
+	 */
+	public int getSectionCount() {
+		return sectionIndex.getSectionCount();
+	}
+
+	/**
+	 * Resolves index of the section to which belongs the specified adapter <var>position</var>.
+	 *
+	 * @param position The adapter position for which to resolve its section.
+	 * @return Index of the section or {@link SectionIndex#NO_SECTION} if the position precedes the
+	 * first section.
+	 *
+	 * @see #setSectionStarts(int[])
+	 */
+	public int getSectionForPosition(final int position) {
+		return sectionIndex.getSectionForPosition(position);
+	}
+
+	/**
+	 * Sets the maximum count of bound header views that may be kept in the cache.
+	 * <p>
+	 * Default value: {@link #DEFAULT_HEADER_CACHE_SIZE}
+	 *
+	 * @param size The desired cache size. Must be at least {@code 1}.
+	 *
+	 * @see #getHeaderCacheSize()
+	 */
+	public void setHeaderCacheSize(final int size) {
+		if (size < 1) throw new IllegalArgumentException("Header cache size must be at least 1!");
+		this.headerCache.resize(size);
+	}
+
+	/**
+	 * Returns the maximum count of bound header views that may be kept in the cache.
+	 *
+	 * @return Cache size.
+	 *
+	 * @see #setHeaderCacheSize(int)
+	 */
+	public int getHeaderCacheSize() {
+		return headerCache.capacity();
+	}
+
+	/**
+	 * Invalidates header view of the specified <var>section</var>, so it will be bound and measured
+	 * again the next time it is drawn.
+	 * <p>
+	 * This should be called whenever content of the section that is presented in its header changes.
+	 *
+	 * @param section Index of the section of which header to invalidate.
+	 *
+	 * @see #invalidateHeaders()
+	 */
+	public void invalidateHeader(final int section) {
+		if (headerAdapter != null && headerCache.remove(headerAdapter.getHeaderId(section))) {
+			this.scheduleInvalidation(false);
+		}
+	}
+
+	/**
+	 * Invalidates all header views, so they will be bound and measured again the next time they
+	 * are drawn.
+	 *
+	 * @see #invalidateHeader(int)
+	 */
+	public void invalidateHeaders() {
+		this.headerCache.clear();
+		this.scheduleInvalidation(false);
+	}
+
+	/**
+	 */
+	@Override protected boolean shouldDecorate(@NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
+		return super.shouldDecorate(parent, state) && headerAdapter != null && sectionIndex.getSectionCount() > 0;
+	}
+
+	/**
+	 */
+	@Override public void onDrawOver(@NonNull final Canvas canvas, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
+		if (!shouldDecorate(parent, state)) {
+			return;
+		}
+		this.sectionIndex.attachAdapter(parent.getAdapter());
+		final int childCount = parent.getChildCount();
+		int childIndex = 0;
+		int section = SectionIndex.NO_SECTION;
+		for (; childIndex < childCount; childIndex++) {
+			final int position = parent.getChildAdapterPosition(parent.getChildAt(childIndex));
+			if (position != RecyclerView.NO_POSITION) {
+				section = sectionIndex.getSectionForPosition(position);
+				break;
+			}
+		}
+		if (section == SectionIndex.NO_SECTION) {
+			return;
+		}
+		final View headerView = obtainHeaderView(parent, section);
+		final int headerHeight = headerView.getHeight();
+		int headerTop = parent.getPaddingTop();
+		if (section + 1 < sectionIndex.getSectionCount()) {
+			final int nextSectionStart = sectionIndex.getSectionStart(section + 1);
+			final RecyclerView.LayoutManager layoutManager = parent.getLayoutManager();
+			for (childIndex++; childIndex < childCount; childIndex++) {
+				final View child = parent.getChildAt(childIndex);
+				if (parent.getChildAdapterPosition(child) == nextSectionStart) {
+					final int nextSectionTop = layoutManager.getDecoratedTop(child) + Math.round(child.getTranslationY());
+					headerTop = Math.min(headerTop, nextSectionTop - headerHeight);
+					break;
+				}
+			}
+		}
+		final int saveCount = canvas.save();
+		canvas.translate(parent.getPaddingLeft(), headerTop);
+		headerView.draw(canvas);
+		canvas.restoreToCount(saveCount);
+	}
+
+	/**
+	 * Obtains a bound and measured header view for the specified <var>section</var> either from
+	 * the cache or creates and binds a new one via the current header adapter.
+	 *
+	 * @param parent  The RecyclerView for which to obtain the header view.
+	 * @param section Index of the section for which to obtain its header view.
+	 * @return Header view ready to be drawn.
+	 */
+	private View obtainHeaderView(final RecyclerView parent, final int section) {
+		final long headerId = headerAdapter.getHeaderId(section);
+		final int width = parent.getWidth() - parent.getPaddingLeft() - parent.getPaddingRight();
+		View headerView = headerCache.get(headerId);
+		if (headerView == null) {
+			headerView = headerAdapter.onCreateHeaderView(parent, section);
+			headerAdapter.onBindHeaderView(headerView, section);
+			measureHeaderView(headerView, width);
+			headerCache.put(headerId, headerView);
+		} else if (headerView.getWidth() != width) {
+			measureHeaderView(headerView, width);
+		}
+		return headerView;
+	}
+
+	/**
+	 * Measures and lays out the specified <var>headerView</var> for the specified <var>width</var>.
+	 *
+	 * @param headerView The header view to be measured.
+	 * @param width      The width for which to measure the header view.
+	 */
+	private static void measureHeaderView(final View headerView, final int width) {
+		final ViewGroup.LayoutParams params = headerView.getLayoutParams();
+		final int heightSpec = params != null && params.height > 0 ?
+				View.MeasureSpec.makeMeasureSpec(params.height, View.MeasureSpec.EXACTLY) :
+				View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+		headerView.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY), heightSpec);
+		headerView.layout(0, 0, headerView.getMeasuredWidth(), headerView.getMeasuredHeight());
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+
+	/**
+	 * Small least-recently-used cache of header views keyed by ids of their headers. The cache
+	 * keeps its entries in arrays ordered from the most recently used one, so no allocations are
+	 * performed when accessing the cached views.
+	 */
+	static final class HeaderCache {
+
+		/**
+		 * Ids of the cached headers ordered from the most recently used one.
+		 */
+		private long[] ids;
+
+		/**
+		 * Cached header views at positions corresponding to {@link #ids}.
+		 */
+		private View[] views;
+
+		/**
+		 * Count of the cached header views.
+		 */
+		private int size;
+
+		/**
+		 * Creates a new instance of HeaderCache with the specified <var>capacity</var>.
+		 *
+		 * @param capacity Maximum count of header views to be cached.
+		 */
+		HeaderCache(final int capacity) {
+			this.ids = new long[capacity];
+			this.views = new View[capacity];
+		}
+
+		/**
+		 * Returns the maximum count of header views that may be cached.
+		 *
+		 * @return Capacity of this cache.
+		 */
+		int capacity() {
+			return ids.length;
+		}
+
+		/**
+		 * Returns the count of currently cached header views.
+		 *
+		 * @return Size of this cache.
+		 */
+		int size() {
+			return size;
+		}
+
+		/**
+		 * Changes capacity of this cache. If the new capacity is smaller than the current size, the
+		 * least recently used header views are discarded.
+		 *
+		 * @param capacity The new capacity.
+		 */
+		void resize(final int capacity) {
+			final long[] newIds = new long[capacity];
+			final View[] newViews = new View[capacity];
+			this.size = Math.min(size, capacity);
+			System.arraycopy(ids, 0, newIds, 0, size);
+			System.arraycopy(views, 0, newViews, 0, size);
+			this.ids = newIds;
+			this.views = newViews;
+		}
+
+		/**
+		 * Returns the header view cached for the specified <var>id</var> and marks it as the most
+		 * recently used one.
+		 *
+		 * @param id Id of the header of which view to return.
+		 * @return Cached header view or {@code null} if there is no view cached for the id.
+		 */
+		@Nullable View get(final long id) {
+			final int index = indexOf(id);
+			if (index == -1) {
+				return null;
+			}
+			final View view = views[index];
+			moveToFront(index, id, view);
+			return view;
+		}
+
+		/**
+		 * Caches the specified header <var>view</var> for the specified <var>id</var> as the most
+		 * recently used one. If the cache is full, the least recently used header view is discarded.
+		 *
+		 * @param id   Id of the header.
+		 * @param view The header view to be cached.
+		 */
+		void put(final long id, @NonNull final View view) {
+			int index = indexOf(id);
+			if (index == -1) {
+				index = size < ids.length ? size++ : size - 1;
+			}
+			moveToFront(index, id, view);
+		}
+
+		/**
+		 * Removes header view cached for the specified <var>id</var>.
+		 *
+		 * @param id Id of the header of which view to remove.
+		 * @return {@code True} if there was view cached for the id, {@code false} otherwise.
+		 */
+		boolean remove(final long id) {
+			final int index = indexOf(id);
+			if (index == -1) {
+				return false;
+			}
+			System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+			System.arraycopy(views, index + 1, views, index, size - index - 1);
+			this.views[--size] = null;
+			return true;
+		}
+
+		/**
+		 * Removes all cached header views.
+		 */
+		void clear() {
+			for (int i = 0; i < size; i++) {
+				this.views[i] = null;
+			}
+			this.size = 0;
+		}
+
+		/**
+		 * Returns index of the specified header <var>id</var> within this cache.
+		 *
+		 * @param id The desired header id.
+		 * @return Index of the id or {@code -1} if there is no such id cached.
+		 */
+		private int indexOf(final long id) {
+			for (int i = 0; i < size; i++) {
+				if (ids[i] == id) return i;
+			}
+			return -1;
+		}
+
+		/**
+		 * Moves entry at the specified <var>index</var> to the front of this cache and stores the
+		 * specified <var>id</var> and <var>view</var> for it.
+		 *
+		 * @param index Index of the entry to move.
+		 * @param id    Id to be stored for the entry.
+		 * @param view  View to be stored for the entry.
+		 */
+		private void moveToFront(final int index, final long id, final View view) {
+			System.arraycopy(ids, 0, ids, 1, index);
+			System.arraycopy(views, 0, views, 1, index);
+			this.ids[0] = id;
+			this.views[0] = view;
+		}
+	}
+}
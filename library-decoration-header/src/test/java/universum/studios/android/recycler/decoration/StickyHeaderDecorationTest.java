@@ -0,0 +1,341 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.decoration;
+
+import android.graphics.Canvas;
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Test;
+
+import universum.studios.android.test.local.RobolectricTestCase;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.internal.util.MockUtil.resetMock;
+
+/**
+ * @author Martin Albedinsky
+ */
+public final class StickyHeaderDecorationTest extends RobolectricTestCase {
+
+	private static final int MOCK_ITEMS_COUNT = 10;
+	private static final int HEADER_HEIGHT = 40;
+
+	private final Canvas mockCanvas;
+	private final RecyclerView mockRecyclerView;
+	private final RecyclerView.LayoutManager mockLayoutManager;
+	private final RecyclerView.State mockRecyclerViewState;
+	private View[] itemViews;
+
+	public StickyHeaderDecorationTest() {
+		this.mockCanvas = mock(Canvas.class);
+		this.mockRecyclerView = mock(RecyclerView.class);
+		this.mockLayoutManager = mock(RecyclerView.LayoutManager.class);
+		this.mockRecyclerViewState = mock(RecyclerView.State.class);
+	}
+
+	@Override public void beforeTest() throws Exception {
+		super.beforeTest();
+		resetMock(mockCanvas);
+		resetMock(mockRecyclerView);
+		resetMock(mockLayoutManager);
+		resetMock(mockRecyclerViewState);
+		when(mockRecyclerView.getLayoutManager()).thenReturn(mockLayoutManager);
+		when(mockRecyclerView.getWidth()).thenReturn(1080);
+		when(mockRecyclerViewState.getItemCount()).thenReturn(MOCK_ITEMS_COUNT);
+		// Visible items at positions [2, 6) with height of 30 pixels, the first one scrolled by 10 pixels.
+		this.itemViews = new View[4];
+		when(mockRecyclerView.getChildCount()).thenReturn(itemViews.length);
+		for (int i = 0; i < itemViews.length; i++) {
+			final View itemView = new View(application);
+			this.itemViews[i] = itemView;
+			when(mockRecyclerView.getChildAt(i)).thenReturn(itemView);
+			when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(i + 2);
+			when(mockLayoutManager.getDecoratedTop(itemView)).thenReturn(i * 30 - 10);
+		}
+	}
+
+	@Test public void testInstantiation() {
+		// Act:
+		final StickyHeaderDecoration decoration = new StickyHeaderDecoration();
+		// Assert:
+		assertThat(decoration.getHeaderAdapter(), is(nullValue()));
+		assertThat(decoration.getSectionCount(), is(0));
+		assertThat(decoration.getHeaderCacheSize(), is(StickyHeaderDecoration.DEFAULT_HEADER_CACHE_SIZE));
+	}
+
+	@Test public void testInstantiationWithAdapter() {
+		// Arrange:
+		final TestHeaderAdapter adapter = new TestHeaderAdapter();
+		// Act:
+		final StickyHeaderDecoration decoration = new StickyHeaderDecoration(adapter);
+		// Assert:
+		assertThat(decoration.getHeaderAdapter(), is(sameInstance((StickyHeaderDecoration.HeaderAdapter) adapter)));
+	}
+
+	@Test public void testSectionStarts() {
+		// Arrange:
+		final StickyHeaderDecoration decoration = new StickyHeaderDecoration();
+		// Act:
+		decoration.setSectionStarts(new int[]{0, 4, 8});
+		// Assert:
+		assertThat(decoration.getSectionCount(), is(3));
+		assertThat(decoration.getSectionForPosition(3), is(0));
+		assertThat(decoration.getSectionForPosition(4), is(1));
+		assertThat(decoration.getSectionForPosition(9), is(2));
+	}
+
+	@Test public void testSectionIndex() {
+		// Arrange:
+		final SectionIndex index = new SectionIndex(new int[]{0, 4});
+		final StickyHeaderDecoration decoration = new StickyHeaderDecoration();
+		// Act:
+		decoration.setSectionIndex(index);
+		decoration.setSectionStarts(new int[]{0, 2, 6});
+		// Assert:
+		assertThat(decoration.getSectionIndex(), is(index));
+		assertThat(index.getSectionCount(), is(3));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetHeaderCacheSizeLessThanOne() {
+		// Arrange:
+		final StickyHeaderDecoration decoration = new StickyHeaderDecoration();
+		// Act:
+		decoration.setHeaderCacheSize(0);
+	}
+
+	@Test public void testOnDrawOverWithoutHeaderAdapter() {
+		// Arrange:
+		final StickyHeaderDecoration decoration = new StickyHeaderDecoration();
+		decoration.setSectionStarts(new int[]{0, 4});
+		// Act:
+		decoration.onDrawOver(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verifyZeroInteractions(mockCanvas);
+	}
+
+	@Test public void testOnDrawOverWithoutSections() {
+		// Arrange:
+		final TestHeaderAdapter adapter = new TestHeaderAdapter();
+		final StickyHeaderDecoration decoration = new StickyHeaderDecoration(adapter);
+		// Act:
+		decoration.onDrawOver(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verifyZeroInteractions(mockCanvas);
+		assertThat(adapter.createCount, is(0));
+	}
+
+	@Test public void testOnDrawOverBeforeFirstSection() {
+		// Arrange:
+		final TestHeaderAdapter adapter = new TestHeaderAdapter();
+		final StickyHeaderDecoration decoration = new StickyHeaderDecoration(adapter);
+		decoration.setSectionStarts(new int[]{3});
+		// Act:
+		decoration.onDrawOver(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verifyZeroInteractions(mockCanvas);
+	}
+
+	@Test public void testOnDrawOver() {
+		// Arrange:
+		final TestHeaderAdapter adapter = new TestHeaderAdapter();
+		final StickyHeaderDecoration decoration = new StickyHeaderDecoration(adapter);
+		decoration.setSectionStarts(new int[]{0, 8});
+		// Act:
+		decoration.onDrawOver(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(adapter.createCount, is(1));
+		assertThat(adapter.bindCount, is(1));
+		assertThat(adapter.lastSection, is(0));
+		verify(mockCanvas).translate(0f, 0f);
+	}
+
+	@Test public void testOnDrawOverPushesHeaderByNextSection() {
+		// Arrange:
+		final TestHeaderAdapter adapter = new TestHeaderAdapter();
+		final StickyHeaderDecoration decoration = new StickyHeaderDecoration(adapter);
+		// Next section starts at the second visible item which is at top of 20 pixels.
+		decoration.setSectionStarts(new int[]{0, 3});
+		// Act:
+		decoration.onDrawOver(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockCanvas).translate(0f, 20f - HEADER_HEIGHT);
+	}
+
+	@Test public void testOnDrawOverRespectsPadding() {
+		// Arrange:
+		when(mockRecyclerView.getPaddingLeft()).thenReturn(16);
+		when(mockRecyclerView.getPaddingTop()).thenReturn(8);
+		final TestHeaderAdapter adapter = new TestHeaderAdapter();
+		final StickyHeaderDecoration decoration = new StickyHeaderDecoration(adapter);
+		decoration.setSectionStarts(new int[]{0});
+		// Act:
+		decoration.onDrawOver(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockCanvas).translate(16f, 8f);
+	}
+
+	@Test public void testOnDrawOverReusesCachedHeader() {
+		// Arrange:
+		final TestHeaderAdapter adapter = new TestHeaderAdapter();
+		final StickyHeaderDecoration decoration = new StickyHeaderDecoration(adapter);
+		decoration.setSectionStarts(new int[]{0, 8});
+		// Act:
+		decoration.onDrawOver(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		decoration.onDrawOver(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(adapter.createCount, is(1));
+		assertThat(adapter.bindCount, is(1));
+		verify(mockCanvas, times(2)).translate(anyFloat(), anyFloat());
+	}
+
+	@Test public void testOnDrawOverRemeasuresCachedHeaderWhenWidthChanges() {
+		// Arrange:
+		final TestHeaderAdapter adapter = new TestHeaderAdapter();
+		final StickyHeaderDecoration decoration = new StickyHeaderDecoration(adapter);
+		decoration.setSectionStarts(new int[]{0});
+		decoration.onDrawOver(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		when(mockRecyclerView.getWidth()).thenReturn(720);
+		// Act:
+		decoration.onDrawOver(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(adapter.createCount, is(1));
+		assertThat(adapter.bindCount, is(1));
+		assertThat(adapter.lastHeaderView.getWidth(), is(720));
+	}
+
+	@Test public void testInvalidateHeader() {
+		// Arrange:
+		final TestHeaderAdapter adapter = new TestHeaderAdapter();
+		final StickyHeaderDecoration decoration = new StickyHeaderDecoration(adapter);
+		decoration.setSectionStarts(new int[]{0});
+		decoration.onDrawOver(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Act:
+		decoration.invalidateHeader(0);
+		decoration.onDrawOver(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(adapter.createCount, is(2));
+		assertThat(adapter.bindCount, is(2));
+	}
+
+	@Test public void testInvalidateHeaders() {
+		// Arrange:
+		final TestHeaderAdapter adapter = new TestHeaderAdapter();
+		final StickyHeaderDecoration decoration = new StickyHeaderDecoration(adapter);
+		decoration.setSectionStarts(new int[]{0});
+		decoration.onDrawOver(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Act:
+		decoration.invalidateHeaders();
+		decoration.onDrawOver(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(adapter.createCount, is(2));
+	}
+
+	@Test public void testSetHeaderAdapterSchedulesRedraw() {
+		// Arrange:
+		final StickyHeaderDecoration decoration = new StickyHeaderDecoration();
+		decoration.attachToRecyclerView(mockRecyclerView);
+		// Act:
+		decoration.setHeaderAdapter(new TestHeaderAdapter());
+		decoration.setSectionStarts(new int[]{0});
+		// Assert:
+		verify(mockRecyclerView, times(1)).postOnAnimation(any(Runnable.class));
+	}
+
+	@Test public void testHeaderCache() {
+		// Arrange:
+		final StickyHeaderDecoration.HeaderCache cache = new StickyHeaderDecoration.HeaderCache(2);
+		final View firstView = new View(application);
+		final View secondView = new View(application);
+		final View thirdView = new View(application);
+		// Act:
+		cache.put(1, firstView);
+		cache.put(2, secondView);
+		cache.get(1);
+		cache.put(3, thirdView);
+		// Assert:
+		assertThat(cache.size(), is(2));
+		assertThat(cache.get(1), is(firstView));
+		assertThat(cache.get(2), is(nullValue()));
+		assertThat(cache.get(3), is(thirdView));
+	}
+
+	@Test public void testHeaderCacheRemove() {
+		// Arrange:
+		final StickyHeaderDecoration.HeaderCache cache = new StickyHeaderDecoration.HeaderCache(2);
+		cache.put(1, new View(application));
+		cache.put(2, new View(application));
+		// Act + Assert:
+		assertThat(cache.remove(1), is(true));
+		assertThat(cache.remove(1), is(false));
+		assertThat(cache.size(), is(1));
+		assertThat(cache.get(1), is(nullValue()));
+	}
+
+	@Test public void testHeaderCacheResize() {
+		// Arrange:
+		final StickyHeaderDecoration.HeaderCache cache = new StickyHeaderDecoration.HeaderCache(3);
+		final View view = new View(application);
+		cache.put(1, new View(application));
+		cache.put(2, view);
+		// Act:
+		cache.resize(1);
+		// Assert:
+		assertThat(cache.capacity(), is(1));
+		assertThat(cache.size(), is(1));
+		assertThat(cache.get(2), is(view));
+		assertThat(cache.get(1), is(nullValue()));
+	}
+
+	private final class TestHeaderAdapter implements StickyHeaderDecoration.HeaderAdapter {
+
+		int createCount, bindCount;
+		int lastSection = -1;
+		View lastHeaderView;
+
+		@Override public long getHeaderId(final int section) {
+			return section;
+		}
+
+		@Override @NonNull public View onCreateHeaderView(@NonNull final RecyclerView parent, final int section) {
+			this.createCount++;
+			final View headerView = new View(application);
+			headerView.setLayoutParams(new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, HEADER_HEIGHT));
+			return lastHeaderView = headerView;
+		}
+
+		@Override public void onBindHeaderView(@NonNull final View headerView, final int section) {
+			this.bindCount++;
+			this.lastSection = section;
+		}
+	}
+}
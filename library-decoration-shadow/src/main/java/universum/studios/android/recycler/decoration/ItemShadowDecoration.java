@@ -0,0 +1,555 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.decoration;
+
+import android.graphics.Bitmap;
+import android.graphics.BlurMaskFilter;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.support.annotation.ColorInt;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link RecyclerViewItemDecoration} implementation that may be used to draw card-style <b>shadows</b>
+ * beneath item views displayed in {@link RecyclerView} as a cheap replacement for item views with
+ * elevation, which require a separate shadow to be rendered for each of them.
+ * <p>
+ * The shadow is pre-rendered into a small nine-slice bitmap only once for each combination of
+ * <b>corner radius</b>, <b>elevation</b> and <b>color</b> and the bitmap is shared by all shadow
+ * decorations with the same combination. When drawing, the slices of the bitmap are stretched along
+ * the bounds of each decorated item (including its current translation), so no objects are allocated
+ * per frame. The center slice is never drawn as it is expected to be covered by the item view.
+ * <p>
+ * Shadows are drawn outside of bounds of the item views, so the item views should be separated by
+ * a spacing that is large enough to show the shadows, for example via {@link ItemSpaceDecoration}.
+ *
+ * @author Martin Albedinsky
+ * @since 1.1
+ *
+ * @see RecyclerView#addItemDecoration(RecyclerView.ItemDecoration)
+ */
+public class ItemShadowDecoration extends RecyclerViewItemDecoration {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "ItemShadowDecoration";
+
+	/**
+	 * Default color of shadows.
+	 */
+	public static final int DEFAULT_SHADOW_COLOR = 0x44000000;
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/**
+	 * Cache with shadow bitmaps shared by all shadow decorations. Bitmaps are kept only as long as
+	 * there is some decoration that uses them.
+	 */
+	private static final Map<ShadowKey, ShadowReference> SHADOWS = new HashMap<>();
+
+	/**
+	 * Queue with references to shadow bitmaps which are no longer used, so their entries may be
+	 * purged from the {@link #SHADOWS} cache.
+	 */
+	private static final ReferenceQueue<Bitmap> SHADOWS_QUEUE = new ReferenceQueue<>();
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Paint used to draw slices of the shadow bitmap.
+	 */
+	private final Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+	/**
+	 * Radius of the rounded corners of the decorated item views.
+	 */
+	private float cornerRadius;
+
+	/**
+	 * Elevation of the decorated item views determining size of the shadows.
+	 */
+	private float elevation;
+
+	/**
+	 * Color of the shadows.
+	 */
+	private int shadowColor;
+
+	/**
+	 * Bitmap with pre-rendered shadow for the current corner radius, elevation and color. Resolved
+	 * lazily when first needed.
+	 */
+	private Bitmap shadowBitmap;
+
+	/**
+	 * Size of a single corner slice of the {@link #shadowBitmap}.
+	 */
+	private int sliceSize;
+
+	/**
+	 * Size by which the shadow overflows bounds of an item view.
+	 */
+	private int shadowSize;
+
+	/**
+	 * Source rectangle of the currently drawn slice. Reused across draw passes.
+	 */
+	private final Rect sliceSource = new Rect();
+
+	/**
+	 * Destination rectangle of the currently drawn slice. Reused across draw passes.
+	 */
+	private final RectF sliceDestination = new RectF();
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Same as {@link #ItemShadowDecoration(float, float, int)} with {@code 0} corner radius and
+	 * elevation and {@link #DEFAULT_SHADOW_COLOR}.
+	 */
+	public ItemShadowDecoration() {
+		this(0, 0, DEFAULT_SHADOW_COLOR);
+	}
+
+	/**
+	 * Creates a new instance of ItemShadowDecoration with the specified <var>cornerRadius</var>,
+	 * <var>elevation</var> and shadow <var>color</var>.
+	 *
+	 * @param cornerRadius Radius of the rounded corners of the decorated item views.
+	 * @param elevation    Elevation of the decorated item views.
+	 * @param color        Color of the shadows.
+	 */
+	public ItemShadowDecoration(final float cornerRadius, final float elevation, @ColorInt final int color) {
+		super();
+		this.cornerRadius = Math.max(0, cornerRadius);
+		this.elevation = Math.max(0, elevation);
+		this.shadowColor = color;
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Returns a bitmap with pre-rendered shadow for the specified parameters. The bitmap is rendered
+	 * only if there is no bitmap for the same parameters already cached.
+	 *
+	 * @param cornerRadius Radius of the rounded corners of the shadow.
+	 * @param elevation    Elevation for which to render the shadow. Must be greater than {@code 0}.
+	 * @param color        Color of the shadow.
+	 * @return Shared shadow bitmap.
+	 */
+	@NonNull static Bitmap obtainShadowBitmap(final float cornerRadius, final float elevation, final int color) {
+		final ShadowKey key = new ShadowKey(cornerRadius, elevation, color);
+		synchronized (SHADOWS) {
+			purgeShadows();
+			final ShadowReference reference = SHADOWS.get(key);
+			Bitmap bitmap = reference == null ? null : reference.get();
+			if (bitmap == null || bitmap.isRecycled()) {
+				bitmap = renderShadowBitmap(cornerRadius, elevation, color);
+				SHADOWS.put(key, new ShadowReference(key, bitmap, SHADOWS_QUEUE));
+			}
+			return bitmap;
+		}
+	}
+
+	/**
+	 * Removes entries of shadow bitmaps which are no longer used from the {@link #SHADOWS} cache.
+	 */
+	private static void purgeShadows() {
+		Reference<? extends Bitmap> reference;
+		while ((reference = SHADOWS_QUEUE.poll()) != null) {
+			final ShadowKey key = ((ShadowReference) reference).key;
+			// Entry for the key may have been already replaced with a new bitmap.
+			if (SHADOWS.get(key) == reference) {
+				SHADOWS.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Renders a new nine-slice bitmap with shadow for the specified parameters. The rendered bitmap
+	 * consists of four corner slices of {@code shadowSize + cornerRadius} size and a single pixel
+	 * wide edge and center slices between them.
+	 *
+	 * @param cornerRadius Radius of the rounded corners of the shadow.
+	 * @param elevation    Elevation for which to render the shadow.
+	 * @param color        Color of the shadow.
+	 * @return New shadow bitmap.
+	 */
+	private static Bitmap renderShadowBitmap(final float cornerRadius, final float elevation, final int color) {
+		final int shadowSize = computeShadowSize(elevation);
+		final int sliceSize = computeSliceSize(cornerRadius, elevation);
+		final int size = sliceSize * 2 + 1;
+		final Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+		final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+		paint.setColor(color);
+		paint.setMaskFilter(new BlurMaskFilter(elevation, BlurMaskFilter.Blur.NORMAL));
+		new Canvas(bitmap).drawRoundRect(
+				new RectF(shadowSize, shadowSize, size - shadowSize, size - shadowSize),
+				cornerRadius,
+				cornerRadius,
+				paint
+		);
+		return bitmap;
+	}
+
+	/**
+	 * Computes size by which the shadow for the specified <var>elevation</var> overflows bounds of
+	 * an item view.
+	 *
+	 * @param elevation The elevation for which to compute the shadow size.
+	 * @return Shadow size in pixels.
+	 */
+	private static int computeShadowSize(final float elevation) {
+		return (int) Math.ceil(elevation);
+	}
+
+	/**
+	 * Computes size of a corner slice of the shadow bitmap for the specified parameters.
+	 *
+	 * @param cornerRadius The corner radius of the shadow.
+	 * @param elevation    The elevation of the shadow.
+	 * @return Slice size in pixels.
+	 */
+	private static int computeSliceSize(final float cornerRadius, final float elevation) {
+		return computeShadowSize(elevation) * 2 + (int) Math.ceil(cornerRadius);
+	}
+
+	/**
+	 * Sets a radius of the rounded corners of the decorated item views.
+	 * <p>
+	 * Default value: {@code 0}
+	 *
+	 * @param radius The desired radius in pixels.
+	 *
+	 * @see #getCornerRadius()
+	 */
+	public void setCornerRadius(final float radius) {
+		final float cornerRadius = Math.max(0, radius);
+		if (this.cornerRadius != cornerRadius) {
+			this.cornerRadius = cornerRadius;
+			this.invalidateShadow();
+		}
+	}
+
+	/**
+	 * Returns the radius of the rounded corners of the decorated item views.
+	 *
+	 * @return Corner radius in pixels.
+	 *
+	 * @see #setCornerRadius(float)
+	 */
+	public float getCornerRadius() {
+		return cornerRadius;
+	}
+
+	/**
+	 * Sets an elevation of the decorated item views which determines size of the drawn shadows.
+	 * <p>
+	 * Default value: {@code 0}
+	 *
+	 * @param elevation The desired elevation in pixels. If {@code 0}, no shadows are drawn.
+	 *
+	 * @see #getElevation()
+	 */
+	public void setElevation(final float elevation) {
+		final float shadowElevation = Math.max(0, elevation);
+		if (this.elevation != shadowElevation) {
+			this.elevation = shadowElevation;
+			this.invalidateShadow();
+		}
+	}
+
+	/**
+	 * Returns the elevation of the decorated item views.
+	 *
+	 * @return Elevation in pixels.
+	 *
+	 * @see #setElevation(float)
+	 */
+	public float getElevation() {
+		return elevation;
+	}
+
+	/**
+	 * Sets a color of the shadows drawn by this decoration.
+	 * <p>
+	 * Default value: {@link #DEFAULT_SHADOW_COLOR}
+	 *
+	 * @param color The desired color.
+	 *
+	 * @see #getShadowColor()
+	 */
+	public void setShadowColor(@ColorInt final int color) {
+		if (shadowColor != color) {
+			this.shadowColor = color;
+			this.invalidateShadow();
+		}
+	}
+
+	/**
+	 * Returns the color of the shadows drawn by this decoration.
+	 *
+	 * @return Shadow color.
+	 *
+	 * @see #setShadowColor(int)
+	 */
+	@ColorInt public int getShadowColor() {
+		return shadowColor;
+	}
+
+	/**
+	 * Invalidates the current shadow bitmap, so it is resolved again for the current parameters
+	 * during the next draw pass.
+	 */
+	private void invalidateShadow() {
+		this.shadowBitmap = null;
+		this.scheduleInvalidation(false);
+	}
+
+	/**
+	 * Returns the shadow bitmap for the current parameters of this decoration.
+	 *
+	 * @return Shadow bitmap or {@code null} if no shadow is drawn by this decoration.
+	 */
+	@Nullable Bitmap getShadowBitmap() {
+		if (elevation <= 0 || Color.alpha(shadowColor) == 0) {
+			return null;
+		}
+		if (shadowBitmap == null || shadowBitmap.isRecycled()) {
+			this.shadowBitmap = obtainShadowBitmap(cornerRadius, elevation, shadowColor);
+			this.shadowSize = computeShadowSize(elevation);
+			this.sliceSize = computeSliceSize(cornerRadius, elevation);
+		}
+		return shadowBitmap;
+	}
+
+	/**
+	 */
+	@Override public void onDraw(@NonNull final Canvas canvas, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
+		if (!shouldDecorate(parent, state)) {
+			return;
+		}
+		final Bitmap bitmap = getShadowBitmap();
+		if (bitmap == null) {
+			return;
+		}
+		final DecorationLayoutContext context = obtainLayoutContext(parent, state);
+		canvas.save();
+		if (context.getClipToPadding()) {
+			final Rect clipBounds = context.getClipBounds();
+			canvas.clipRect(clipBounds.left, clipBounds.top, clipBounds.right, clipBounds.bottom);
+		}
+		final int childCount = parent.getChildCount();
+		for (int i = 0; i < childCount; i++) {
+			this.drawItemShadow(canvas, bitmap, parent.getChildAt(i), parent, state);
+		}
+		canvas.restore();
+	}
+
+	/**
+	 */
+	@Override protected boolean onPrepareItemsDraw(@NonNull final RecyclerView parent, @NonNull final RecyclerView.State state, @NonNull final DecorationLayoutContext context) {
+		return shouldDecorate(parent, state) && getShadowBitmap() != null;
+	}
+
+	/**
+	 */
+	@Override protected void onDrawItem(@NonNull final Canvas canvas, @NonNull final View child, final int childIndex, final int childCount, @NonNull final Rect decoratedBounds, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state, @NonNull final DecorationLayoutContext context) {
+		this.drawItemShadow(canvas, shadowBitmap, child, parent, state);
+	}
+
+	/**
+	 * Draws shadow for the specified <var>child</var> view unless it should be skipped by this
+	 * decoration.
+	 *
+	 * @param canvas The canvas on which to draw.
+	 * @param bitmap The shadow bitmap to draw.
+	 * @param child  The item view for which to draw its shadow.
+	 * @param parent The RecyclerView into which is this decoration added.
+	 * @param state  Current state of the parent RecyclerView.
+	 */
+	private void drawItemShadow(final Canvas canvas, final Bitmap bitmap, final View child, final RecyclerView parent, final RecyclerView.State state) {
+		if (isItemSkipped(child, parent, state) || !precondition.check(child, parent, state)) {
+			return;
+		}
+		// Shadow is offset downwards to simulate a light source above the items.
+		final float offsetY = elevation / 2;
+		this.paint.setAlpha(Math.round(child.getAlpha() * 255));
+		this.drawShadow(
+				canvas,
+				bitmap,
+				child.getLeft() + child.getTranslationX() - shadowSize,
+				child.getTop() + child.getTranslationY() - shadowSize + offsetY,
+				child.getRight() + child.getTranslationX() + shadowSize,
+				child.getBottom() + child.getTranslationY() + shadowSize + offsetY
+		);
+	}
+
+	/**
+	 * Draws the edge and corner slices of the given shadow <var>bitmap</var> stretched along the
+	 * specified bounds.
+	 *
+	 * @param canvas The canvas on which to draw.
+	 * @param bitmap The shadow bitmap to draw.
+	 * @param left   Left bound of the shadow.
+	 * @param top    Top bound of the shadow.
+	 * @param right  Right bound of the shadow.
+	 * @param bottom Bottom bound of the shadow.
+	 */
+	private void drawShadow(final Canvas canvas, final Bitmap bitmap, final float left, final float top, final float right, final float bottom) {
+		final int slice = sliceSize;
+		final int size = slice * 2 + 1;
+		final float innerLeft = Math.min(left + slice, (left + right) / 2);
+		final float innerTop = Math.min(top + slice, (top + bottom) / 2);
+		final float innerRight = Math.max(right - slice, innerLeft);
+		final float innerBottom = Math.max(bottom - slice, innerTop);
+		// Top row.
+		this.drawSlice(canvas, bitmap, 0, 0, slice, slice, left, top, innerLeft, innerTop);
+		this.drawSlice(canvas, bitmap, slice, 0, slice + 1, slice, innerLeft, top, innerRight, innerTop);
+		this.drawSlice(canvas, bitmap, slice + 1, 0, size, slice, innerRight, top, right, innerTop);
+		// Middle row without the center slice.
+		this.drawSlice(canvas, bitmap, 0, slice, slice, slice + 1, left, innerTop, innerLeft, innerBottom);
+		this.drawSlice(canvas, bitmap, slice + 1, slice, size, slice + 1, innerRight, innerTop, right, innerBottom);
+		// Bottom row.
+		this.drawSlice(canvas, bitmap, 0, slice + 1, slice, size, left, innerBottom, innerLeft, bottom);
+		this.drawSlice(canvas, bitmap, slice, slice + 1, slice + 1, size, innerLeft, innerBottom, innerRight, bottom);
+		this.drawSlice(canvas, bitmap, slice + 1, slice + 1, size, size, innerRight, innerBottom, right, bottom);
+	}
+
+	/**
+	 * Draws the specified source slice of the given <var>bitmap</var> into the specified destination
+	 * bounds. Empty destination bounds are ignored.
+	 */
+	private void drawSlice(final Canvas canvas, final Bitmap bitmap, final int srcLeft, final int srcTop, final int srcRight, final int srcBottom, final float dstLeft, final float dstTop, final float dstRight, final float dstBottom) {
+		if (dstRight <= dstLeft || dstBottom <= dstTop) {
+			return;
+		}
+		this.sliceSource.set(srcLeft, srcTop, srcRight, srcBottom);
+		this.sliceDestination.set(dstLeft, dstTop, dstRight, dstBottom);
+		canvas.drawBitmap(bitmap, sliceSource, sliceDestination, paint);
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+
+	/**
+	 * Weak reference to a shadow bitmap which also holds the key under which is the bitmap cached.
+	 */
+	private static final class ShadowReference extends WeakReference<Bitmap> {
+
+		/**
+		 * Key under which is the referenced bitmap cached.
+		 */
+		final ShadowKey key;
+
+		/**
+		 * Creates a new instance of ShadowReference for the specified <var>bitmap</var>.
+		 *
+		 * @param key    Key under which is the bitmap cached.
+		 * @param bitmap The shadow bitmap to be referenced.
+		 * @param queue  Queue into which to enqueue the reference once the bitmap is no longer used.
+		 */
+		ShadowReference(final ShadowKey key, final Bitmap bitmap, final ReferenceQueue<Bitmap> queue) {
+			super(bitmap, queue);
+			this.key = key;
+		}
+	}
+
+	/**
+	 * Key identifying a shadow bitmap within the shared cache.
+	 */
+	private static final class ShadowKey {
+
+		/**
+		 * Corner radius of the shadow.
+		 */
+		final float cornerRadius;
+
+		/**
+		 * Elevation of the shadow.
+		 */
+		final float elevation;
+
+		/**
+		 * Color of the shadow.
+		 */
+		final int color;
+
+		/**
+		 * Creates a new instance of ShadowKey with the specified shadow parameters.
+		 *
+		 * @param cornerRadius Corner radius of the shadow.
+		 * @param elevation    Elevation of the shadow.
+		 * @param color        Color of the shadow.
+		 */
+		ShadowKey(final float cornerRadius, final float elevation, final int color) {
+			this.cornerRadius = cornerRadius;
+			this.elevation = elevation;
+			this.color = color;
+		}
+
+		/**
+		 */
+		@Override public int hashCode() {
+			int hash = Float.floatToIntBits(cornerRadius);
+			hash = 31 * hash + Float.floatToIntBits(elevation);
+			hash = 31 * hash + color;
+			return hash;
+		}
+
+		/**
+		 */
+		@Override public boolean equals(@Nullable final Object other) {
+			if (other == this) return true;
+			if (!(other instanceof ShadowKey)) return false;
+			final ShadowKey key = (ShadowKey) other;
+			return cornerRadius == key.cornerRadius && elevation == key.elevation && color == key.color;
+		}
+	}
+}
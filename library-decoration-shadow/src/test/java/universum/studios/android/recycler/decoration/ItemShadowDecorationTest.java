@@ -0,0 +1,254 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.decoration;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+
+import universum.studios.android.test.local.RobolectricTestCase;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsNull.notNullValue;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.internal.util.MockUtil.resetMock;
+
+/**
+ * @author Martin Albedinsky
+ */
+public final class ItemShadowDecorationTest extends RobolectricTestCase {
+
+	private static final int MOCK_ITEMS_COUNT = 10;
+	private static final int SLICES_PER_ITEM = 8;
+
+	private final Canvas mockCanvas;
+	private final RecyclerView mockRecyclerView;
+	private final RecyclerView.State mockRecyclerViewState;
+	private View[] itemViews;
+
+	public ItemShadowDecorationTest() {
+		this.mockCanvas = mock(Canvas.class);
+		this.mockRecyclerView = mock(RecyclerView.class);
+		this.mockRecyclerViewState = mock(RecyclerView.State.class);
+	}
+
+	@Override public void beforeTest() throws Exception {
+		super.beforeTest();
+		resetMock(mockCanvas);
+		resetMock(mockRecyclerView);
+		resetMock(mockRecyclerViewState);
+		when(mockRecyclerView.getLayoutManager()).thenReturn(mock(RecyclerView.LayoutManager.class));
+		when(mockRecyclerViewState.getItemCount()).thenReturn(MOCK_ITEMS_COUNT);
+		this.itemViews = new View[3];
+		when(mockRecyclerView.getChildCount()).thenReturn(itemViews.length);
+		for (int i = 0; i < itemViews.length; i++) {
+			final View itemView = new View(application);
+			itemView.layout(0, i * 120, 200, i * 120 + 100);
+			this.itemViews[i] = itemView;
+			when(mockRecyclerView.getChildAt(i)).thenReturn(itemView);
+			when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(i);
+		}
+	}
+
+	@Test public void testInstantiation() {
+		// Act:
+		final ItemShadowDecoration decoration = new ItemShadowDecoration();
+		// Assert:
+		assertThat(decoration.getCornerRadius(), is(0f));
+		assertThat(decoration.getElevation(), is(0f));
+		assertThat(decoration.getShadowColor(), is(ItemShadowDecoration.DEFAULT_SHADOW_COLOR));
+		assertThat(decoration.getShadowBitmap(), is(nullValue()));
+	}
+
+	@Test public void testInstantiationWithParameters() {
+		// Act:
+		final ItemShadowDecoration decoration = new ItemShadowDecoration(8f, 4f, Color.BLACK);
+		// Assert:
+		assertThat(decoration.getCornerRadius(), is(8f));
+		assertThat(decoration.getElevation(), is(4f));
+		assertThat(decoration.getShadowColor(), is(Color.BLACK));
+		assertThat(decoration.getShadowBitmap(), is(notNullValue()));
+	}
+
+	@Test public void testInstantiationWithNegativeParameters() {
+		// Act:
+		final ItemShadowDecoration decoration = new ItemShadowDecoration(-8f, -4f, Color.BLACK);
+		// Assert:
+		assertThat(decoration.getCornerRadius(), is(0f));
+		assertThat(decoration.getElevation(), is(0f));
+	}
+
+	@Test public void testShadowBitmapIsSharedForSameParameters() {
+		// Arrange:
+		final ItemShadowDecoration firstDecoration = new ItemShadowDecoration(8f, 4f, Color.BLACK);
+		final ItemShadowDecoration secondDecoration = new ItemShadowDecoration(8f, 4f, Color.BLACK);
+		// Act + Assert:
+		assertThat(secondDecoration.getShadowBitmap(), is(sameInstance(firstDecoration.getShadowBitmap())));
+	}
+
+	@Test public void testShadowBitmapIsRenderedForDifferentParameters() {
+		// Arrange:
+		final ItemShadowDecoration decoration = new ItemShadowDecoration(8f, 4f, Color.BLACK);
+		final Bitmap bitmap = decoration.getShadowBitmap();
+		// Act:
+		decoration.setElevation(6f);
+		// Assert:
+		assertThat(decoration.getShadowBitmap(), is(not(sameInstance(bitmap))));
+		assertThat(decoration.getShadowBitmap(), is(sameInstance(ItemShadowDecoration.obtainShadowBitmap(8f, 6f, Color.BLACK))));
+	}
+
+	@Test public void testCornerRadius() {
+		// Arrange:
+		final ItemShadowDecoration decoration = new ItemShadowDecoration();
+		// Act + Assert:
+		decoration.setCornerRadius(12f);
+		assertThat(decoration.getCornerRadius(), is(12f));
+	}
+
+	@Test public void testElevation() {
+		// Arrange:
+		final ItemShadowDecoration decoration = new ItemShadowDecoration();
+		// Act + Assert:
+		decoration.setElevation(2f);
+		assertThat(decoration.getElevation(), is(2f));
+	}
+
+	@Test public void testShadowColor() {
+		// Arrange:
+		final ItemShadowDecoration decoration = new ItemShadowDecoration();
+		// Act + Assert:
+		decoration.setShadowColor(Color.RED);
+		assertThat(decoration.getShadowColor(), is(Color.RED));
+	}
+
+	@Test public void testOnDraw() {
+		// Arrange:
+		final ItemShadowDecoration decoration = new ItemShadowDecoration(4f, 4f, Color.BLACK);
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockCanvas, times(itemViews.length * SLICES_PER_ITEM)).drawBitmap(
+				any(Bitmap.class),
+				any(Rect.class),
+				any(RectF.class),
+				any(Paint.class)
+		);
+	}
+
+	@Test public void testOnDrawInComposite() {
+		// Arrange:
+		final ItemShadowDecoration decoration = new ItemShadowDecoration(4f, 4f, Color.BLACK);
+		final CompositeItemDecoration composite = new CompositeItemDecoration(decoration);
+		// Act:
+		composite.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockCanvas, times(itemViews.length * SLICES_PER_ITEM)).drawBitmap(
+				any(Bitmap.class),
+				any(Rect.class),
+				any(RectF.class),
+				any(Paint.class)
+		);
+		verify(mockCanvas, times(1)).save();
+	}
+
+	@Test public void testOnDrawInCompositeWithoutElevation() {
+		// Arrange:
+		final CompositeItemDecoration composite = new CompositeItemDecoration(new ItemShadowDecoration());
+		// Act:
+		composite.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verifyZeroInteractions(mockCanvas);
+	}
+
+	@Test public void testOnDrawRespectsTranslation() {
+		// Arrange:
+		final ItemShadowDecoration decoration = new ItemShadowDecoration(4f, 4f, Color.BLACK);
+		when(mockRecyclerView.getChildCount()).thenReturn(1);
+		itemViews[0].setTranslationX(50);
+		itemViews[0].setTranslationY(20);
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		final ArgumentCaptor<RectF> destinationCaptor = ArgumentCaptor.forClass(RectF.class);
+		verify(mockCanvas, times(SLICES_PER_ITEM)).drawBitmap(any(Bitmap.class), any(Rect.class), destinationCaptor.capture(), any(Paint.class));
+		// Destination rectangle is reused, so only the last (bottom-right) slice may be checked.
+		final List<RectF> destinations = destinationCaptor.getAllValues();
+		final RectF lastDestination = destinations.get(destinations.size() - 1);
+		assertThat(lastDestination.right, is(200f + 50f + 4f));
+		assertThat(lastDestination.bottom, is(100f + 20f + 4f + 2f));
+	}
+
+	@Test public void testOnDrawWithoutElevation() {
+		// Arrange:
+		final ItemShadowDecoration decoration = new ItemShadowDecoration();
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verifyZeroInteractions(mockCanvas);
+	}
+
+	@Test public void testOnDrawWithUnsatisfiedPrecondition() {
+		// Arrange:
+		final ItemShadowDecoration decoration = new ItemShadowDecoration(4f, 4f, Color.BLACK);
+		decoration.setPrecondition(new RecyclerViewItemDecoration.Precondition() {
+
+			@Override public boolean check(View view, RecyclerView parent, RecyclerView.State state) {
+				return view != itemViews[1];
+			}
+		});
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockCanvas, times((itemViews.length - 1) * SLICES_PER_ITEM)).drawBitmap(
+				any(Bitmap.class),
+				any(Rect.class),
+				any(RectF.class),
+				any(Paint.class)
+		);
+	}
+
+	@Test public void testOnDrawWithoutItems() {
+		// Arrange:
+		final ItemShadowDecoration decoration = new ItemShadowDecoration(4f, 4f, Color.BLACK);
+		when(mockRecyclerViewState.getItemCount()).thenReturn(0);
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verifyZeroInteractions(mockCanvas);
+	}
+}
@@ -19,22 +19,31 @@
 package universum.studios.android.recycler.decoration;
 
 import android.content.Context;
-import android.content.res.TypedArray;
 import android.graphics.Rect;
 import android.support.annotation.AttrRes;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.StyleRes;
-import android.support.v4.view.ViewCompat;
+import android.support.v7.widget.GridLayoutManager;
+import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.StaggeredGridLayoutManager;
 import android.util.AttributeSet;
 import android.view.View;
+import android.view.ViewGroup;
 
+import universum.studios.android.recycler.AdapterPositionCache;
 import universum.studios.android.recycler.R;
 
 /**
  * A {@link RecyclerViewItemDecoration} implementation that may be used to add a <b>space</b>,
  * vertically and horizontally, between items displayed in a {@link RecyclerView}.
+ * <p>
+ * For items laid out in a grid by {@link GridLayoutManager} or {@link StaggeredGridLayoutManager}
+ * the spacing may be distributed evenly across spans via {@link #setEvenSpanSpacingEnabled(boolean)}.
+ * Spacing that differs for specific items may be specified via {@link SpacingProvider}. Additional
+ * space before each section of items may be specified via {@link #setSectionIndex(SectionIndex)}
+ * along with {@link #setSectionSpacing(int)}.
  *
  * <h3>Xml attributes</h3>
  * {@link R.styleable#Recycler_ItemDecoration_Space ItemSpaceDecoration Attributes}
@@ -62,6 +71,36 @@ public class ItemSpaceDecoration extends RecyclerViewItemDecoration {
 	 * Interface ===================================================================================
 	 */
 
+	/**
+	 * Provider which may be used to provide spacing amounts for specific items decorated by
+	 * {@link ItemSpaceDecoration}, like items at section boundaries.
+	 *
+	 * @author Martin Albedinsky
+	 * @since 1.1
+	 *
+	 * @see #setSpacingProvider(SpacingProvider)
+	 */
+	public interface SpacingProvider {
+
+		/**
+		 * Called to provide spacing amounts for an item at the specified <var>position</var>.
+		 * <p>
+		 * The given <var>spacing</var> rect is filled with the spacing amounts specified for the
+		 * decoration and should be updated with the desired amounts for the item, where
+		 * {@link Rect#left} is the amount at the start and {@link Rect#right} the amount at the end
+		 * in horizontal direction with respect to layout direction, and {@link Rect#top} and
+		 * {@link Rect#bottom} are the amounts at the start and end in vertical direction.
+		 * <p>
+		 * Provided spacing is cached by the decoration, so this method should not depend on any
+		 * other state than data of the adapter.
+		 *
+		 * @param spacing  The rect to be updated with the spacing amounts in pixels.
+		 * @param position Adapter position of the item.
+		 * @param viewType Type of the item's view.
+		 */
+		void provideSpacing(@NonNull Rect spacing, int position, int viewType);
+	}
+
 	/*
 	 * Static members ==============================================================================
 	 */
@@ -98,6 +137,64 @@ public class ItemSpaceDecoration extends RecyclerViewItemDecoration {
 	 */
 	private int verticalEnd;
 
+	/**
+	 * Boolean flag indicating whether spacing should be distributed evenly across spans of a grid.
+	 *
+	 * @see #setEvenSpanSpacingEnabled(boolean)
+	 */
+	private boolean evenSpanSpacingEnabled;
+
+	/**
+	 * Table with cumulative spacing offsets for each span boundary. Offsets for a specific span are
+	 * resolved from this table as {@code spacing - spanOffsets[spanIndex]} for its leading edge and
+	 * {@code spanOffsets[spanIndex + spanSize]} for its trailing edge.
+	 *
+	 * @see #obtainSpanOffsets(int, int)
+	 */
+	private int[] spanOffsets;
+
+	/**
+	 * Count of spans for which is the current {@link #spanOffsets} table computed.
+	 */
+	private int spanOffsetsSpanCount;
+
+	/**
+	 * Amount of spacing for which is the current {@link #spanOffsets} table computed.
+	 */
+	private int spanOffsetsSpacing;
+
+	/**
+	 * Provider which provides spacing amounts for specific items.
+	 *
+	 * @see #setSpacingProvider(SpacingProvider)
+	 */
+	private SpacingProvider spacingProvider;
+
+	/**
+	 * Cache with spacing amounts provided by {@link #spacingProvider} by adapter positions. Each
+	 * entry holds horizontal start, vertical start, horizontal end and vertical end amount.
+	 */
+	private AdapterPositionCache spacingCache;
+
+	/**
+	 * Rect used to resolve spacing amounts provided by {@link #spacingProvider}.
+	 */
+	private final Rect spacing = new Rect();
+
+	/**
+	 * Index of sections before which to add {@link #sectionSpacing}.
+	 *
+	 * @see #setSectionIndex(SectionIndex)
+	 */
+	private SectionIndex sectionIndex;
+
+	/**
+	 * Amount of additional space to be added before each section of items.
+	 *
+	 * @see #setSectionSpacing(int)
+	 */
+	private int sectionSpacing;
+
 	/*
 	 * Constructors ================================================================================
 	 */
@@ -169,25 +266,26 @@ public class ItemSpaceDecoration extends RecyclerViewItemDecoration {
 	public ItemSpaceDecoration(@Nullable final Context context, @Nullable final AttributeSet attrs, @AttrRes final int defStyleAttr, @StyleRes final int defStyleRes) {
 		super(context, attrs, defStyleAttr, defStyleRes);
 		if (context != null) {
-			final TypedArray attributes = context.obtainStyledAttributes(attrs, R.styleable.Recycler_ItemDecoration_Space, defStyleAttr, defStyleRes);
-			final int attributeCount = attributes.getIndexCount();
+			final DecorationSpec spec = DecorationSpec.obtain(context, attrs, R.styleable.Recycler_ItemDecoration_Space, defStyleAttr, defStyleRes);
+			final int attributeCount = spec.getIndexCount();
 			for (int i = 0; i < attributeCount; i++) {
-				final int attrIndex = attributes.getIndex(i);
+				final int attrIndex = spec.getIndex(i);
 				if (attrIndex == R.styleable.Recycler_ItemDecoration_Space_recyclerItemSpacingHorizontalStart) {
-					this.horizontalStart = attributes.getDimensionPixelSize(attrIndex, 0);
+					this.horizontalStart = spec.getDimensionPixelSize(attrIndex, 0);
 				} else if (attrIndex == R.styleable.Recycler_ItemDecoration_Space_recyclerItemSpacingHorizontalEnd) {
-					this.horizontalEnd = attributes.getDimensionPixelSize(attrIndex, 0);
+					this.horizontalEnd = spec.getDimensionPixelSize(attrIndex, 0);
 				} else if (attrIndex == R.styleable.Recycler_ItemDecoration_Space_recyclerItemSpacingVerticalStart) {
-					this.verticalStart = attributes.getDimensionPixelSize(attrIndex, 0);
+					this.verticalStart = spec.getDimensionPixelSize(attrIndex, 0);
 				} else if (attrIndex == R.styleable.Recycler_ItemDecoration_Space_recyclerItemSpacingVerticalEnd) {
-					this.verticalEnd = attributes.getDimensionPixelSize(attrIndex, 0);
+					this.verticalEnd = spec.getDimensionPixelSize(attrIndex, 0);
 				} else if (attrIndex == R.styleable.Recycler_ItemDecoration_Space_recyclerItemSpacingSkipFirst) {
-					setSkipFirst(attributes.getBoolean(attrIndex, skipsFirst()));
+					setSkipFirst(spec.getBoolean(attrIndex, skipsFirst()));
 				} else if (attrIndex == R.styleable.Recycler_ItemDecoration_Space_recyclerItemSpacingSkipLast) {
-					setSkipLast(attributes.getBoolean(attrIndex, skipsLast()));
+					setSkipLast(spec.getBoolean(attrIndex, skipsLast()));
+				} else if (attrIndex == R.styleable.Recycler_ItemDecoration_Space_recyclerItemSpacingEvenSpans) {
+					this.evenSpanSpacingEnabled = spec.getBoolean(attrIndex, false);
 				}
 			}
-			attributes.recycle();
 		}
 	}
 
@@ -195,6 +293,23 @@ public class ItemSpaceDecoration extends RecyclerViewItemDecoration {
 	 * Methods =====================================================================================
 	 */
 
+	/**
+	 * Sets the amount of space by which to offset each item at the start in horizontal direction.
+	 * <p>
+	 * This value is used with respect to layout direction of the parent {@link RecyclerView}.
+	 *
+	 * @param amount The desired amount of space in pixels.
+	 *
+	 * @see R.attr#recyclerItemSpacingHorizontalStart recycler:recyclerItemSpacingHorizontalStart
+	 * @see #getHorizontalStart()
+	 */
+	public void setHorizontalStart(final int amount) {
+		if (horizontalStart != amount) {
+			this.horizontalStart = amount;
+			this.scheduleInvalidation(true);
+		}
+	}
+
 	/**
 	 * Returns the amount of space by which to offset each item at the start in horizontal direction.
 	 * <p>
@@ -203,11 +318,29 @@ public class ItemSpaceDecoration extends RecyclerViewItemDecoration {
 	 * @return Amount of space in pixels.
 	 *
 	 * @see #getHorizontalEnd()
+	 * @see #setHorizontalStart(int)
 	 */
 	public int getHorizontalStart() {
 		return horizontalStart;
 	}
 
+	/**
+	 * Sets the amount of space by which to offset each item at the end in horizontal direction.
+	 * <p>
+	 * This value is used with respect to layout direction of the parent {@link RecyclerView}.
+	 *
+	 * @param amount The desired amount of space in pixels.
+	 *
+	 * @see R.attr#recyclerItemSpacingHorizontalEnd recycler:recyclerItemSpacingHorizontalEnd
+	 * @see #getHorizontalEnd()
+	 */
+	public void setHorizontalEnd(final int amount) {
+		if (horizontalEnd != amount) {
+			this.horizontalEnd = amount;
+			this.scheduleInvalidation(true);
+		}
+	}
+
 	/**
 	 * Returns the amount of space by which to offset each item at the end in horizontal direction.
 	 * <p>
@@ -216,54 +349,356 @@ public class ItemSpaceDecoration extends RecyclerViewItemDecoration {
 	 * @return Amount of space in pixels.
 	 *
 	 * @see #getHorizontalStart()
+	 * @see #setHorizontalEnd(int)
 	 */
 	public int getHorizontalEnd() {
 		return horizontalEnd;
 	}
 
+	/**
+	 * Sets the amount of space by which to offset each item at the start in vertical direction.
+	 *
+	 * @param amount The desired amount of space in pixels.
+	 *
+	 * @see R.attr#recyclerItemSpacingVerticalStart recycler:recyclerItemSpacingVerticalStart
+	 * @see #getVerticalStart()
+	 */
+	public void setVerticalStart(final int amount) {
+		if (verticalStart != amount) {
+			this.verticalStart = amount;
+			this.scheduleInvalidation(true);
+		}
+	}
+
 	/**
 	 * Returns the amount of space by which to offset each item at the start in vertical direction.
 	 *
 	 * @return Amount of space in pixels.
 	 *
 	 * @see #getVerticalEnd()
+	 * @see #setVerticalStart(int)
 	 */
 	public int getVerticalStart() {
 		return verticalStart;
 	}
 
+	/**
+	 * Sets the amount of space by which to offset each item at the end in vertical direction.
+	 *
+	 * @param amount The desired amount of space in pixels.
+	 *
+	 * @see R.attr#recyclerItemSpacingVerticalEnd recycler:recyclerItemSpacingVerticalEnd
+	 * @see #getVerticalEnd()
+	 */
+	public void setVerticalEnd(final int amount) {
+		if (verticalEnd != amount) {
+			this.verticalEnd = amount;
+			this.scheduleInvalidation(true);
+		}
+	}
+
 	/**
 	 * Returns the amount of space by which to offset each item at the end in vertical direction.
 	 *
 	 * @return Amount of space in pixels.
 	 *
 	 * @see #getVerticalStart()
+	 * @see #setVerticalEnd(int)
 	 */
 	public int getVerticalEnd() {
 		return verticalEnd;
 	}
 
 	/**
+	 * Sets a boolean flag indicating whether this decoration should distribute spacing evenly across
+	 * spans of a grid created by {@link GridLayoutManager} or {@link StaggeredGridLayoutManager}.
+	 * <p>
+	 * When enabled, the space between two adjacent spans as well as the space before the first and
+	 * after the last span is equal to sum of the start and end spacing amounts for the span direction
+	 * of the grid, that is {@code horizontalStart + horizontalEnd} for vertical grids and
+	 * {@code verticalStart + verticalEnd} for horizontal grids, while all spans are shrunk by the same
+	 * amount. Spacing in the other direction remains the same as without this mode. Offsets for spans
+	 * are computed only once for each span count and spacing configuration, so resolving offsets
+	 * for an item requires only a span index lookup.
+	 * <p>
+	 * For other layout managers this decoration offsets items in the same way as if this mode was
+	 * disabled.
+	 * <p>
+	 * Default value: {@code false}
+	 *
+	 * @param enabled {@code True} to distribute spacing evenly across spans, {@code false} otherwise.
+	 *
+	 * @see R.attr#recyclerItemSpacingEvenSpans recycler:recyclerItemSpacingEvenSpans
+	 * @see #isEvenSpanSpacingEnabled()
 	 */
-	@Override public void getItemOffsets(@NonNull final Rect rect, @NonNull final View view, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
-		if (skipFirst || skipLast) {
-			final int position = parent.getChildAdapterPosition(view);
-			if (position == RecyclerView.NO_POSITION) {
-				rect.setEmpty();
-				return;
+	public void setEvenSpanSpacingEnabled(final boolean enabled) {
+		if (evenSpanSpacingEnabled != enabled) {
+			this.evenSpanSpacingEnabled = enabled;
+			this.scheduleInvalidation(true);
+		}
+	}
+
+	/**
+	 * Returns a boolean flag indicating whether this decoration distributes spacing evenly across
+	 * spans of a grid.
+	 *
+	 * @return {@code True} if even span spacing is enabled, {@code false} otherwise.
+	 *
+	 * @see #setEvenSpanSpacingEnabled(boolean)
+	 */
+	public boolean isEvenSpanSpacingEnabled() {
+		return evenSpanSpacingEnabled;
+	}
+
+	/**
+	 * Sets a provider which should provide spacing amounts for specific items.
+	 * <p>
+	 * Spacing provided for an item is cached by its adapter position and is invalidated whenever
+	 * the item is changed in the adapter attached to the parent RecyclerView. Entries for inserted,
+	 * removed and moved items are shifted accordingly, so the provider is asked again only for the
+	 * affected items. If the provided spacing depends on other data, the cached spacing should be
+	 * invalidated via {@link #invalidateSpacing()} or {@link #invalidateSpacing(int, int)}.
+	 * <p>
+	 * When a provider is specified, spacing is not distributed across spans even if
+	 * {@link #setEvenSpanSpacingEnabled(boolean)} has been enabled.
+	 *
+	 * @param provider The desired provider. May be {@code null} to use the spacing amounts specified
+	 *                 for this decoration for all items.
+	 *
+	 * @see #getSpacingProvider()
+	 */
+	public void setSpacingProvider(@Nullable final SpacingProvider provider) {
+		this.spacingProvider = provider;
+		if (provider == null) {
+			if (spacingCache != null) {
+				// Stop observing of the adapter so the dropped cache is not referenced by it.
+				this.spacingCache.attachAdapter(null);
+				this.spacingCache = null;
 			}
-			if ((skipFirst && position == 0) || (skipLast && position == state.getItemCount() - 1)) {
-				rect.setEmpty();
-				return;
+		} else if (spacingCache == null) {
+			this.spacingCache = new AdapterPositionCache(4);
+		} else {
+			spacingCache.clear();
+		}
+		this.scheduleInvalidation(true);
+	}
+
+	/**
+	 * Detaches also the cache of provided spacing from the adapter of the previously bound parent
+	 * (if any) and releases the section index used by this decoration (if any) when this decoration
+	 * is unbound from its current parent.
+	 */
+	@Override void bindParent(@Nullable final RecyclerView parent) {
+		final RecyclerView currentParent = getAttachedParent();
+		if (currentParent != parent) {
+			if (spacingCache != null) {
+				spacingCache.attachAdapter(null);
+			}
+			if (sectionIndex != null) {
+				if (currentParent != null) {
+					sectionIndex.release();
+				}
+				if (parent != null) {
+					sectionIndex.acquire();
+				}
+			}
+		}
+		super.bindParent(parent);
+	}
+
+	/**
+	 * Returns the provider which provides spacing amounts for specific items.
+	 *
+	 * @return This decoration's spacing provider or {@code null} if there is no provider specified.
+	 *
+	 * @see #setSpacingProvider(SpacingProvider)
+	 */
+	@Nullable public SpacingProvider getSpacingProvider() {
+		return spacingProvider;
+	}
+
+	/**
+	 * Invalidates spacing cached for the specified range of adapter positions, so the spacing
+	 * provider will be asked again for spacing of items from that range.
+	 *
+	 * @param positionStart Adapter position of the first item of which spacing to invalidate.
+	 * @param itemCount     Count of items of which spacing to invalidate.
+	 *
+	 * @see #invalidateSpacing()
+	 * @see #setSpacingProvider(SpacingProvider)
+	 */
+	public void invalidateSpacing(final int positionStart, final int itemCount) {
+		if (spacingCache != null) {
+			spacingCache.invalidate(positionStart, itemCount);
+			this.scheduleInvalidation(true);
+		}
+	}
+
+	/**
+	 * Invalidates all spacing cached for items.
+	 *
+	 * @see #invalidateSpacing(int, int)
+	 * @see #setSpacingProvider(SpacingProvider)
+	 */
+	public void invalidateSpacing() {
+		if (spacingCache != null) {
+			spacingCache.clear();
+			this.scheduleInvalidation(true);
+		}
+	}
+
+	/**
+	 * Sets an index of sections before which should be added the section spacing. The spacing is
+	 * added at the start of items within the first line of each section, except the first one, in
+	 * direction of the layout orientation.
+	 * <p>
+	 * The index is attached to the adapter of the parent RecyclerView, so its sections are kept in
+	 * sync with data set changes of the adapter.
+	 * <p>
+	 * Default value: {@code null}
+	 *
+	 * @param index The desired section index. May be {@code null} to add no section spacing.
+	 *
+	 * @see #setSectionSpacing(int)
+	 * @see #getSectionIndex()
+	 */
+	public void setSectionIndex(@Nullable final SectionIndex index) {
+		if (sectionIndex != index) {
+			if (getAttachedParent() != null) {
+				if (sectionIndex != null) {
+					sectionIndex.release();
+				}
+				if (index != null) {
+					index.acquire();
+				}
 			}
+			this.sectionIndex = index;
+			this.scheduleInvalidation(true);
+		}
+	}
+
+	/**
+	 * Returns the index of sections before which is the section spacing added.
+	 *
+	 * @return This decoration's section index or {@code null} if there is no index specified.
+	 *
+	 * @see #setSectionIndex(SectionIndex)
+	 */
+	@Nullable public SectionIndex getSectionIndex() {
+		return sectionIndex;
+	}
+
+	/**
+	 * Sets the amount of additional space to be added before each section of items.
+	 * <p>
+	 * Default value: {@code 0}
+	 *
+	 * @param amount The desired amount of space in pixels.
+	 *
+	 * @see #setSectionIndex(SectionIndex)
+	 * @see #getSectionSpacing()
+	 */
+	public void setSectionSpacing(final int amount) {
+		if (sectionSpacing != amount) {
+			this.sectionSpacing = amount;
+			this.scheduleInvalidation(true);
+		}
+	}
+
+	/**
+	 * Returns the amount of additional space added before each section of items.
+	 *
+	 * @return Amount of space in pixels.
+	 *
+	 * @see #setSectionSpacing(int)
+	 */
+	public int getSectionSpacing() {
+		return sectionSpacing;
+	}
+
+	/**
+	 */
+	@Override public void getItemOffsets(@NonNull final Rect rect, @NonNull final View view, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
+		if (isItemSkipped(view, parent, state)) {
+			rect.setEmpty();
+			return;
 		}
 		if (precondition.check(view, parent, state)) {
-			this.updateItemOffsets(rect, ViewCompat.getLayoutDirection(parent) == ViewCompat.LAYOUT_DIRECTION_RTL);
+			if (spacingProvider != null) {
+				this.updateProvidedItemOffsets(rect, view, parent, state);
+			} else if (!evenSpanSpacingEnabled || !updateSpanItemOffsets(rect, view, parent, state)) {
+				this.updateItemOffsets(rect, obtainLayoutContext(parent, state).isLayoutRtl());
+			}
+			if (sectionIndex != null && sectionSpacing != 0) {
+				this.applySectionSpacing(rect, view, parent, state);
+			}
 		} else {
 			rect.setEmpty();
 		}
 	}
 
+	/**
+	 * Adds the section spacing into the given <var>rect</var> if the specified item <var>view</var>
+	 * is within the first line of a section other than the first one.
+	 *
+	 * @param rect   The item offsets rect to be updated.
+	 * @param view   The item view for which to update the offsets.
+	 * @param parent RecyclerView into which is this decoration added.
+	 * @param state  Current state of the parent RecyclerView.
+	 */
+	private void applySectionSpacing(final Rect rect, final View view, final RecyclerView parent, final RecyclerView.State state) {
+		final int position = obtainCache(parent).resolveItem(view, state).getPosition();
+		if (position == RecyclerView.NO_POSITION) {
+			return;
+		}
+		sectionIndex.attachAdapter(parent.getAdapter());
+		final int section = sectionIndex.getSectionForPosition(position);
+		if (section <= 0) {
+			return;
+		}
+		final DecorationLayoutContext context = obtainLayoutContext(parent, state);
+		if (!isInFirstSectionLine(position, sectionIndex.getSectionStart(section), context)) {
+			return;
+		}
+		if (context.getOrientation() == LinearLayoutManager.HORIZONTAL) {
+			if (context.isLayoutRtl()) {
+				rect.right += sectionSpacing;
+			} else {
+				rect.left += sectionSpacing;
+			}
+		} else {
+			rect.top += sectionSpacing;
+		}
+	}
+
+	/**
+	 * Checks whether an item at the specified <var>position</var> is within the first line of its
+	 * section. For layouts other than {@link GridLayoutManager} only the first item of the section
+	 * is considered to be within its first line.
+	 *
+	 * @param position     Adapter position of the item.
+	 * @param sectionStart Adapter position at which starts section of the item.
+	 * @param context      Layout context of the parent RecyclerView.
+	 * @return {@code True} if the item is within the first line, {@code false} otherwise.
+	 */
+	private static boolean isInFirstSectionLine(final int position, final int sectionStart, final DecorationLayoutContext context) {
+		if (position == sectionStart) {
+			return true;
+		}
+		if (context.getLayoutManagerType() != DecorationLayoutContext.LAYOUT_MANAGER_GRID) {
+			return false;
+		}
+		final GridLayoutManager.SpanSizeLookup spanSizeLookup = ((GridLayoutManager) context.getLayoutManager()).getSpanSizeLookup();
+		final int spanCount = context.getSpanCount();
+		// Each item occupies at least one span, so at most span count items are iterated here.
+		int spans = 0;
+		for (int i = sectionStart; i <= position; i++) {
+			spans += spanSizeLookup.getSpanSize(i);
+			if (spans > spanCount) return false;
+		}
+		return true;
+	}
+
 	/**
 	 * Called to update the given <var>rect</var> with the current spacing offsets specified for this
 	 * decoration.
@@ -276,6 +711,149 @@ public class ItemSpaceDecoration extends RecyclerViewItemDecoration {
 		rect.set(rtlDirection ? horizontalEnd : horizontalStart, verticalStart, rtlDirection ? horizontalStart : horizontalEnd, verticalEnd);
 	}
 
+	/**
+	 * Updates the given <var>rect</var> with spacing offsets provided by the current spacing provider
+	 * for the specified item <var>view</var>. Spacing is taken from the cache if there is one cached
+	 * for the item's adapter position.
+	 *
+	 * @param rect   The desired item offsets rect to be updated.
+	 * @param view   The item view for which to update the offsets.
+	 * @param parent RecyclerView into which is this decoration added.
+	 * @param state  Current state of the parent RecyclerView.
+	 */
+	private void updateProvidedItemOffsets(final Rect rect, final View view, final RecyclerView parent, final RecyclerView.State state) {
+		final boolean rtlDirection = obtainLayoutContext(parent, state).isLayoutRtl();
+		final int position = obtainCache(parent).resolveItem(view, state).getPosition();
+		if (position == RecyclerView.NO_POSITION) {
+			this.updateItemOffsets(rect, rtlDirection);
+			return;
+		}
+		final RecyclerView.Adapter adapter = parent.getAdapter();
+		if (adapter == null || state.isPreLayout()) {
+			this.resolveProvidedSpacing(view, position, parent);
+		} else {
+			spacingCache.attachAdapter(adapter);
+			if (spacingCache.contains(position)) {
+				spacing.set(
+						spacingCache.get(position, 0),
+						spacingCache.get(position, 1),
+						spacingCache.get(position, 2),
+						spacingCache.get(position, 3)
+				);
+			} else {
+				this.resolveProvidedSpacing(view, position, parent);
+				spacingCache.put(position, 0, spacing.left);
+				spacingCache.put(position, 1, spacing.top);
+				spacingCache.put(position, 2, spacing.right);
+				spacingCache.put(position, 3, spacing.bottom);
+			}
+		}
+		rect.set(rtlDirection ? spacing.right : spacing.left, spacing.top, rtlDirection ? spacing.left : spacing.right, spacing.bottom);
+	}
+
+	/**
+	 * Resolves spacing for the specified item <var>view</var> into {@link #spacing} via the current
+	 * spacing provider.
+	 */
+	private void resolveProvidedSpacing(final View view, final int position, final RecyclerView parent) {
+		final RecyclerView.ViewHolder holder = parent.getChildViewHolder(view);
+		spacing.set(horizontalStart, verticalStart, horizontalEnd, verticalEnd);
+		spacingProvider.provideSpacing(spacing, position, holder == null ? RecyclerView.INVALID_TYPE : holder.getItemViewType());
+	}
+
+	/**
+	 * Updates the given <var>rect</var> with spacing offsets distributed evenly across spans of a grid
+	 * for the specified item <var>view</var>.
+	 *
+	 * @param rect   The desired item offsets rect to be updated.
+	 * @param view   The item view for which to update the offsets.
+	 * @param parent RecyclerView into which is this decoration added.
+	 * @param state  Current state of the parent RecyclerView.
+	 * @return {@code True} if the offsets have been updated, {@code false} if the parent does not
+	 * lay out its items in a grid or span of the item could not be resolved.
+	 */
+	private boolean updateSpanItemOffsets(final Rect rect, final View view, final RecyclerView parent, final RecyclerView.State state) {
+		final DecorationLayoutContext context = obtainLayoutContext(parent, state);
+		final int spanCount = context.getSpanCount();
+		final int spanIndex;
+		final int spanSize;
+		if (context.getLayoutManagerType() == DecorationLayoutContext.LAYOUT_MANAGER_GRID) {
+			final ViewGroup.LayoutParams layoutParams = view.getLayoutParams();
+			if (layoutParams instanceof GridLayoutManager.LayoutParams && ((GridLayoutManager.LayoutParams) layoutParams).getSpanIndex() != GridLayoutManager.LayoutParams.INVALID_SPAN_ID) {
+				// Grid layout manager assigns span of the item view before its offsets are requested,
+				// so there is no need to iterate over preceding items via span size lookup.
+				final GridLayoutManager.LayoutParams gridParams = (GridLayoutManager.LayoutParams) layoutParams;
+				spanIndex = gridParams.getSpanIndex();
+				spanSize = gridParams.getSpanSize();
+			} else {
+				final int position = obtainCache(parent).resolveItem(view, state).getPosition();
+				if (position == RecyclerView.NO_POSITION) {
+					return false;
+				}
+				final GridLayoutManager.SpanSizeLookup spanSizeLookup = ((GridLayoutManager) context.getLayoutManager()).getSpanSizeLookup();
+				spanIndex = spanSizeLookup.getSpanIndex(position, spanCount);
+				spanSize = spanSizeLookup.getSpanSize(position);
+			}
+		} else if (context.getLayoutManagerType() == DecorationLayoutContext.LAYOUT_MANAGER_STAGGERED_GRID) {
+			final ViewGroup.LayoutParams layoutParams = view.getLayoutParams();
+			if (!(layoutParams instanceof StaggeredGridLayoutManager.LayoutParams)) {
+				return false;
+			}
+			final StaggeredGridLayoutManager.LayoutParams staggeredParams = (StaggeredGridLayoutManager.LayoutParams) layoutParams;
+			spanIndex = staggeredParams.isFullSpan() ? 0 : staggeredParams.getSpanIndex();
+			spanSize = staggeredParams.isFullSpan() ? spanCount : 1;
+		} else {
+			return false;
+		}
+		if (spanCount <= 0 || spanIndex < 0 || spanIndex >= spanCount) {
+			return false;
+		}
+		final int spanEnd = Math.min(spanIndex + spanSize, spanCount);
+		final boolean rtlDirection = context.isLayoutRtl();
+		if (context.getOrientation() == LinearLayoutManager.HORIZONTAL) {
+			final int spacing = verticalStart + verticalEnd;
+			final int[] offsets = obtainSpanOffsets(spanCount, spacing);
+			rect.set(
+					rtlDirection ? horizontalEnd : horizontalStart,
+					spacing - offsets[spanIndex],
+					rtlDirection ? horizontalStart : horizontalEnd,
+					offsets[spanEnd]
+			);
+		} else {
+			final int spacing = horizontalStart + horizontalEnd;
+			final int[] offsets = obtainSpanOffsets(spanCount, spacing);
+			final int leading = spacing - offsets[spanIndex];
+			final int trailing = offsets[spanEnd];
+			rect.set(rtlDirection ? trailing : leading, verticalStart, rtlDirection ? leading : trailing, verticalEnd);
+		}
+		return true;
+	}
+
+	/**
+	 * Obtains table with cumulative spacing offsets for boundaries of the specified count of spans.
+	 * The table is computed only if the span count or spacing has changed since the last call.
+	 * <p>
+	 * Offsets in the table are rounded cumulatively, so the trailing offset of a span and the leading
+	 * offset of the next span always sum exactly to the specified <var>spacing</var>.
+	 *
+	 * @param spanCount Count of spans of the grid.
+	 * @param spacing   Amount of space between two adjacent spans.
+	 * @return Table with {@code spanCount + 1} offsets.
+	 */
+	private int[] obtainSpanOffsets(final int spanCount, final int spacing) {
+		if (spanOffsets == null || spanOffsetsSpanCount != spanCount || spanOffsetsSpacing != spacing) {
+			if (spanOffsets == null || spanOffsets.length != spanCount + 1) {
+				this.spanOffsets = new int[spanCount + 1];
+			}
+			for (int i = 0; i <= spanCount; i++) {
+				spanOffsets[i] = Math.round(i * spacing / (float) spanCount);
+			}
+			this.spanOffsetsSpanCount = spanCount;
+			this.spanOffsetsSpacing = spacing;
+		}
+		return spanOffsets;
+	}
+
 	/*
 	 * Inner classes ===============================================================================
 	 */
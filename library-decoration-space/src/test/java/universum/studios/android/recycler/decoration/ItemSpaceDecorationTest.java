@@ -20,18 +20,27 @@ package universum.studios.android.recycler.decoration;
 
 import android.graphics.Canvas;
 import android.graphics.Rect;
+import android.support.annotation.NonNull;
 import android.support.v4.view.ViewCompat;
+import android.support.v7.widget.GridLayoutManager;
 import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.StaggeredGridLayoutManager;
 import android.view.View;
+import android.view.ViewGroup;
 import android.widget.TextView;
 
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
+import universum.studios.android.recycler.AdapterPositionCache;
 import universum.studios.android.test.local.RobolectricTestCase;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -261,4 +270,361 @@ public final class ItemSpaceDecorationTest extends RobolectricTestCase {
 		verify(mockPrecondition).check(itemView, mockRecyclerView, mockRecyclerViewState);
 		verifyNoMoreInteractions(mockPrecondition);
 	}
-}
\ No newline at end of file
+
+	@Test public void testEvenSpanSpacingEnabled() {
+		// Arrange:
+		final ItemSpaceDecoration decoration = new ItemSpaceDecoration();
+		// Act + Assert:
+		assertThat(decoration.isEvenSpanSpacingEnabled(), is(false));
+		decoration.setEvenSpanSpacingEnabled(true);
+		assertThat(decoration.isEvenSpanSpacingEnabled(), is(true));
+		decoration.setEvenSpanSpacingEnabled(false);
+		assertThat(decoration.isEvenSpanSpacingEnabled(), is(false));
+	}
+
+	@Test public void testGetItemOffsetsWithEvenSpanSpacingForGridLayoutManager() {
+		// Arrange:
+		when(mockRecyclerView.getLayoutManager()).thenReturn(new GridLayoutManager(application, 3));
+		final ItemSpaceDecoration decoration = new ItemSpaceDecoration(4, 8, 2, 6);
+		decoration.setEvenSpanSpacingEnabled(true);
+		final Rect rect = new Rect();
+		// Act + Assert:
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(3);
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		assertThat(rect, is(new Rect(12, 2, 4, 6)));
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(4);
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		assertThat(rect, is(new Rect(8, 2, 8, 6)));
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(5);
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		assertThat(rect, is(new Rect(4, 2, 12, 6)));
+		assertThat(((GridLayoutManager) mockRecyclerView.getLayoutManager()).getSpanSizeLookup().isSpanIndexCacheEnabled(), is(false));
+	}
+
+	@Test public void testGetItemOffsetsWithEvenSpanSpacingForGridLayoutParams() {
+		// Arrange:
+		when(mockRecyclerView.getLayoutManager()).thenReturn(new GridLayoutManager(application, 3));
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(RecyclerView.NO_POSITION);
+		final GridLayoutManager.LayoutParams mockLayoutParams = mock(GridLayoutManager.LayoutParams.class);
+		when(mockLayoutParams.getSpanIndex()).thenReturn(1);
+		when(mockLayoutParams.getSpanSize()).thenReturn(1);
+		itemView.setLayoutParams(mockLayoutParams);
+		final ItemSpaceDecoration decoration = new ItemSpaceDecoration(4, 8, 2, 6);
+		decoration.setEvenSpanSpacingEnabled(true);
+		final Rect rect = new Rect();
+		// Act:
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(rect, is(new Rect(8, 2, 8, 6)));
+	}
+
+	@Test public void testGetItemOffsetsWithEvenSpanSpacingForGridLayoutManagerAndRTLLayoutDirection() {
+		// Arrange:
+		when(mockRecyclerView.getLayoutManager()).thenReturn(new GridLayoutManager(application, 3));
+		when(mockRecyclerView.getLayoutDirection()).thenReturn(ViewCompat.LAYOUT_DIRECTION_RTL);
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(3);
+		final ItemSpaceDecoration decoration = new ItemSpaceDecoration(4, 8, 2, 6);
+		decoration.setEvenSpanSpacingEnabled(true);
+		// Act:
+		final Rect rect = new Rect();
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(rect, is(new Rect(4, 2, 12, 6)));
+	}
+
+	@Test public void testGetItemOffsetsWithEvenSpanSpacingForHorizontalGridLayoutManager() {
+		// Arrange:
+		when(mockRecyclerView.getLayoutManager()).thenReturn(new GridLayoutManager(application, 2, GridLayoutManager.HORIZONTAL, false));
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(1);
+		final ItemSpaceDecoration decoration = new ItemSpaceDecoration(4, 8, 2, 6);
+		decoration.setEvenSpanSpacingEnabled(true);
+		// Act:
+		final Rect rect = new Rect();
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(rect, is(new Rect(4, 4, 8, 8)));
+	}
+
+	@Test public void testGetItemOffsetsWithEvenSpanSpacingForFullSpanStaggeredItem() {
+		// Arrange:
+		when(mockRecyclerView.getLayoutManager()).thenReturn(new StaggeredGridLayoutManager(3, StaggeredGridLayoutManager.VERTICAL));
+		final StaggeredGridLayoutManager.LayoutParams layoutParams = new StaggeredGridLayoutManager.LayoutParams(0, 0);
+		layoutParams.setFullSpan(true);
+		itemView.setLayoutParams(layoutParams);
+		final ItemSpaceDecoration decoration = new ItemSpaceDecoration(4, 8, 2, 6);
+		decoration.setEvenSpanSpacingEnabled(true);
+		// Act:
+		final Rect rect = new Rect();
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(rect, is(new Rect(12, 2, 12, 6)));
+	}
+
+	@Test public void testGetItemOffsetsWithEvenSpanSpacingForLinearLayoutManager() {
+		// Arrange:
+		final ItemSpaceDecoration decoration = new ItemSpaceDecoration(4, 8, 2, 6);
+		decoration.setEvenSpanSpacingEnabled(true);
+		// Act:
+		final Rect rect = new Rect();
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(rect, is(new Rect(4, 2, 8, 6)));
+	}
+
+	@Test public void testSpacingProvider() {
+		// Arrange:
+		final ItemSpaceDecoration decoration = new ItemSpaceDecoration();
+		final TestSpacingProvider provider = new TestSpacingProvider();
+		// Act + Assert:
+		assertThat(decoration.getSpacingProvider(), is(nullValue()));
+		decoration.setSpacingProvider(provider);
+		assertThat(decoration.getSpacingProvider(), is(sameInstance((ItemSpaceDecoration.SpacingProvider) provider)));
+		decoration.setSpacingProvider(null);
+		assertThat(decoration.getSpacingProvider(), is(nullValue()));
+	}
+
+	@Test public void testRemoveSpacingProviderDetachesCache() {
+		// Arrange:
+		final RecyclerView.Adapter mockAdapter = mock(RecyclerView.Adapter.class);
+		when(mockRecyclerView.getAdapter()).thenReturn(mockAdapter);
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(2);
+		final ItemSpaceDecoration decoration = new ItemSpaceDecoration(1, 2, 3, 4);
+		decoration.setSpacingProvider(new TestSpacingProvider());
+		decoration.getItemOffsets(new Rect(), itemView, mockRecyclerView, mockRecyclerViewState);
+		verify(mockAdapter).registerAdapterDataObserver(any(AdapterPositionCache.class));
+		// Act:
+		decoration.setSpacingProvider(null);
+		// Assert:
+		verify(mockAdapter).unregisterAdapterDataObserver(any(AdapterPositionCache.class));
+	}
+
+	@Test public void testGetItemOffsetsWithSpacingProvider() {
+		// Arrange:
+		when(mockRecyclerView.getAdapter()).thenReturn(new TestAdapter());
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(2);
+		final ItemSpaceDecoration decoration = new ItemSpaceDecoration(1, 2, 3, 4);
+		final TestSpacingProvider provider = new TestSpacingProvider();
+		decoration.setSpacingProvider(provider);
+		final Rect rect = new Rect();
+		// Act:
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(rect, is(new Rect(1, 20, 2, 4)));
+		assertThat(provider.calls, is(1));
+		assertThat(provider.lastPosition, is(2));
+		assertThat(provider.lastViewType, is(RecyclerView.INVALID_TYPE));
+	}
+
+	@Test public void testGetItemOffsetsWithSpacingProviderForRTLLayoutDirection() {
+		// Arrange:
+		when(mockRecyclerView.getLayoutDirection()).thenReturn(ViewCompat.LAYOUT_DIRECTION_RTL);
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(2);
+		final ItemSpaceDecoration decoration = new ItemSpaceDecoration(1, 2, 3, 4);
+		decoration.setSpacingProvider(new TestSpacingProvider());
+		// Act:
+		final Rect rect = new Rect();
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(rect, is(new Rect(2, 20, 1, 4)));
+	}
+
+	@Test public void testGetItemOffsetsWithSpacingProviderAfterItemChange() {
+		// Arrange:
+		final TestAdapter adapter = new TestAdapter();
+		when(mockRecyclerView.getAdapter()).thenReturn(adapter);
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(2);
+		final ItemSpaceDecoration decoration = new ItemSpaceDecoration(1, 2, 3, 4);
+		final TestSpacingProvider provider = new TestSpacingProvider();
+		decoration.setSpacingProvider(provider);
+		final Rect rect = new Rect();
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		// Act:
+		adapter.notifyItemChanged(2);
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(provider.calls, is(2));
+	}
+
+	@Test public void testGetItemOffsetsWithSpacingProviderAfterItemInsertion() {
+		// Arrange:
+		final TestAdapter adapter = new TestAdapter();
+		when(mockRecyclerView.getAdapter()).thenReturn(adapter);
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(2);
+		final ItemSpaceDecoration decoration = new ItemSpaceDecoration(1, 2, 3, 4);
+		final TestSpacingProvider provider = new TestSpacingProvider();
+		decoration.setSpacingProvider(provider);
+		final Rect rect = new Rect();
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		// Act:
+		adapter.notifyItemInserted(0);
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(3);
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(provider.calls, is(1));
+		assertThat(rect, is(new Rect(1, 20, 2, 4)));
+	}
+
+	@Test public void testGetItemOffsetsWithSpacingProviderWithoutAdapter() {
+		// Arrange:
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(2);
+		final ItemSpaceDecoration decoration = new ItemSpaceDecoration(1, 2, 3, 4);
+		final TestSpacingProvider provider = new TestSpacingProvider();
+		decoration.setSpacingProvider(provider);
+		final Rect rect = new Rect();
+		// Act:
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(provider.calls, is(2));
+	}
+
+	@Test public void testInvalidateSpacing() {
+		// Arrange:
+		when(mockRecyclerView.getAdapter()).thenReturn(new TestAdapter());
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(2);
+		final ItemSpaceDecoration decoration = new ItemSpaceDecoration(1, 2, 3, 4);
+		final TestSpacingProvider provider = new TestSpacingProvider();
+		decoration.setSpacingProvider(provider);
+		final Rect rect = new Rect();
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		// Act + Assert:
+		decoration.invalidateSpacing(0, 2);
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		assertThat(provider.calls, is(1));
+		decoration.invalidateSpacing(2, 1);
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		assertThat(provider.calls, is(2));
+		decoration.invalidateSpacing();
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		assertThat(provider.calls, is(3));
+	}
+
+	@Test public void testInvalidateSpacingWithoutSpacingProvider() {
+		// Arrange:
+		final ItemSpaceDecoration decoration = new ItemSpaceDecoration();
+		// Act:
+		decoration.invalidateSpacing();
+		decoration.invalidateSpacing(0, 10);
+	}
+
+	@Test public void testSpacings() {
+		// Arrange:
+		final ItemSpaceDecoration decoration = new ItemSpaceDecoration();
+		// Act:
+		decoration.setHorizontalStart(1);
+		decoration.setHorizontalEnd(2);
+		decoration.setVerticalStart(3);
+		decoration.setVerticalEnd(4);
+		// Assert:
+		assertThat(decoration.getHorizontalStart(), is(1));
+		assertThat(decoration.getHorizontalEnd(), is(2));
+		assertThat(decoration.getVerticalStart(), is(3));
+		assertThat(decoration.getVerticalEnd(), is(4));
+	}
+
+	@Test public void testSetSpacingsSchedulesSingleRelayout() {
+		// Arrange:
+		final ItemSpaceDecoration decoration = new ItemSpaceDecoration();
+		decoration.attachToRecyclerView(mockRecyclerView);
+		// Act:
+		decoration.setHorizontalStart(1);
+		decoration.setHorizontalEnd(2);
+		decoration.setVerticalStart(3);
+		decoration.setVerticalEnd(4);
+		decoration.setEvenSpanSpacingEnabled(true);
+		// Assert:
+		final ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+		verify(mockRecyclerView, times(1)).postOnAnimation(runnableCaptor.capture());
+		runnableCaptor.getValue().run();
+		verify(mockRecyclerView, times(1)).invalidateItemDecorations();
+	}
+
+	@Test public void testSectionIndex() {
+		// Arrange:
+		final SectionIndex index = new SectionIndex(new int[]{0, 4});
+		final ItemSpaceDecoration decoration = new ItemSpaceDecoration();
+		// Act:
+		decoration.setSectionIndex(index);
+		decoration.setSectionSpacing(32);
+		// Assert:
+		assertThat(decoration.getSectionIndex(), is(index));
+		assertThat(decoration.getSectionSpacing(), is(32));
+	}
+
+	@Test public void testGetItemOffsetsWithSectionSpacing() {
+		// Arrange:
+		final ItemSpaceDecoration decoration = new ItemSpaceDecoration(8, 4);
+		decoration.setSectionIndex(new SectionIndex(new int[]{0, 4}));
+		decoration.setSectionSpacing(32);
+		final Rect rect = new Rect();
+		// Act + Assert:
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(4);
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		assertThat(rect, is(new Rect(8, 4 + 32, 8, 4)));
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(5);
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		assertThat(rect, is(new Rect(8, 4, 8, 4)));
+		// No spacing is added before the first section.
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(0);
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		assertThat(rect, is(new Rect(8, 4, 8, 4)));
+	}
+
+	@Test public void testGetItemOffsetsWithSectionSpacingInHorizontalOrientation() {
+		// Arrange:
+		when(mockRecyclerView.getLayoutManager()).thenReturn(new LinearLayoutManager(application, LinearLayoutManager.HORIZONTAL, false));
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(4);
+		final ItemSpaceDecoration decoration = new ItemSpaceDecoration(8, 4);
+		decoration.setSectionIndex(new SectionIndex(new int[]{0, 4}));
+		decoration.setSectionSpacing(32);
+		final Rect rect = new Rect();
+		// Act:
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(rect, is(new Rect(8 + 32, 4, 8, 4)));
+	}
+
+	@Test public void testGetItemOffsetsWithSectionSpacingInGrid() {
+		// Arrange:
+		when(mockRecyclerView.getLayoutManager()).thenReturn(new GridLayoutManager(application, 3));
+		final ItemSpaceDecoration decoration = new ItemSpaceDecoration(0, 0);
+		decoration.setSectionIndex(new SectionIndex(new int[]{0, 4}));
+		decoration.setSectionSpacing(32);
+		final Rect rect = new Rect();
+		// Act + Assert:
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(6);
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		assertThat(rect.top, is(32));
+		when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(7);
+		decoration.getItemOffsets(rect, itemView, mockRecyclerView, mockRecyclerViewState);
+		assertThat(rect.top, is(0));
+	}
+
+	private static final class TestSpacingProvider implements ItemSpaceDecoration.SpacingProvider {
+
+		int calls;
+		int lastPosition = RecyclerView.NO_POSITION;
+		int lastViewType;
+
+		@Override public void provideSpacing(@NonNull final Rect spacing, final int position, final int viewType) {
+			this.calls++;
+			this.lastPosition = position;
+			this.lastViewType = viewType;
+			spacing.top = position * 10;
+		}
+	}
+
+	private static final class TestAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+		@Override public RecyclerView.ViewHolder onCreateViewHolder(final ViewGroup parent, final int viewType) {
+			return new RecyclerView.ViewHolder(new View(parent.getContext())) {};
+		}
+
+		@Override public void onBindViewHolder(final RecyclerView.ViewHolder holder, final int position) {}
+
+		@Override public int getItemCount() {
+			return MOCK_ITEMS_COUNT;
+		}
+	}
+}
@@ -0,0 +1,545 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.decoration;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.support.annotation.ColorInt;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+/**
+ * A {@link RecyclerViewItemDecoration} implementation that may be used to draw a vertical <b>timeline</b>
+ * for item views displayed in a vertically scrolling {@link RecyclerView}. The timeline consists of
+ * a <b>node</b> drawn at the vertical center of each decorated item and of <b>connectors</b> between
+ * nodes of the adjacent decorated items.
+ * <p>
+ * Connector segments and nodes for all visible item views are computed in a single iteration,
+ * segments of adjacent items are merged into continuous lines and all lines are drawn via a single
+ * {@link Canvas#drawLines(float[], int, int, Paint)} call from a buffer that is reused across draw
+ * passes. Nodes are drawn over the lines from a bitmap which is rendered only once for the current
+ * node radius and color.
+ * <p>
+ * The timeline is drawn within a horizontal <b>inset</b> that is reserved at the start side of
+ * each decorated item via {@link #getItemOffsets(Rect, View, RecyclerView, RecyclerView.State)}.
+ * Items that are skipped due to the <b>skip first</b> or <b>skip last</b> flag or items for which
+ * the {@link Precondition} is not satisfied have no node and the timeline is interrupted at them.
+ *
+ * @author Martin Albedinsky
+ * @since 1.1
+ *
+ * @see RecyclerView#addItemDecoration(RecyclerView.ItemDecoration)
+ */
+public class ItemTimelineDecoration extends RecyclerViewItemDecoration {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "ItemTimelineDecoration";
+
+	/**
+	 * Count of float values describing a single line for {@link Canvas#drawLines(float[], Paint)}.
+	 */
+	private static final int LINE_SIZE = 4;
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Paint used to draw connectors.
+	 */
+	private final Paint linePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+	/**
+	 * Paint used to draw node bitmaps.
+	 */
+	private final Paint nodePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+	/**
+	 * Horizontal inset reserved for the timeline at the start side of each decorated item.
+	 */
+	private int timelineInset;
+
+	/**
+	 * Radius of the nodes.
+	 */
+	private float nodeRadius;
+
+	/**
+	 * Color of the nodes.
+	 */
+	private int nodeColor;
+
+	/**
+	 * Bitmap with rendered node. Resolved lazily when first needed.
+	 */
+	private Bitmap nodeBitmap;
+
+	/**
+	 * Buffer with points of connector lines. Reused across draw passes and grown only when there
+	 * are more visible items than it can hold.
+	 */
+	private float[] lines = new float[0];
+
+	/**
+	 * Buffer with centers of nodes. Reused across draw passes same as {@link #lines}.
+	 */
+	private float[] nodes = new float[0];
+
+	/**
+	 * Whether connector lines are drawn in the current draw pass.
+	 */
+	private boolean drawLines;
+
+	/**
+	 * Node bitmap drawn in the current draw pass. May be {@code null} if no nodes are drawn.
+	 */
+	private Bitmap drawNode;
+
+	/**
+	 * Whether the parent RecyclerView is laid out from right to left in the current draw pass.
+	 */
+	private boolean drawRtl;
+
+	/**
+	 * Top and bottom bounds to which are extended lines continuing outside of the visible items in
+	 * the current draw pass.
+	 */
+	private int drawTop, drawBottom;
+
+	/**
+	 * Adapter positions of the first and the last item which are connected by the timeline in the
+	 * current draw pass.
+	 */
+	private int firstPosition, lastPosition;
+
+	/**
+	 * Counts of values put into the {@link #lines} and {@link #nodes} buffers in the current draw pass.
+	 */
+	private int linesSize, nodesSize;
+
+	/**
+	 * Whether the last line in the lines buffer is still open, so it may be extended by the next node.
+	 */
+	private boolean lineOpen;
+
+	/**
+	 * Adapter position of the last item collected in the current draw pass.
+	 */
+	private int previousPosition;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Same as {@link #ItemTimelineDecoration(int, float, int, float, int)} with {@code 0} inset, line width
+	 * and node radius and {@link Color#TRANSPARENT} colors.
+	 */
+	public ItemTimelineDecoration() {
+		this(0, 0, Color.TRANSPARENT, 0, Color.TRANSPARENT);
+	}
+
+	/**
+	 * Creates a new instance of ItemTimelineDecoration with the specified parameters.
+	 *
+	 * @param timelineInset The horizontal inset reserved for the timeline at the start side of each item.
+	 * @param lineWidth     Width of the connector lines.
+	 * @param lineColor     Color of the connector lines.
+	 * @param nodeRadius    Radius of the nodes.
+	 * @param nodeColor     Color of the nodes.
+	 */
+	public ItemTimelineDecoration(final int timelineInset, final float lineWidth, @ColorInt final int lineColor, final float nodeRadius, @ColorInt final int nodeColor) {
+		super();
+		this.timelineInset = Math.max(0, timelineInset);
+		this.linePaint.setStyle(Paint.Style.STROKE);
+		this.linePaint.setStrokeWidth(Math.max(0, lineWidth));
+		this.linePaint.setColor(lineColor);
+		this.nodeRadius = Math.max(0, nodeRadius);
+		this.nodeColor = nodeColor;
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Sets a horizontal inset reserved for the timeline at the start side of each decorated item.
+	 * The timeline is drawn at the center of this inset.
+	 * <p>
+	 * Default value: {@code 0}
+	 *
+	 * @param inset The desired inset in pixels.
+	 *
+	 * @see #getTimelineInset()
+	 */
+	public void setTimelineInset(final int inset) {
+		final int timelineInset = Math.max(0, inset);
+		if (this.timelineInset != timelineInset) {
+			this.timelineInset = timelineInset;
+			this.scheduleInvalidation(true);
+		}
+	}
+
+	/**
+	 * Returns the horizontal inset reserved for the timeline at the start side of each decorated item.
+	 *
+	 * @return Timeline inset in pixels.
+	 *
+	 * @see #setTimelineInset(int)
+	 */
+	public int getTimelineInset() {
+		return timelineInset;
+	}
+
+	/**
+	 * Sets a width of the connector lines.
+	 * <p>
+	 * Default value: {@code 0}
+	 *
+	 * @param width The desired width in pixels.
+	 *
+	 * @see #getLineWidth()
+	 */
+	public void setLineWidth(final float width) {
+		final float lineWidth = Math.max(0, width);
+		if (linePaint.getStrokeWidth() != lineWidth) {
+			this.linePaint.setStrokeWidth(lineWidth);
+			this.scheduleInvalidation(false);
+		}
+	}
+
+	/**
+	 * Returns the width of the connector lines.
+	 *
+	 * @return Line width in pixels.
+	 *
+	 * @see #setLineWidth(float)
+	 */
+	public float getLineWidth() {
+		return linePaint.getStrokeWidth();
+	}
+
+	/**
+	 * Sets a color of the connector lines.
+	 *
+	 * @param color The desired color.
+	 *
+	 * @see #getLineColor()
+	 */
+	public void setLineColor(@ColorInt final int color) {
+		if (linePaint.getColor() != color) {
+			this.linePaint.setColor(color);
+			this.scheduleInvalidation(false);
+		}
+	}
+
+	/**
+	 * Returns the color of the connector lines.
+	 *
+	 * @return Line color.
+	 *
+	 * @see #setLineColor(int)
+	 */
+	@ColorInt public int getLineColor() {
+		return linePaint.getColor();
+	}
+
+	/**
+	 * Sets a radius of the nodes.
+	 * <p>
+	 * Default value: {@code 0}
+	 *
+	 * @param radius The desired radius in pixels. If {@code 0}, no nodes are drawn.
+	 *
+	 * @see #getNodeRadius()
+	 */
+	public void setNodeRadius(final float radius) {
+		final float nodeRadius = Math.max(0, radius);
+		if (this.nodeRadius != nodeRadius) {
+			this.nodeRadius = nodeRadius;
+			this.invalidateNode();
+		}
+	}
+
+	/**
+	 * Returns the radius of the nodes.
+	 *
+	 * @return Node radius in pixels.
+	 *
+	 * @see #setNodeRadius(float)
+	 */
+	public float getNodeRadius() {
+		return nodeRadius;
+	}
+
+	/**
+	 * Sets a color of the nodes.
+	 *
+	 * @param color The desired color.
+	 *
+	 * @see #getNodeColor()
+	 */
+	public void setNodeColor(@ColorInt final int color) {
+		if (nodeColor != color) {
+			this.nodeColor = color;
+			this.invalidateNode();
+		}
+	}
+
+	/**
+	 * Returns the color of the nodes.
+	 *
+	 * @return Node color.
+	 *
+	 * @see #setNodeColor(int)
+	 */
+	@ColorInt public int getNodeColor() {
+		return nodeColor;
+	}
+
+	/**
+	 * Invalidates the current node bitmap, so it is rendered again for the current node parameters
+	 * during the next draw pass.
+	 */
+	private void invalidateNode() {
+		// The bitmap may be still referenced by a display list recorded for a previous frame, so it
+		// is only dropped and left to be collected instead of being recycled.
+		this.nodeBitmap = null;
+		this.scheduleInvalidation(false);
+	}
+
+	/**
+	 * Returns the bitmap with rendered node for the current node parameters.
+	 *
+	 * @return Node bitmap or {@code null} if no nodes are drawn by this decoration.
+	 */
+	@Nullable Bitmap getNodeBitmap() {
+		if (nodeRadius <= 0 || Color.alpha(nodeColor) == 0) {
+			return null;
+		}
+		if (nodeBitmap == null) {
+			final int size = (int) Math.ceil(nodeRadius * 2);
+			this.nodeBitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+			final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+			paint.setColor(nodeColor);
+			new Canvas(nodeBitmap).drawCircle(size / 2f, size / 2f, nodeRadius, paint);
+		}
+		return nodeBitmap;
+	}
+
+	/**
+	 */
+	@Override public void getItemOffsets(@NonNull final Rect rect, @NonNull final View view, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
+		if (timelineInset == 0 || isItemSkipped(view, parent, state) || !precondition.check(view, parent, state)) {
+			rect.setEmpty();
+			return;
+		}
+		if (obtainLayoutContext(parent, state).isLayoutRtl()) {
+			rect.set(0, 0, timelineInset, 0);
+		} else {
+			rect.set(timelineInset, 0, 0, 0);
+		}
+	}
+
+	/**
+	 */
+	@Override public void onDraw(@NonNull final Canvas canvas, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state) {
+		if (!shouldDecorate(parent, state)) {
+			return;
+		}
+		final DecorationLayoutContext context = obtainLayoutContext(parent, state);
+		if (!prepareTimeline(parent, context)) {
+			return;
+		}
+		canvas.save();
+		if (context.getClipToPadding()) {
+			final Rect clipBounds = context.getClipBounds();
+			canvas.clipRect(clipBounds.left, clipBounds.top, clipBounds.right, clipBounds.bottom);
+		}
+		final int childCount = parent.getChildCount();
+		for (int i = 0; i < childCount; i++) {
+			this.collectItemTimeline(parent.getChildAt(i), i, childCount, parent, state);
+		}
+		this.drawTimeline(canvas);
+		canvas.restore();
+	}
+
+	/**
+	 */
+	@Override protected boolean onPrepareItemsDraw(@NonNull final RecyclerView parent, @NonNull final RecyclerView.State state, @NonNull final DecorationLayoutContext context) {
+		return shouldDecorate(parent, state) && prepareTimeline(parent, context);
+	}
+
+	/**
+	 */
+	@Override protected void onDrawItem(@NonNull final Canvas canvas, @NonNull final View child, final int childIndex, final int childCount, @NonNull final Rect decoratedBounds, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state, @NonNull final DecorationLayoutContext context) {
+		this.collectItemTimeline(child, childIndex, childCount, parent, state);
+	}
+
+	/**
+	 */
+	@Override protected void onFinishItemsDraw(@NonNull final Canvas canvas, @NonNull final RecyclerView parent, @NonNull final RecyclerView.State state, @NonNull final DecorationLayoutContext context) {
+		this.drawTimeline(canvas);
+	}
+
+	/**
+	 * Prepares state of this decoration for a new draw pass over item views of the given
+	 * <var>parent</var> RecyclerView.
+	 *
+	 * @param parent  The RecyclerView into which is this decoration added.
+	 * @param context Layout context of the parent RecyclerView resolved for the current pass.
+	 * @return {@code True} if there is anything to be drawn, {@code false} otherwise.
+	 */
+	private boolean prepareTimeline(final RecyclerView parent, final DecorationLayoutContext context) {
+		this.drawLines = linePaint.getStrokeWidth() > 0 && Color.alpha(linePaint.getColor()) != 0;
+		this.drawNode = getNodeBitmap();
+		if (!drawLines && drawNode == null) {
+			return false;
+		}
+		this.ensureBuffersCapacity(parent.getChildCount());
+		final Rect clipBounds = context.getClipBounds();
+		this.drawTop = clipBounds.top;
+		this.drawBottom = clipBounds.bottom;
+		this.drawRtl = context.isLayoutRtl();
+		this.firstPosition = skipFirst ? 1 : 0;
+		this.lastPosition = context.getItemCount() - (skipLast ? 2 : 1);
+		this.linesSize = 0;
+		this.nodesSize = 0;
+		this.lineOpen = false;
+		this.previousPosition = RecyclerView.NO_POSITION;
+		return true;
+	}
+
+	/**
+	 * Collects line and node for the specified <var>child</var> view into the buffers of this
+	 * decoration unless the child should be skipped.
+	 *
+	 * @param child      The item view for which to collect its timeline.
+	 * @param childIndex Index of the item view within its parent RecyclerView.
+	 * @param childCount Count of item views attached to the parent RecyclerView.
+	 * @param parent     The RecyclerView into which is this decoration added.
+	 * @param state      Current state of the parent RecyclerView.
+	 */
+	private void collectItemTimeline(final View child, final int childIndex, final int childCount, final RecyclerView parent, final RecyclerView.State state) {
+		final int position = obtainCache(parent).resolveItem(child, state).getPosition();
+		if (position == RecyclerView.NO_POSITION || isItemSkipped(child, parent, state) || !precondition.check(child, parent, state)) {
+			this.lineOpen = false;
+			return;
+		}
+		final float x = (drawRtl ? child.getRight() + timelineInset / 2f : child.getLeft() - timelineInset / 2f) + child.getTranslationX();
+		final float y = child.getTop() + child.getHeight() / 2f + child.getTranslationY();
+		if (lineOpen && (position != previousPosition + 1 || lines[linesSize - 4] != x)) {
+			this.lineOpen = false;
+		}
+		if (lineOpen) {
+			// Merge connector from the previous node into the current line.
+			this.lines[linesSize - 1] = y;
+		} else if (position > firstPosition && childIndex == 0) {
+			// Timeline continues above the first visible item.
+			this.linesSize = putLine(linesSize, x, drawTop, y);
+		} else {
+			this.linesSize = putLine(linesSize, x, y, y);
+		}
+		this.lineOpen = position < lastPosition;
+		if (lineOpen && childIndex == childCount - 1) {
+			// Timeline continues below the last visible item.
+			this.lines[linesSize - 1] = drawBottom;
+		}
+		this.previousPosition = position;
+		this.nodes[nodesSize++] = x;
+		this.nodes[nodesSize++] = y;
+	}
+
+	/**
+	 * Draws all lines and nodes collected in the current draw pass. Lines are drawn first so the
+	 * nodes are drawn over them.
+	 *
+	 * @param canvas The canvas on which to draw.
+	 */
+	private void drawTimeline(final Canvas canvas) {
+		if (drawLines && linesSize > 0) {
+			canvas.drawLines(lines, 0, linesSize, linePaint);
+		}
+		final Bitmap node = drawNode;
+		if (node != null) {
+			final float nodeOffsetX = node.getWidth() / 2f;
+			final float nodeOffsetY = node.getHeight() / 2f;
+			for (int i = 0; i < nodesSize; i += 2) {
+				canvas.drawBitmap(node, nodes[i] - nodeOffsetX, nodes[i + 1] - nodeOffsetY, nodePaint);
+			}
+		}
+		// Drop the node so it is not held by this decoration after it has been invalidated.
+		this.drawNode = null;
+		this.linesSize = 0;
+		this.nodesSize = 0;
+	}
+
+	/**
+	 * Ensures that the lines and nodes buffers can hold data for the specified count of item views.
+	 *
+	 * @param itemCount Count of item views for which to draw lines.
+	 */
+	private void ensureBuffersCapacity(final int itemCount) {
+		final int capacity = itemCount * LINE_SIZE;
+		if (lines.length < capacity) {
+			this.lines = new float[capacity];
+			this.nodes = new float[itemCount * 2];
+		}
+	}
+
+	/**
+	 * Puts a new vertical line into the lines buffer at the specified <var>index</var>.
+	 *
+	 * @param index  Index at which to put the line.
+	 * @param x      Horizontal coordinate of the line.
+	 * @param startY Vertical coordinate of the start of the line.
+	 * @param endY   Vertical coordinate of the end of the line.
+	 * @return Index following the put line.
+	 */
+	private int putLine(final int index, final float x, final float startY, final float endY) {
+		this.lines[index] = x;
+		this.lines[index + 1] = startY;
+		this.lines[index + 2] = x;
+		this.lines[index + 3] = endY;
+		return index + LINE_SIZE;
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+}
@@ -0,0 +1,289 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.decoration;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import universum.studios.android.test.local.RobolectricTestCase;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.notNullValue;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.internal.util.MockUtil.resetMock;
+
+/**
+ * @author Martin Albedinsky
+ */
+public final class ItemTimelineDecorationTest extends RobolectricTestCase {
+
+	private static final int MOCK_ITEMS_COUNT = 10;
+	private static final int ITEM_HEIGHT = 100;
+	private static final int PARENT_HEIGHT = 400;
+
+	private final Canvas mockCanvas;
+	private final RecyclerView mockRecyclerView;
+	private final RecyclerView.State mockRecyclerViewState;
+	private View[] itemViews;
+
+	public ItemTimelineDecorationTest() {
+		this.mockCanvas = mock(Canvas.class);
+		this.mockRecyclerView = mock(RecyclerView.class);
+		this.mockRecyclerViewState = mock(RecyclerView.State.class);
+	}
+
+	@Override public void beforeTest() throws Exception {
+		super.beforeTest();
+		resetMock(mockCanvas);
+		resetMock(mockRecyclerView);
+		resetMock(mockRecyclerViewState);
+		when(mockRecyclerView.getLayoutManager()).thenReturn(mock(RecyclerView.LayoutManager.class));
+		when(mockRecyclerView.getWidth()).thenReturn(300);
+		when(mockRecyclerView.getHeight()).thenReturn(PARENT_HEIGHT);
+		when(mockRecyclerViewState.getItemCount()).thenReturn(MOCK_ITEMS_COUNT);
+		this.itemViews = new View[4];
+		when(mockRecyclerView.getChildCount()).thenReturn(itemViews.length);
+		for (int i = 0; i < itemViews.length; i++) {
+			final View itemView = new View(application);
+			itemView.layout(40, i * ITEM_HEIGHT, 300, (i + 1) * ITEM_HEIGHT);
+			this.itemViews[i] = itemView;
+			when(mockRecyclerView.getChildAt(i)).thenReturn(itemView);
+			when(mockRecyclerView.getChildAdapterPosition(itemView)).thenReturn(i);
+		}
+	}
+
+	@Test public void testInstantiation() {
+		// Act:
+		final ItemTimelineDecoration decoration = new ItemTimelineDecoration();
+		// Assert:
+		assertThat(decoration.getTimelineInset(), is(0));
+		assertThat(decoration.getLineWidth(), is(0f));
+		assertThat(decoration.getLineColor(), is(Color.TRANSPARENT));
+		assertThat(decoration.getNodeRadius(), is(0f));
+		assertThat(decoration.getNodeColor(), is(Color.TRANSPARENT));
+		assertThat(decoration.getNodeBitmap(), is(nullValue()));
+	}
+
+	@Test public void testInstantiationWithParameters() {
+		// Act:
+		final ItemTimelineDecoration decoration = new ItemTimelineDecoration(40, 2f, Color.GRAY, 6f, Color.BLUE);
+		// Assert:
+		assertThat(decoration.getTimelineInset(), is(40));
+		assertThat(decoration.getLineWidth(), is(2f));
+		assertThat(decoration.getLineColor(), is(Color.GRAY));
+		assertThat(decoration.getNodeRadius(), is(6f));
+		assertThat(decoration.getNodeColor(), is(Color.BLUE));
+	}
+
+	@Test public void testTimelineInset() {
+		// Arrange:
+		final ItemTimelineDecoration decoration = new ItemTimelineDecoration();
+		// Act + Assert:
+		decoration.setTimelineInset(24);
+		assertThat(decoration.getTimelineInset(), is(24));
+	}
+
+	@Test public void testLineWidth() {
+		// Arrange:
+		final ItemTimelineDecoration decoration = new ItemTimelineDecoration();
+		// Act + Assert:
+		decoration.setLineWidth(3f);
+		assertThat(decoration.getLineWidth(), is(3f));
+	}
+
+	@Test public void testLineColor() {
+		// Arrange:
+		final ItemTimelineDecoration decoration = new ItemTimelineDecoration();
+		// Act + Assert:
+		decoration.setLineColor(Color.RED);
+		assertThat(decoration.getLineColor(), is(Color.RED));
+	}
+
+	@Test public void testNodeBitmapIsCached() {
+		// Arrange:
+		final ItemTimelineDecoration decoration = new ItemTimelineDecoration(40, 2f, Color.GRAY, 6f, Color.BLUE);
+		// Act:
+		final Bitmap bitmap = decoration.getNodeBitmap();
+		// Assert:
+		assertThat(bitmap, is(notNullValue()));
+		assertThat(decoration.getNodeBitmap(), is(sameInstance(bitmap)));
+	}
+
+	@Test public void testNodeBitmapIsInvalidatedWhenNodeChanges() {
+		// Arrange:
+		final ItemTimelineDecoration decoration = new ItemTimelineDecoration(40, 2f, Color.GRAY, 6f, Color.BLUE);
+		final Bitmap bitmap = decoration.getNodeBitmap();
+		// Act:
+		decoration.setNodeRadius(8f);
+		// Assert:
+		assertThat(decoration.getNodeRadius(), is(8f));
+		assertThat(bitmap.isRecycled(), is(true));
+		assertThat(decoration.getNodeBitmap().getWidth(), is(16));
+	}
+
+	@Test public void testGetItemOffsets() {
+		// Arrange:
+		final ItemTimelineDecoration decoration = new ItemTimelineDecoration(40, 2f, Color.GRAY, 6f, Color.BLUE);
+		final Rect rect = new Rect();
+		// Act:
+		decoration.getItemOffsets(rect, itemViews[0], mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(rect, is(new Rect(40, 0, 0, 0)));
+	}
+
+	@Test public void testGetItemOffsetsForSkippedItem() {
+		// Arrange:
+		final ItemTimelineDecoration decoration = new ItemTimelineDecoration(40, 2f, Color.GRAY, 6f, Color.BLUE);
+		decoration.setSkipFirst(true);
+		final Rect rect = new Rect(1, 1, 1, 1);
+		// Act:
+		decoration.getItemOffsets(rect, itemViews[0], mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		assertThat(rect.isEmpty(), is(true));
+	}
+
+	@Test public void testOnDrawMergesConnectorsIntoSingleLine() {
+		// Arrange:
+		final ItemTimelineDecoration decoration = new ItemTimelineDecoration(40, 2f, Color.GRAY, 6f, Color.BLUE);
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		final ArgumentCaptor<float[]> linesCaptor = ArgumentCaptor.forClass(float[].class);
+		verify(mockCanvas).drawLines(linesCaptor.capture(), eq(0), eq(4), any(Paint.class));
+		final float[] lines = linesCaptor.getValue();
+		assertThat(lines[0], is(20f));
+		assertThat(lines[1], is(ITEM_HEIGHT / 2f));
+		assertThat(lines[2], is(20f));
+		assertThat(lines[3], is((float) PARENT_HEIGHT));
+		verify(mockCanvas, times(itemViews.length)).drawBitmap(any(Bitmap.class), anyFloat(), anyFloat(), any(Paint.class));
+	}
+
+	@Test public void testOnDrawInComposite() {
+		// Arrange:
+		final ItemTimelineDecoration decoration = new ItemTimelineDecoration(40, 2f, Color.GRAY, 6f, Color.BLUE);
+		final CompositeItemDecoration composite = new CompositeItemDecoration(decoration);
+		// Act:
+		composite.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		final ArgumentCaptor<float[]> linesCaptor = ArgumentCaptor.forClass(float[].class);
+		verify(mockCanvas).drawLines(linesCaptor.capture(), eq(0), eq(4), any(Paint.class));
+		final float[] lines = linesCaptor.getValue();
+		assertThat(lines[0], is(20f));
+		assertThat(lines[1], is(ITEM_HEIGHT / 2f));
+		assertThat(lines[2], is(20f));
+		assertThat(lines[3], is((float) PARENT_HEIGHT));
+		verify(mockCanvas, times(itemViews.length)).drawBitmap(any(Bitmap.class), anyFloat(), anyFloat(), any(Paint.class));
+		verify(mockCanvas, times(1)).save();
+	}
+
+	@Test public void testOnDrawContinuesAboveFirstVisibleItem() {
+		// Arrange:
+		final ItemTimelineDecoration decoration = new ItemTimelineDecoration(40, 2f, Color.GRAY, 0, Color.TRANSPARENT);
+		for (int i = 0; i < itemViews.length; i++) {
+			when(mockRecyclerView.getChildAdapterPosition(itemViews[i])).thenReturn(i + 2);
+		}
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		final ArgumentCaptor<float[]> linesCaptor = ArgumentCaptor.forClass(float[].class);
+		verify(mockCanvas).drawLines(linesCaptor.capture(), eq(0), eq(4), any(Paint.class));
+		assertThat(linesCaptor.getValue()[1], is(0f));
+		verify(mockCanvas, never()).drawBitmap(any(Bitmap.class), anyFloat(), anyFloat(), any(Paint.class));
+	}
+
+	@Test public void testOnDrawEndsAtLastItem() {
+		// Arrange:
+		final ItemTimelineDecoration decoration = new ItemTimelineDecoration(40, 2f, Color.GRAY, 6f, Color.BLUE);
+		when(mockRecyclerViewState.getItemCount()).thenReturn(itemViews.length);
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		final ArgumentCaptor<float[]> linesCaptor = ArgumentCaptor.forClass(float[].class);
+		verify(mockCanvas).drawLines(linesCaptor.capture(), eq(0), eq(4), any(Paint.class));
+		assertThat(linesCaptor.getValue()[3], is((itemViews.length - 1) * ITEM_HEIGHT + ITEM_HEIGHT / 2f));
+	}
+
+	@Test public void testOnDrawSkipFirst() {
+		// Arrange:
+		final ItemTimelineDecoration decoration = new ItemTimelineDecoration(40, 2f, Color.GRAY, 6f, Color.BLUE);
+		decoration.setSkipFirst(true);
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		final ArgumentCaptor<float[]> linesCaptor = ArgumentCaptor.forClass(float[].class);
+		verify(mockCanvas).drawLines(linesCaptor.capture(), eq(0), eq(4), any(Paint.class));
+		assertThat(linesCaptor.getValue()[1], is(ITEM_HEIGHT + ITEM_HEIGHT / 2f));
+		verify(mockCanvas, times(itemViews.length - 1)).drawBitmap(any(Bitmap.class), anyFloat(), anyFloat(), any(Paint.class));
+	}
+
+	@Test public void testOnDrawWithUnsatisfiedPrecondition() {
+		// Arrange:
+		final ItemTimelineDecoration decoration = new ItemTimelineDecoration(40, 2f, Color.GRAY, 6f, Color.BLUE);
+		decoration.setPrecondition(new RecyclerViewItemDecoration.Precondition() {
+
+			@Override public boolean check(View view, RecyclerView parent, RecyclerView.State state) {
+				return view != itemViews[1];
+			}
+		});
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockCanvas).drawLines(any(float[].class), eq(0), eq(8), any(Paint.class));
+		verify(mockCanvas, times(itemViews.length - 1)).drawBitmap(any(Bitmap.class), anyFloat(), anyFloat(), any(Paint.class));
+	}
+
+	@Test public void testOnDrawWithoutLinesAndNodes() {
+		// Arrange:
+		final ItemTimelineDecoration decoration = new ItemTimelineDecoration();
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verifyZeroInteractions(mockCanvas);
+	}
+
+	@Test public void testOnDrawWithoutNodes() {
+		// Arrange:
+		final ItemTimelineDecoration decoration = new ItemTimelineDecoration(40, 2f, Color.GRAY, 0, Color.TRANSPARENT);
+		// Act:
+		decoration.onDraw(mockCanvas, mockRecyclerView, mockRecyclerViewState);
+		// Assert:
+		verify(mockCanvas).drawLines(any(float[].class), anyInt(), anyInt(), any(Paint.class));
+		verify(mockCanvas, never()).drawBitmap(any(Bitmap.class), anyFloat(), anyFloat(), any(Paint.class));
+	}
+}
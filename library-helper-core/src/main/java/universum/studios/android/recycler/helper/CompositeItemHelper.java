@@ -0,0 +1,439 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.helper;
+
+import android.graphics.Canvas;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+
+import java.util.List;
+
+/**
+ * A {@link RecyclerViewItemHelper} implementation which hosts both a <b>drag</b> and a <b>swipe</b>
+ * interactor behind a single {@link android.support.v7.widget.helper.ItemTouchHelper ItemTouchHelper},
+ * so a RecyclerView whose items support both gestures registers only one item touch listener, one
+ * gesture detector and one item decoration instead of two of each.
+ * <p>
+ * Movement flags of an item are composed from the drag flags provided by the drag interactor and from
+ * the swipe flags provided by the swipe interactor. All other callbacks are routed to the interactor
+ * responsible for the current interaction, drag related callbacks to the drag interactor and swipe
+ * related callbacks to the swipe interactor.
+ * <p>
+ * Composite helper may be simply created for already existing item helpers, for example:
+ * {@code new CompositeItemHelper(new ItemDragHelper(), new ItemSwipeHelper())}. Such helpers
+ * provide only their interactors (with their listeners and configuration) and should not be
+ * attached to the RecyclerView themselves. Drag or swipe should be then started manually via
+ * {@link #startDrag(RecyclerView.ViewHolder)} or {@link #startSwipe(RecyclerView.ViewHolder)} of
+ * the composite helper.
+ *
+ * @author Martin Albedinsky
+ * @since 1.1
+ */
+public final class CompositeItemHelper extends RecyclerViewItemHelper<CompositeItemHelper.Interactor> {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "CompositeItemHelper";
+
+	/**
+	 * Count of bits used by {@link android.support.v7.widget.helper.ItemTouchHelper.Callback} for
+	 * direction flags of a single action state.
+	 */
+	private static final int DIRECTION_FLAG_COUNT = 8;
+
+	/**
+	 * Mask for direction flags of a single action state.
+	 */
+	private static final int DIRECTION_FLAGS_MASK = (1 << DIRECTION_FLAG_COUNT) - 1;
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of CompositeItemHelper for interactors of the specified helpers.
+	 *
+	 * @param dragHelper  The helper of which interactor should handle drag gesture.
+	 * @param swipeHelper The helper of which interactor should handle swipe gesture.
+	 *
+	 * @see #CompositeItemHelper(ItemInteractor, ItemInteractor)
+	 */
+	public CompositeItemHelper(@NonNull final RecyclerViewItemHelper dragHelper, @NonNull final RecyclerViewItemHelper swipeHelper) {
+		this(dragHelper.getInteractor(), swipeHelper.getInteractor());
+	}
+
+	/**
+	 * Creates a new instance of CompositeItemHelper with the specified interactors.
+	 *
+	 * @param dragInteractor  The interactor that should handle drag gesture.
+	 * @param swipeInteractor The interactor that should handle swipe gesture.
+	 */
+	public CompositeItemHelper(@NonNull final ItemInteractor dragInteractor, @NonNull final ItemInteractor swipeInteractor) {
+		super(new Interactor(dragInteractor, swipeInteractor));
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+
+	/**
+	 * A {@link ItemInteractor} implementation used by {@link CompositeItemHelper} to route callbacks
+	 * of its single touch pipeline either to the drag or to the swipe interactor.
+	 *
+	 * @author Martin Albedinsky
+	 * @since 1.1
+	 */
+	public static final class Interactor extends RecyclerViewItemHelper.ItemInteractor {
+
+		/**
+		 * Interactor handling drag gesture.
+		 */
+		private final ItemInteractor dragInteractor;
+
+		/**
+		 * Interactor handling swipe gesture.
+		 */
+		private final ItemInteractor swipeInteractor;
+
+		/**
+		 * View holder that is currently selected for drag. Used to route {@link #clearView(RecyclerView, RecyclerView.ViewHolder)}
+		 * callback.
+		 */
+		private RecyclerView.ViewHolder dragHolder;
+
+		/**
+		 * View holder that is currently selected for swipe. Used to route {@link #clearView(RecyclerView, RecyclerView.ViewHolder)}
+		 * callback.
+		 */
+		private RecyclerView.ViewHolder swipeHolder;
+
+		/**
+		 * Creates a new instance of Interactor for the specified interactors.
+		 *
+		 * @param dragInteractor  The interactor that should handle drag gesture.
+		 * @param swipeInteractor The interactor that should handle swipe gesture.
+		 */
+		Interactor(final ItemInteractor dragInteractor, final ItemInteractor swipeInteractor) {
+			this.dragInteractor = dragInteractor;
+			this.swipeInteractor = swipeInteractor;
+		}
+
+		/**
+		 * Returns the interactor which handles drag gesture.
+		 *
+		 * @return Drag interactor.
+		 */
+		@NonNull public ItemInteractor getDragInteractor() {
+			return dragInteractor;
+		}
+
+		/**
+		 * Returns the interactor which handles swipe gesture.
+		 *
+		 * @return Swipe interactor.
+		 */
+		@NonNull public ItemInteractor getSwipeInteractor() {
+			return swipeInteractor;
+		}
+
+		/**
+		 */
+		@Override protected void onAttachedToHelper(@NonNull final RecyclerViewItemHelper helper) {
+			super.onAttachedToHelper(helper);
+			// Interactors obtained from other helpers remain attached to them, so theirs listeners
+			// still receive the helpers that they expect.
+			if (dragInteractor.helper == null) {
+				dragInteractor.attachToHelper(helper);
+			}
+			if (swipeInteractor.helper == null) {
+				swipeInteractor.attachToHelper(helper);
+			}
+		}
+
+		/**
+		 */
+		@Override protected boolean canAttachAdapter(@NonNull final RecyclerView.Adapter adapter) {
+			return dragInteractor.canAttachAdapter(adapter) || swipeInteractor.canAttachAdapter(adapter);
+		}
+
+		/**
+		 */
+		@Override protected void onAdapterAttached(@NonNull final RecyclerView.Adapter adapter) {
+			super.onAdapterAttached(adapter);
+			if (dragInteractor.canAttachAdapter(adapter)) {
+				dragInteractor.attachAdapter(adapter);
+			}
+			if (swipeInteractor.canAttachAdapter(adapter)) {
+				swipeInteractor.attachAdapter(adapter);
+			}
+		}
+
+		/**
+		 */
+		@Override protected void onAdapterDetached(@NonNull final RecyclerView.Adapter adapter) {
+			super.onAdapterDetached(adapter);
+			dragInteractor.attachAdapter(null);
+			swipeInteractor.attachAdapter(null);
+			this.dragHolder = null;
+			this.swipeHolder = null;
+		}
+
+		/**
+		 */
+		@Override void setMetricsListener(@NonNull final RecyclerViewItemHelper helper, @Nullable final OnInteractionMetricsListener listener) {
+			// Gestures are handled by the child interactors, so the metrics are collected by them.
+			dragInteractor.setMetricsListener(helper, listener);
+			swipeInteractor.setMetricsListener(helper, listener);
+		}
+
+		/**
+		 */
+		@Override public boolean isActive() {
+			return dragInteractor.isActive() || swipeInteractor.isActive();
+		}
+
+		/**
+		 */
+		@Override public boolean isLongPressDragEnabled() {
+			return dragInteractor.isLongPressDragEnabled();
+		}
+
+		/**
+		 */
+		@Override public boolean isItemViewSwipeEnabled() {
+			return swipeInteractor.isItemViewSwipeEnabled();
+		}
+
+		/**
+		 */
+		@Override public int getMovementFlags(@NonNull final RecyclerView recyclerView, @NonNull final RecyclerView.ViewHolder viewHolder) {
+			if (!enabled) {
+				return 0;
+			}
+			final int dragFlags = (dragInteractor.getMovementFlags(recyclerView, viewHolder) >> (ACTION_STATE_DRAG * DIRECTION_FLAG_COUNT)) & DIRECTION_FLAGS_MASK;
+			final int swipeFlags = (swipeInteractor.getMovementFlags(recyclerView, viewHolder) >> (ACTION_STATE_SWIPE * DIRECTION_FLAG_COUNT)) & DIRECTION_FLAGS_MASK;
+			return dragFlags == 0 && swipeFlags == 0 ? 0 : makeMovementFlags(dragFlags, swipeFlags);
+		}
+
+		/**
+		 */
+		@Override public void onSelectedChanged(@Nullable final RecyclerView.ViewHolder viewHolder, final int actionState) {
+			switch (actionState) {
+				case ACTION_STATE_DRAG:
+					this.dragHolder = viewHolder;
+					dragInteractor.onSelectedChanged(viewHolder, actionState);
+					break;
+				case ACTION_STATE_SWIPE:
+					this.swipeHolder = viewHolder;
+					swipeInteractor.onSelectedChanged(viewHolder, actionState);
+					break;
+				case ACTION_STATE_IDLE:
+				default:
+					dragInteractor.onSelectedChanged(viewHolder, actionState);
+					swipeInteractor.onSelectedChanged(viewHolder, actionState);
+					break;
+			}
+		}
+
+		/**
+		 */
+		@Override public boolean onMove(
+				@NonNull final RecyclerView recyclerView,
+				@NonNull final RecyclerView.ViewHolder current,
+				@NonNull final RecyclerView.ViewHolder target
+		) {
+			return dragInteractor.onMove(recyclerView, current, target);
+		}
+
+		/**
+		 */
+		@Override public void onMoved(
+				@NonNull final RecyclerView recyclerView,
+				@NonNull final RecyclerView.ViewHolder viewHolder,
+				final int fromPosition,
+				@NonNull final RecyclerView.ViewHolder target,
+				final int toPosition,
+				final int x,
+				final int y
+		) {
+			dragInteractor.onMoved(recyclerView, viewHolder, fromPosition, target, toPosition, x, y);
+		}
+
+		/**
+		 */
+		@Override public boolean canDropOver(
+				@NonNull final RecyclerView recyclerView,
+				@NonNull final RecyclerView.ViewHolder current,
+				@NonNull final RecyclerView.ViewHolder target
+		) {
+			return dragInteractor.canDropOver(recyclerView, current, target);
+		}
+
+		/**
+		 */
+		@Override public RecyclerView.ViewHolder chooseDropTarget(
+				@NonNull final RecyclerView.ViewHolder selected,
+				@NonNull final List<RecyclerView.ViewHolder> dropTargets,
+				final int curX,
+				final int curY
+		) {
+			return dragInteractor.chooseDropTarget(selected, dropTargets, curX, curY);
+		}
+
+		/**
+		 */
+		@Override public float getMoveThreshold(@NonNull final RecyclerView.ViewHolder viewHolder) {
+			return dragInteractor.getMoveThreshold(viewHolder);
+		}
+
+		/**
+		 */
+		@Override public int getBoundingBoxMargin() {
+			return dragInteractor.getBoundingBoxMargin();
+		}
+
+		/**
+		 */
+		@Override public int interpolateOutOfBoundsScroll(
+				@NonNull final RecyclerView recyclerView,
+				final int viewSize,
+				final int viewSizeOutOfBounds,
+				final int totalSize,
+				final long msSinceStartScroll
+		) {
+			return dragInteractor.interpolateOutOfBoundsScroll(recyclerView, viewSize, viewSizeOutOfBounds, totalSize, msSinceStartScroll);
+		}
+
+		/**
+		 */
+		@Override public void onSwiped(@NonNull final RecyclerView.ViewHolder viewHolder, final int direction) {
+			swipeInteractor.onSwiped(viewHolder, direction);
+		}
+
+		/**
+		 */
+		@Override public float getSwipeThreshold(@NonNull final RecyclerView.ViewHolder viewHolder) {
+			return swipeInteractor.getSwipeThreshold(viewHolder);
+		}
+
+		/**
+		 */
+		@Override public float getSwipeEscapeVelocity(final float defaultValue) {
+			return swipeInteractor.getSwipeEscapeVelocity(defaultValue);
+		}
+
+		/**
+		 */
+		@Override public float getSwipeVelocityThreshold(final float defaultValue) {
+			return swipeInteractor.getSwipeVelocityThreshold(defaultValue);
+		}
+
+		/**
+		 */
+		@Override public long getAnimationDuration(@NonNull final RecyclerView recyclerView, final int animationType, final float animateDx, final float animateDy) {
+			return animationType == ANIMATION_TYPE_DRAG ?
+					dragInteractor.getAnimationDuration(recyclerView, animationType, animateDx, animateDy) :
+					swipeInteractor.getAnimationDuration(recyclerView, animationType, animateDx, animateDy);
+		}
+
+		/**
+		 */
+		@Override public void clearView(@NonNull final RecyclerView recyclerView, @NonNull final RecyclerView.ViewHolder viewHolder) {
+			if (viewHolder == dragHolder) {
+				this.dragHolder = null;
+				dragInteractor.clearView(recyclerView, viewHolder);
+			} else if (viewHolder == swipeHolder) {
+				this.swipeHolder = null;
+				swipeInteractor.clearView(recyclerView, viewHolder);
+			} else {
+				super.clearView(recyclerView, viewHolder);
+			}
+		}
+
+		/**
+		 */
+		@Override public void onChildDraw(
+				@NonNull final Canvas canvas,
+				@NonNull final RecyclerView recyclerView,
+				@NonNull final RecyclerView.ViewHolder viewHolder,
+				final float dX,
+				final float dY,
+				final int actionState,
+				final boolean isCurrentlyActive
+		) {
+			switch (actionState) {
+				case ACTION_STATE_DRAG:
+					dragInteractor.onChildDraw(canvas, recyclerView, viewHolder, dX, dY, actionState, isCurrentlyActive);
+					break;
+				case ACTION_STATE_SWIPE:
+					swipeInteractor.onChildDraw(canvas, recyclerView, viewHolder, dX, dY, actionState, isCurrentlyActive);
+					break;
+				default:
+					super.onChildDraw(canvas, recyclerView, viewHolder, dX, dY, actionState, isCurrentlyActive);
+					break;
+			}
+		}
+
+		/**
+		 */
+		@Override public void onChildDrawOver(
+				@NonNull final Canvas canvas,
+				@NonNull final RecyclerView recyclerView,
+				@NonNull final RecyclerView.ViewHolder viewHolder,
+				final float dX,
+				final float dY,
+				final int actionState,
+				final boolean isCurrentlyActive
+		) {
+			switch (actionState) {
+				case ACTION_STATE_DRAG:
+					dragInteractor.onChildDrawOver(canvas, recyclerView, viewHolder, dX, dY, actionState, isCurrentlyActive);
+					break;
+				case ACTION_STATE_SWIPE:
+					swipeInteractor.onChildDrawOver(canvas, recyclerView, viewHolder, dX, dY, actionState, isCurrentlyActive);
+					break;
+				default:
+					super.onChildDrawOver(canvas, recyclerView, viewHolder, dX, dY, actionState, isCurrentlyActive);
+					break;
+			}
+		}
+	}
+}
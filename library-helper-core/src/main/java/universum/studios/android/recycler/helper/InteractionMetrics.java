@@ -0,0 +1,347 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.helper;
+
+import android.support.annotation.IntDef;
+import android.support.annotation.IntRange;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Arrays;
+
+/**
+ * Metrics collected by {@link RecyclerViewItemHelper} for a single drag or swipe gesture, that is
+ * from the moment when a view holder is selected for interaction until its view is cleared. The
+ * metrics contain durations of frames drawn during the gesture, count of dropped frames and
+ * durations of callbacks invoked on the item interactor and on the adapter during the gesture.
+ * <p>
+ * Frame durations are recorded into a histogram with {@link #HISTOGRAM_BUCKET_COUNT} buckets each
+ * {@link #HISTOGRAM_BUCKET_WIDTH_MILLIS} milliseconds wide, where the last bucket also contains all
+ * longer frames. Frames are recorded only on {@link android.os.Build.VERSION_CODES#JELLY_BEAN} and
+ * newer Android versions.
+ * <p>
+ * <b>Note</b> that the same metrics instance is reused for all gestures handled by the helper, so
+ * it should not be held by {@link RecyclerViewItemHelper.OnInteractionMetricsListener} after
+ * metrics have been reported to it.
+ *
+ * @author Martin Albedinsky
+ * @since 1.1
+ *
+ * @see RecyclerViewItemHelper#setOnInteractionMetricsListener(RecyclerViewItemHelper.OnInteractionMetricsListener)
+ */
+public final class InteractionMetrics {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "InteractionMetrics";
+
+	/**
+	 * Defines an annotation for determining callbacks of which durations are recorded in metrics.
+	 *
+	 * <ul>
+	 * <li>{@link #CALLBACK_MOVE}</li>
+	 * <li>{@link #CALLBACK_CHILD_DRAW}</li>
+	 * <li>{@link #CALLBACK_ADAPTER}</li>
+	 * </ul>
+	 */
+	@IntDef({
+			CALLBACK_MOVE,
+			CALLBACK_CHILD_DRAW,
+			CALLBACK_ADAPTER
+	})
+	@Retention(RetentionPolicy.SOURCE)
+	public @interface Callback {}
+
+	/**
+	 * Identifies {@link android.support.v7.widget.helper.ItemTouchHelper.Callback#onMove onMove(...)}
+	 * callback of the item interactor.
+	 */
+	public static final int CALLBACK_MOVE = 0;
+
+	/**
+	 * Identifies {@link android.support.v7.widget.helper.ItemTouchHelper.Callback#onChildDraw onChildDraw(...)}
+	 * and {@link android.support.v7.widget.helper.ItemTouchHelper.Callback#onChildDrawOver onChildDrawOver(...)}
+	 * callbacks of the item interactor.
+	 */
+	public static final int CALLBACK_CHILD_DRAW = 1;
+
+	/**
+	 * Identifies callbacks invoked by the item interactor on the attached adapter.
+	 */
+	public static final int CALLBACK_ADAPTER = 2;
+
+	/**
+	 * Count of callbacks of which durations are recorded.
+	 */
+	private static final int CALLBACK_COUNT = 3;
+
+	/**
+	 * Count of buckets of the frame durations histogram.
+	 */
+	public static final int HISTOGRAM_BUCKET_COUNT = 16;
+
+	/**
+	 * Width of a single bucket of the frame durations histogram in milliseconds.
+	 */
+	public static final int HISTOGRAM_BUCKET_WIDTH_MILLIS = 4;
+
+	/**
+	 * Count of nanoseconds in a single millisecond.
+	 */
+	private static final long NANOS_PER_MILLI = 1000000L;
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Histogram with counts of frames by their durations.
+	 */
+	private final int[] frameHistogram = new int[HISTOGRAM_BUCKET_COUNT];
+
+	/**
+	 * Counts of recorded callbacks by their types.
+	 */
+	private final int[] callbackCounts = new int[CALLBACK_COUNT];
+
+	/**
+	 * Total durations of recorded callbacks by their types.
+	 */
+	private final long[] callbackTotalNanos = new long[CALLBACK_COUNT];
+
+	/**
+	 * Maximum durations of recorded callbacks by their types.
+	 */
+	private final long[] callbackMaxNanos = new long[CALLBACK_COUNT];
+
+	/**
+	 * Interaction for which have been these metrics collected.
+	 */
+	private int interaction;
+
+	/**
+	 * Expected duration of a single frame.
+	 */
+	private long frameIntervalNanos;
+
+	/**
+	 * Duration of the whole gesture.
+	 */
+	private long durationNanos;
+
+	/**
+	 * Count of recorded frames.
+	 */
+	private int frameCount;
+
+	/**
+	 * Count of frames that have been dropped during the gesture.
+	 */
+	private int droppedFrameCount;
+
+	/**
+	 * Duration of the longest recorded frame.
+	 */
+	private long maxFrameNanos;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of InteractionMetrics.
+	 */
+	InteractionMetrics() {
+		super();
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Resets these metrics to be ready for recording of a new gesture.
+	 *
+	 * @param interaction        The interaction of the new gesture.
+	 * @param frameIntervalNanos Expected duration of a single frame.
+	 */
+	void reset(final int interaction, final long frameIntervalNanos) {
+		this.interaction = interaction;
+		this.frameIntervalNanos = frameIntervalNanos;
+		this.durationNanos = 0;
+		this.frameCount = droppedFrameCount = 0;
+		this.maxFrameNanos = 0;
+		Arrays.fill(frameHistogram, 0);
+		Arrays.fill(callbackCounts, 0);
+		Arrays.fill(callbackTotalNanos, 0);
+		Arrays.fill(callbackMaxNanos, 0);
+	}
+
+	/**
+	 * Records duration of a single frame drawn during the gesture.
+	 *
+	 * @param frameNanos Duration of the frame in nanoseconds.
+	 */
+	void recordFrame(final long frameNanos) {
+		this.frameCount++;
+		this.frameHistogram[(int) Math.min(frameNanos / NANOS_PER_MILLI / HISTOGRAM_BUCKET_WIDTH_MILLIS, HISTOGRAM_BUCKET_COUNT - 1)]++;
+		this.maxFrameNanos = Math.max(maxFrameNanos, frameNanos);
+		if (frameIntervalNanos > 0 && frameNanos > frameIntervalNanos) {
+			// Frames that would fit into the duration in addition to the recorded one have been dropped.
+			this.droppedFrameCount += (int) ((frameNanos + frameIntervalNanos / 2) / frameIntervalNanos) - 1;
+		}
+	}
+
+	/**
+	 * Records duration of a single invocation of the specified <var>callback</var>.
+	 *
+	 * @param callback      The callback that has been invoked.
+	 * @param durationNanos Duration of the callback in nanoseconds.
+	 */
+	void recordCallback(@Callback final int callback, final long durationNanos) {
+		this.callbackCounts[callback]++;
+		this.callbackTotalNanos[callback] += durationNanos;
+		this.callbackMaxNanos[callback] = Math.max(callbackMaxNanos[callback], durationNanos);
+	}
+
+	/**
+	 * Sets the duration of the whole gesture.
+	 *
+	 * @param durationNanos The gesture duration in nanoseconds.
+	 */
+	void setDurationNanos(final long durationNanos) {
+		this.durationNanos = durationNanos;
+	}
+
+	/**
+	 * Returns the interaction for which have been these metrics collected.
+	 *
+	 * @return Either {@link RecyclerViewItemHelper#ACTION_STATE_DRAG} or {@link RecyclerViewItemHelper#ACTION_STATE_SWIPE}.
+	 */
+	@RecyclerViewItemHelper.Interaction public int getInteraction() {
+		return interaction;
+	}
+
+	/**
+	 * Returns the expected duration of a single frame used to determine dropped frames.
+	 *
+	 * @return Frame interval in nanoseconds.
+	 */
+	public long getFrameIntervalNanos() {
+		return frameIntervalNanos;
+	}
+
+	/**
+	 * Returns the duration of the whole gesture.
+	 *
+	 * @return Gesture duration in nanoseconds.
+	 */
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	/**
+	 * Returns the count of frames recorded during the gesture.
+	 *
+	 * @return Frames count.
+	 */
+	public int getFrameCount() {
+		return frameCount;
+	}
+
+	/**
+	 * Returns the count of frames that have been dropped during the gesture, that is count of
+	 * frame intervals elapsed without a frame being drawn.
+	 *
+	 * @return Dropped frames count.
+	 */
+	public int getDroppedFrameCount() {
+		return droppedFrameCount;
+	}
+
+	/**
+	 * Returns the duration of the longest frame recorded during the gesture.
+	 *
+	 * @return Maximum frame duration in nanoseconds.
+	 */
+	public long getMaxFrameNanos() {
+		return maxFrameNanos;
+	}
+
+	/**
+	 * Returns the count of frames recorded in the specified <var>bucket</var> of the frame durations
+	 * histogram. The bucket at index {@code i} contains frames with duration from the range
+	 * {@code [i * HISTOGRAM_BUCKET_WIDTH_MILLIS, (i + 1) * HISTOGRAM_BUCKET_WIDTH_MILLIS)} milliseconds.
+	 *
+	 * @param bucket Index of the desired histogram bucket.
+	 * @return Frames count within the bucket.
+	 */
+	public int getFrameHistogramCount(@IntRange(from = 0, to = HISTOGRAM_BUCKET_COUNT - 1) final int bucket) {
+		return frameHistogram[bucket];
+	}
+
+	/**
+	 * Returns the count of invocations of the specified <var>callback</var> recorded during the gesture.
+	 *
+	 * @param callback The desired callback.
+	 * @return Callback invocations count.
+	 */
+	public int getCallbackCount(@Callback final int callback) {
+		return callbackCounts[callback];
+	}
+
+	/**
+	 * Returns the total duration of all invocations of the specified <var>callback</var> recorded
+	 * during the gesture.
+	 *
+	 * @param callback The desired callback.
+	 * @return Total callback duration in nanoseconds.
+	 */
+	public long getCallbackTotalNanos(@Callback final int callback) {
+		return callbackTotalNanos[callback];
+	}
+
+	/**
+	 * Returns the duration of the longest invocation of the specified <var>callback</var> recorded
+	 * during the gesture.
+	 *
+	 * @param callback The desired callback.
+	 * @return Maximum callback duration in nanoseconds.
+	 */
+	public long getCallbackMaxNanos(@Callback final int callback) {
+		return callbackMaxNanos[callback];
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+}
@@ -0,0 +1,263 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.helper;
+
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.RequiresApi;
+import android.support.v7.widget.RecyclerView;
+import android.view.Choreographer;
+import android.view.Display;
+
+/**
+ * Tracker which collects {@link InteractionMetrics} for gestures handled by a single item interactor
+ * and reports them to {@link RecyclerViewItemHelper.OnInteractionMetricsListener} whenever a gesture
+ * ends. Durations of frames are tracked via {@link Choreographer} frame callback which is registered
+ * while the tracked interactor is active.
+ *
+ * @author Martin Albedinsky
+ * @since 1.1
+ */
+final class InteractionMetricsTracker {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "InteractionMetricsTracker";
+
+	/**
+	 * Frame interval used if the refresh rate of the display cannot be resolved.
+	 */
+	static final long DEFAULT_FRAME_INTERVAL_NANOS = 16666667L;
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Helper reported as source of the collected metrics.
+	 */
+	final RecyclerViewItemHelper helper;
+
+	/**
+	 * Interactor for which are the metrics collected.
+	 */
+	final RecyclerViewItemHelper.ItemInteractor interactor;
+
+	/**
+	 * Metrics reused for all tracked gestures.
+	 */
+	final InteractionMetrics metrics = new InteractionMetrics();
+
+	/**
+	 * Frame tracker used to record frame durations. May be {@code null} on Android versions
+	 * below {@link Build.VERSION_CODES#JELLY_BEAN}.
+	 */
+	private final FrameTracker frameTracker;
+
+	/**
+	 * Listener to which are the collected metrics reported.
+	 */
+	RecyclerViewItemHelper.OnInteractionMetricsListener listener;
+
+	/**
+	 * Boolean flag indicating whether a gesture is being tracked at this time.
+	 */
+	boolean running;
+
+	/**
+	 * Time at which has been the currently tracked gesture started.
+	 */
+	private long startTimeNanos;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of InteractionMetricsTracker for the specified <var>interactor</var>.
+	 *
+	 * @param helper     The helper to be reported as source of the collected metrics.
+	 * @param interactor The interactor for which to collect the metrics.
+	 */
+	InteractionMetricsTracker(@NonNull final RecyclerViewItemHelper helper, @NonNull final RecyclerViewItemHelper.ItemInteractor interactor) {
+		this.helper = helper;
+		this.interactor = interactor;
+		this.frameTracker = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN ? new FrameTracker(this) : null;
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Resolves the expected frame interval for the display of the specified <var>recyclerView</var>.
+	 *
+	 * @param recyclerView The recycler view for which to resolve the interval. May be {@code null}.
+	 * @return Frame interval in nanoseconds.
+	 */
+	private static long resolveFrameInterval(@Nullable final RecyclerView recyclerView) {
+		if (recyclerView != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+			final Display display = recyclerView.getDisplay();
+			final float refreshRate = display == null ? 0 : display.getRefreshRate();
+			if (refreshRate > 0) {
+				return (long) (1000000000L / refreshRate);
+			}
+		}
+		return DEFAULT_FRAME_INTERVAL_NANOS;
+	}
+
+	/**
+	 * Starts tracking of a new gesture for the specified <var>interaction</var>. If there is already
+	 * a gesture being tracked, it is finished first.
+	 *
+	 * @param interaction The interaction of the new gesture.
+	 */
+	void start(final int interaction) {
+		if (running) {
+			finish();
+		}
+		this.running = true;
+		this.startTimeNanos = System.nanoTime();
+		this.metrics.reset(interaction, resolveFrameInterval(helper.recyclerView));
+		if (frameTracker != null) {
+			this.frameTracker.start();
+		}
+	}
+
+	/**
+	 * Records duration of a single invocation of the specified <var>callback</var> if there is
+	 * a gesture being tracked.
+	 *
+	 * @param callback       The invoked callback.
+	 * @param startTimeNanos Time at which has been the callback invoked.
+	 */
+	void recordCallback(@InteractionMetrics.Callback final int callback, final long startTimeNanos) {
+		if (running) {
+			this.metrics.recordCallback(callback, System.nanoTime() - startTimeNanos);
+		}
+	}
+
+	/**
+	 * Finishes tracking of the current gesture, if any, and reports the collected metrics to the
+	 * listener.
+	 */
+	void finish() {
+		if (running) {
+			this.stop();
+			this.metrics.setDurationNanos(System.nanoTime() - startTimeNanos);
+			if (listener != null) {
+				this.listener.onInteractionMetrics(helper, metrics);
+			}
+		}
+	}
+
+	/**
+	 * Stops tracking of the current gesture, if any, without reporting of the collected metrics.
+	 */
+	void stop() {
+		this.running = false;
+		if (frameTracker != null) {
+			this.frameTracker.stop();
+		}
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+
+	/**
+	 * A {@link Choreographer.FrameCallback} implementation which records durations between
+	 * consecutive frames for as long as the tracked interactor is active.
+	 */
+	@RequiresApi(Build.VERSION_CODES.JELLY_BEAN)
+	static final class FrameTracker implements Choreographer.FrameCallback {
+
+		/**
+		 * Tracker to which are the recorded frames delivered.
+		 */
+		private final InteractionMetricsTracker tracker;
+
+		/**
+		 * Time of the last received frame. Zero if no frame has been received yet.
+		 */
+		long lastFrameTimeNanos;
+
+		/**
+		 * Creates a new instance of FrameTracker for the specified <var>tracker</var>.
+		 *
+		 * @param tracker The tracker to which to deliver the recorded frames.
+		 */
+		FrameTracker(final InteractionMetricsTracker tracker) {
+			this.tracker = tracker;
+		}
+
+		/**
+		 * Starts receiving of frame callbacks.
+		 */
+		void start() {
+			this.lastFrameTimeNanos = 0;
+			final Choreographer choreographer = Choreographer.getInstance();
+			choreographer.removeFrameCallback(this);
+			choreographer.postFrameCallback(this);
+		}
+
+		/**
+		 * Stops receiving of frame callbacks.
+		 */
+		void stop() {
+			Choreographer.getInstance().removeFrameCallback(this);
+		}
+
+		/**
+		 */
+		@Override public void doFrame(final long frameTimeNanos) {
+			if (!tracker.running) {
+				return;
+			}
+			if (!tracker.interactor.isActive()) {
+				if (lastFrameTimeNanos == 0) {
+					// Interactor has not handled the selected gesture at all.
+					tracker.stop();
+				} else {
+					tracker.finish();
+				}
+				return;
+			}
+			if (lastFrameTimeNanos != 0) {
+				tracker.metrics.recordFrame(frameTimeNanos - lastFrameTimeNanos);
+			}
+			this.lastFrameTimeNanos = frameTimeNanos;
+			Choreographer.getInstance().postFrameCallback(this);
+		}
+	}
+}
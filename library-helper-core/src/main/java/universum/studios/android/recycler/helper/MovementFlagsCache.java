@@ -0,0 +1,154 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.helper;
+
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseIntArray;
+
+import universum.studios.android.recycler.AdapterPositionCache;
+
+/**
+ * Cache used by {@link RecyclerViewItemHelper.ItemInteractor} to store movement flags of items
+ * either by their view types or by their adapter positions. Entries stored by adapter positions are
+ * kept in sync with data set changes of the attached adapter as described for {@link AdapterPositionCache}.
+ * Entries stored by view types are invalidated only when the whole data set changes.
+ *
+ * @author Martin Albedinsky
+ * @since 1.1
+ */
+final class MovementFlagsCache extends AdapterPositionCache {
+
+	/*
+	 * Constants ===================================================================================
+	 */
+
+	/**
+	 * Log TAG.
+	 */
+	// private static final String TAG = "MovementFlagsCache";
+
+	/**
+	 * Value returned by {@link #get(RecyclerView.ViewHolder)} if there are no flags cached for
+	 * the requested view holder.
+	 */
+	static final int NO_FLAGS = -1;
+
+	/**
+	 * Initial count of positions for which is the cache allocated in {@link RecyclerViewItemHelper#MOVEMENT_FLAGS_CACHING_POSITION}
+	 * mode.
+	 */
+	private static final int INITIAL_CAPACITY = 32;
+
+	/*
+	 * Interface ===================================================================================
+	 */
+
+	/*
+	 * Static members ==============================================================================
+	 */
+
+	/*
+	 * Members =====================================================================================
+	 */
+
+	/**
+	 * Mode determining by which keys are the flags cached.
+	 */
+	private final int mode;
+
+	/**
+	 * Flags cached by view types. Used only in {@link RecyclerViewItemHelper#MOVEMENT_FLAGS_CACHING_VIEW_TYPE}
+	 * mode.
+	 */
+	private final SparseIntArray viewTypeFlags;
+
+	/*
+	 * Constructors ================================================================================
+	 */
+
+	/**
+	 * Creates a new instance of MovementFlagsCache for the specified caching <var>mode</var>.
+	 *
+	 * @param mode Either {@link RecyclerViewItemHelper#MOVEMENT_FLAGS_CACHING_VIEW_TYPE} or
+	 *             {@link RecyclerViewItemHelper#MOVEMENT_FLAGS_CACHING_POSITION}.
+	 */
+	MovementFlagsCache(@RecyclerViewItemHelper.MovementFlagsCaching final int mode) {
+		// Entries by positions are not allocated at all when caching by view types, so the data set
+		// changes of the adapter are ignored by this cache in such case.
+		super(1, mode == RecyclerViewItemHelper.MOVEMENT_FLAGS_CACHING_POSITION ? INITIAL_CAPACITY : 0);
+		this.mode = mode;
+		this.viewTypeFlags = mode == RecyclerViewItemHelper.MOVEMENT_FLAGS_CACHING_POSITION ? null : new SparseIntArray();
+	}
+
+	/*
+	 * Methods =====================================================================================
+	 */
+
+	/**
+	 * Returns the mode determining by which keys are the flags cached.
+	 *
+	 * @return Mode of this cache.
+	 */
+	@RecyclerViewItemHelper.MovementFlagsCaching int getMode() {
+		return mode;
+	}
+
+	/**
+	 * Returns the movement flags cached for the specified <var>viewHolder</var>.
+	 *
+	 * @param viewHolder The view holder for which to return its cached flags.
+	 * @return Cached flags or {@link #NO_FLAGS} if there are no flags cached for the holder.
+	 */
+	int get(@NonNull final RecyclerView.ViewHolder viewHolder) {
+		if (viewTypeFlags != null) {
+			return viewTypeFlags.get(viewHolder.getItemViewType(), NO_FLAGS);
+		}
+		final int position = viewHolder.getAdapterPosition();
+		return contains(position) ? get(position, 0) : NO_FLAGS;
+	}
+
+	/**
+	 * Stores the given movement <var>flags</var> for the specified <var>viewHolder</var>.
+	 *
+	 * @param viewHolder The view holder for which to cache its flags.
+	 * @param flags      The flags to be cached.
+	 */
+	void put(@NonNull final RecyclerView.ViewHolder viewHolder, final int flags) {
+		if (viewTypeFlags != null) {
+			this.viewTypeFlags.put(viewHolder.getItemViewType(), flags);
+			return;
+		}
+		final int position = viewHolder.getAdapterPosition();
+		if (position >= 0) {
+			put(position, 0, flags);
+		}
+	}
+
+	/**
+	 */
+	@Override public void clear() {
+		super.clear();
+		if (viewTypeFlags != null) viewTypeFlags.clear();
+	}
+
+	/*
+	 * Inner classes ===============================================================================
+	 */
+}
@@ -22,6 +22,7 @@ import android.graphics.Canvas;
 import android.support.annotation.IntDef;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.support.v4.os.TraceCompat;
 import android.support.v7.widget.RecyclerView;
 import android.support.v7.widget.helper.ItemTouchHelper;
 import android.view.View;
@@ -29,6 +30,8 @@ import android.view.View;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 
+import universum.studios.android.recycler.RecyclerTracing;
+
 /**
  * An {@link ItemTouchHelper} implementation that is used as base class by all item helpers from the
  * Recycler library and is also encouraged to be used as base class by custom helper implementations.
@@ -49,6 +52,16 @@ public abstract class RecyclerViewItemHelper<I extends RecyclerViewItemHelper.It
 	 */
 	// private static final String TAG = "RecyclerViewItemHelper";
 
+	/**
+	 * Name of the trace section wrapping {@link ItemInteractor#onChildDraw(Canvas, RecyclerView, RecyclerView.ViewHolder, float, float, int, boolean)}.
+	 */
+	private static final String TRACE_CHILD_DRAW = "RecyclerViewItemHelper.onChildDraw";
+
+	/**
+	 * Name of the trace section wrapping {@link ItemInteractor#onChildDrawOver(Canvas, RecyclerView, RecyclerView.ViewHolder, float, float, int, boolean)}.
+	 */
+	private static final String TRACE_CHILD_DRAW_OVER = "RecyclerViewItemHelper.onChildDrawOver";
+
 	/**
 	 * Defines an annotation for determining supported directions by {@link ItemTouchHelper} API.
 	 *
@@ -89,6 +102,45 @@ public abstract class RecyclerViewItemHelper<I extends RecyclerViewItemHelper.It
 	@Retention(RetentionPolicy.SOURCE)
 	public @interface Movement {}
 
+	/**
+	 * Defines an annotation for determining available modes of movement flags caching supported
+	 * by {@link ItemInteractor}.
+	 *
+	 * <ul>
+	 * <li>{@link #MOVEMENT_FLAGS_CACHING_NONE}</li>
+	 * <li>{@link #MOVEMENT_FLAGS_CACHING_VIEW_TYPE}</li>
+	 * <li>{@link #MOVEMENT_FLAGS_CACHING_POSITION}</li>
+	 * </ul>
+	 *
+	 * @see ItemInteractor#setMovementFlagsCaching(int)
+	 */
+	@IntDef({
+			MOVEMENT_FLAGS_CACHING_NONE,
+			MOVEMENT_FLAGS_CACHING_VIEW_TYPE,
+			MOVEMENT_FLAGS_CACHING_POSITION
+	})
+	@Retention(RetentionPolicy.SOURCE)
+	public @interface MovementFlagsCaching {}
+
+	/**
+	 * Mode for {@link ItemInteractor#setMovementFlagsCaching(int)} which disables caching of movement
+	 * flags, so the flags are requested from the adapter each time they are needed.
+	 */
+	public static final int MOVEMENT_FLAGS_CACHING_NONE = 0;
+
+	/**
+	 * Mode for {@link ItemInteractor#setMovementFlagsCaching(int)} which caches movement flags by
+	 * view types of items. This mode should be used only if the flags are constant for all items
+	 * of the same view type.
+	 */
+	public static final int MOVEMENT_FLAGS_CACHING_VIEW_TYPE = 1;
+
+	/**
+	 * Mode for {@link ItemInteractor#setMovementFlagsCaching(int)} which caches movement flags by
+	 * adapter positions of items.
+	 */
+	public static final int MOVEMENT_FLAGS_CACHING_POSITION = 2;
+
 	/**
 	 * Defines an annotation for determining available interaction states for {@link ItemTouchHelper} API.
 	 *
@@ -168,6 +220,29 @@ public abstract class RecyclerViewItemHelper<I extends RecyclerViewItemHelper.It
 		void onDrawOver(@NonNull Canvas canvas, float dX, float dY, @Interaction int interaction, boolean isCurrentlyActive);
 	}
 
+	/**
+	 * Listener which may be used to receive {@link InteractionMetrics} collected for drag and swipe
+	 * gestures handled by a specific {@link RecyclerViewItemHelper}.
+	 *
+	 * @author Martin Albedinsky
+	 * @since 1.1
+	 *
+	 * @see RecyclerViewItemHelper#setOnInteractionMetricsListener(OnInteractionMetricsListener)
+	 */
+	public interface OnInteractionMetricsListener {
+
+		/**
+		 * Invoked whenever a gesture handled by the specified <var>helper</var> ends.
+		 * <p>
+		 * <b>Note</b> that the given metrics instance is reused by the helper for subsequent gestures,
+		 * so any of its values that need to be kept should be copied.
+		 *
+		 * @param helper  The helper which has handled the gesture.
+		 * @param metrics The metrics collected for the gesture.
+		 */
+		void onInteractionMetrics(@NonNull RecyclerViewItemHelper helper, @NonNull InteractionMetrics metrics);
+	}
+
 	/*
 	 * Static members ==============================================================================
 	 */
@@ -181,6 +256,11 @@ public abstract class RecyclerViewItemHelper<I extends RecyclerViewItemHelper.It
 	 */
 	final I interactor;
 
+	/**
+	 * Recycler view to which is this helper currently attached.
+	 */
+	RecyclerView recyclerView;
+
 	/*
 	 * Constructors ================================================================================
 	 */
@@ -213,10 +293,25 @@ public abstract class RecyclerViewItemHelper<I extends RecyclerViewItemHelper.It
 		return interactor;
 	}
 
+	/**
+	 * Registers a callback to be invoked whenever a drag or swipe gesture handled by this helper
+	 * ends in order to receive metrics collected for that gesture. Collecting of metrics is enabled
+	 * only while there is listener registered.
+	 *
+	 * @param listener The desired listener callback. May be {@code null} to clear the current one
+	 *                 and to disable collecting of metrics.
+	 *
+	 * @see InteractionMetrics
+	 */
+	public void setOnInteractionMetricsListener(@Nullable final OnInteractionMetricsListener listener) {
+		this.interactor.setMetricsListener(this, listener);
+	}
+
 	/**
 	 */
 	@Override public void attachToRecyclerView(@Nullable final RecyclerView recyclerView) {
 		super.attachToRecyclerView(recyclerView);
+		this.recyclerView = recyclerView;
 		if (recyclerView == null) {
 			this.interactor.attachAdapter(null);
 		} else {
@@ -259,6 +354,46 @@ public abstract class RecyclerViewItemHelper<I extends RecyclerViewItemHelper.It
 		 */
 		RecyclerView.Adapter adapter;
 
+		/**
+		 * View holder that has been selected for interaction via {@link #onSelectedChanged(RecyclerView.ViewHolder, int)}
+		 * and for which are the interactive view and interaction cached until {@link #clearView(RecyclerView, RecyclerView.ViewHolder)}
+		 * is called for it.
+		 */
+		RecyclerView.ViewHolder selectedHolder;
+
+		/**
+		 * The selected holder casted to {@link InteractiveViewHolder} or {@code null} if the selected
+		 * holder does not implement that interface.
+		 */
+		InteractiveViewHolder selectedInteractiveHolder;
+
+		/**
+		 * Interactive view of the selected holder resolved for the selected interaction. May be
+		 * {@code null} if the holder does not have any special interactive view.
+		 */
+		View selectedInteractiveView;
+
+		/**
+		 * Interaction for which has been the holder selected.
+		 */
+		int selectedInteraction = ACTION_STATE_IDLE;
+
+		/**
+		 * Cache with movement flags resolved for items of the attached adapter. May be {@code null}
+		 * if caching of movement flags is disabled.
+		 *
+		 * @see #setMovementFlagsCaching(int)
+		 */
+		MovementFlagsCache flagsCache;
+
+		/**
+		 * Tracker collecting metrics of gestures handled by this interactor. May be {@code null}
+		 * if collecting of metrics is disabled.
+		 *
+		 * @see #setMetricsListener(RecyclerViewItemHelper, OnInteractionMetricsListener)
+		 */
+		InteractionMetricsTracker metricsTracker;
+
 		/**
 		 * Attaches this interactor to the parent <var>helper</var>.
 		 *
@@ -307,6 +442,9 @@ public abstract class RecyclerViewItemHelper<I extends RecyclerViewItemHelper.It
 				onAdapterDetached(this.adapter);
 			}
 			this.adapter = adapter;
+			if (flagsCache != null) {
+				this.flagsCache.attachAdapter(adapter);
+			}
 			if (adapter != null) {
 				onAdapterAttached(adapter);
 			}
@@ -341,6 +479,77 @@ public abstract class RecyclerViewItemHelper<I extends RecyclerViewItemHelper.It
 			// specified adapter.
 		}
 
+		/**
+		 * Specifies whether and how should this interactor cache movement flags provided by the
+		 * attached adapter for its items. Cached flags are kept in sync with data set changes of
+		 * the adapter, so the adapter is asked for flags of a particular item again only if that
+		 * item has been changed.
+		 * <p>
+		 * If movement flags of an item may change without the adapter being notified about such
+		 * change, the cached flags should be invalidated via {@link #invalidateMovementFlags()}.
+		 * <p>
+		 * Default value: {@link #MOVEMENT_FLAGS_CACHING_NONE}
+		 *
+		 * @param caching The desired caching mode. One of {@link #MOVEMENT_FLAGS_CACHING_NONE},
+		 *                {@link #MOVEMENT_FLAGS_CACHING_VIEW_TYPE} or {@link #MOVEMENT_FLAGS_CACHING_POSITION}.
+		 *
+		 * @see #getMovementFlagsCaching()
+		 */
+		public void setMovementFlagsCaching(@MovementFlagsCaching final int caching) {
+			if (getMovementFlagsCaching() == caching) {
+				return;
+			}
+			if (flagsCache != null) {
+				this.flagsCache.attachAdapter(null);
+				this.flagsCache = null;
+			}
+			if (caching != MOVEMENT_FLAGS_CACHING_NONE) {
+				this.flagsCache = new MovementFlagsCache(caching);
+				this.flagsCache.attachAdapter(adapter);
+			}
+		}
+
+		/**
+		 * Returns the mode in which this interactor caches movement flags of items.
+		 *
+		 * @return Movement flags caching mode.
+		 *
+		 * @see #setMovementFlagsCaching(int)
+		 */
+		@MovementFlagsCaching public int getMovementFlagsCaching() {
+			return flagsCache == null ? MOVEMENT_FLAGS_CACHING_NONE : flagsCache.getMode();
+		}
+
+		/**
+		 * Invalidates all movement flags cached by this interactor, so the flags will be requested
+		 * from the attached adapter again.
+		 *
+		 * @see #setMovementFlagsCaching(int)
+		 */
+		public void invalidateMovementFlags() {
+			if (flagsCache != null) this.flagsCache.clear();
+		}
+
+		/**
+		 * Sets a listener to which should this interactor report metrics of handled gestures.
+		 *
+		 * @param helper   The helper to be reported as source of the metrics.
+		 * @param listener The desired listener. May be {@code null} to disable collecting of metrics.
+		 */
+		void setMetricsListener(@NonNull final RecyclerViewItemHelper helper, @Nullable final OnInteractionMetricsListener listener) {
+			if (listener == null) {
+				if (metricsTracker != null) {
+					this.metricsTracker.stop();
+					this.metricsTracker = null;
+				}
+			} else {
+				if (metricsTracker == null) {
+					this.metricsTracker = new InteractionMetricsTracker(helper, this);
+				}
+				this.metricsTracker.listener = listener;
+			}
+		}
+
 		/**
 		 * Sets a boolean flag indicating whether this interactor should be enabled or not.
 		 *
@@ -402,6 +611,104 @@ public abstract class RecyclerViewItemHelper<I extends RecyclerViewItemHelper.It
 			return enabled && adapter != null;
 		}
 
+		/**
+		 */
+		@Override public void onSelectedChanged(@Nullable final RecyclerView.ViewHolder viewHolder, final int actionState) {
+			if (viewHolder != null && actionState != ACTION_STATE_IDLE) {
+				selectInteractiveView(viewHolder, actionState);
+			}
+			super.onSelectedChanged(viewHolder, actionState);
+		}
+
+		/**
+		 * Resolves interactive view of the specified <var>viewHolder</var> for the specified
+		 * <var>interaction</var> and caches it along with the holder, so it does not need to be
+		 * resolved again for each drawn frame of the interaction. The cached data are kept until
+		 * {@link #releaseInteractiveView(RecyclerView.ViewHolder)} is called for the holder.
+		 *
+		 * @param viewHolder  The view holder selected for the interaction.
+		 * @param interaction The interaction for which has been the holder selected.
+		 * @return Interactive view of the holder or {@code null} if the holder does not have any
+		 * special interactive view for the interaction.
+		 */
+		@Nullable final View selectInteractiveView(@NonNull final RecyclerView.ViewHolder viewHolder, final int interaction) {
+			if (selectedHolder != viewHolder || selectedInteraction != interaction) {
+				this.selectedHolder = viewHolder;
+				this.selectedInteraction = interaction;
+				if (viewHolder instanceof InteractiveViewHolder) {
+					this.selectedInteractiveHolder = (InteractiveViewHolder) viewHolder;
+					this.selectedInteractiveView = selectedInteractiveHolder.getInteractiveView(interaction);
+				} else {
+					this.selectedInteractiveHolder = null;
+					this.selectedInteractiveView = null;
+				}
+				if (metricsTracker != null) {
+					this.metricsTracker.start(interaction);
+				}
+			}
+			return selectedInteractiveView;
+		}
+
+		/**
+		 * Releases the interactive view cached via {@link #selectInteractiveView(RecyclerView.ViewHolder, int)}
+		 * if it has been cached for the specified <var>viewHolder</var>.
+		 * <p>
+		 * Metrics of the interaction are not finished by this method, so the interactor may dispatch
+		 * its finish callbacks first and then call {@link #finishInteractionMetrics()}.
+		 *
+		 * @param viewHolder The view holder of which interaction has been finished.
+		 * @return {@code True} if the view holder has been the selected one and has been released,
+		 * {@code false} otherwise.
+		 */
+		final boolean releaseInteractiveView(@NonNull final RecyclerView.ViewHolder viewHolder) {
+			if (selectedHolder == viewHolder) {
+				this.selectedHolder = null;
+				this.selectedInteractiveHolder = null;
+				this.selectedInteractiveView = null;
+				this.selectedInteraction = ACTION_STATE_IDLE;
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Releases the interactive view of the specified <var>viewHolder</var> via
+		 * {@link #releaseInteractiveView(RecyclerView.ViewHolder)} and clears its item view via
+		 * default implementation of {@link #clearView(RecyclerView, RecyclerView.ViewHolder)}.
+		 * <p>
+		 * Unlike {@link #clearView(RecyclerView, RecyclerView.ViewHolder)} this does not finish
+		 * metrics of the interaction.
+		 *
+		 * @param recyclerView The RecyclerView to which is this interactor attached.
+		 * @param viewHolder   The view holder of which interaction has been finished.
+		 * @return {@code True} if the view holder has been the selected one and has been released,
+		 * {@code false} otherwise.
+		 */
+		final boolean clearInteractiveView(@NonNull final RecyclerView recyclerView, @NonNull final RecyclerView.ViewHolder viewHolder) {
+			final boolean released = releaseInteractiveView(viewHolder);
+			super.clearView(recyclerView, viewHolder);
+			return released;
+		}
+
+		/**
+		 * Finishes tracking of metrics for the current interaction, if any, and reports them to
+		 * the registered metrics listener. Should be called after all callbacks for the finished
+		 * interaction have been dispatched, so their duration is included in the metrics.
+		 */
+		final void finishInteractionMetrics() {
+			if (metricsTracker != null) {
+				this.metricsTracker.finish();
+			}
+		}
+
+		/**
+		 */
+		@Override public void clearView(@NonNull final RecyclerView recyclerView, @NonNull final RecyclerView.ViewHolder viewHolder) {
+			if (clearInteractiveView(recyclerView, viewHolder)) {
+				this.finishInteractionMetrics();
+			}
+		}
+
 		/**
 		 */
 		@Override public void onChildDraw(
@@ -413,17 +720,36 @@ public abstract class RecyclerViewItemHelper<I extends RecyclerViewItemHelper.It
 				final int actionState,
 				final boolean isCurrentlyActive
 		) {
-			if (viewHolder instanceof RecyclerViewItemHelper.InteractiveViewHolder) {
-				final InteractiveViewHolder interactiveViewHolder = (InteractiveViewHolder) viewHolder;
-				final View interactiveView = interactiveViewHolder.getInteractiveView(actionState);
+			final boolean tracing = RecyclerTracing.isEnabled();
+			if (tracing) TraceCompat.beginSection(TRACE_CHILD_DRAW);
+			try {
+				final long startTimeNanos = metricsTracker == null ? 0 : System.nanoTime();
+				final InteractiveViewHolder interactiveViewHolder;
+				final View interactiveView;
+				if (viewHolder == selectedHolder && actionState == selectedInteraction) {
+					interactiveViewHolder = selectedInteractiveHolder;
+					interactiveView = selectedInteractiveView;
+				} else if (viewHolder instanceof RecyclerViewItemHelper.InteractiveViewHolder) {
+					// Holder not selected via onSelectedChanged(...), resolve its interactive view directly.
+					interactiveViewHolder = (InteractiveViewHolder) viewHolder;
+					interactiveView = interactiveViewHolder.getInteractiveView(actionState);
+				} else {
+					interactiveViewHolder = null;
+					interactiveView = null;
+				}
 				if (interactiveView == null) {
 					super.onChildDraw(canvas, recyclerView, viewHolder, dX, dY, actionState, isCurrentlyActive);
 				} else {
 					getDefaultUIUtil().onDraw(canvas, recyclerView, interactiveView, dX, dY, actionState, isCurrentlyActive);
 				}
-				interactiveViewHolder.onDraw(canvas, dX, dY, actionState, isCurrentlyActive);
-			} else {
-				super.onChildDraw(canvas, recyclerView, viewHolder, dX, dY, actionState, isCurrentlyActive);
+				if (interactiveViewHolder != null) {
+					interactiveViewHolder.onDraw(canvas, dX, dY, actionState, isCurrentlyActive);
+				}
+				if (metricsTracker != null) {
+					this.metricsTracker.recordCallback(InteractionMetrics.CALLBACK_CHILD_DRAW, startTimeNanos);
+				}
+			} finally {
+				if (tracing) TraceCompat.endSection();
 			}
 		}
 
@@ -438,17 +764,35 @@ public abstract class RecyclerViewItemHelper<I extends RecyclerViewItemHelper.It
 				final int actionState,
 				final boolean isCurrentlyActive
 		) {
-			if (viewHolder instanceof RecyclerViewItemHelper.InteractiveViewHolder) {
-				final InteractiveViewHolder interactiveViewHolder = (InteractiveViewHolder) viewHolder;
-				final View interactiveView = interactiveViewHolder.getInteractiveView(actionState);
+			final boolean tracing = RecyclerTracing.isEnabled();
+			if (tracing) TraceCompat.beginSection(TRACE_CHILD_DRAW_OVER);
+			try {
+				final long startTimeNanos = metricsTracker == null ? 0 : System.nanoTime();
+				final InteractiveViewHolder interactiveViewHolder;
+				final View interactiveView;
+				if (viewHolder == selectedHolder && actionState == selectedInteraction) {
+					interactiveViewHolder = selectedInteractiveHolder;
+					interactiveView = selectedInteractiveView;
+				} else if (viewHolder instanceof RecyclerViewItemHelper.InteractiveViewHolder) {
+					interactiveViewHolder = (InteractiveViewHolder) viewHolder;
+					interactiveView = interactiveViewHolder.getInteractiveView(actionState);
+				} else {
+					interactiveViewHolder = null;
+					interactiveView = null;
+				}
 				if (interactiveView == null) {
 					super.onChildDrawOver(canvas, recyclerView, viewHolder, dX, dY, actionState, isCurrentlyActive);
 				} else {
 					getDefaultUIUtil().onDrawOver(canvas, recyclerView, interactiveView, dX, dY, actionState, isCurrentlyActive);
 				}
-				interactiveViewHolder.onDrawOver(canvas, dX, dY, actionState, isCurrentlyActive);
-			} else {
-				super.onChildDrawOver(canvas, recyclerView, viewHolder, dX, dY, actionState, isCurrentlyActive);
+				if (interactiveViewHolder != null) {
+					interactiveViewHolder.onDrawOver(canvas, dX, dY, actionState, isCurrentlyActive);
+				}
+				if (metricsTracker != null) {
+					this.metricsTracker.recordCallback(InteractionMetrics.CALLBACK_CHILD_DRAW, startTimeNanos);
+				}
+			} finally {
+				if (tracing) TraceCompat.endSection();
 			}
 		}
 	}
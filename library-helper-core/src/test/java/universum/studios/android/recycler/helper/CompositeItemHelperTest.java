@@ -0,0 +1,234 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.helper;
+
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.helper.ItemTouchHelper;
+import android.view.View;
+
+import org.junit.Test;
+
+import universum.studios.android.test.local.RobolectricTestCase;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Martin Albedinsky
+ */
+public final class CompositeItemHelperTest extends RobolectricTestCase {
+
+	@Test public void testInstantiation() {
+		// Arrange:
+		final TestInteractor mockDragInteractor = mock(TestInteractor.class);
+		final TestInteractor mockSwipeInteractor = mock(TestInteractor.class);
+		// Act:
+		final CompositeItemHelper helper = new CompositeItemHelper(mockDragInteractor, mockSwipeInteractor);
+		// Assert:
+		assertThat(helper.getInteractor().getDragInteractor(), is(sameInstance((RecyclerViewItemHelper.ItemInteractor) mockDragInteractor)));
+		assertThat(helper.getInteractor().getSwipeInteractor(), is(sameInstance((RecyclerViewItemHelper.ItemInteractor) mockSwipeInteractor)));
+		verify(mockDragInteractor).onAttachedToHelper(helper);
+		verify(mockSwipeInteractor).onAttachedToHelper(helper);
+	}
+
+	@Test public void testInstantiationWithHelpers() {
+		// Arrange:
+		final TestHelper dragHelper = new TestHelper(mock(TestInteractor.class));
+		final TestHelper swipeHelper = new TestHelper(mock(TestInteractor.class));
+		// Act:
+		final CompositeItemHelper helper = new CompositeItemHelper(dragHelper, swipeHelper);
+		// Assert:
+		assertThat(helper.getInteractor().getDragInteractor(), is(sameInstance((RecyclerViewItemHelper.ItemInteractor) dragHelper.getInteractor())));
+		assertThat(helper.getInteractor().getSwipeInteractor(), is(sameInstance((RecyclerViewItemHelper.ItemInteractor) swipeHelper.getInteractor())));
+		// Interactors remain attached to their original helpers.
+		assertThat(dragHelper.getInteractor().helper, is(sameInstance((RecyclerViewItemHelper) dragHelper)));
+		assertThat(swipeHelper.getInteractor().helper, is(sameInstance((RecyclerViewItemHelper) swipeHelper)));
+	}
+
+	@Test public void testCanAttachAdapter() {
+		// Arrange:
+		final RecyclerView.Adapter mockAdapter = mock(RecyclerView.Adapter.class);
+		final TestInteractor mockDragInteractor = mock(TestInteractor.class);
+		final TestInteractor mockSwipeInteractor = mock(TestInteractor.class);
+		final CompositeItemHelper.Interactor interactor = new CompositeItemHelper(mockDragInteractor, mockSwipeInteractor).getInteractor();
+		// Act + Assert:
+		assertThat(interactor.canAttachAdapter(mockAdapter), is(false));
+		when(mockSwipeInteractor.canAttachAdapter(mockAdapter)).thenReturn(true);
+		assertThat(interactor.canAttachAdapter(mockAdapter), is(true));
+	}
+
+	@Test public void testAttachAdapter() {
+		// Arrange:
+		final RecyclerView.Adapter mockAdapter = mock(RecyclerView.Adapter.class);
+		final TestInteractor mockDragInteractor = mock(TestInteractor.class);
+		final TestInteractor mockSwipeInteractor = mock(TestInteractor.class);
+		when(mockSwipeInteractor.canAttachAdapter(mockAdapter)).thenReturn(true);
+		final CompositeItemHelper.Interactor interactor = new CompositeItemHelper(mockDragInteractor, mockSwipeInteractor).getInteractor();
+		// Act:
+		interactor.attachAdapter(mockAdapter);
+		// Assert:
+		verify(mockDragInteractor, never()).onAdapterAttached(any(RecyclerView.Adapter.class));
+		verify(mockSwipeInteractor).onAdapterAttached(mockAdapter);
+	}
+
+	@Test public void testGetMovementFlags() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final RecyclerView.ViewHolder viewHolder = createViewHolder();
+		final TestInteractor mockDragInteractor = mock(TestInteractor.class);
+		final TestInteractor mockSwipeInteractor = mock(TestInteractor.class);
+		when(mockDragInteractor.getMovementFlags(mockRecyclerView, viewHolder)).thenReturn(ItemTouchHelper.Callback.makeMovementFlags(ItemTouchHelper.UP | ItemTouchHelper.DOWN, ItemTouchHelper.RIGHT));
+		when(mockSwipeInteractor.getMovementFlags(mockRecyclerView, viewHolder)).thenReturn(ItemTouchHelper.Callback.makeMovementFlags(ItemTouchHelper.DOWN, ItemTouchHelper.LEFT));
+		final CompositeItemHelper.Interactor interactor = new CompositeItemHelper(mockDragInteractor, mockSwipeInteractor).getInteractor();
+		// Act:
+		final int flags = interactor.getMovementFlags(mockRecyclerView, viewHolder);
+		// Assert:
+		assertThat(flags, is(ItemTouchHelper.Callback.makeMovementFlags(ItemTouchHelper.UP | ItemTouchHelper.DOWN, ItemTouchHelper.LEFT)));
+	}
+
+	@Test public void testGetMovementFlagsWithoutAnyFlags() {
+		// Arrange:
+		final CompositeItemHelper.Interactor interactor = new CompositeItemHelper(mock(TestInteractor.class), mock(TestInteractor.class)).getInteractor();
+		// Act + Assert:
+		assertThat(interactor.getMovementFlags(mock(RecyclerView.class), createViewHolder()), is(0));
+	}
+
+	@Test public void testGetMovementFlagsWhenDisabled() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final RecyclerView.ViewHolder viewHolder = createViewHolder();
+		final TestInteractor mockDragInteractor = mock(TestInteractor.class);
+		when(mockDragInteractor.getMovementFlags(mockRecyclerView, viewHolder)).thenReturn(ItemTouchHelper.Callback.makeMovementFlags(ItemTouchHelper.UP, 0));
+		final CompositeItemHelper.Interactor interactor = new CompositeItemHelper(mockDragInteractor, mock(TestInteractor.class)).getInteractor();
+		interactor.setEnabled(false);
+		// Act + Assert:
+		assertThat(interactor.getMovementFlags(mockRecyclerView, viewHolder), is(0));
+	}
+
+	@Test public void testDragCallbacksAreRoutedToDragInteractor() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final RecyclerView.ViewHolder viewHolder = createViewHolder();
+		final RecyclerView.ViewHolder target = createViewHolder();
+		final TestInteractor mockDragInteractor = mock(TestInteractor.class);
+		final TestInteractor mockSwipeInteractor = mock(TestInteractor.class);
+		final CompositeItemHelper.Interactor interactor = new CompositeItemHelper(mockDragInteractor, mockSwipeInteractor).getInteractor();
+		// Act:
+		interactor.onSelectedChanged(viewHolder, ItemTouchHelper.ACTION_STATE_DRAG);
+		interactor.onMove(mockRecyclerView, viewHolder, target);
+		interactor.canDropOver(mockRecyclerView, viewHolder, target);
+		interactor.clearView(mockRecyclerView, viewHolder);
+		// Assert:
+		verify(mockDragInteractor).onSelectedChanged(viewHolder, ItemTouchHelper.ACTION_STATE_DRAG);
+		verify(mockDragInteractor).onMove(mockRecyclerView, viewHolder, target);
+		verify(mockDragInteractor).canDropOver(mockRecyclerView, viewHolder, target);
+		verify(mockDragInteractor).clearView(mockRecyclerView, viewHolder);
+		verify(mockSwipeInteractor, never()).onSelectedChanged(any(RecyclerView.ViewHolder.class), anyInt());
+		verify(mockSwipeInteractor, never()).clearView(any(RecyclerView.class), any(RecyclerView.ViewHolder.class));
+	}
+
+	@Test public void testSwipeCallbacksAreRoutedToSwipeInteractor() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final RecyclerView.ViewHolder viewHolder = createViewHolder();
+		final TestInteractor mockDragInteractor = mock(TestInteractor.class);
+		final TestInteractor mockSwipeInteractor = mock(TestInteractor.class);
+		final CompositeItemHelper.Interactor interactor = new CompositeItemHelper(mockDragInteractor, mockSwipeInteractor).getInteractor();
+		// Act:
+		interactor.onSelectedChanged(viewHolder, ItemTouchHelper.ACTION_STATE_SWIPE);
+		interactor.getSwipeThreshold(viewHolder);
+		interactor.onSwiped(viewHolder, ItemTouchHelper.LEFT);
+		interactor.clearView(mockRecyclerView, viewHolder);
+		// Assert:
+		verify(mockSwipeInteractor).onSelectedChanged(viewHolder, ItemTouchHelper.ACTION_STATE_SWIPE);
+		verify(mockSwipeInteractor).getSwipeThreshold(viewHolder);
+		verify(mockSwipeInteractor).onSwiped(viewHolder, ItemTouchHelper.LEFT);
+		verify(mockSwipeInteractor).clearView(mockRecyclerView, viewHolder);
+		verify(mockDragInteractor, never()).onSelectedChanged(any(RecyclerView.ViewHolder.class), anyInt());
+		verify(mockDragInteractor, never()).clearView(any(RecyclerView.class), any(RecyclerView.ViewHolder.class));
+	}
+
+	@Test public void testGetAnimationDuration() {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final TestInteractor mockDragInteractor = mock(TestInteractor.class);
+		final TestInteractor mockSwipeInteractor = mock(TestInteractor.class);
+		when(mockDragInteractor.getAnimationDuration(mockRecyclerView, ItemTouchHelper.ANIMATION_TYPE_DRAG, 0, 0)).thenReturn(100L);
+		when(mockSwipeInteractor.getAnimationDuration(mockRecyclerView, ItemTouchHelper.ANIMATION_TYPE_SWIPE_CANCEL, 0, 0)).thenReturn(200L);
+		final CompositeItemHelper.Interactor interactor = new CompositeItemHelper(mockDragInteractor, mockSwipeInteractor).getInteractor();
+		// Act + Assert:
+		assertThat(interactor.getAnimationDuration(mockRecyclerView, ItemTouchHelper.ANIMATION_TYPE_DRAG, 0, 0), is(100L));
+		assertThat(interactor.getAnimationDuration(mockRecyclerView, ItemTouchHelper.ANIMATION_TYPE_SWIPE_CANCEL, 0, 0), is(200L));
+	}
+
+	@Test public void testIsActive() {
+		// Arrange:
+		final TestInteractor mockDragInteractor = mock(TestInteractor.class);
+		final TestInteractor mockSwipeInteractor = mock(TestInteractor.class);
+		final CompositeItemHelper.Interactor interactor = new CompositeItemHelper(mockDragInteractor, mockSwipeInteractor).getInteractor();
+		// Act + Assert:
+		assertThat(interactor.isActive(), is(false));
+		when(mockSwipeInteractor.isActive()).thenReturn(true);
+		assertThat(interactor.isActive(), is(true));
+	}
+
+	private RecyclerView.ViewHolder createViewHolder() {
+		return new RecyclerView.ViewHolder(new View(application)) {};
+	}
+
+	private static class TestHelper extends RecyclerViewItemHelper<TestInteractor> {
+
+		TestHelper(@NonNull final TestInteractor interactor) {
+			super(interactor);
+		}
+	}
+
+	private static class TestInteractor extends RecyclerViewItemHelper.ItemInteractor {
+
+		@Override protected boolean canAttachAdapter(@NonNull final RecyclerView.Adapter adapter) {
+			return false;
+		}
+
+		@Override public int getMovementFlags(@NonNull final RecyclerView recyclerView, @NonNull final RecyclerView.ViewHolder viewHolder) {
+			return 0;
+		}
+
+		@Override public boolean onMove(
+				@NonNull final RecyclerView recyclerView,
+				@NonNull final RecyclerView.ViewHolder viewHolder,
+				@NonNull final RecyclerView.ViewHolder target
+		) {
+			return false;
+		}
+
+		@Override public void onSwiped(@NonNull final RecyclerView.ViewHolder viewHolder, final int direction) {}
+
+		@Override public boolean isActive() {
+			return false;
+		}
+	}
+}
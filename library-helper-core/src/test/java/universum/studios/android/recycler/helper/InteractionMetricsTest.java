@@ -0,0 +1,100 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.helper;
+
+import org.junit.Test;
+
+import universum.studios.android.test.local.RobolectricTestCase;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * @author Martin Albedinsky
+ */
+public final class InteractionMetricsTest extends RobolectricTestCase {
+
+	private static final long FRAME_INTERVAL = 16000000L;
+
+	@Test public void testReset() {
+		// Arrange:
+		final InteractionMetrics metrics = new InteractionMetrics();
+		metrics.reset(RecyclerViewItemHelper.ACTION_STATE_SWIPE, FRAME_INTERVAL);
+		metrics.recordFrame(FRAME_INTERVAL * 3);
+		metrics.recordCallback(InteractionMetrics.CALLBACK_MOVE, 100);
+		metrics.setDurationNanos(1000);
+		// Act:
+		metrics.reset(RecyclerViewItemHelper.ACTION_STATE_DRAG, FRAME_INTERVAL / 2);
+		// Assert:
+		assertThat(metrics.getInteraction(), is(RecyclerViewItemHelper.ACTION_STATE_DRAG));
+		assertThat(metrics.getFrameIntervalNanos(), is(FRAME_INTERVAL / 2));
+		assertThat(metrics.getDurationNanos(), is(0L));
+		assertThat(metrics.getFrameCount(), is(0));
+		assertThat(metrics.getDroppedFrameCount(), is(0));
+		assertThat(metrics.getMaxFrameNanos(), is(0L));
+		for (int i = 0; i < InteractionMetrics.HISTOGRAM_BUCKET_COUNT; i++) {
+			assertThat(metrics.getFrameHistogramCount(i), is(0));
+		}
+		assertThat(metrics.getCallbackCount(InteractionMetrics.CALLBACK_MOVE), is(0));
+		assertThat(metrics.getCallbackTotalNanos(InteractionMetrics.CALLBACK_MOVE), is(0L));
+		assertThat(metrics.getCallbackMaxNanos(InteractionMetrics.CALLBACK_MOVE), is(0L));
+	}
+
+	@Test public void testRecordFrame() {
+		// Arrange:
+		final InteractionMetrics metrics = new InteractionMetrics();
+		metrics.reset(RecyclerViewItemHelper.ACTION_STATE_DRAG, FRAME_INTERVAL);
+		// Act:
+		metrics.recordFrame(FRAME_INTERVAL);
+		metrics.recordFrame(FRAME_INTERVAL);
+		metrics.recordFrame(FRAME_INTERVAL * 3);
+		metrics.recordFrame(1000000000L);
+		// Assert:
+		assertThat(metrics.getFrameCount(), is(4));
+		assertThat(metrics.getMaxFrameNanos(), is(1000000000L));
+		assertThat(metrics.getFrameHistogramCount(4), is(2));
+		assertThat(metrics.getFrameHistogramCount(12), is(1));
+		assertThat(metrics.getFrameHistogramCount(InteractionMetrics.HISTOGRAM_BUCKET_COUNT - 1), is(1));
+		assertThat(metrics.getDroppedFrameCount(), is(2 + 62));
+	}
+
+	@Test public void testRecordCallback() {
+		// Arrange:
+		final InteractionMetrics metrics = new InteractionMetrics();
+		// Act:
+		metrics.recordCallback(InteractionMetrics.CALLBACK_CHILD_DRAW, 100);
+		metrics.recordCallback(InteractionMetrics.CALLBACK_CHILD_DRAW, 300);
+		metrics.recordCallback(InteractionMetrics.CALLBACK_ADAPTER, 50);
+		// Assert:
+		assertThat(metrics.getCallbackCount(InteractionMetrics.CALLBACK_CHILD_DRAW), is(2));
+		assertThat(metrics.getCallbackTotalNanos(InteractionMetrics.CALLBACK_CHILD_DRAW), is(400L));
+		assertThat(metrics.getCallbackMaxNanos(InteractionMetrics.CALLBACK_CHILD_DRAW), is(300L));
+		assertThat(metrics.getCallbackCount(InteractionMetrics.CALLBACK_ADAPTER), is(1));
+		assertThat(metrics.getCallbackCount(InteractionMetrics.CALLBACK_MOVE), is(0));
+	}
+
+	@Test public void testDurationNanos() {
+		// Arrange:
+		final InteractionMetrics metrics = new InteractionMetrics();
+		// Act:
+		metrics.setDurationNanos(1234);
+		// Assert:
+		assertThat(metrics.getDurationNanos(), is(1234L));
+	}
+}
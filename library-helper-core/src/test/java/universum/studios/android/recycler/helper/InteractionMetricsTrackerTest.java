@@ -0,0 +1,195 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.helper;
+
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+
+import org.junit.Test;
+
+import universum.studios.android.test.local.RobolectricTestCase;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+/**
+ * @author Martin Albedinsky
+ */
+public final class InteractionMetricsTrackerTest extends RobolectricTestCase {
+
+	@Test public void testStart() {
+		// Arrange:
+		final TestInteractor interactor = new TestInteractor();
+		final InteractionMetricsTracker tracker = new InteractionMetricsTracker(new TestHelper(interactor), interactor);
+		// Act:
+		tracker.start(RecyclerViewItemHelper.ACTION_STATE_DRAG);
+		// Assert:
+		assertThat(tracker.running, is(true));
+		assertThat(tracker.metrics.getInteraction(), is(RecyclerViewItemHelper.ACTION_STATE_DRAG));
+		assertThat(tracker.metrics.getFrameIntervalNanos(), is(InteractionMetricsTracker.DEFAULT_FRAME_INTERVAL_NANOS));
+	}
+
+	@Test public void testStartWhenRunning() {
+		// Arrange:
+		final RecyclerViewItemHelper.OnInteractionMetricsListener mockListener = mock(RecyclerViewItemHelper.OnInteractionMetricsListener.class);
+		final TestInteractor interactor = new TestInteractor();
+		final TestHelper helper = new TestHelper(interactor);
+		final InteractionMetricsTracker tracker = new InteractionMetricsTracker(helper, interactor);
+		tracker.listener = mockListener;
+		tracker.start(RecyclerViewItemHelper.ACTION_STATE_DRAG);
+		// Act:
+		tracker.start(RecyclerViewItemHelper.ACTION_STATE_SWIPE);
+		// Assert:
+		verify(mockListener).onInteractionMetrics(helper, tracker.metrics);
+		assertThat(tracker.running, is(true));
+		assertThat(tracker.metrics.getInteraction(), is(RecyclerViewItemHelper.ACTION_STATE_SWIPE));
+	}
+
+	@Test public void testRecordCallback() {
+		// Arrange:
+		final TestInteractor interactor = new TestInteractor();
+		final InteractionMetricsTracker tracker = new InteractionMetricsTracker(new TestHelper(interactor), interactor);
+		// Act:
+		tracker.recordCallback(InteractionMetrics.CALLBACK_MOVE, System.nanoTime());
+		tracker.start(RecyclerViewItemHelper.ACTION_STATE_DRAG);
+		tracker.recordCallback(InteractionMetrics.CALLBACK_MOVE, System.nanoTime());
+		// Assert:
+		assertThat(tracker.metrics.getCallbackCount(InteractionMetrics.CALLBACK_MOVE), is(1));
+	}
+
+	@Test public void testFinish() {
+		// Arrange:
+		final RecyclerViewItemHelper.OnInteractionMetricsListener mockListener = mock(RecyclerViewItemHelper.OnInteractionMetricsListener.class);
+		final TestInteractor interactor = new TestInteractor();
+		final TestHelper helper = new TestHelper(interactor);
+		final InteractionMetricsTracker tracker = new InteractionMetricsTracker(helper, interactor);
+		tracker.listener = mockListener;
+		tracker.start(RecyclerViewItemHelper.ACTION_STATE_SWIPE);
+		// Act:
+		tracker.finish();
+		tracker.finish();
+		// Assert:
+		assertThat(tracker.running, is(false));
+		verify(mockListener).onInteractionMetrics(helper, tracker.metrics);
+	}
+
+	@Test public void testFinishWhenNotRunning() {
+		// Arrange:
+		final RecyclerViewItemHelper.OnInteractionMetricsListener mockListener = mock(RecyclerViewItemHelper.OnInteractionMetricsListener.class);
+		final TestInteractor interactor = new TestInteractor();
+		final InteractionMetricsTracker tracker = new InteractionMetricsTracker(new TestHelper(interactor), interactor);
+		tracker.listener = mockListener;
+		// Act:
+		tracker.finish();
+		// Assert:
+		verifyZeroInteractions(mockListener);
+	}
+
+	@Test public void testStop() {
+		// Arrange:
+		final RecyclerViewItemHelper.OnInteractionMetricsListener mockListener = mock(RecyclerViewItemHelper.OnInteractionMetricsListener.class);
+		final TestInteractor interactor = new TestInteractor();
+		final InteractionMetricsTracker tracker = new InteractionMetricsTracker(new TestHelper(interactor), interactor);
+		tracker.listener = mockListener;
+		tracker.start(RecyclerViewItemHelper.ACTION_STATE_SWIPE);
+		// Act:
+		tracker.stop();
+		// Assert:
+		assertThat(tracker.running, is(false));
+		verifyZeroInteractions(mockListener);
+	}
+
+	@Test public void testFrameTrackerDoFrame() {
+		// Arrange:
+		final RecyclerViewItemHelper.OnInteractionMetricsListener mockListener = mock(RecyclerViewItemHelper.OnInteractionMetricsListener.class);
+		final TestInteractor interactor = new TestInteractor();
+		final TestHelper helper = new TestHelper(interactor);
+		final InteractionMetricsTracker tracker = new InteractionMetricsTracker(helper, interactor);
+		final InteractionMetricsTracker.FrameTracker frameTracker = new InteractionMetricsTracker.FrameTracker(tracker);
+		final long interval = InteractionMetricsTracker.DEFAULT_FRAME_INTERVAL_NANOS;
+		tracker.listener = mockListener;
+		tracker.start(RecyclerViewItemHelper.ACTION_STATE_DRAG);
+		interactor.active = true;
+		// Act:
+		frameTracker.doFrame(interval);
+		frameTracker.doFrame(interval * 2);
+		frameTracker.doFrame(interval * 5);
+		interactor.active = false;
+		frameTracker.doFrame(interval * 6);
+		// Assert:
+		assertThat(tracker.running, is(false));
+		assertThat(tracker.metrics.getFrameCount(), is(2));
+		assertThat(tracker.metrics.getDroppedFrameCount(), is(2));
+		verify(mockListener).onInteractionMetrics(helper, tracker.metrics);
+	}
+
+	@Test public void testFrameTrackerDoFrameForNotActiveInteractor() {
+		// Arrange:
+		final RecyclerViewItemHelper.OnInteractionMetricsListener mockListener = mock(RecyclerViewItemHelper.OnInteractionMetricsListener.class);
+		final TestInteractor interactor = new TestInteractor();
+		final InteractionMetricsTracker tracker = new InteractionMetricsTracker(new TestHelper(interactor), interactor);
+		final InteractionMetricsTracker.FrameTracker frameTracker = new InteractionMetricsTracker.FrameTracker(tracker);
+		tracker.listener = mockListener;
+		tracker.start(RecyclerViewItemHelper.ACTION_STATE_DRAG);
+		// Act:
+		frameTracker.doFrame(InteractionMetricsTracker.DEFAULT_FRAME_INTERVAL_NANOS);
+		// Assert:
+		assertThat(tracker.running, is(false));
+		verify(mockListener, never()).onInteractionMetrics(any(RecyclerViewItemHelper.class), any(InteractionMetrics.class));
+	}
+
+	private static class TestHelper extends RecyclerViewItemHelper<TestInteractor> {
+
+		TestHelper(@NonNull final TestInteractor interactor) {
+			super(interactor);
+		}
+	}
+
+	private static class TestInteractor extends RecyclerViewItemHelper.ItemInteractor {
+
+		boolean active;
+
+		@Override protected boolean canAttachAdapter(@NonNull final RecyclerView.Adapter adapter) {
+			return false;
+		}
+
+		@Override public int getMovementFlags(@NonNull final RecyclerView recyclerView, @NonNull final RecyclerView.ViewHolder viewHolder) {
+			return 0;
+		}
+
+		@Override public boolean onMove(
+				@NonNull final RecyclerView recyclerView,
+				@NonNull final RecyclerView.ViewHolder viewHolder,
+				@NonNull final RecyclerView.ViewHolder target
+		) {
+			return false;
+		}
+
+		@Override public void onSwiped(@NonNull final RecyclerView.ViewHolder viewHolder, final int direction) {}
+
+		@Override public boolean isActive() {
+			return active;
+		}
+	}
+}
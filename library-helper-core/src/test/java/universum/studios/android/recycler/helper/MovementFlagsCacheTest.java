@@ -0,0 +1,129 @@
+/*
+ * *************************************************************************************************
+ *                                 Copyright 2018 Universum Studios
+ * *************************************************************************************************
+ *                  Licensed under the Apache License, Version 2.0 (the "License")
+ * -------------------------------------------------------------------------------------------------
+ * You may not use this file except in compliance with the License. You may obtain a copy of the
+ * License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied.
+ *
+ * See the License for the specific language governing permissions and limitations under the License.
+ * *************************************************************************************************
+ */
+package universum.studios.android.recycler.helper;
+
+import android.support.v7.widget.RecyclerView;
+
+import org.junit.Test;
+
+import universum.studios.android.test.local.RobolectricTestCase;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Martin Albedinsky
+ */
+public final class MovementFlagsCacheTest extends RobolectricTestCase {
+
+	@Test public void testInstantiation() {
+		// Act:
+		final MovementFlagsCache cache = new MovementFlagsCache(RecyclerViewItemHelper.MOVEMENT_FLAGS_CACHING_POSITION);
+		// Assert:
+		assertThat(cache.getMode(), is(RecyclerViewItemHelper.MOVEMENT_FLAGS_CACHING_POSITION));
+		assertThat(cache.get(createMockHolder(0, 0)), is(MovementFlagsCache.NO_FLAGS));
+	}
+
+	@Test public void testAttachAdapter() {
+		// Arrange:
+		final RecyclerView.Adapter mockAdapterFirst = mock(RecyclerView.Adapter.class);
+		final RecyclerView.Adapter mockAdapterSecond = mock(RecyclerView.Adapter.class);
+		final MovementFlagsCache cache = new MovementFlagsCache(RecyclerViewItemHelper.MOVEMENT_FLAGS_CACHING_POSITION);
+		final RecyclerView.ViewHolder mockHolder = createMockHolder(0, 0);
+		// Act:
+		cache.attachAdapter(mockAdapterFirst);
+		cache.put(mockHolder, 1);
+		cache.attachAdapter(mockAdapterSecond);
+		// Assert:
+		verify(mockAdapterFirst).registerAdapterDataObserver(cache);
+		verify(mockAdapterFirst).unregisterAdapterDataObserver(cache);
+		verify(mockAdapterSecond).registerAdapterDataObserver(cache);
+		assertThat(cache.get(mockHolder), is(MovementFlagsCache.NO_FLAGS));
+	}
+
+	@Test public void testPutGetByViewType() {
+		// Arrange:
+		final MovementFlagsCache cache = new MovementFlagsCache(RecyclerViewItemHelper.MOVEMENT_FLAGS_CACHING_VIEW_TYPE);
+		// Act:
+		cache.put(createMockHolder(0, 1), 5);
+		cache.put(createMockHolder(1, 2), 0);
+		// Assert:
+		assertThat(cache.get(createMockHolder(10, 1)), is(5));
+		assertThat(cache.get(createMockHolder(11, 2)), is(0));
+		assertThat(cache.get(createMockHolder(0, 3)), is(MovementFlagsCache.NO_FLAGS));
+	}
+
+	@Test public void testPutGetByPosition() {
+		// Arrange:
+		final MovementFlagsCache cache = new MovementFlagsCache(RecyclerViewItemHelper.MOVEMENT_FLAGS_CACHING_POSITION);
+		// Act:
+		cache.put(createMockHolder(0, 1), 5);
+		cache.put(createMockHolder(100, 1), 7);
+		cache.put(createMockHolder(RecyclerView.NO_POSITION, 1), 9);
+		// Assert:
+		assertThat(cache.get(createMockHolder(0, 2)), is(5));
+		assertThat(cache.get(createMockHolder(100, 2)), is(7));
+		assertThat(cache.get(createMockHolder(1, 1)), is(MovementFlagsCache.NO_FLAGS));
+		assertThat(cache.get(createMockHolder(99, 1)), is(MovementFlagsCache.NO_FLAGS));
+		assertThat(cache.get(createMockHolder(RecyclerView.NO_POSITION, 1)), is(MovementFlagsCache.NO_FLAGS));
+	}
+
+	@Test public void testClear() {
+		// Arrange:
+		final MovementFlagsCache cache = new MovementFlagsCache(RecyclerViewItemHelper.MOVEMENT_FLAGS_CACHING_VIEW_TYPE);
+		cache.put(createMockHolder(0, 1), 5);
+		// Act:
+		cache.clear();
+		// Assert:
+		assertThat(cache.get(createMockHolder(0, 1)), is(MovementFlagsCache.NO_FLAGS));
+	}
+
+	@Test public void testOnChanged() {
+		// Arrange:
+		final MovementFlagsCache cache = new MovementFlagsCache(RecyclerViewItemHelper.MOVEMENT_FLAGS_CACHING_POSITION);
+		cache.put(createMockHolder(0, 0), 5);
+		// Act:
+		cache.onChanged();
+		// Assert:
+		assertThat(cache.get(createMockHolder(0, 0)), is(MovementFlagsCache.NO_FLAGS));
+	}
+
+	@Test public void testDataSetChangesByViewType() {
+		// Arrange:
+		final MovementFlagsCache cache = new MovementFlagsCache(RecyclerViewItemHelper.MOVEMENT_FLAGS_CACHING_VIEW_TYPE);
+		cache.put(createMockHolder(0, 1), 5);
+		// Act:
+		cache.onItemRangeChanged(0, 10);
+		cache.onItemRangeInserted(0, 1);
+		cache.onItemRangeRemoved(0, 1);
+		cache.onItemRangeMoved(0, 1, 1);
+		// Assert:
+		assertThat(cache.get(createMockHolder(0, 1)), is(5));
+	}
+
+	private static RecyclerView.ViewHolder createMockHolder(final int position, final int viewType) {
+		final RecyclerView.ViewHolder mockHolder = mock(RecyclerView.ViewHolder.class);
+		when(mockHolder.getAdapterPosition()).thenReturn(position);
+		when(mockHolder.getItemViewType()).thenReturn(viewType);
+		return mockHolder;
+	}
+}
@@ -31,6 +31,7 @@ import universum.studios.android.test.local.RobolectricTestCase;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -130,6 +131,62 @@ public final class RecyclerViewItemHelperInteractorTest extends RobolectricTestC
 		interactor.onAdapterDetached(mock(RecyclerView.Adapter.class));
 	}
 
+	@Test public void testMovementFlagsCaching() {
+		// Arrange:
+		final TestInteractor interactor = new TestInteractor();
+		// Act + Assert:
+		assertThat(interactor.getMovementFlagsCaching(), is(TestHelper.MOVEMENT_FLAGS_CACHING_NONE));
+		interactor.setMovementFlagsCaching(TestHelper.MOVEMENT_FLAGS_CACHING_VIEW_TYPE);
+		assertThat(interactor.getMovementFlagsCaching(), is(TestHelper.MOVEMENT_FLAGS_CACHING_VIEW_TYPE));
+		interactor.setMovementFlagsCaching(TestHelper.MOVEMENT_FLAGS_CACHING_POSITION);
+		assertThat(interactor.getMovementFlagsCaching(), is(TestHelper.MOVEMENT_FLAGS_CACHING_POSITION));
+		interactor.setMovementFlagsCaching(TestHelper.MOVEMENT_FLAGS_CACHING_NONE);
+		assertThat(interactor.getMovementFlagsCaching(), is(TestHelper.MOVEMENT_FLAGS_CACHING_NONE));
+		assertThat(interactor.flagsCache, is(nullValue()));
+	}
+
+	@Test public void testSetMovementFlagsCachingWithAttachedAdapter() {
+		// Arrange:
+		final RecyclerView.Adapter mockAdapter = mock(RecyclerView.Adapter.class);
+		final TestInteractor interactor = new TestInteractor();
+		interactor.attachAdapter(mockAdapter);
+		// Act:
+		interactor.setMovementFlagsCaching(TestHelper.MOVEMENT_FLAGS_CACHING_POSITION);
+		final MovementFlagsCache cache = interactor.flagsCache;
+		interactor.setMovementFlagsCaching(TestHelper.MOVEMENT_FLAGS_CACHING_NONE);
+		// Assert:
+		verify(mockAdapter).registerAdapterDataObserver(cache);
+		verify(mockAdapter).unregisterAdapterDataObserver(cache);
+	}
+
+	@Test public void testAttachAdapterWithMovementFlagsCaching() {
+		// Arrange:
+		final RecyclerView.Adapter mockAdapterFirst = mock(RecyclerView.Adapter.class);
+		final RecyclerView.Adapter mockAdapterSecond = mock(RecyclerView.Adapter.class);
+		final TestInteractor interactor = new TestInteractor();
+		interactor.setMovementFlagsCaching(TestHelper.MOVEMENT_FLAGS_CACHING_VIEW_TYPE);
+		// Act:
+		interactor.attachAdapter(mockAdapterFirst);
+		interactor.attachAdapter(mockAdapterSecond);
+		// Assert:
+		verify(mockAdapterFirst).registerAdapterDataObserver(interactor.flagsCache);
+		verify(mockAdapterFirst).unregisterAdapterDataObserver(interactor.flagsCache);
+		verify(mockAdapterSecond).registerAdapterDataObserver(interactor.flagsCache);
+	}
+
+	@Test public void testInvalidateMovementFlags() {
+		// Arrange:
+		final RecyclerView.ViewHolder mockHolder = mock(RecyclerView.ViewHolder.class);
+		final TestInteractor interactor = new TestInteractor();
+		interactor.invalidateMovementFlags();
+		interactor.setMovementFlagsCaching(TestHelper.MOVEMENT_FLAGS_CACHING_VIEW_TYPE);
+		interactor.flagsCache.put(mockHolder, 1);
+		// Act:
+		interactor.invalidateMovementFlags();
+		// Assert:
+		assertThat(interactor.flagsCache.get(mockHolder), is(MovementFlagsCache.NO_FLAGS));
+	}
+
 	@Test public void testIsEnabled() {
 		// Arrange:
 		final TestInteractor interactor = new TestInteractor();
@@ -289,6 +346,129 @@ public final class RecyclerViewItemHelperInteractorTest extends RobolectricTestC
 		verifyNoMoreInteractions(mockHolder);
 	}
 
+	@Test public void testOnSelectedChanged() throws Exception {
+		// Arrange:
+		final TestHolder mockHolder = createMockHolder(new View(application));
+		final TestInteractor interactor = new TestInteractor();
+		final View view = new View(application);
+		when(mockHolder.getInteractiveView(TestHelper.ACTION_STATE_SWIPE)).thenReturn(view);
+		// Act:
+		interactor.onSelectedChanged(mockHolder, TestHelper.ACTION_STATE_SWIPE);
+		// Assert:
+		assertThat(interactor.selectedHolder, is((RecyclerView.ViewHolder) mockHolder));
+		assertThat(interactor.selectedInteractiveHolder, is((RecyclerViewItemHelper.InteractiveViewHolder) mockHolder));
+		assertThat(interactor.selectedInteractiveView, is(view));
+		assertThat(interactor.selectedInteraction, is(TestHelper.ACTION_STATE_SWIPE));
+		verify(mockHolder).getInteractiveView(TestHelper.ACTION_STATE_SWIPE);
+		verifyNoMoreInteractions(mockHolder);
+	}
+
+	@Test public void testOnSelectedChangedWithNotInteractiveViewHolder() {
+		// Arrange:
+		final TestInteractor interactor = new TestInteractor();
+		final RecyclerView.ViewHolder holder = new RecyclerView.ViewHolder(new View(application)) {};
+		// Act:
+		interactor.onSelectedChanged(holder, TestHelper.ACTION_STATE_DRAG);
+		// Assert:
+		assertThat(interactor.selectedHolder, is(holder));
+		assertThat(interactor.selectedInteractiveHolder, is(nullValue()));
+		assertThat(interactor.selectedInteractiveView, is(nullValue()));
+		assertThat(interactor.selectedInteraction, is(TestHelper.ACTION_STATE_DRAG));
+	}
+
+	@Test public void testOnSelectedChangedWithIdleState() throws Exception {
+		// Arrange:
+		final TestHolder mockHolder = createMockHolder(new View(application));
+		final TestInteractor interactor = new TestInteractor();
+		// Act:
+		interactor.onSelectedChanged(mockHolder, TestHelper.ACTION_STATE_IDLE);
+		interactor.onSelectedChanged(null, TestHelper.ACTION_STATE_IDLE);
+		// Assert:
+		assertThat(interactor.selectedHolder, is(nullValue()));
+		verifyNoMoreInteractions(mockHolder);
+	}
+
+	@Test public void testOnSelectedChangedForAlreadySelectedHolder() throws Exception {
+		// Arrange:
+		final TestHolder mockHolder = createMockHolder(new View(application));
+		final TestInteractor interactor = new TestInteractor();
+		interactor.onSelectedChanged(mockHolder, TestHelper.ACTION_STATE_SWIPE);
+		// Act:
+		interactor.onSelectedChanged(mockHolder, TestHelper.ACTION_STATE_SWIPE);
+		// Assert:
+		verify(mockHolder).getInteractiveView(TestHelper.ACTION_STATE_SWIPE);
+		verifyNoMoreInteractions(mockHolder);
+	}
+
+	@Test public void testOnChildDrawForSelectedHolder() throws Exception {
+		// Arrange:
+		final TestHolder mockHolder = createMockHolder(new View(application));
+		final TestInteractor interactor = new TestInteractor();
+		final Canvas canvas = new Canvas();
+		final RecyclerView recyclerView = new RecyclerView(application);
+		when(mockHolder.getInteractiveView(TestHelper.ACTION_STATE_SWIPE)).thenReturn(new View(application));
+		interactor.onSelectedChanged(mockHolder, TestHelper.ACTION_STATE_SWIPE);
+		// Act:
+		for (int i = 0; i < 3; i++) {
+			interactor.onChildDraw(canvas, recyclerView, mockHolder, i, 0, TestHelper.ACTION_STATE_SWIPE, true);
+			interactor.onChildDrawOver(canvas, recyclerView, mockHolder, i, 0, TestHelper.ACTION_STATE_SWIPE, true);
+		}
+		// Assert:
+		verify(mockHolder).getInteractiveView(TestHelper.ACTION_STATE_SWIPE);
+		for (int i = 0; i < 3; i++) {
+			verify(mockHolder).onDraw(canvas, i, 0, TestHelper.ACTION_STATE_SWIPE, true);
+			verify(mockHolder).onDrawOver(canvas, i, 0, TestHelper.ACTION_STATE_SWIPE, true);
+		}
+		verifyNoMoreInteractions(mockHolder);
+	}
+
+	@Test public void testOnChildDrawForNotSelectedHolder() throws Exception {
+		// Arrange:
+		final TestHolder mockSelectedHolder = createMockHolder(new View(application));
+		final TestHolder mockHolder = createMockHolder(new View(application));
+		final TestInteractor interactor = new TestInteractor();
+		final Canvas canvas = new Canvas();
+		final RecyclerView recyclerView = new RecyclerView(application);
+		interactor.onSelectedChanged(mockSelectedHolder, TestHelper.ACTION_STATE_SWIPE);
+		// Act:
+		interactor.onChildDraw(canvas, recyclerView, mockHolder, 0, 0, TestHelper.ACTION_STATE_SWIPE, false);
+		interactor.onChildDraw(canvas, recyclerView, mockHolder, 0, 0, TestHelper.ACTION_STATE_SWIPE, false);
+		// Assert:
+		verify(mockHolder, times(2)).getInteractiveView(TestHelper.ACTION_STATE_SWIPE);
+		verify(mockHolder, times(2)).onDraw(canvas, 0, 0, TestHelper.ACTION_STATE_SWIPE, false);
+		verifyNoMoreInteractions(mockHolder);
+		assertThat(interactor.selectedHolder, is((RecyclerView.ViewHolder) mockSelectedHolder));
+	}
+
+	@Test public void testClearView() throws Exception {
+		// Arrange:
+		final TestHolder mockHolder = createMockHolder(new View(application));
+		final TestInteractor interactor = new TestInteractor();
+		final RecyclerView recyclerView = new RecyclerView(application);
+		interactor.onSelectedChanged(mockHolder, TestHelper.ACTION_STATE_DRAG);
+		// Act:
+		interactor.clearView(recyclerView, mockHolder);
+		// Assert:
+		assertThat(interactor.selectedHolder, is(nullValue()));
+		assertThat(interactor.selectedInteractiveHolder, is(nullValue()));
+		assertThat(interactor.selectedInteractiveView, is(nullValue()));
+		assertThat(interactor.selectedInteraction, is(TestHelper.ACTION_STATE_IDLE));
+	}
+
+	@Test public void testClearViewForNotSelectedHolder() throws Exception {
+		// Arrange:
+		final TestHolder mockSelectedHolder = createMockHolder(new View(application));
+		final TestHolder mockHolder = createMockHolder(new View(application));
+		final TestInteractor interactor = new TestInteractor();
+		final RecyclerView recyclerView = new RecyclerView(application);
+		interactor.onSelectedChanged(mockSelectedHolder, TestHelper.ACTION_STATE_DRAG);
+		// Act:
+		interactor.clearView(recyclerView, mockHolder);
+		// Assert:
+		assertThat(interactor.selectedHolder, is((RecyclerView.ViewHolder) mockSelectedHolder));
+		assertThat(interactor.selectedInteraction, is(TestHelper.ACTION_STATE_DRAG));
+	}
+
 	private static TestHolder createMockHolder(final View itemView) throws Exception {
 		final TestHolder mockHolder = mock(TestHolder.class);
 		final Field itemViewField = TestHolder.class.getField("itemView");
@@ -18,8 +18,10 @@
  */
 package universum.studios.android.recycler.helper;
 
+import android.graphics.Canvas;
 import android.support.annotation.NonNull;
 import android.support.v7.widget.RecyclerView;
+import android.view.View;
 
 import org.junit.Test;
 
@@ -33,6 +35,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 
 /**
  * @author Martin Albedinsky
@@ -60,6 +63,52 @@ public final class RecyclerViewItemHelperTest extends RobolectricTestCase {
 		verify(mockInteractor, times(0)).onAdapterDetached(any(RecyclerView.Adapter.class));
 	}
 
+	@Test public void testSetOnInteractionMetricsListener() {
+		// Arrange:
+		final TestInteractor interactor = new TestInteractor();
+		final TestHelper helper = new TestHelper(interactor);
+		final RecyclerViewItemHelper.OnInteractionMetricsListener mockListener = mock(RecyclerViewItemHelper.OnInteractionMetricsListener.class);
+		// Act + Assert:
+		helper.setOnInteractionMetricsListener(mockListener);
+		assertThat(interactor.metricsTracker, is(not(nullValue())));
+		assertThat(interactor.metricsTracker.helper, is((RecyclerViewItemHelper) helper));
+		assertThat(interactor.metricsTracker.listener, is(mockListener));
+		helper.setOnInteractionMetricsListener(null);
+		assertThat(interactor.metricsTracker, is(nullValue()));
+	}
+
+	@Test public void testInteractionMetricsOfSelectedHolder() {
+		// Arrange:
+		final TestInteractor interactor = new TestInteractor();
+		final TestHelper helper = new TestHelper(interactor);
+		final RecyclerViewItemHelper.OnInteractionMetricsListener mockListener = mock(RecyclerViewItemHelper.OnInteractionMetricsListener.class);
+		final RecyclerView.ViewHolder holder = new RecyclerView.ViewHolder(new View(application)) {};
+		helper.setOnInteractionMetricsListener(mockListener);
+		// Act:
+		interactor.onSelectedChanged(holder, RecyclerViewItemHelper.ACTION_STATE_SWIPE);
+		interactor.onChildDraw(new Canvas(), new RecyclerView(application), holder, 0, 0, RecyclerViewItemHelper.ACTION_STATE_SWIPE, true);
+		interactor.clearView(new RecyclerView(application), holder);
+		// Assert:
+		verify(mockListener).onInteractionMetrics(helper, interactor.metricsTracker.metrics);
+		assertThat(interactor.metricsTracker.metrics.getInteraction(), is(RecyclerViewItemHelper.ACTION_STATE_SWIPE));
+		assertThat(interactor.metricsTracker.metrics.getCallbackCount(InteractionMetrics.CALLBACK_CHILD_DRAW), is(1));
+	}
+
+	@Test public void testInteractionMetricsAreNotFinishedForNotSelectedHolder() {
+		// Arrange:
+		final TestInteractor interactor = new TestInteractor();
+		final TestHelper helper = new TestHelper(interactor);
+		final RecyclerViewItemHelper.OnInteractionMetricsListener mockListener = mock(RecyclerViewItemHelper.OnInteractionMetricsListener.class);
+		final RecyclerView.ViewHolder holder = new RecyclerView.ViewHolder(new View(application)) {};
+		final RecyclerView.ViewHolder otherHolder = new RecyclerView.ViewHolder(new View(application)) {};
+		helper.setOnInteractionMetricsListener(mockListener);
+		interactor.onSelectedChanged(holder, RecyclerViewItemHelper.ACTION_STATE_SWIPE);
+		// Act:
+		interactor.clearView(new RecyclerView(application), otherHolder);
+		// Assert:
+		verifyZeroInteractions(mockListener);
+	}
+
 	private static class TestHelper extends RecyclerViewItemHelper<TestInteractor> {
 
 		TestHelper(@NonNull final TestInteractor interactor) {
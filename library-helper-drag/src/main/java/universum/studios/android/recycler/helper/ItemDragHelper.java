@@ -22,11 +22,14 @@ import android.support.annotation.FloatRange;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
+import android.support.v4.os.TraceCompat;
 import android.support.v7.widget.RecyclerView;
 
 import java.util.ArrayList;
 import java.util.List;
 
+import universum.studios.android.recycler.RecyclerTracing;
+
 /**
  * A {@link RecyclerViewItemHelper} that may be used to support <b>drag</b> feature for items
  * displayed in a {@link RecyclerView} widget. Instance of this helper may be simply created via
@@ -62,6 +65,16 @@ public final class ItemDragHelper extends RecyclerViewItemHelper<ItemDragHelper.
 	 */
 	// private static final String TAG = "ItemDragHelper";
 
+	/**
+	 * Name of the trace section wrapping {@link Interactor#onMove(RecyclerView, RecyclerView.ViewHolder, RecyclerView.ViewHolder)}.
+	 */
+	private static final String TRACE_MOVE = "ItemDragHelper.onMove";
+
+	/**
+	 * Name of the trace section wrapping {@link Interactor#canDropOver(RecyclerView, RecyclerView.ViewHolder, RecyclerView.ViewHolder)}.
+	 */
+	private static final String TRACE_CAN_DROP_OVER = "ItemDragHelper.canDropOver";
+
 	/**
 	 * Interaction constant specific for {@link ItemDragHelper}.
 	 *
@@ -526,7 +539,18 @@ public final class ItemDragHelper extends RecyclerViewItemHelper<ItemDragHelper.
 		/**
 		 */
 		@Override public int getMovementFlags(@NonNull final RecyclerView recyclerView, @NonNull final RecyclerView.ViewHolder viewHolder) {
-			return shouldHandleInteraction(viewHolder) ? dragAdapter.getItemDragFlags(viewHolder.getAdapterPosition()) : 0;
+			if (!shouldHandleInteraction(viewHolder)) {
+				return 0;
+			}
+			if (flagsCache == null) {
+				return dragAdapter.getItemDragFlags(viewHolder.getAdapterPosition());
+			}
+			int flags = flagsCache.get(viewHolder);
+			if (flags == MovementFlagsCache.NO_FLAGS) {
+				flags = dragAdapter.getItemDragFlags(viewHolder.getAdapterPosition());
+				this.flagsCache.put(viewHolder, flags);
+			}
+			return flags;
 		}
 
 		/**
@@ -555,14 +579,29 @@ public final class ItemDragHelper extends RecyclerViewItemHelper<ItemDragHelper.
 				@NonNull final RecyclerView.ViewHolder current,
 				@NonNull final RecyclerView.ViewHolder target
 		) {
-			if (shouldHandleInteraction(current) && shouldHandleInteraction(target)) {
-				final int fromPosition = current.getAdapterPosition();
-				final int toPosition = target.getAdapterPosition();
-				if (fromPosition != toPosition && (fromPosition != movingFromPosition || toPosition != movingToPosition)) {
-					return dragAdapter.onMoveItem(movingFromPosition = fromPosition, movingToPosition = toPosition);
+			final boolean tracing = RecyclerTracing.isEnabled();
+			if (tracing) TraceCompat.beginSection(TRACE_MOVE);
+			try {
+				final long startTimeNanos = metricsTracker == null ? 0 : System.nanoTime();
+				boolean moved = false;
+				if (shouldHandleInteraction(current) && shouldHandleInteraction(target)) {
+					final int fromPosition = current.getAdapterPosition();
+					final int toPosition = target.getAdapterPosition();
+					if (fromPosition != toPosition && (fromPosition != movingFromPosition || toPosition != movingToPosition)) {
+						final long adapterStartTimeNanos = metricsTracker == null ? 0 : System.nanoTime();
+						moved = dragAdapter.onMoveItem(movingFromPosition = fromPosition, movingToPosition = toPosition);
+						if (metricsTracker != null) {
+							this.metricsTracker.recordCallback(InteractionMetrics.CALLBACK_ADAPTER, adapterStartTimeNanos);
+						}
+					}
 				}
+				if (metricsTracker != null) {
+					this.metricsTracker.recordCallback(InteractionMetrics.CALLBACK_MOVE, startTimeNanos);
+				}
+				return moved;
+			} finally {
+				if (tracing) TraceCompat.endSection();
 			}
-			return false;
 		}
 
 		/**
@@ -578,14 +617,27 @@ public final class ItemDragHelper extends RecyclerViewItemHelper<ItemDragHelper.
 				@NonNull final RecyclerView.ViewHolder current,
 				@NonNull final RecyclerView.ViewHolder target
 		) {
-			return shouldHandleInteraction(current) && shouldHandleInteraction(target)
-					&& dragAdapter.canDropItemOver(current.getAdapterPosition(), target.getAdapterPosition());
+			final boolean tracing = RecyclerTracing.isEnabled();
+			if (tracing) TraceCompat.beginSection(TRACE_CAN_DROP_OVER);
+			try {
+				if (!shouldHandleInteraction(current) || !shouldHandleInteraction(target)) {
+					return false;
+				}
+				final long startTimeNanos = metricsTracker == null ? 0 : System.nanoTime();
+				final boolean canDrop = dragAdapter.canDropItemOver(current.getAdapterPosition(), target.getAdapterPosition());
+				if (metricsTracker != null) {
+					this.metricsTracker.recordCallback(InteractionMetrics.CALLBACK_ADAPTER, startTimeNanos);
+				}
+				return canDrop;
+			} finally {
+				if (tracing) TraceCompat.endSection();
+			}
 		}
 
 		/**
 		 */
 		@Override public void clearView(@NonNull final RecyclerView recyclerView, @NonNull final RecyclerView.ViewHolder viewHolder) {
-			super.clearView(recyclerView, viewHolder);
+			final boolean released = clearInteractiveView(recyclerView, viewHolder);
 			if (shouldHandleInteraction() && viewHolder instanceof DragViewHolder) {
 				final int draggingToPosition = viewHolder.getAdapterPosition();
 				if (draggingFromPosition != RecyclerView.NO_POSITION) {
@@ -595,6 +647,10 @@ public final class ItemDragHelper extends RecyclerViewItemHelper<ItemDragHelper.
 				}
 				this.resetState();
 			}
+			// Metrics are finished after the finish callbacks, so their duration is included.
+			if (released) {
+				this.finishInteractionMetrics();
+			}
 		}
 
 		/**
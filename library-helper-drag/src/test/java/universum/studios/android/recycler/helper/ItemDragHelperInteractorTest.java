@@ -25,6 +25,7 @@ import android.view.View;
 
 import org.hamcrest.core.Is;
 import org.junit.Test;
+import org.mockito.InOrder;
 
 import java.lang.reflect.Field;
 
@@ -35,6 +36,7 @@ import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNull.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -333,6 +335,25 @@ public final class ItemDragHelperInteractorTest extends RobolectricTestCase {
 		verifyNoMoreInteractions(mockAdapter);
 	}
 
+	@Test public void testGetMovementFlagsWithCaching() throws Exception {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final TestAdapter mockAdapter = mock(TestAdapter.class);
+		final ItemDragHelper.Interactor interactor = new ItemDragHelper.Interactor();
+		interactor.setMovementFlagsCaching(ItemDragHelper.MOVEMENT_FLAGS_CACHING_POSITION);
+		interactor.attachAdapter(mockAdapter);
+		when(mockAdapter.getItemDragFlags(1)).thenReturn(ItemDragHelper.makeDragFlags(ItemDragHelper.UP));
+		final TestHolder mockHolder = createMockHolder(new View(application), 1);
+		// Act + Assert:
+		for (int i = 0; i < 3; i++) {
+			assertThat(interactor.getMovementFlags(mockRecyclerView, mockHolder), is(ItemDragHelper.makeDragFlags(ItemDragHelper.UP)));
+		}
+		verify(mockAdapter).getItemDragFlags(1);
+		interactor.invalidateMovementFlags();
+		assertThat(interactor.getMovementFlags(mockRecyclerView, mockHolder), is(ItemDragHelper.makeDragFlags(ItemDragHelper.UP)));
+		verify(mockAdapter, times(2)).getItemDragFlags(1);
+	}
+
 	@Test public void testGetMovementFlagsForNotDragHolder() {
 		// Arrange:
 		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
@@ -639,6 +660,25 @@ public final class ItemDragHelperInteractorTest extends RobolectricTestCase {
 		verifyNoMoreInteractions(mockAdapter, mockListener);
 	}
 
+	@Test public void testClearViewFinishesInteractionMetricsAfterDragFinished() throws Exception {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final TestAdapter mockAdapter = mock(TestAdapter.class);
+		final TestHolder mockHolder = createMockHolder(new View(application));
+		final RecyclerViewItemHelper.OnInteractionMetricsListener mockMetricsListener = mock(RecyclerViewItemHelper.OnInteractionMetricsListener.class);
+		final ItemDragHelper helper = new ItemDragHelper();
+		final ItemDragHelper.Interactor interactor = helper.getInteractor();
+		interactor.attachAdapter(mockAdapter);
+		helper.setOnInteractionMetricsListener(mockMetricsListener);
+		interactor.onSelectedChanged(mockHolder, ItemTouchHelper.ACTION_STATE_DRAG);
+		// Act:
+		interactor.clearView(mockRecyclerView, mockHolder);
+		// Assert:
+		final InOrder inOrder = inOrder(mockAdapter, mockMetricsListener);
+		inOrder.verify(mockAdapter).onItemDragFinished(0, mockHolder.getAdapterPosition());
+		inOrder.verify(mockMetricsListener).onInteractionMetrics(helper, interactor.metricsTracker.metrics);
+	}
+
 	@Test public void testClearViewForNotDragHolder() throws Exception {
 		// Arrange:
 		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
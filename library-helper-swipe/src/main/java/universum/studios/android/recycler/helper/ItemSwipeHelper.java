@@ -23,6 +23,7 @@ import android.support.annotation.IntRange;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
+import android.support.v4.os.TraceCompat;
 import android.support.v4.view.animation.FastOutSlowInInterpolator;
 import android.support.v7.widget.DefaultItemAnimator;
 import android.support.v7.widget.RecyclerView;
@@ -33,6 +34,8 @@ import android.view.animation.Interpolator;
 import java.util.ArrayList;
 import java.util.List;
 
+import universum.studios.android.recycler.RecyclerTracing;
+
 /**
  * A {@link RecyclerViewItemHelper} that may be used to support <b>swipe</b> feature for items
  * displayed in a {@link RecyclerView} widget. Instance of this helper may be simply created via
@@ -68,6 +71,11 @@ public final class ItemSwipeHelper extends RecyclerViewItemHelper<ItemSwipeHelpe
 	 */
 	// private static final String TAG = "ItemSwipeHelper";
 
+	/**
+	 * Name of the trace section wrapping {@link #restoreHolder(RecyclerView.ViewHolder, int, Runnable)}.
+	 */
+	private static final String TRACE_RESTORE_HOLDER = "ItemSwipeHelper.restoreHolder";
+
 	/**
 	 * Interaction constant specific for {@link ItemSwipeHelper}.
 	 *
@@ -330,58 +338,64 @@ public final class ItemSwipeHelper extends RecyclerViewItemHelper<ItemSwipeHelpe
 			@Direction final int direction,
 			@Nullable final Runnable animationCallback
 	) {
-		final int holderPosition = viewHolder.getAdapterPosition();
-		if (viewHolder instanceof SwipeViewHolder && holderPosition != RecyclerView.NO_POSITION) {
-			// Restore holder's swipe view and when restore animation finishes notify the adapter
-			// that item at the holder's position has changed so view for the item is again properly
-			// drawn by the parent RecyclerView.
-			final View swipeView = ((SwipeViewHolder) viewHolder).getInteractiveView(INTERACTION);
-			if (swipeView == null) {
-				return false;
-			}
-			ViewPropertyAnimator animator = null;
-			switch (direction) {
-				case LEFT:
-				case RIGHT:
-				case START:
-				case END:
-					if (swipeView.getTranslationX() != 0) {
-						animator = swipeView.animate().translationX(0);
-					}
-					break;
-				case UP:
-				case DOWN:
-					if (swipeView.getTranslationY() != 0) {
-						animator = swipeView.animate().translationY(0);
-					}
-					break;
-				default:
-					// Unknown direction specified.
+		final boolean tracing = RecyclerTracing.isEnabled();
+		if (tracing) TraceCompat.beginSection(TRACE_RESTORE_HOLDER);
+		try {
+			final int holderPosition = viewHolder.getAdapterPosition();
+			if (viewHolder instanceof SwipeViewHolder && holderPosition != RecyclerView.NO_POSITION) {
+				// Restore holder's swipe view and when restore animation finishes notify the adapter
+				// that item at the holder's position has changed so view for the item is again properly
+				// drawn by the parent RecyclerView.
+				final View swipeView = ((SwipeViewHolder) viewHolder).getInteractiveView(INTERACTION);
+				if (swipeView == null) {
 					return false;
-			}
-			final Runnable notify = new Runnable() {
-
-				/**
-				 */
-				@Override
-				public void run() {
-					if (interactor.adapter != null) {
-						interactor.adapter.notifyItemChanged(holderPosition);
-					}
-					if (animationCallback != null) {
-						animationCallback.run();
+				}
+				ViewPropertyAnimator animator = null;
+				switch (direction) {
+					case LEFT:
+					case RIGHT:
+					case START:
+					case END:
+						if (swipeView.getTranslationX() != 0) {
+							animator = swipeView.animate().translationX(0);
+						}
+						break;
+					case UP:
+					case DOWN:
+						if (swipeView.getTranslationY() != 0) {
+							animator = swipeView.animate().translationY(0);
+						}
+						break;
+					default:
+						// Unknown direction specified.
+						return false;
+				}
+				final Runnable notify = new Runnable() {
+
+					/**
+					 */
+					@Override
+					public void run() {
+						if (interactor.adapter != null) {
+							interactor.adapter.notifyItemChanged(holderPosition);
+						}
+						if (animationCallback != null) {
+							animationCallback.run();
+						}
 					}
+				};
+				if (animator == null) {
+					notify.run();
+				} else {
+					animator.setDuration(restoreHolderAnimationDuration).setInterpolator(restoreHolderAnimationInterpolator).start();
+					swipeView.postDelayed(notify, restoreHolderAnimationDuration);
 				}
-			};
-			if (animator == null) {
-				notify.run();
-			} else {
-				animator.setDuration(restoreHolderAnimationDuration).setInterpolator(restoreHolderAnimationInterpolator).start();
-				swipeView.postDelayed(notify, restoreHolderAnimationDuration);
+				return true;
 			}
-			return true;
+			return false;
+		} finally {
+			if (tracing) TraceCompat.endSection();
 		}
-		return false;
 	}
 
 	/*
@@ -610,7 +624,18 @@ public final class ItemSwipeHelper extends RecyclerViewItemHelper<ItemSwipeHelpe
 		/**
 		 */
 		@Override public int getMovementFlags(@NonNull final RecyclerView recyclerView, @NonNull final RecyclerView.ViewHolder viewHolder) {
-			return shouldHandleInteraction(viewHolder) ? swipeAdapter.getItemSwipeFlags(viewHolder.getAdapterPosition()) : 0;
+			if (!shouldHandleInteraction(viewHolder)) {
+				return 0;
+			}
+			if (flagsCache == null) {
+				return swipeAdapter.getItemSwipeFlags(viewHolder.getAdapterPosition());
+			}
+			int flags = flagsCache.get(viewHolder);
+			if (flags == MovementFlagsCache.NO_FLAGS) {
+				flags = swipeAdapter.getItemSwipeFlags(viewHolder.getAdapterPosition());
+				this.flagsCache.put(viewHolder, flags);
+			}
+			return flags;
 		}
 
 		/**
@@ -621,7 +646,7 @@ public final class ItemSwipeHelper extends RecyclerViewItemHelper<ItemSwipeHelpe
 					case INTERACTION:
 						this.swiping = true;
 						final SwipeViewHolder swipeViewHolder = (SwipeViewHolder) viewHolder;
-						final View interactiveView = swipeViewHolder.getInteractiveView(INTERACTION);
+						final View interactiveView = selectInteractiveView(viewHolder, INTERACTION);
 						if (interactiveView == null) {
 							super.onSelectedChanged(viewHolder, actionState);
 						} else {
@@ -668,9 +693,11 @@ public final class ItemSwipeHelper extends RecyclerViewItemHelper<ItemSwipeHelpe
 			if (shouldHandleInteraction() && viewHolder instanceof SwipeViewHolder) {
 				final SwipeViewHolder swipeViewHolder = (SwipeViewHolder) viewHolder;
 				final View interactiveView = swipeViewHolder.getInteractiveView(INTERACTION);
+				final boolean released;
 				if (interactiveView == null) {
-					super.clearView(recyclerView, viewHolder);
+					released = clearInteractiveView(recyclerView, viewHolder);
 				} else {
+					released = releaseInteractiveView(viewHolder);
 					getDefaultUIUtil().clearView(interactiveView);
 				}
 				if (viewHolder.getAdapterPosition() != RecyclerView.NO_POSITION && !recyclerView.isComputingLayout()) {
@@ -678,6 +705,10 @@ public final class ItemSwipeHelper extends RecyclerViewItemHelper<ItemSwipeHelpe
 					notifySwipeCanceled(viewHolder);
 				}
 				this.resetState();
+				// Metrics are finished after the cancel callbacks, so their duration is included.
+				if (released) {
+					this.finishInteractionMetrics();
+				}
 			} else {
 				super.clearView(recyclerView, viewHolder);
 			}
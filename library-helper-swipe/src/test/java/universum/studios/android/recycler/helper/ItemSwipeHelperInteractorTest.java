@@ -309,6 +309,23 @@ public final class ItemSwipeHelperInteractorTest extends RobolectricTestCase {
 		verify(mockAdapter).getItemSwipeFlags(0);
 	}
 
+	@Test public void testGetMovementFlagsWithCaching() throws Exception {
+		// Arrange:
+		final RecyclerView mockRecyclerView = mock(RecyclerView.class);
+		final TestAdapter mockAdapter = mock(TestAdapter.class);
+		final ItemSwipeHelper.Interactor interactor = new ItemSwipeHelper.Interactor();
+		interactor.setMovementFlagsCaching(ItemSwipeHelper.MOVEMENT_FLAGS_CACHING_VIEW_TYPE);
+		interactor.attachAdapter(mockAdapter);
+		final int itemSwipeFlags = ItemSwipeHelper.makeSwipeFlags(ItemSwipeHelper.START | ItemSwipeHelper.END);
+		when(mockAdapter.getItemSwipeFlags(0)).thenReturn(itemSwipeFlags);
+		final TestHolder mockViewHolderFirst = createMockHolder(new View(application), 0);
+		final TestHolder mockViewHolderSecond = createMockHolder(new View(application), 1);
+		// Act + Assert:
+		assertThat(interactor.getMovementFlags(mockRecyclerView, mockViewHolderFirst), is(itemSwipeFlags));
+		assertThat(interactor.getMovementFlags(mockRecyclerView, mockViewHolderSecond), is(itemSwipeFlags));
+		verify(mockAdapter).getItemSwipeFlags(0);
+	}
+
 	@Test public void testGetMovementFlagsForNotSwipeHolder() {
 		// Arrange:
 		final RecyclerView mockRecyclerView = mock(RecyclerView.class);